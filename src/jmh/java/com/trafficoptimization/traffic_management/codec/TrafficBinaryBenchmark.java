@@ -0,0 +1,98 @@
+package com.trafficoptimization.traffic_management.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a batch request body in the binary format against the JSON array the batch endpoint
+ * otherwise receives, with the ObjectMapper configuration Spring MVC uses. Sizes on the wire are
+ * printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrafficBinaryBenchmark {
+
+    @Param({"1000", "10000"})
+    private int records;
+
+    @Param({"500"})
+    private int segments;
+
+    private ObjectReader jsonReader;
+    private List<TrafficData> trafficData;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jsonReader = objectMapper.readerForListOf(TrafficData.class);
+
+        // Readings of a sensor feed: every segment reports in turn, timestamps advance steadily
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        trafficData = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            trafficData.add(new TrafficData(null, start.plusNanos(i * 250_000_000L), "A8-KM" + (i % segments) + "-" + (i % segments + 1),
+                    random.nextInt(150), random.nextDouble() * 130.0, random.nextDouble()));
+        }
+        json = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, TrafficData.class))
+                .writeValueAsBytes(trafficData);
+        binary = encodeBinary();
+        System.out.printf("%n%d readings: JSON %d bytes (%.1f per reading), binary %d bytes (%.1f per reading)%n",
+                records, json.length, (double) json.length / records, binary.length, (double) binary.length / records);
+    }
+
+    @Benchmark
+    public List<TrafficData> decodeJson() throws IOException {
+        return jsonReader.readValue(new ByteArrayInputStream(json));
+    }
+
+    @Benchmark
+    public List<TrafficData> decodeBinary() throws IOException {
+        List<TrafficData> decoded = new ArrayList<>();
+        try (TrafficBinaryReader reader = new TrafficBinaryReader(new ByteArrayInputStream(binary))) {
+            for (TrafficData data = reader.read(); data != null; data = reader.read()) {
+                decoded.add(data);
+            }
+        }
+        return decoded;
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(records * 32);
+        try (TrafficBinaryWriter writer = new TrafficBinaryWriter(out)) {
+            for (TrafficData data : trafficData) {
+                writer.write(data);
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,91 @@
+package com.trafficoptimization.traffic_management.forecast;
+
+import com.trafficoptimization.traffic_management.emissions.EmissionsModels;
+import com.trafficoptimization.traffic_management.emissions.EmissionsProfileSet;
+import com.trafficoptimization.traffic_management.model.CongestionForecast;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording one reading, within its slot and when it closes the previous one, and of
+ * forecasting one segment and ranking the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrafficForecasterBenchmark {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 8, 0);
+    private static final List<Integer> HORIZONS = List.of(15, 30, 60);
+
+    @Param({"1000", "10000"})
+    private int segments;
+
+    private TrafficForecaster forecaster;
+    private TrafficData sameSlot;
+    private TrafficData nextSlot;
+
+    @Setup
+    public void setUp() {
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        SegmentRegistry segmentRegistry = new SegmentRegistry();
+        forecaster = new TrafficForecaster(null, segmentRegistry,
+                new EmissionsModels(segmentRegistry, EmissionsProfileSet.standard()), Duration.ofMinutes(15),
+                0.3, 0.05, 0.2, 0.9, Duration.ZERO, Duration.ofHours(6), clock);
+        Random random = new Random(42);
+        // Two days of readings per segment, one per slot
+        for (int i = 0; i < segments; i++) {
+            for (LocalDateTime at = NOW.minusDays(2); at.isBefore(NOW); at = at.plusMinutes(15)) {
+                forecaster.record(new TrafficData(null, at, "S" + i, 40 + random.nextInt(80),
+                        30 + random.nextDouble() * 60, random.nextDouble()));
+            }
+        }
+        sameSlot = new TrafficData(null, NOW.minusMinutes(1), "S0", 80, 30.0, 0.8);
+        nextSlot = new TrafficData(null, NOW, "S1", 80, 30.0, 0.8);
+    }
+
+    @Benchmark
+    public void recordWithinSlot() {
+        forecaster.record(sameSlot);
+    }
+
+    @Benchmark
+    public void recordClosingSlot() {
+        // Each call opens the following slot, folding the previous one
+        nextSlot.setTimestamp(nextSlot.getTimestamp().plusMinutes(15));
+        forecaster.record(nextSlot);
+    }
+
+    @Benchmark
+    public Optional<CongestionForecast> forecastOne() {
+        return forecaster.forecast("S2", HORIZONS);
+    }
+
+    @Benchmark
+    public List<CongestionForecast> mostCongested() {
+        return forecaster.getMostCongested(30, 10);
+    }
+}
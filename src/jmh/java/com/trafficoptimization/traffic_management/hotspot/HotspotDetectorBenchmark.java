@@ -0,0 +1,70 @@
+package com.trafficoptimization.traffic_management.hotspot;
+
+import com.trafficoptimization.traffic_management.model.Hotspot;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording one reading and of ranking the current hotspots across the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotspotDetectorBenchmark {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 8, 30);
+
+    @Param({"1000", "10000"})
+    private int segments;
+
+    private HotspotDetector detector;
+    private TrafficData reading;
+
+    @Setup
+    public void setUp() {
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        detector = new HotspotDetector(null, new SegmentRegistry(), Duration.ofMinutes(15), 0.7, 64, clock);
+        Random random = new Random(42);
+        // Thirty readings per segment, one every 30 seconds, a quarter of the segments congested
+        for (int i = 0; i < segments; i++) {
+            double base = i % 4 == 0 ? 0.75 : 0.3;
+            for (int r = 30; r > 0; r--) {
+                detector.record(new TrafficData(null, NOW.minusSeconds(r * 30L), "S" + i, 80, 30.0,
+                        Math.min(1.0, base + random.nextDouble() * 0.2)));
+            }
+        }
+        reading = new TrafficData(null, NOW, "S0", 80, 30.0, 0.8);
+    }
+
+    @Benchmark
+    public List<Hotspot> topTen() {
+        return detector.getHotspots(10);
+    }
+
+    @Benchmark
+    public void record() {
+        detector.record(reading);
+    }
+}
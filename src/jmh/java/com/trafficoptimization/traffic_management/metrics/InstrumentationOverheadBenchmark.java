@@ -0,0 +1,103 @@
+package com.trafficoptimization.traffic_management.metrics;
+
+import com.trafficoptimization.traffic_management.aggregate.SegmentAggregateStore;
+import com.trafficoptimization.traffic_management.emissions.EmissionsModels;
+import com.trafficoptimization.traffic_management.emissions.EmissionsProfileSet;
+import com.trafficoptimization.traffic_management.model.RoadClass;
+import com.trafficoptimization.traffic_management.model.RoadSegment;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.recent.RecentReadingStore;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import com.trafficoptimization.traffic_management.service.EmissionsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the service instrumentation itself. {@code estimate} is the per-segment emissions
+ * estimate, the cheapest instrumented call and so the one where two timed phases weigh most;
+ * {@code record} is one timed no-op, the fixed cost every instrumented call pays. The {@code none}
+ * registry hands out no-op meters and gives the uninstrumented baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentationOverheadBenchmark {
+
+    @Param({"none", "simple", "prometheus"})
+    private String registry;
+
+    private static final int SEGMENTS = 500;
+
+    private EmissionsService emissionsService;
+    private OperationMeters meters;
+    private String[] segmentIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry meterRegistry = switch (registry) {
+            case "none" -> new CompositeMeterRegistry();
+            case "simple" -> new SimpleMeterRegistry();
+            case "prometheus" -> new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+            default -> throw new IllegalArgumentException(registry);
+        };
+        SegmentRegistry segmentRegistry = new SegmentRegistry();
+        SegmentAggregateStore store = new SegmentAggregateStore(null, segmentRegistry);
+        RoadClass[] roadClasses = RoadClass.values();
+        segmentIds = new String[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segmentIds[i] = "A" + (i % 20) + "-KM" + i + "-" + (i + 1);
+            segmentRegistry.describe(new RoadSegment(segmentIds[i], roadClasses[i % roadClasses.length], 1.0, null));
+        }
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < SEGMENTS * 20; i++) {
+            TrafficData data = new TrafficData(null, start.plusSeconds(i * 30L), segmentIds[i % SEGMENTS],
+                    random.nextInt(150), random.nextDouble() * 130.0, random.nextDouble());
+            store.record(data);
+        }
+        emissionsService = new EmissionsService(store,
+                new RecentReadingStore(null, segmentRegistry, new SimpleMeterRegistry(), Duration.ofHours(6), 0), null,
+                new EmissionsModels(segmentRegistry, EmissionsProfileSet.standard()), segmentRegistry, meterRegistry);
+        meters = new OperationMeters(meterRegistry, segmentRegistry, "benchmark.operation", "Benchmark");
+    }
+
+    @Benchmark
+    public Object estimate() {
+        return emissionsService.estimateEmissionsForRoadSegment(nextSegment());
+    }
+
+    @Benchmark
+    public Object record() {
+        String segmentId = nextSegment();
+        return meters.of("record", segmentId).time(() -> segmentId);
+    }
+
+    private String nextSegment() {
+        String segmentId = segmentIds[next];
+        next = next + 1 == SEGMENTS ? 0 : next + 1;
+        return segmentId;
+    }
+}
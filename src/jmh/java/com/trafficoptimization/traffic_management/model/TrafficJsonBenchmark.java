@@ -0,0 +1,93 @@
+package com.trafficoptimization.traffic_management.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of the API payloads with the same ObjectMapper configuration Spring MVC
+ * uses, at single-reading and list-endpoint sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrafficJsonBenchmark {
+
+    @Param({"1", "1000"})
+    private int records;
+
+    private ObjectWriter trafficWriter;
+    private ObjectReader trafficReader;
+    private ObjectWriter emissionsWriter;
+    private ObjectReader emissionsReader;
+    private List<TrafficData> trafficData;
+    private List<EmissionsEstimate> estimates;
+    private byte[] trafficJson;
+    private byte[] emissionsJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        trafficWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, TrafficData.class));
+        trafficReader = objectMapper.readerForListOf(TrafficData.class);
+        emissionsWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, EmissionsEstimate.class));
+        emissionsReader = objectMapper.readerForListOf(EmissionsEstimate.class);
+
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        trafficData = new ArrayList<>(records);
+        estimates = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            String segmentId = "A8-KM" + (i % 500) + "-" + (i % 500 + 1);
+            LocalDateTime timestamp = start.plusSeconds(i * 30L);
+            double speed = random.nextDouble() * 130.0;
+            double congestion = random.nextDouble();
+            trafficData.add(new TrafficData((long) i + 1, timestamp, segmentId, random.nextInt(150), speed, congestion));
+            estimates.add(new EmissionsEstimate(segmentId, timestamp, random.nextDouble() * 500, random.nextDouble() * 300,
+                    random.nextDouble() * 20, random.nextInt(150), speed, congestion));
+        }
+        trafficJson = trafficWriter.writeValueAsBytes(trafficData);
+        emissionsJson = emissionsWriter.writeValueAsBytes(estimates);
+    }
+
+    @Benchmark
+    public byte[] serializeTrafficData() throws Exception {
+        return trafficWriter.writeValueAsBytes(trafficData);
+    }
+
+    @Benchmark
+    public List<TrafficData> deserializeTrafficData() throws Exception {
+        return trafficReader.readValue(trafficJson);
+    }
+
+    @Benchmark
+    public byte[] serializeEmissionsEstimates() throws Exception {
+        return emissionsWriter.writeValueAsBytes(estimates);
+    }
+
+    @Benchmark
+    public List<EmissionsEstimate> deserializeEmissionsEstimates() throws Exception {
+        return emissionsReader.readValue(emissionsJson);
+    }
+}
@@ -0,0 +1,214 @@
+package com.trafficoptimization.traffic_management.segment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.ref.Reference;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-batch work of the in-memory listeners keyed by segment id strings, as they were, against the
+ * same work keyed by {@link SegmentRegistry} handles: two per-segment state lookups (aggregates and
+ * hotspot windows), deduplicating the touched segments for cache eviction, and one live subscriber's
+ * segment filter. Readings arrive with freshly deserialized id strings in both cases. Run with
+ * {@code -prof gc} for the allocation per batch; retained heap per segment and per buffered reading
+ * is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g", "-XX:+UseSerialGC"})
+public class SegmentKeyingBenchmark {
+
+    @Param({"1000", "100000"})
+    private int segments;
+
+    @Param({"500"})
+    private int batchSize;
+
+    private String[] batchIds;
+    private double[] batchValues;
+
+    private ConcurrentMap<String, Slot> aggregatesById;
+    private ConcurrentMap<String, Slot> windowsById;
+    private Set<String> subscribedIds;
+
+    private SegmentRegistry registry;
+    private SegmentTable<Slot> aggregatesByHandle;
+    private SegmentTable<Slot> windowsByHandle;
+    private BitSet subscribedHandles;
+
+    @Setup
+    public void setUp() {
+        registry = new SegmentRegistry();
+        aggregatesById = new ConcurrentHashMap<>();
+        windowsById = new ConcurrentHashMap<>();
+        aggregatesByHandle = new SegmentTable<>();
+        windowsByHandle = new SegmentTable<>();
+        for (int i = 0; i < segments; i++) {
+            String id = segmentId(i);
+            aggregatesById.put(id, new Slot());
+            windowsById.put(id, new Slot());
+            int handle = registry.intern(id);
+            aggregatesByHandle.computeIfAbsent(handle, h -> new Slot());
+            windowsByHandle.computeIfAbsent(handle, h -> new Slot());
+        }
+        subscribedIds = new HashSet<>();
+        subscribedHandles = new BitSet();
+        for (int i = 0; i < 10; i++) {
+            subscribedIds.add(segmentId(i * 7));
+            subscribedHandles.set(registry.find(segmentId(i * 7)));
+        }
+
+        Random random = new Random(42);
+        batchIds = new String[batchSize];
+        batchValues = new double[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            // A new instance, as Jackson or JDBC hands it over
+            batchIds[i] = new String(segmentId(random.nextInt(segments)).toCharArray());
+            batchValues[i] = random.nextDouble();
+        }
+
+        printFootprint();
+    }
+
+    @Benchmark
+    public int stringKeyed() {
+        int delivered = 0;
+        Set<String> touched = new HashSet<>();
+        for (int i = 0; i < batchSize; i++) {
+            String id = batchIds[i];
+            aggregatesById.computeIfAbsent(id, key -> new Slot()).add(batchValues[i]);
+            windowsById.computeIfAbsent(id, key -> new Slot()).add(batchValues[i]);
+            touched.add(id);
+            if (subscribedIds.contains(id)) {
+                delivered++;
+            }
+        }
+        return delivered + touched.size();
+    }
+
+    @Benchmark
+    public int handleKeyed() {
+        int delivered = 0;
+        int[] touched = new int[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            int handle = registry.intern(batchIds[i]);
+            aggregatesByHandle.computeIfAbsent(handle, h -> new Slot()).add(batchValues[i]);
+            windowsByHandle.computeIfAbsent(handle, h -> new Slot()).add(batchValues[i]);
+            touched[i] = handle;
+            if (subscribedHandles.get(handle)) {
+                delivered++;
+            }
+        }
+        Arrays.sort(touched);
+        int distinct = 0;
+        for (int i = 0; i < touched.length; i++) {
+            if (i == 0 || touched[i] != touched[i - 1]) {
+                distinct++;
+            }
+        }
+        return delivered + distinct;
+    }
+
+    private void printFootprint() {
+        int count = segments;
+        long byId = retainedBytes(() -> {
+            ConcurrentMap<String, Slot> aggregates = new ConcurrentHashMap<>();
+            ConcurrentMap<String, Slot> windows = new ConcurrentHashMap<>();
+            for (int i = 0; i < count; i++) {
+                String id = segmentId(i);
+                aggregates.put(id, new Slot());
+                windows.put(id, new Slot());
+            }
+            return new Object[] {aggregates, windows};
+        });
+        long byHandle = retainedBytes(() -> {
+            SegmentRegistry handles = new SegmentRegistry();
+            SegmentTable<Slot> aggregates = new SegmentTable<>();
+            SegmentTable<Slot> windows = new SegmentTable<>();
+            for (int i = 0; i < count; i++) {
+                int handle = handles.intern(segmentId(i));
+                aggregates.computeIfAbsent(handle, h -> new Slot());
+                windows.computeIfAbsent(handle, h -> new Slot());
+            }
+            return new Object[] {handles, aggregates, windows};
+        });
+        // Ids of buffered readings: one copy per reading, or the registry's shared instance
+        int readings = 100_000;
+        long perReading = retainedBytes(() -> {
+            String[] ids = new String[readings];
+            for (int i = 0; i < readings; i++) {
+                ids[i] = new String(segmentId(i % count).toCharArray());
+            }
+            return ids;
+        });
+        long canonical = retainedBytes(() -> {
+            String[] ids = new String[readings];
+            for (int i = 0; i < readings; i++) {
+                ids[i] = registry.canonical(new String(segmentId(i % count).toCharArray()));
+            }
+            return ids;
+        });
+        System.out.printf("%n%d segments: %.1f bytes/segment keyed by id, %.1f keyed by handle; "
+                        + "buffered reading ids %.1f bytes/reading as copies, %.1f canonical%n",
+                count, (double) byId / count, (double) byHandle / count,
+                (double) perReading / readings, (double) canonical / readings);
+    }
+
+    // Heap used with and without the allocation, both taken in this frame; the smallest of a few
+    // rounds, as a full collection may still find garbage of earlier frames reachable
+    private static long retainedBytes(Supplier<Object> allocation) {
+        long smallest = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            Object retained = allocation.get();
+            long with = usedHeap();
+            Reference.reachabilityFence(retained);
+            retained = null;
+            smallest = Math.min(smallest, with - usedHeap());
+        }
+        return smallest;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String segmentId(int index) {
+        return "A" + (index % 100) + "-KM" + index + "-" + (index + 1);
+    }
+
+    private static final class Slot {
+
+        private long count;
+        private double sum;
+
+        synchronized void add(double value) {
+            count++;
+            sum += value;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of deriving the congestion level for readings that arrive without one, as done on every
+ * save before the reading is persisted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CongestionDerivationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int readings;
+
+    private TrafficData[] batch;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        batch = new TrafficData[readings];
+        for (int i = 0; i < readings; i++) {
+            batch[i] = new TrafficData(null, start.plusSeconds(i * 30L), "A8-KM" + (i % 500),
+                    random.nextInt(150), random.nextDouble() * 130.0, null);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCongestion() {
+        // Derivation only fills in missing levels, so every invocation starts from unset readings
+        for (TrafficData data : batch) {
+            data.setCongestionLevel(null);
+        }
+    }
+
+    @Benchmark
+    public void deriveCongestionLevel(Blackhole blackhole) {
+        for (TrafficData data : batch) {
+            TrafficServiceImpl.deriveCongestionLevel(data);
+        }
+        blackhole.consume(batch);
+    }
+}
@@ -0,0 +1,187 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.trafficoptimization.traffic_management.aggregate.SegmentAggregateStore;
+import com.trafficoptimization.traffic_management.emissions.EmissionsModel;
+import com.trafficoptimization.traffic_management.emissions.EmissionsModels;
+import com.trafficoptimization.traffic_management.emissions.EmissionsProfileSet;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.recent.RecentReadingStore;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the compiled standard emissions model over a batch of readings, against the
+ * if/else formulas it replaced, and of the per-segment estimate served from the aggregate store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmissionsCalculationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int readings;
+
+    @Param({"500"})
+    private int segments;
+
+    private double[] vehicleCounts;
+    private double[] speeds;
+    private double[] congestionLevels;
+    private double[] co2;
+    private double[] nox;
+    private double[] pm;
+    private EmissionsModel model;
+    private EmissionsService emissionsService;
+    private String[] segmentIds;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        vehicleCounts = new double[readings];
+        speeds = new double[readings];
+        congestionLevels = new double[readings];
+        co2 = new double[readings];
+        nox = new double[readings];
+        pm = new double[readings];
+
+        SegmentRegistry segmentRegistry = new SegmentRegistry();
+
+        SegmentAggregateStore store = new SegmentAggregateStore(null, segmentRegistry);
+        segmentIds = new String[segments];
+        for (int i = 0; i < segments; i++) {
+            segmentIds[i] = "A" + (i % 20) + "-KM" + i + "-" + (i + 1);
+        }
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < readings; i++) {
+            TrafficData data = new TrafficData(null, start.plusSeconds(i * 30L), segmentIds[i % segments],
+                    random.nextInt(150), random.nextDouble() * 130.0, null);
+            TrafficServiceImpl.deriveCongestionLevel(data);
+            vehicleCounts[i] = data.getVehicleCount();
+            speeds[i] = data.getAverageSpeed();
+            congestionLevels[i] = data.getCongestionLevel();
+            store.record(data);
+        }
+        model = EmissionsModel.standard();
+        emissionsService = new EmissionsService(store,
+                new RecentReadingStore(null, segmentRegistry, new SimpleMeterRegistry(), Duration.ofHours(6), 0), null,
+                new EmissionsModels(segmentRegistry, EmissionsProfileSet.standard()), segmentRegistry, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public double co2() {
+        double total = 0;
+        for (int i = 0; i < readings; i++) {
+            total += model.co2(vehicleCounts[i], speeds[i], congestionLevels[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double nox() {
+        double total = 0;
+        for (int i = 0; i < readings; i++) {
+            total += model.nox(vehicleCounts[i], speeds[i], congestionLevels[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double particulateMatter() {
+        double total = 0;
+        for (int i = 0; i < readings; i++) {
+            total += model.particulateMatter(vehicleCounts[i], speeds[i], congestionLevels[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double[] scalarAllPollutants() {
+        for (int i = 0; i < readings; i++) {
+            co2[i] = model.co2(vehicleCounts[i], speeds[i], congestionLevels[i]);
+            nox[i] = model.nox(vehicleCounts[i], speeds[i], congestionLevels[i]);
+            pm[i] = model.particulateMatter(vehicleCounts[i], speeds[i], congestionLevels[i]);
+        }
+        return pm;
+    }
+
+    @Benchmark
+    public double[] branchingAllPollutants() {
+        for (int i = 0; i < readings; i++) {
+            co2[i] = branchingCo2(vehicleCounts[i], speeds[i], congestionLevels[i]);
+            nox[i] = branchingNox(vehicleCounts[i], speeds[i], congestionLevels[i]);
+            pm[i] = branchingParticulateMatter(vehicleCounts[i], speeds[i], congestionLevels[i]);
+        }
+        return pm;
+    }
+
+    @Benchmark
+    public double[] batchAllPollutants() {
+        EmissionsBatchCalculator.calculate(model, readings, vehicleCounts, speeds, congestionLevels, co2, nox, pm);
+        return pm;
+    }
+
+    @Benchmark
+    public void estimateForEverySegment(Blackhole blackhole) {
+        for (String segmentId : segmentIds) {
+            blackhole.consume(emissionsService.estimateEmissionsForRoadSegment(segmentId));
+        }
+    }
+
+    // The standard profile as the hard-coded if/else chains it replaced, as a baseline
+
+    private static double branchingCo2(double vehicleCount, double averageSpeed, double congestionLevel) {
+        double speedFactor;
+        if (averageSpeed < 10) {
+            speedFactor = 2.0;
+        } else if (averageSpeed < 60) {
+            speedFactor = 1.5 - (averageSpeed - 10) * 0.01;
+        } else if (averageSpeed < 90) {
+            speedFactor = 1.0;
+        } else {
+            speedFactor = 1.0 + (averageSpeed - 90) * 0.02;
+        }
+        return 2.5 * vehicleCount * speedFactor * (1.0 + congestionLevel);
+    }
+
+    private static double branchingNox(double vehicleCount, double averageSpeed, double congestionLevel) {
+        double speedFactor;
+        if (averageSpeed < 20) {
+            speedFactor = 2.0;
+        } else if (averageSpeed < 60) {
+            speedFactor = 1.5 - (averageSpeed - 20) * 0.016;
+        } else {
+            speedFactor = 1.0;
+        }
+        double dieselEmissions = 1.5 * 0.4 * vehicleCount * 3.0;
+        double petrolEmissions = 1.5 * (1 - 0.4) * vehicleCount;
+        return (dieselEmissions + petrolEmissions) * speedFactor * (1.0 + (congestionLevel * 1.5));
+    }
+
+    private static double branchingParticulateMatter(double vehicleCount, double averageSpeed, double congestionLevel) {
+        double urbanFactor = congestionLevel > 0.5 ? 1.5 : 1.0;
+        double speedFactor = averageSpeed < 30 ? 1.8 : 1.0;
+        double dieselEmissions = 0.1 * 0.4 * vehicleCount * 5.0;
+        double petrolEmissions = 0.1 * (1 - 0.4) * vehicleCount;
+        return (dieselEmissions + petrolEmissions) * speedFactor * urbanFactor;
+    }
+}
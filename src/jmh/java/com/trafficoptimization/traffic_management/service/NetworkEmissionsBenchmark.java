@@ -0,0 +1,76 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.trafficoptimization.traffic_management.aggregate.SegmentAggregateStore;
+import com.trafficoptimization.traffic_management.emissions.EmissionsModels;
+import com.trafficoptimization.traffic_management.emissions.EmissionsProfileSet;
+import com.trafficoptimization.traffic_management.model.NetworkEmissionsSnapshot;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.recent.RecentReadingStore;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the network-wide emissions snapshot against one estimate call per segment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetworkEmissionsBenchmark {
+
+    @Param({"10000", "50000"})
+    private int segments;
+
+    private EmissionsService emissionsService;
+    private String[] segmentIds;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        SegmentRegistry segmentRegistry = new SegmentRegistry();
+        SegmentAggregateStore store = new SegmentAggregateStore(null, segmentRegistry);
+        segmentIds = new String[segments];
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < segments; i++) {
+            segmentIds[i] = "A" + (i % 20) + "-KM" + i + "-" + (i + 1);
+            for (int reading = 0; reading < 4; reading++) {
+                store.record(new TrafficData(null, start.plusMinutes(reading), segmentIds[i],
+                        random.nextInt(150), random.nextDouble() * 130.0, random.nextDouble()));
+            }
+        }
+        emissionsService = new EmissionsService(store,
+                new RecentReadingStore(null, segmentRegistry, new SimpleMeterRegistry(), Duration.ofHours(6), 0), null,
+                new EmissionsModels(segmentRegistry, EmissionsProfileSet.standard()), segmentRegistry, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public NetworkEmissionsSnapshot networkSnapshot() {
+        return emissionsService.estimateNetworkEmissions(null, 10, true);
+    }
+
+    @Benchmark
+    public void perSegmentEstimates(Blackhole blackhole) {
+        for (String segmentId : segmentIds) {
+            blackhole.consume(emissionsService.estimateEmissionsForRoadSegment(segmentId));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.trafficoptimization.traffic_management.wal;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Acknowledgement latency of the write-ahead ingestion mode: appending one accepted batch to the
+ * event log under each fsync policy. A fresh log directory is used per iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventLogAppendBenchmark {
+
+    @Param({"ALWAYS", "NEVER"})
+    private FsyncPolicy fsync;
+
+    @Param({"1", "100"})
+    private int batchSize;
+
+    private List<TrafficData> batch;
+    private Path directory;
+    private TrafficEventLog eventLog;
+
+    @Setup(Level.Trial)
+    public void createBatch() {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(new TrafficData(null, start.plusSeconds(i), "A8-KM" + (i % 500) + "-" + (i % 500 + 1),
+                    random.nextInt(150), random.nextDouble() * 130.0, random.nextDouble()));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void openLog() throws IOException {
+        directory = Files.createTempDirectory("traffic-wal-benchmark");
+        eventLog = new TrafficEventLog(directory, 64 * 1024 * 1024, fsync);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteLog() throws IOException {
+        eventLog.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long append() throws IOException {
+        return eventLog.append(batch);
+    }
+}
@@ -0,0 +1,155 @@
+package com.trafficoptimization.traffic_management.aggregate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The aggregates of every segment together with the ids of the readings they contain, as written
+ * to and read from a snapshot file. The format is a magic number and version, the covered id mark
+ * and the sorted ids above it, one record per segment, and a CRC32 of everything
+ * before it. Files are written beside the target and moved over it, so a crash leaves the previous
+ * snapshot intact.
+ */
+record AggregateSnapshot(long coveredThrough, long[] recentIds, List<SegmentStatistics> segments) {
+
+    private static final int MAGIC = 0x53414753; // "SAGS"
+    private static final int VERSION = 1;
+
+    /**
+     * Whether reading {@code id} is contained in the snapshot.
+     */
+    boolean contains(long id) {
+        return id <= coveredThrough || Arrays.binarySearch(recentIds, id) >= 0;
+    }
+
+    /**
+     * The highest id of a reading in the snapshot.
+     */
+    long highestId() {
+        return recentIds.length > 0 ? Math.max(coveredThrough, recentIds[recentIds.length - 1]) : coveredThrough;
+    }
+
+    void write(Path file) throws IOException {
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Only flushed, not closed, so the channel stays open to be forced
+            BufferedOutputStream buffered = new BufferedOutputStream(Channels.newOutputStream(channel));
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, crc));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(coveredThrough);
+            out.writeInt(recentIds.length);
+            for (long id : recentIds) {
+                out.writeLong(id);
+            }
+            out.writeInt(segments.size());
+            for (SegmentStatistics segment : segments) {
+                writeSegment(out, segment);
+            }
+            out.flush();
+            // The checksum is not part of itself
+            DataOutputStream trailer = new DataOutputStream(buffered);
+            trailer.writeLong(crc.getValue());
+            trailer.flush();
+            channel.force(true);
+        }
+        Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @throws IOException if the file cannot be read, or is not an intact snapshot of this version
+     */
+    static AggregateSnapshot read(Path file) throws IOException {
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file))) {
+            CRC32 crc = new CRC32();
+            DataInputStream in = new DataInputStream(new CheckedInputStream(raw, crc));
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not an aggregate snapshot");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported aggregate snapshot version " + version + " in " + file);
+            }
+            long coveredThrough = in.readLong();
+            long[] recentIds = new long[in.readInt()];
+            for (int i = 0; i < recentIds.length; i++) {
+                recentIds[i] = in.readLong();
+            }
+            int count = in.readInt();
+            List<SegmentStatistics> segments = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                segments.add(readSegment(in));
+            }
+            long expected = crc.getValue();
+            if (new DataInputStream(raw).readLong() != expected) {
+                throw new IOException("Checksum mismatch in aggregate snapshot " + file);
+            }
+            return new AggregateSnapshot(coveredThrough, recentIds, segments);
+        }
+    }
+
+    private static void writeSegment(DataOutputStream out, SegmentStatistics segment) throws IOException {
+        out.writeUTF(segment.getRoadSegmentId());
+        out.writeLong(segment.getCount());
+        out.writeLong(segment.getVehicleCountSum());
+        out.writeInt(segment.getVehicleCountMin());
+        out.writeInt(segment.getVehicleCountMax());
+        out.writeLong(segment.getSpeedCount());
+        out.writeDouble(segment.getSpeedSum());
+        out.writeDouble(segment.getSpeedMin());
+        out.writeDouble(segment.getSpeedMax());
+        out.writeLong(segment.getCongestionCount());
+        out.writeDouble(segment.getCongestionSum());
+        out.writeDouble(segment.getCongestionMin());
+        out.writeDouble(segment.getCongestionMax());
+        LocalDateTime latest = segment.getLatestTimestamp();
+        out.writeBoolean(latest != null);
+        if (latest != null) {
+            out.writeLong(latest.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(latest.getNano());
+        }
+    }
+
+    private static SegmentStatistics readSegment(DataInputStream in) throws IOException {
+        String roadSegmentId = in.readUTF();
+        long count = in.readLong();
+        long vehicleCountSum = in.readLong();
+        int vehicleCountMin = in.readInt();
+        int vehicleCountMax = in.readInt();
+        long speedCount = in.readLong();
+        double speedSum = in.readDouble();
+        double speedMin = in.readDouble();
+        double speedMax = in.readDouble();
+        long congestionCount = in.readLong();
+        double congestionSum = in.readDouble();
+        double congestionMin = in.readDouble();
+        double congestionMax = in.readDouble();
+        LocalDateTime latest = in.readBoolean()
+                ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC)
+                : null;
+        return new SegmentStatistics(roadSegmentId, count, vehicleCountSum, vehicleCountMin, vehicleCountMax,
+                speedCount, speedSum, speedMin, speedMax, congestionCount, congestionSum, congestionMin, congestionMax,
+                latest);
+    }
+}
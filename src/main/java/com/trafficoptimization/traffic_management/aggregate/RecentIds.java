@@ -0,0 +1,70 @@
+package com.trafficoptimization.traffic_management.aggregate;
+
+import java.util.Arrays;
+
+/**
+ * Which readings the aggregates contain, by id: every id up to {@link #getCoveredThrough()}, plus
+ * the ids recorded above it. Ids come from a pooled sequence and commit out of order, so a high
+ * water mark alone would miss readings still in flight when it was taken. The ids above the mark
+ * are kept in a ring; once it is full, the mark advances to each id as it is evicted, on the
+ * assumption that no transaction stays open while the capacity's worth of later readings commit.
+ * Not thread-safe; guarded by {@link SegmentAggregateStore}.
+ */
+final class RecentIds {
+
+    private final long[] ring;
+    private int next;
+    private int size;
+    private long coveredThrough;
+
+    RecentIds(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Recent id capacity must be positive, got " + capacity);
+        }
+        this.ring = new long[capacity];
+    }
+
+    void reset(long coveredThrough, long[] ids) {
+        this.coveredThrough = coveredThrough;
+        next = 0;
+        size = 0;
+        for (long id : ids) {
+            add(id);
+        }
+    }
+
+    void add(long id) {
+        if (id <= coveredThrough) {
+            return;
+        }
+        if (size == ring.length) {
+            coveredThrough = Math.max(coveredThrough, ring[next]);
+        } else {
+            size++;
+        }
+        ring[next] = id;
+        next = (next + 1) % ring.length;
+    }
+
+    long getCoveredThrough() {
+        return coveredThrough;
+    }
+
+    /**
+     * The ids above the mark, sorted.
+     */
+    long[] toSortedArray() {
+        long[] ids = new long[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            long id = ring[i];
+            // Ids at or below a mark that advanced past them need not be kept
+            if (id > coveredThrough) {
+                ids[count++] = id;
+            }
+        }
+        ids = Arrays.copyOf(ids, count);
+        Arrays.sort(ids);
+        return ids;
+    }
+}
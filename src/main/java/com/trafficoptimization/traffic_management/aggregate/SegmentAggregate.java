@@ -0,0 +1,83 @@
+package com.trafficoptimization.traffic_management.aggregate;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running count, sum, min and max of the readings of one road segment. Speed and congestion are
+ * optional on a reading, so they keep their own counts. All access is synchronized on the instance.
+ */
+class SegmentAggregate {
+
+    private final String roadSegmentId;
+    private long count;
+    private long vehicleCountSum;
+    private int vehicleCountMin = Integer.MAX_VALUE;
+    private int vehicleCountMax = Integer.MIN_VALUE;
+    private long speedCount;
+    private double speedSum;
+    private double speedMin = Double.POSITIVE_INFINITY;
+    private double speedMax = Double.NEGATIVE_INFINITY;
+    private long congestionCount;
+    private double congestionSum;
+    private double congestionMin = Double.POSITIVE_INFINITY;
+    private double congestionMax = Double.NEGATIVE_INFINITY;
+    private LocalDateTime latestTimestamp;
+
+    SegmentAggregate(String roadSegmentId) {
+        this.roadSegmentId = roadSegmentId;
+    }
+
+    synchronized void add(TrafficData data) {
+        count++;
+        int vehicleCount = data.getVehicleCount();
+        vehicleCountSum += vehicleCount;
+        vehicleCountMin = Math.min(vehicleCountMin, vehicleCount);
+        vehicleCountMax = Math.max(vehicleCountMax, vehicleCount);
+        if (data.getAverageSpeed() != null) {
+            double speed = data.getAverageSpeed();
+            speedCount++;
+            speedSum += speed;
+            speedMin = Math.min(speedMin, speed);
+            speedMax = Math.max(speedMax, speed);
+        }
+        if (data.getCongestionLevel() != null) {
+            double congestion = data.getCongestionLevel();
+            congestionCount++;
+            congestionSum += congestion;
+            congestionMin = Math.min(congestionMin, congestion);
+            congestionMax = Math.max(congestionMax, congestion);
+        }
+        if (latestTimestamp == null || data.getTimestamp().isAfter(latestTimestamp)) {
+            latestTimestamp = data.getTimestamp();
+        }
+    }
+
+    synchronized void merge(SegmentStatistics statistics) {
+        count += statistics.getCount();
+        vehicleCountSum += statistics.getVehicleCountSum();
+        vehicleCountMin = Math.min(vehicleCountMin, statistics.getVehicleCountMin());
+        vehicleCountMax = Math.max(vehicleCountMax, statistics.getVehicleCountMax());
+        speedCount += statistics.getSpeedCount();
+        speedSum += statistics.getSpeedSum();
+        speedMin = Math.min(speedMin, statistics.getSpeedMin());
+        speedMax = Math.max(speedMax, statistics.getSpeedMax());
+        congestionCount += statistics.getCongestionCount();
+        congestionSum += statistics.getCongestionSum();
+        congestionMin = Math.min(congestionMin, statistics.getCongestionMin());
+        congestionMax = Math.max(congestionMax, statistics.getCongestionMax());
+        if (latestTimestamp == null || (statistics.getLatestTimestamp() != null
+                && statistics.getLatestTimestamp().isAfter(latestTimestamp))) {
+            latestTimestamp = statistics.getLatestTimestamp();
+        }
+    }
+
+    synchronized SegmentStatistics snapshot() {
+        return new SegmentStatistics(roadSegmentId, count,
+                vehicleCountSum, vehicleCountMin, vehicleCountMax,
+                speedCount, speedSum, speedMin, speedMax,
+                congestionCount, congestionSum, congestionMin, congestionMax,
+                latestTimestamp);
+    }
+}
@@ -0,0 +1,282 @@
+package com.trafficoptimization.traffic_management.aggregate;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.repository.SegmentAggregateView;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import com.trafficoptimization.traffic_management.segment.SegmentTable;
+import com.trafficoptimization.traffic_management.service.TrafficDataListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory running statistics per road segment, kept current by every committed reading so that
+ * averages are answered in constant time instead of scanning the segment's history. It is notified
+ * ahead of other listeners, which may read from it. Aggregates are held in a {@link SegmentTable} by
+ * segment handle.
+ * <p>
+ * The store is written to a binary snapshot periodically and on shutdown. At startup it loads the
+ * snapshot and reads only the readings committed since, by id; without a usable snapshot it is
+ * rebuilt from a single grouped query over the whole table. {@link RecentIds} tracks which readings
+ * a snapshot contains. Recording holds a shared lock so that a snapshot captures aggregates and ids
+ * that agree.
+ * <p>
+ * The statistics describe the readings still in the table. Retention recomputes the segments it
+ * purged through {@link #rebuild(Collection)}, so a rebuild after a restart arrives at the same values.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SegmentAggregateStore implements TrafficDataListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentAggregateStore.class);
+    private static final int DEFAULT_RECENT_IDS = 65_536;
+    private static final int CATCH_UP_PAGE_SIZE = 5_000;
+
+    private final TrafficDataRepository trafficDataRepository;
+    private final SegmentRegistry segmentRegistry;
+    private final SegmentTable<SegmentAggregate> aggregates = new SegmentTable<>();
+    // null when snapshots are disabled
+    private final Path snapshotFile;
+    private final RecentIds recentIds;
+    // Shared by recording, exclusive for rebuilding, restoring and capturing a snapshot
+    private final ReadWriteLock captureLock = new ReentrantReadWriteLock();
+
+    public SegmentAggregateStore(TrafficDataRepository trafficDataRepository, SegmentRegistry segmentRegistry) {
+        this(trafficDataRepository, segmentRegistry, "", DEFAULT_RECENT_IDS);
+    }
+
+    @Autowired
+    public SegmentAggregateStore(TrafficDataRepository trafficDataRepository, SegmentRegistry segmentRegistry,
+                                 @Value("${traffic.snapshot.file:}") String snapshotFile,
+                                 @Value("${traffic.snapshot.recent-ids:65536}") int recentIdCapacity) {
+        this.trafficDataRepository = trafficDataRepository;
+        this.segmentRegistry = segmentRegistry;
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.recentIds = new RecentIds(recentIdCapacity);
+    }
+
+    /**
+     * Load the snapshot and catch up on the readings committed since, or rebuild from the table if
+     * there is no snapshot or it cannot be used.
+     */
+    @PostConstruct
+    public void load() {
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            try {
+                if (restore(AggregateSnapshot.read(snapshotFile))) {
+                    return;
+                }
+            } catch (IOException e) {
+                log.warn("Cannot read aggregate snapshot {}, rebuilding from the table", snapshotFile, e);
+            }
+        }
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        captureLock.writeLock().lock();
+        try {
+            aggregates.clear();
+            Long maxId = trafficDataRepository.findMaxId();
+            List<SegmentAggregateView> rows = trafficDataRepository.aggregateBySegment();
+            for (SegmentAggregateView row : rows) {
+                aggregateFor(row.getRoadSegmentId()).merge(SegmentStatistics.from(row));
+            }
+            recentIds.reset(maxId != null ? maxId : 0, new long[0]);
+            log.info("Rebuilt aggregates for {} road segments in {} ms", rows.size(), System.currentTimeMillis() - start);
+        } finally {
+            captureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recompute the aggregates of {@code roadSegmentIds} from the table, dropping those with no
+     * readings left. A reading of these segments that is committed but not yet recorded would be
+     * counted twice, so the caller must hold ingestion off for the duration.
+     */
+    public void rebuild(Collection<String> roadSegmentIds) {
+        captureLock.writeLock().lock();
+        try {
+            Set<String> emptied = new HashSet<>(roadSegmentIds);
+            for (SegmentAggregateView row : trafficDataRepository.aggregateBySegment(roadSegmentIds)) {
+                SegmentAggregate aggregate = new SegmentAggregate(row.getRoadSegmentId());
+                aggregate.merge(SegmentStatistics.from(row));
+                aggregates.put(segmentRegistry.intern(row.getRoadSegmentId()), aggregate);
+                emptied.remove(row.getRoadSegmentId());
+            }
+            for (String roadSegmentId : emptied) {
+                int handle = segmentRegistry.find(roadSegmentId);
+                if (handle != SegmentRegistry.UNKNOWN) {
+                    aggregates.remove(handle);
+                }
+            }
+        } finally {
+            captureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Write the aggregates to the snapshot file, replacing the previous snapshot.
+     */
+    @Scheduled(fixedDelayString = "${traffic.snapshot.interval-ms:300000}",
+            initialDelayString = "${traffic.snapshot.interval-ms:300000}")
+    @PreDestroy
+    public void writeSnapshot() {
+        if (snapshotFile == null) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        AggregateSnapshot snapshot = capture();
+        try {
+            snapshot.write(snapshotFile);
+            log.info("Wrote aggregate snapshot of {} road segments to {} in {} ms", snapshot.segments().size(),
+                    snapshotFile, System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            // The previous snapshot stays in place; at worst more readings are caught up at startup
+            log.error("Failed to write aggregate snapshot {}", snapshotFile, e);
+        }
+    }
+
+    @Override
+    public void onTrafficDataSaved(List<TrafficData> saved) {
+        captureLock.readLock().lock();
+        try {
+            for (TrafficData data : saved) {
+                add(data);
+            }
+        } finally {
+            captureLock.readLock().unlock();
+        }
+    }
+
+    public void record(TrafficData data) {
+        captureLock.readLock().lock();
+        try {
+            add(data);
+        } finally {
+            captureLock.readLock().unlock();
+        }
+    }
+
+    public Optional<SegmentStatistics> get(String roadSegmentId) {
+        int handle = segmentRegistry.find(roadSegmentId);
+        SegmentAggregate aggregate = handle == SegmentRegistry.UNKNOWN ? null : aggregates.get(handle);
+        return aggregate == null ? Optional.empty() : Optional.of(aggregate.snapshot());
+    }
+
+    /**
+     * Forget a segment whose readings no longer live in this node's table, such as one handed to
+     * another cluster member.
+     */
+    public void remove(String roadSegmentId) {
+        int handle = segmentRegistry.find(roadSegmentId);
+        if (handle == SegmentRegistry.UNKNOWN) {
+            return;
+        }
+        captureLock.writeLock().lock();
+        try {
+            aggregates.remove(handle);
+        } finally {
+            captureLock.writeLock().unlock();
+        }
+    }
+
+    public List<SegmentStatistics> getAll() {
+        List<SegmentStatistics> snapshots = new ArrayList<>(aggregates.size());
+        aggregates.forEach(aggregate -> snapshots.add(aggregate.snapshot()));
+        return snapshots;
+    }
+
+    AggregateSnapshot capture() {
+        captureLock.writeLock().lock();
+        try {
+            List<SegmentStatistics> segments = new ArrayList<>(aggregates.size());
+            aggregates.forEach(aggregate -> segments.add(aggregate.snapshot()));
+            return new AggregateSnapshot(recentIds.getCoveredThrough(), recentIds.toSortedArray(), segments);
+        } finally {
+            captureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the aggregates with {@code snapshot} and add the readings it does not contain.
+     *
+     * @return false, leaving the store empty, if the table no longer holds the readings the
+     *         snapshot was taken from
+     */
+    boolean restore(AggregateSnapshot snapshot) {
+        long start = System.currentTimeMillis();
+        captureLock.writeLock().lock();
+        try {
+            aggregates.clear();
+            Long maxId = trafficDataRepository.findMaxId();
+            if (snapshot.highestId() > (maxId != null ? maxId : 0)) {
+                log.warn("Aggregate snapshot contains readings up to id {} but the table ends at {}, ignoring it",
+                        snapshot.highestId(), maxId);
+                return false;
+            }
+            for (SegmentStatistics segment : snapshot.segments()) {
+                aggregateFor(segment.getRoadSegmentId()).merge(segment);
+            }
+            recentIds.reset(snapshot.coveredThrough(), snapshot.recentIds());
+
+            long caughtUp = 0;
+            long after = snapshot.coveredThrough();
+            List<TrafficData> page;
+            do {
+                page = trafficDataRepository.findAfterId(after, Limit.of(CATCH_UP_PAGE_SIZE));
+                for (TrafficData data : page) {
+                    if (!snapshot.contains(data.getId())) {
+                        add(data);
+                        caughtUp++;
+                    }
+                }
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == CATCH_UP_PAGE_SIZE);
+            log.info("Loaded aggregates for {} road segments from {} and caught up on {} readings in {} ms",
+                    snapshot.segments().size(), snapshotFile, caughtUp, System.currentTimeMillis() - start);
+            return true;
+        } finally {
+            captureLock.writeLock().unlock();
+        }
+    }
+
+    // Callers hold the capture lock
+    private void add(TrafficData data) {
+        aggregateFor(data.getRoadSegmentId()).add(data);
+        if (data.getId() != null) {
+            synchronized (recentIds) {
+                recentIds.add(data.getId());
+            }
+        }
+    }
+
+    private SegmentAggregate aggregateFor(String roadSegmentId) {
+        return aggregates.computeIfAbsent(segmentRegistry.intern(roadSegmentId),
+                handle -> new SegmentAggregate(segmentRegistry.getId(handle)));
+    }
+}
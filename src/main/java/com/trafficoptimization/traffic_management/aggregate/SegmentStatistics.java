@@ -0,0 +1,62 @@
+package com.trafficoptimization.traffic_management.aggregate;
+
+import com.trafficoptimization.traffic_management.repository.SegmentAggregateView;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable point-in-time view of a {@link SegmentAggregate}.
+ */
+@Value
+public class SegmentStatistics {
+    String roadSegmentId;
+    long count;
+    long vehicleCountSum;
+    int vehicleCountMin;
+    int vehicleCountMax;
+    long speedCount;
+    double speedSum;
+    double speedMin;
+    double speedMax;
+    long congestionCount;
+    double congestionSum;
+    double congestionMin;
+    double congestionMax;
+    LocalDateTime latestTimestamp;
+
+    /**
+     * Statistics from a grouped query, where the sums, minima and maxima of no values are null.
+     */
+    public static SegmentStatistics from(SegmentAggregateView row) {
+        return new SegmentStatistics(row.getRoadSegmentId(), row.getReadingCount(),
+                valueOr(row.getVehicleCountSum(), 0L),
+                valueOr(row.getVehicleCountMin(), Integer.MAX_VALUE),
+                valueOr(row.getVehicleCountMax(), Integer.MIN_VALUE),
+                row.getSpeedCount(),
+                valueOr(row.getSpeedSum(), 0.0),
+                valueOr(row.getSpeedMin(), Double.POSITIVE_INFINITY),
+                valueOr(row.getSpeedMax(), Double.NEGATIVE_INFINITY),
+                row.getCongestionCount(),
+                valueOr(row.getCongestionSum(), 0.0),
+                valueOr(row.getCongestionMin(), Double.POSITIVE_INFINITY),
+                valueOr(row.getCongestionMax(), Double.NEGATIVE_INFINITY),
+                row.getLatestTimestamp());
+    }
+
+    public double getAverageVehicleCount() {
+        return count > 0 ? (double) vehicleCountSum / count : 0;
+    }
+
+    public double getAverageSpeed() {
+        return speedCount > 0 ? speedSum / speedCount : 0;
+    }
+
+    public double getAverageCongestion() {
+        return congestionCount > 0 ? congestionSum / congestionCount : 0;
+    }
+
+    private static <T> T valueOr(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+}
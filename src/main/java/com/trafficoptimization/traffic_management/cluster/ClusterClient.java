@@ -0,0 +1,309 @@
+package com.trafficoptimization.traffic_management.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.CongestionForecast;
+import com.trafficoptimization.traffic_management.model.CursorPage;
+import com.trafficoptimization.traffic_management.model.Hotspot;
+import com.trafficoptimization.traffic_management.model.NetworkEmissionsSnapshot;
+import com.trafficoptimization.traffic_management.model.RollupBucket;
+import com.trafficoptimization.traffic_management.model.RouteSegmentInput;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTTP calls from this node to the other members: the node-local traffic and summary endpoints of
+ * {@code ClusterController}, membership updates, and forwarding of whole requests to a segment's
+ * owner. Every request carries {@link #FORWARDED_HEADER}, so the receiving node answers it itself
+ * rather than routing it again, even if its view of the members differs.
+ */
+@Component
+@ConditionalOnProperty(name = "traffic.cluster.enabled", havingValue = "true")
+public class ClusterClient {
+
+    public static final String FORWARDED_HEADER = "X-Traffic-Forwarded-By";
+    public static final String MEMBERS_PATH = "/api/cluster/members";
+    private static final String LOCAL_PATH = "/api/cluster/local";
+    public static final String LOCAL_TRAFFIC_PATH = LOCAL_PATH + "/traffic";
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final String self;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader trafficDataReader;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+
+    @Autowired
+    public ClusterClient(ClusterMembership membership, ObjectMapper objectMapper,
+                         @Value("${traffic.cluster.request-timeout:PT30S}") Duration requestTimeout) {
+        this.self = membership.getSelf();
+        this.objectMapper = objectMapper;
+        this.trafficDataReader = objectMapper.readerFor(TrafficData.class);
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .build();
+    }
+
+    public TrafficData save(String node, TrafficData trafficData) {
+        return read(node, send(node, post(node, LOCAL_TRAFFIC_PATH, trafficData)), TrafficData.class);
+    }
+
+    public BatchIngestionResult saveBatch(String node, List<TrafficData> batch) {
+        return read(node, send(node, post(node, LOCAL_TRAFFIC_PATH + "/batch", batch)), BatchIngestionResult.class);
+    }
+
+    /**
+     * A page of the node's own rows for a network-wide query.
+     */
+    public CursorPage<TrafficData> page(String node, TrafficQuery query, String cursor, int limit) {
+        UriComponentsBuilder uri = localTraffic(node, query).queryParam("limit", limit);
+        if (cursor != null) {
+            uri.queryParam("cursor", cursor);
+        }
+        return get(node, uri, new TypeReference<>() { });
+    }
+
+    /**
+     * The node's emissions snapshot of the given segments it owns, or of all of them when none are given.
+     */
+    public NetworkEmissionsSnapshot networkEmissions(String node, List<String> roadSegmentIds, int top,
+                                                     boolean includeSegments) {
+        UriComponentsBuilder uri = local(node, "/emissions/network")
+                .queryParam("top", top)
+                .queryParam("includeSegments", includeSegments);
+        if (roadSegmentIds != null) {
+            uri.queryParam("roadSegmentId", roadSegmentIds);
+        }
+        return get(node, uri, new TypeReference<>() { });
+    }
+
+    public List<Hotspot> hotspots(String node, int limit) {
+        return get(node, local(node, "/hotspots").queryParam("limit", limit), new TypeReference<>() { });
+    }
+
+    public List<CongestionForecast> mostCongested(String node, int horizonMinutes, int limit) {
+        UriComponentsBuilder uri = local(node, "/forecast")
+                .queryParam("horizon", horizonMinutes)
+                .queryParam("limit", limit);
+        return get(node, uri, new TypeReference<>() { });
+    }
+
+    /**
+     * The node's rollups of one segment, or of all the segments it owns when {@code roadSegmentId} is null.
+     */
+    public List<RollupBucket> rollups(String node, String roadSegmentId, LocalDateTime start, LocalDateTime end,
+                                      Duration granularity) {
+        UriComponentsBuilder uri = local(node, "/rollups")
+                .queryParam("start", start)
+                .queryParam("end", end)
+                .queryParam("granularity", granularity);
+        if (roadSegmentId != null) {
+            uri.queryParam("roadSegmentId", roadSegmentId);
+        }
+        return get(node, uri, new TypeReference<>() { });
+    }
+
+    /**
+     * Route inputs of the given segments the node owns.
+     */
+    public Map<String, RouteSegmentInput> routeInputs(String node, Collection<String> roadSegmentIds) {
+        return read(node, send(node, post(node, LOCAL_PATH + "/route-inputs", roadSegmentIds)),
+                new TypeReference<>() { });
+    }
+
+    /**
+     * Successors of the given segments the node owns, in its road graph.
+     */
+    public Map<String, List<String>> successors(String node, Collection<String> roadSegmentIds) {
+        return read(node, send(node, post(node, LOCAL_PATH + "/successors", roadSegmentIds)),
+                new TypeReference<>() { });
+    }
+
+    /**
+     * The node's own rows for a network-wide query, in (timestamp, id) order, read from the
+     * response as they are consumed. The caller closes the iterator.
+     */
+    public MappingIterator<TrafficData> stream(String node, TrafficQuery query) {
+        HttpRequest request = request(localTraffic(node, query).encode().build().toUri())
+                .header(HttpHeaders.ACCEPT, NDJSON)
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = exchange(node, request, HttpResponse.BodyHandlers.ofInputStream());
+        try {
+            if (response.statusCode() / 100 != 2) {
+                String error = new String(response.body().readAllBytes(), StandardCharsets.UTF_8);
+                response.body().close();
+                throw failure(node, response.statusCode(), error);
+            }
+            return trafficDataReader.readValues(response.body());
+        } catch (IOException e) {
+            throw new NodeUnavailableException(node, e.toString(), e);
+        }
+    }
+
+    /**
+     * Ask {@code node} to add {@code member} to the cluster.
+     *
+     * @return the members afterwards
+     */
+    public List<String> join(String node, String member) {
+        URI uri = UriComponentsBuilder.fromUriString(node).path(MEMBERS_PATH).queryParam("url", member)
+                .encode().build().toUri();
+        return readMembers(node, send(node, request(uri).POST(HttpRequest.BodyPublishers.noBody()).build()));
+    }
+
+    /**
+     * Tell {@code node} the complete member list.
+     */
+    public void updateMembers(String node, List<String> members) {
+        send(node, json(request(URI.create(node + MEMBERS_PATH))).PUT(body(members)).build());
+    }
+
+    /**
+     * Send the request to {@code node} unchanged and copy its response back.
+     */
+    public void forward(String node, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String query = request.getQueryString();
+        HttpRequest.Builder forwarded = request(URI.create(node + request.getRequestURI()
+                + (query != null ? "?" + query : "")));
+        for (String header : List.of(HttpHeaders.ACCEPT, HttpHeaders.CONTENT_TYPE)) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                forwarded.header(header, value);
+            }
+        }
+        byte[] requestBody = request.getInputStream().readAllBytes();
+        forwarded.method(request.getMethod(), requestBody.length == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(requestBody));
+
+        HttpResponse<InputStream> answer = exchange(node, forwarded.build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = answer.body()) {
+            response.setStatus(answer.statusCode());
+            answer.headers().firstValue(HttpHeaders.CONTENT_TYPE).ifPresent(response::setContentType);
+            body.transferTo(response.getOutputStream());
+        }
+    }
+
+    private UriComponentsBuilder local(String node, String path) {
+        return UriComponentsBuilder.fromUriString(node).path(LOCAL_PATH + path);
+    }
+
+    private UriComponentsBuilder localTraffic(String node, TrafficQuery query) {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString(node).path(LOCAL_TRAFFIC_PATH);
+        switch (query.getKind()) {
+            case ALL -> { }
+            case TIME_RANGE -> uri.queryParam("start", query.getStart()).queryParam("end", query.getEnd());
+            default -> throw new IllegalArgumentException("Not a network-wide query: " + query.getKind());
+        }
+        return uri;
+    }
+
+    private HttpRequest post(String node, String path, Object body) {
+        return json(request(URI.create(node + path))).POST(body(body)).build();
+    }
+
+    private HttpRequest.Builder json(HttpRequest.Builder request) {
+        return request.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private HttpRequest.BodyPublisher body(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header(FORWARDED_HEADER, self);
+    }
+
+    private byte[] send(String node, HttpRequest request) {
+        HttpResponse<byte[]> response = exchange(node, request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw failure(node, response.statusCode(), new String(response.body(), StandardCharsets.UTF_8));
+        }
+        return response.body();
+    }
+
+    /**
+     * A client error is the request's fault and is passed on; anything else means the node could
+     * not serve it, which is worth retrying.
+     */
+    private static RuntimeException failure(String node, int status, String body) {
+        if (status / 100 == 4) {
+            return new NodeRejectedRequestException(node, status, body);
+        }
+        return new NodeUnavailableException(node, "HTTP " + status + " " + body, null);
+    }
+
+    private <T> HttpResponse<T> exchange(String node, HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        try {
+            return httpClient.send(request, handler);
+        } catch (IOException e) {
+            throw new NodeUnavailableException(node, e.toString(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NodeUnavailableException(node, "interrupted", e);
+        }
+    }
+
+    private <T> T get(String node, UriComponentsBuilder uri, TypeReference<T> type) {
+        return read(node, send(node, request(uri.encode().build().toUri()).GET().build()), type);
+    }
+
+    private <T> T read(String node, byte[] body, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new NodeUnavailableException(node, "unreadable response: " + e.getMessage(), e);
+        }
+    }
+
+    private <T> T read(String node, byte[] body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new NodeUnavailableException(node, "unreadable response: " + e.getMessage(), e);
+        }
+    }
+
+    private List<String> readMembers(String node, byte[] body) {
+        try {
+            return objectMapper.readValue(body, new TypeReference<List<String>>() { });
+        } catch (IOException e) {
+            throw new NodeUnavailableException(node, "unreadable response: " + e.getMessage(), e);
+        }
+    }
+}
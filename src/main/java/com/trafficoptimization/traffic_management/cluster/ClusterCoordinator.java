@@ -0,0 +1,107 @@
+package com.trafficoptimization.traffic_management.cluster;
+
+import com.trafficoptimization.traffic_management.model.ClusterStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Membership changes. A node joins or leaves through any member, which computes the new member
+ * list, adopts it and sends it to every other node of the old and the new list; each node then
+ * rebalances on its own. A starting node joins through the first configured member that answers,
+ * so adding a node means starting it with the existing members configured. A node that is removed
+ * while running hands all of its segments to the remaining members.
+ * <p>
+ * There is no replication: the readings of a node that stops without leaving are unavailable until
+ * it comes back, and changes made while a node is unreachable reach it when it next joins.
+ */
+@Component
+@ConditionalOnProperty(name = "traffic.cluster.enabled", havingValue = "true")
+public class ClusterCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterCoordinator.class);
+
+    private final ClusterMembership membership;
+    private final ClusterClient clusterClient;
+    private final SegmentRebalancer rebalancer;
+
+    @Autowired
+    public ClusterCoordinator(ClusterMembership membership, ClusterClient clusterClient,
+                              SegmentRebalancer rebalancer) {
+        this.membership = membership;
+        this.clusterClient = clusterClient;
+        this.rebalancer = rebalancer;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void announce() {
+        for (String peer : membership.getPeers()) {
+            try {
+                apply(clusterClient.join(peer, membership.getSelf()));
+                log.info("Joined the cluster through {}, members {}", peer, membership.getMembers());
+                break;
+            } catch (NodeUnavailableException | NodeRejectedRequestException e) {
+                log.info("Cannot join through {}: {}", peer, e.getMessage());
+            }
+        }
+        // Readings stored while this node was down or under other members may belong elsewhere now
+        rebalancer.rebalanceAsync();
+    }
+
+    public synchronized List<String> join(String member) {
+        Set<String> members = new LinkedHashSet<>(membership.getMembers());
+        members.add(ClusterMembership.normalize(member));
+        return change(members);
+    }
+
+    public synchronized List<String> leave(String member) {
+        Set<String> members = new LinkedHashSet<>(membership.getMembers());
+        members.remove(ClusterMembership.normalize(member));
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("The last member cannot leave the cluster");
+        }
+        return change(members);
+    }
+
+    /**
+     * Adopt a member list sent by another node, rebalancing if it differs from this node's.
+     */
+    public void apply(List<String> members) {
+        if (membership.update(members)) {
+            log.info("Cluster members are now {}", membership.getMembers());
+            rebalancer.rebalanceAsync();
+        }
+    }
+
+    public ClusterStatus getStatus() {
+        return new ClusterStatus(membership.getSelf(), membership.getMembers(), rebalancer.isRebalancing());
+    }
+
+    private List<String> change(Set<String> members) {
+        List<String> next = List.copyOf(new TreeSet<>(members));
+        if (next.equals(membership.getMembers())) {
+            return next;
+        }
+        Set<String> notified = new LinkedHashSet<>(membership.getMembers());
+        notified.addAll(next);
+        notified.remove(membership.getSelf());
+        apply(next);
+        for (String node : notified) {
+            try {
+                clusterClient.updateMembers(node, next);
+            } catch (NodeUnavailableException | NodeRejectedRequestException e) {
+                log.warn("Could not tell {} about the new members: {}", node, e.getMessage());
+            }
+        }
+        return next;
+    }
+}
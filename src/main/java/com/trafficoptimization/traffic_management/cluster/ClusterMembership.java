@@ -0,0 +1,100 @@
+package com.trafficoptimization.traffic_management.cluster;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This node's view of the cluster: its own URL and the hash ring over the current members. Starts
+ * from traffic.cluster.members, which need not include this node; {@link ClusterCoordinator} keeps
+ * it in step with the other members afterwards. A node that is not a member owns no segments.
+ */
+@Component
+@ConditionalOnProperty(name = "traffic.cluster.enabled", havingValue = "true")
+public class ClusterMembership {
+
+    private final String self;
+    private final int virtualNodes;
+    private volatile HashRing ring;
+
+    @Autowired
+    public ClusterMembership(@Value("${traffic.cluster.self-url}") String self,
+                             @Value("${traffic.cluster.members:}") String members,
+                             @Value("${traffic.cluster.virtual-nodes:128}") int virtualNodes) {
+        this(self, parse(members), virtualNodes);
+    }
+
+    public ClusterMembership(String self, Collection<String> members, int virtualNodes) {
+        this.self = normalize(self);
+        this.virtualNodes = virtualNodes;
+        Set<String> initial = new LinkedHashSet<>();
+        members.forEach(member -> initial.add(normalize(member)));
+        // Without configured members the node starts as a cluster of one
+        this.ring = new HashRing(initial.isEmpty() ? List.of(this.self) : initial, virtualNodes);
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public List<String> getMembers() {
+        return ring.getMembers();
+    }
+
+    /**
+     * The members other than this node.
+     */
+    public List<String> getPeers() {
+        List<String> peers = new ArrayList<>(ring.getMembers());
+        peers.remove(self);
+        return peers;
+    }
+
+    public String ownerOf(String roadSegmentId) {
+        return ring.ownerOf(roadSegmentId);
+    }
+
+    public boolean isLocal(String roadSegmentId) {
+        return self.equals(ring.ownerOf(roadSegmentId));
+    }
+
+    /**
+     * Replace the members.
+     *
+     * @return whether they changed
+     */
+    public synchronized boolean update(Collection<String> members) {
+        Set<String> normalized = new LinkedHashSet<>();
+        members.forEach(member -> normalized.add(normalize(member)));
+        HashRing next = new HashRing(normalized, virtualNodes);
+        if (next.getMembers().equals(ring.getMembers())) {
+            return false;
+        }
+        ring = next;
+        return true;
+    }
+
+    // Members are compared as strings, so "http://host:8080/" and "http://host:8080" must agree
+    static String normalize(String url) {
+        String trimmed = url.trim();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException("Empty cluster member URL");
+        }
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private static List<String> parse(String members) {
+        return Arrays.stream(members.split(","))
+                .map(String::trim)
+                .filter(member -> !member.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,81 @@
+package com.trafficoptimization.traffic_management.cluster;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Consistent hash ring assigning road segment ids to cluster members. Each member is placed at
+ * {@code virtualNodes} points of a 64-bit ring and owns the ids hashing up to each of its points, so
+ * load spreads evenly and a member joining or leaving only moves the ids next to its own points.
+ * Hashes depend on nothing but the strings, so every node that knows the same members computes the
+ * same owners. Immutable; membership changes build a new ring.
+ */
+public final class HashRing {
+
+    private final List<String> members;
+    // Sorted ring positions, and the member placed at each
+    private final long[] points;
+    private final String[] owners;
+
+    public HashRing(Collection<String> members, int virtualNodes) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one member");
+        }
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Virtual nodes per member must be positive, got " + virtualNodes);
+        }
+        this.members = List.copyOf(new TreeSet<>(members));
+        int count = this.members.size() * virtualNodes;
+        long[][] placed = new long[count][];
+        int next = 0;
+        for (int m = 0; m < this.members.size(); m++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                placed[next++] = new long[] {hash(this.members.get(m) + "#" + v), m};
+            }
+        }
+        // Ties, however unlikely, go to the member that sorts first, on every node alike
+        Arrays.sort(placed, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        this.points = new long[count];
+        this.owners = new String[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = placed[i][0];
+            owners[i] = this.members.get((int) placed[i][1]);
+        }
+    }
+
+    public String ownerOf(String roadSegmentId) {
+        int index = Arrays.binarySearch(points, hash(roadSegmentId));
+        if (index < 0) {
+            // First point after the hash, wrapping around past the last one
+            index = -index - 1;
+            if (index == points.length) {
+                index = 0;
+            }
+        }
+        return owners[index];
+    }
+
+    /**
+     * The members in sorted order.
+     */
+    public List<String> getMembers() {
+        return members;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units, then the MurmurHash3 finalizer to spread nearby keys
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
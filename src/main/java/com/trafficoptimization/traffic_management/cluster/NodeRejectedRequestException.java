@@ -0,0 +1,31 @@
+package com.trafficoptimization.traffic_management.cluster;
+
+/**
+ * Another cluster node answered with a client error, meaning the request itself was at fault
+ * rather than the node. Its status and body are passed on to the client unchanged.
+ */
+public class NodeRejectedRequestException extends RuntimeException {
+
+    private final String node;
+    private final int status;
+    private final String body;
+
+    public NodeRejectedRequestException(String node, int status, String body) {
+        super("Cluster node " + node + " rejected the request: HTTP " + status + " " + body);
+        this.node = node;
+        this.status = status;
+        this.body = body;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getBody() {
+        return body;
+    }
+}
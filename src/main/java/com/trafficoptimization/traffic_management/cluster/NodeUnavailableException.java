@@ -0,0 +1,18 @@
+package com.trafficoptimization.traffic_management.cluster;
+
+/**
+ * Another cluster node could not be reached or did not answer successfully.
+ */
+public class NodeUnavailableException extends RuntimeException {
+
+    private final String node;
+
+    public NodeUnavailableException(String node, String message, Throwable cause) {
+        super("Cluster node " + node + " unavailable: " + message, cause);
+        this.node = node;
+    }
+
+    public String getNode() {
+        return node;
+    }
+}
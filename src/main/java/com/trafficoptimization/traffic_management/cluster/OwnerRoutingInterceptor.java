@@ -0,0 +1,53 @@
+package com.trafficoptimization.traffic_management.cluster;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Forwards requests to handlers marked {@link RoutedToOwner} to the owner of their road segment, so
+ * that any node can be asked about any segment. Runs after handler mapping, so the segment id is
+ * taken from the matched path variables. Requests already forwarded by another node are always
+ * answered here.
+ */
+@Component
+@ConditionalOnProperty(name = "traffic.cluster.enabled", havingValue = "true")
+public class OwnerRoutingInterceptor implements HandlerInterceptor {
+
+    private final ClusterMembership membership;
+    private final ClusterClient clusterClient;
+
+    @Autowired
+    public OwnerRoutingInterceptor(ClusterMembership membership, ClusterClient clusterClient) {
+        this.membership = membership;
+        this.clusterClient = clusterClient;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!(handler instanceof HandlerMethod method) || request.getHeader(ClusterClient.FORWARDED_HEADER) != null) {
+            return true;
+        }
+        RoutedToOwner routed = method.getMethodAnnotation(RoutedToOwner.class);
+        if (routed == null) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String roadSegmentId = variables == null ? null : variables.get(routed.value());
+        if (roadSegmentId == null || membership.isLocal(roadSegmentId)) {
+            return true;
+        }
+        clusterClient.forward(membership.ownerOf(roadSegmentId), request, response);
+        return false;
+    }
+}
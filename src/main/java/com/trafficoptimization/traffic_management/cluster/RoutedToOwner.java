@@ -0,0 +1,20 @@
+package com.trafficoptimization.traffic_management.cluster;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler method that only the owner of a road segment can answer. In cluster mode,
+ * {@link OwnerRoutingInterceptor} forwards such requests to the owner when it is another node.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RoutedToOwner {
+
+    /**
+     * The path variable holding the road segment id.
+     */
+    String value() default "id";
+}
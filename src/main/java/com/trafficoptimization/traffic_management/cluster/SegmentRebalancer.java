@@ -0,0 +1,170 @@
+package com.trafficoptimization.traffic_management.cluster;
+
+import com.trafficoptimization.traffic_management.aggregate.SegmentAggregateStore;
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.forecast.TrafficForecaster;
+import com.trafficoptimization.traffic_management.hotspot.HotspotDetector;
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.RecordIngestionResult;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
+import com.trafficoptimization.traffic_management.recent.RecentReadingStore;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.rollup.RollupService;
+import com.trafficoptimization.traffic_management.service.SegmentCacheEvictor;
+import com.trafficoptimization.traffic_management.service.TrafficServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands the readings of segments this node no longer owns to their owners. Each such segment is
+ * copied page by page through the owner's node-local ingestion, and every page is deleted here once
+ * the owner has accepted it, so an interrupted move resumes where it stopped and never loses rows.
+ * The moved readings are new rows on the owner, which rebuilds its derived state from them. Once
+ * the last page is handed over, everything derived from the segment here is dropped: its aggregate,
+ * recent readings, rollups, hotspot window, forecast state and cached reads, so that it is neither
+ * reported by two nodes nor counted twice should it ever move back. Passes run one at a time on a
+ * background thread, after every membership change and once at startup. A segment whose owner
+ * cannot be reached stays here until the next pass.
+ */
+@Component
+@ConditionalOnProperty(name = "traffic.cluster.enabled", havingValue = "true")
+public class SegmentRebalancer implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentRebalancer.class);
+
+    private final TrafficServiceImpl localTrafficService;
+    private final TrafficDataRepository trafficDataRepository;
+    private final SegmentAggregateStore aggregateStore;
+    private final RecentReadingStore recentReadings;
+    private final RollupService rollupService;
+    private final HotspotDetector hotspotDetector;
+    private final TrafficForecaster forecaster;
+    private final SegmentCacheEvictor cacheEvictor;
+    private final ClusterMembership membership;
+    private final ClusterClient clusterClient;
+    private final int batchSize;
+    private final ExecutorService executor;
+    // Passes submitted and not yet finished
+    private final AtomicInteger pending = new AtomicInteger();
+
+    @Autowired
+    public SegmentRebalancer(TrafficServiceImpl localTrafficService, TrafficDataRepository trafficDataRepository,
+                             SegmentAggregateStore aggregateStore, RecentReadingStore recentReadings,
+                             RollupService rollupService, HotspotDetector hotspotDetector,
+                             TrafficForecaster forecaster, SegmentCacheEvictor cacheEvictor,
+                             ClusterMembership membership, ClusterClient clusterClient, WorkerThreads workerThreads,
+                             @Value("${traffic.ingest.batch-size:500}") int batchSize) {
+        this.localTrafficService = localTrafficService;
+        this.trafficDataRepository = trafficDataRepository;
+        this.aggregateStore = aggregateStore;
+        this.recentReadings = recentReadings;
+        this.rollupService = rollupService;
+        this.hotspotDetector = hotspotDetector;
+        this.forecaster = forecaster;
+        this.cacheEvictor = cacheEvictor;
+        this.membership = membership;
+        this.clusterClient = clusterClient;
+        this.batchSize = batchSize;
+        this.executor = Executors.newSingleThreadExecutor(workerThreads.threadFactory("cluster-rebalance-"));
+    }
+
+    public void rebalanceAsync() {
+        pending.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                rebalance();
+            } catch (RuntimeException e) {
+                log.error("Rebalancing failed", e);
+            } finally {
+                pending.decrementAndGet();
+            }
+        });
+    }
+
+    public boolean isRebalancing() {
+        return pending.get() > 0;
+    }
+
+    /**
+     * @return the number of readings handed to other nodes
+     */
+    long rebalance() {
+        long start = System.currentTimeMillis();
+        long moved = 0;
+        int segments = 0;
+        for (String roadSegmentId : trafficDataRepository.findDistinctRoadSegmentIds()) {
+            String owner = membership.ownerOf(roadSegmentId);
+            if (owner.equals(membership.getSelf())) {
+                continue;
+            }
+            try {
+                moved += move(roadSegmentId, owner);
+                segments++;
+            } catch (NodeUnavailableException | NodeRejectedRequestException e) {
+                log.warn("Keeping road segment {} until the next rebalance: {}", roadSegmentId, e.getMessage());
+            }
+        }
+        if (segments > 0) {
+            log.info("Handed {} readings of {} road segments to their owners in {} ms", moved, segments,
+                    System.currentTimeMillis() - start);
+        }
+        return moved;
+    }
+
+    private long move(String roadSegmentId, String owner) {
+        TrafficQuery query = TrafficQuery.roadSegment(roadSegmentId);
+        long moved = 0;
+        while (true) {
+            // Always the first page, since every page handed over is deleted
+            List<TrafficData> rows = localTrafficService.getTrafficDataPage(query, null, batchSize).getItems();
+            if (rows.isEmpty()) {
+                forget(roadSegmentId);
+                return moved;
+            }
+            BatchIngestionResult result = clusterClient.saveBatch(owner, rows);
+            List<Long> accepted = new ArrayList<>(rows.size());
+            String rejection = null;
+            for (RecordIngestionResult recordResult : result.getResults()) {
+                if (recordResult.getStatus() == RecordIngestionResult.Status.ACCEPTED) {
+                    accepted.add(rows.get(recordResult.getIndex()).getId());
+                } else if (rejection == null) {
+                    rejection = recordResult.getError();
+                }
+            }
+            trafficDataRepository.deleteAllByIdInBatch(accepted);
+            moved += accepted.size();
+            if (rejection != null) {
+                // Retrying would be rejected again; leave the rest of the segment here
+                log.warn("{} rejected readings of road segment {}, keeping {} of them here: {}", owner,
+                        roadSegmentId, rows.size() - accepted.size(), rejection);
+                return moved;
+            }
+        }
+    }
+
+    private void forget(String roadSegmentId) {
+        aggregateStore.remove(roadSegmentId);
+        recentReadings.remove(roadSegmentId);
+        rollupService.remove(roadSegmentId);
+        hotspotDetector.remove(roadSegmentId);
+        forecaster.remove(roadSegmentId);
+        cacheEvictor.evict(roadSegmentId);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,51 @@
+package com.trafficoptimization.traffic_management.codec;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary wire format for batches of readings, {@value #MEDIA_TYPE_VALUE}. A stream is a
+ * header followed by frames until the end of input; all fixed-width numbers are big-endian.
+ *
+ * <pre>
+ * header   "TDB" 0x01 (magic and version)
+ * segment  0x01, varint byte length, UTF-8 road segment id
+ *          (defines the next dictionary entry, numbered from 0)
+ * reading  0x02, varint dictionary entry, zigzag varint timestamp delta in ms,
+ *          presence flags, [int32 vehicle count], [float64 average speed], [float64 congestion level]
+ * </pre>
+ *
+ * Timestamp deltas are relative to the previous reading, the first to the epoch, with timestamps
+ * read as UTC and truncated to the millisecond. Reading ids are not transmitted. The dictionary
+ * lets each segment id cross the wire once per stream, and a stream can be produced and consumed
+ * one reading at a time.
+ */
+public final class TrafficBinaryFormat {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-traffic-binary";
+
+    static final int MAGIC = 0x54444201;
+
+    static final int SEGMENT_FRAME = 0x01;
+    static final int READING_FRAME = 0x02;
+
+    static final int HAS_VEHICLE_COUNT = 0x01;
+    static final int HAS_AVERAGE_SPEED = 0x02;
+    static final int HAS_CONGESTION_LEVEL = 0x04;
+
+    // Bounds on what a decoder accepts from an untrusted stream
+    static final int MAX_SEGMENT_ID_BYTES = 1024;
+    static final int MAX_SEGMENTS = 1 << 20;
+
+    private TrafficBinaryFormat() {
+    }
+
+    static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1000 + timestamp.getNano() / 1_000_000;
+    }
+
+    static LocalDateTime fromEpochMillis(long epochMillis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000),
+                (int) Math.floorMod(epochMillis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,155 @@
+package com.trafficoptimization.traffic_management.codec;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.trafficoptimization.traffic_management.codec.TrafficBinaryFormat.*;
+
+/**
+ * Decodes readings in the {@link TrafficBinaryFormat} straight from a stream, one at a time,
+ * through a private buffer so that no per-byte call reaches the underlying stream. Readings of the
+ * same segment share one id string. Not thread-safe.
+ */
+public class TrafficBinaryReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer view = ByteBuffer.wrap(buffer);
+    private int position;
+    private int limit;
+
+    private final List<String> dictionary = new ArrayList<>();
+    private long previousTimestamp;
+
+    /**
+     * @throws IOException if the stream does not start with the format's header
+     */
+    public TrafficBinaryReader(InputStream in) throws IOException {
+        this.in = in;
+        if (!fill(4) || view.getInt(position) != MAGIC) {
+            throw new IOException("Not a traffic binary stream, or an unsupported version");
+        }
+        position += 4;
+    }
+
+    /**
+     * The next reading, or {@code null} at the end of the stream.
+     *
+     * @throws IOException if the stream is truncated or malformed; nothing further can be read
+     */
+    public TrafficData read() throws IOException {
+        while (true) {
+            if (!fill(1)) {
+                return null;
+            }
+            int frame = buffer[position++];
+            if (frame == SEGMENT_FRAME) {
+                readSegment();
+            } else if (frame == READING_FRAME) {
+                return readReading();
+            } else {
+                throw new IOException("Unknown frame type " + frame);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readSegment() throws IOException {
+        long length = readVarint();
+        if (length < 0 || length > MAX_SEGMENT_ID_BYTES) {
+            throw new IOException("Road segment id length " + length + " is outside 0 to " + MAX_SEGMENT_ID_BYTES);
+        }
+        if (dictionary.size() == MAX_SEGMENTS) {
+            throw new IOException("More than " + MAX_SEGMENTS + " road segments in one stream");
+        }
+        require((int) length);
+        dictionary.add(new String(buffer, position, (int) length, StandardCharsets.UTF_8));
+        position += (int) length;
+    }
+
+    private TrafficData readReading() throws IOException {
+        long segment = readVarint();
+        if (segment < 0 || segment >= dictionary.size()) {
+            throw new IOException("Reading refers to undefined road segment " + segment);
+        }
+        long zigzag = readVarint();
+        previousTimestamp += (zigzag >>> 1) ^ -(zigzag & 1);
+
+        require(1);
+        int flags = buffer[position++];
+        Integer vehicleCount = null;
+        Double averageSpeed = null;
+        Double congestionLevel = null;
+        if ((flags & HAS_VEHICLE_COUNT) != 0) {
+            require(4);
+            vehicleCount = view.getInt(position);
+            position += 4;
+        }
+        if ((flags & HAS_AVERAGE_SPEED) != 0) {
+            require(8);
+            averageSpeed = view.getDouble(position);
+            position += 8;
+        }
+        if ((flags & HAS_CONGESTION_LEVEL) != 0) {
+            require(8);
+            congestionLevel = view.getDouble(position);
+            position += 8;
+        }
+        return new TrafficData(null, fromEpochMillis(previousTimestamp), dictionary.get((int) segment),
+                vehicleCount, averageSpeed, congestionLevel);
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            require(1);
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private void require(int bytes) throws IOException {
+        if (!fill(bytes)) {
+            throw new EOFException("Stream ends inside a frame");
+        }
+    }
+
+    /**
+     * Make at least {@code bytes} unread bytes available, compacting and refilling the buffer as
+     * needed. Returns {@code false} if the stream ends first.
+     */
+    private boolean fill(int bytes) throws IOException {
+        if (limit - position >= bytes) {
+            return true;
+        }
+        System.arraycopy(buffer, position, buffer, 0, limit - position);
+        limit -= position;
+        position = 0;
+        while (limit < bytes) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                return false;
+            }
+            limit += read;
+        }
+        return true;
+    }
+}
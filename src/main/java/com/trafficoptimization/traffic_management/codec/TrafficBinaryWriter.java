@@ -0,0 +1,86 @@
+package com.trafficoptimization.traffic_management.codec;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.trafficoptimization.traffic_management.codec.TrafficBinaryFormat.*;
+
+/**
+ * Encodes readings in the {@link TrafficBinaryFormat}, writing each segment id to the dictionary
+ * the first time it is seen. Output is buffered until {@link #flush()} or {@link #close()}. Not
+ * thread-safe.
+ */
+public class TrafficBinaryWriter implements Closeable, Flushable {
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private long previousTimestamp;
+
+    public TrafficBinaryWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.out.writeInt(MAGIC);
+    }
+
+    public void write(TrafficData data) throws IOException {
+        if (data.getTimestamp() == null || data.getRoadSegmentId() == null) {
+            throw new IllegalArgumentException("Readings need a timestamp and a road segment id to be encoded");
+        }
+        Integer segment = dictionary.get(data.getRoadSegmentId());
+        if (segment == null) {
+            segment = dictionary.size();
+            dictionary.put(data.getRoadSegmentId(), segment);
+            byte[] id = data.getRoadSegmentId().getBytes(StandardCharsets.UTF_8);
+            out.writeByte(SEGMENT_FRAME);
+            writeVarint(id.length);
+            out.write(id);
+        }
+
+        long timestamp = toEpochMillis(data.getTimestamp());
+        long delta = timestamp - previousTimestamp;
+        previousTimestamp = timestamp;
+
+        int flags = (data.getVehicleCount() != null ? HAS_VEHICLE_COUNT : 0)
+                | (data.getAverageSpeed() != null ? HAS_AVERAGE_SPEED : 0)
+                | (data.getCongestionLevel() != null ? HAS_CONGESTION_LEVEL : 0);
+        out.writeByte(READING_FRAME);
+        writeVarint(segment);
+        writeVarint((delta << 1) ^ (delta >> 63));
+        out.writeByte(flags);
+        if (data.getVehicleCount() != null) {
+            out.writeInt(data.getVehicleCount());
+        }
+        if (data.getAverageSpeed() != null) {
+            out.writeDouble(data.getAverageSpeed());
+        }
+        if (data.getCongestionLevel() != null) {
+            out.writeDouble(data.getCongestionLevel());
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
@@ -0,0 +1,17 @@
+package com.trafficoptimization.traffic_management.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-segment read caches. Sizing, TTL and statistics are set through spring.cache.caffeine.spec;
+ * the cache names must also be listed in spring.cache.cache-names so their metrics are bound at
+ * startup.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String EMISSIONS_ESTIMATES = "emissionsEstimates";
+    public static final String AVERAGE_CONGESTION = "averageCongestion";
+}
@@ -0,0 +1,26 @@
+package com.trafficoptimization.traffic_management.config;
+
+import com.trafficoptimization.traffic_management.cluster.OwnerRoutingInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * In cluster mode, requests about one road segment are forwarded to the segment's owner.
+ */
+@Configuration
+@ConditionalOnProperty(name = "traffic.cluster.enabled", havingValue = "true")
+public class ClusterWebConfig implements WebMvcConfigurer {
+
+    private final OwnerRoutingInterceptor ownerRoutingInterceptor;
+
+    public ClusterWebConfig(OwnerRoutingInterceptor ownerRoutingInterceptor) {
+        this.ownerRoutingInterceptor = ownerRoutingInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(ownerRoutingInterceptor).addPathPatterns("/api/**");
+    }
+}
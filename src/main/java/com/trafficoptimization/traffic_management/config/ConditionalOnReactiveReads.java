@@ -0,0 +1,20 @@
+package com.trafficoptimization.traffic_management.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the beans behind the reactive read endpoints. They are only created when
+ * spring.datasource.url points at H2, the one database with an R2DBC driver on the classpath, and
+ * traffic.reactive.enabled is not false. Against any other database the application starts without
+ * /api/traffic/reactive.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@ConditionalOnExpression("${traffic.reactive.enabled:true} and '${spring.datasource.url:}'.startsWith('jdbc:h2:')")
+public @interface ConditionalOnReactiveReads {
+}
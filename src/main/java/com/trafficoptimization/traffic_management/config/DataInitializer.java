@@ -2,24 +2,43 @@ package com.trafficoptimization.traffic_management.config;
 
 import com.trafficoptimization.traffic_management.model.TrafficData;
 import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.service.TrafficService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 
+/**
+ * Sample readings for local development, only with the {@code dev} profile. They are inserted
+ * once; later boots find them and leave the table alone.
+ */
 @Component
+@Profile("dev")
 public class DataInitializer implements CommandLineRunner {
     
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+    
+    private final TrafficService trafficService;
     private final TrafficDataRepository trafficDataRepository;
     
     @Autowired
-    public DataInitializer(TrafficDataRepository trafficDataRepository) {
+    public DataInitializer(TrafficService trafficService, TrafficDataRepository trafficDataRepository) {
+        this.trafficService = trafficService;
         this.trafficDataRepository = trafficDataRepository;
     }
     
     @Override
     public void run(String... args) {
+        if (trafficDataRepository.existsByRoadSegmentId("A8-KM125-126")
+                || trafficDataRepository.existsByRoadSegmentId("B27-KM45-46")) {
+            log.info("Sample data already present, not seeding");
+            return;
+        }
+        
         // Initialize with sample data
         TrafficData data1 = new TrafficData(null, LocalDateTime.now().minusHours(2), "A8-KM125-126", 85, 70.5, 0.65);
         TrafficData data2 = new TrafficData(null, LocalDateTime.now().minusHours(1), "A8-KM125-126", 120, 45.2, 0.85);
@@ -29,6 +48,7 @@ public class DataInitializer implements CommandLineRunner {
         TrafficData data5 = new TrafficData(null, LocalDateTime.now().minusHours(1), "B27-KM45-46", 75, 60.8, 0.55);
         TrafficData data6 = new TrafficData(null, LocalDateTime.now(), "B27-KM45-46", 110, 30.5, 0.9);
         
-        trafficDataRepository.saveAll(Arrays.asList(data1, data2, data3, data4, data5, data6));
+        // Go through the service so in-memory aggregates see the sample data
+        trafficService.saveTrafficDataBatch(Arrays.asList(data1, data2, data3, data4, data5, data6));
     }
 }
@@ -0,0 +1,75 @@
+package com.trafficoptimization.traffic_management.config;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * R2DBC access to the same H2 database as the JDBC data source, for the reactive read endpoints.
+ * The URL is derived from spring.datasource.url, so profiles and tests that point JDBC elsewhere
+ * move both; with a database other than H2 there is no reactive access at all. Connections come from their own pool, sized independently of Hikari; the reactive
+ * reads only hold one while a page is fetched. The embedded driver executes statements on the
+ * thread that obtained the connection, blocking it, so connections are handed out on worker threads
+ * of their own, at most one per pooled connection on platform threads. Otherwise a connection given
+ * back would pass straight to the next waiting reader on the releasing thread, and every statement
+ * would end up queued on one thread. The pool is deliberately not a bean: Spring Boot
+ * backs off from the JDBC data source, and with it JPA, once a ConnectionFactory bean exists. For
+ * the same reason its R2DBC auto-configuration is excluded in application.properties.
+ */
+@Configuration
+@ConditionalOnReactiveReads
+public class ReactiveDatabaseConfig implements DisposableBean {
+
+    private static final String JDBC_H2_PREFIX = "jdbc:h2:";
+
+    private final Scheduler statementScheduler;
+    private final ConnectionPool connectionPool;
+
+    public ReactiveDatabaseConfig(WorkerThreads workerThreads,
+                                  @Value("${spring.datasource.url}") String jdbcUrl,
+                                  @Value("${spring.datasource.username:sa}") String username,
+                                  @Value("${spring.datasource.password:}") String password,
+                                  @Value("${traffic.reactive.pool.max-size:16}") int maxSize,
+                                  @Value("${traffic.reactive.pool.max-acquire-time:PT5S}") Duration maxAcquireTime) {
+        H2ConnectionFactory connectionFactory = new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url(jdbcUrl.substring(JDBC_H2_PREFIX.length()))
+                .username(username)
+                .password(password)
+                .build());
+        this.statementScheduler = Schedulers.fromExecutor(workerThreads.taskExecutor("reactive-db-", maxSize));
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("reactive-reads")
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                // Opened on the acquiring thread rather than Reactor's single thread, then handed out
+                .allocatorSubscribeOn(Schedulers.immediate())
+                .customizer(pool -> pool.acquisitionScheduler(statementScheduler))
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient() {
+        return DatabaseClient.create(connectionPool);
+    }
+
+    public PoolMetrics getPoolMetrics() {
+        return connectionPool.getMetrics().orElseThrow();
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+        statementScheduler.dispose();
+    }
+}
@@ -0,0 +1,23 @@
+package com.trafficoptimization.traffic_management.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Sizes the shared scheduler that runs the {@code @Scheduled} housekeeping jobs (cache and window
+ * eviction, rollup flushes, aggregate snapshots, live heartbeats) so that one slow run does not
+ * hold back the rest. Jobs that can run for long, such as the retention purge, hand their work to
+ * a thread of their own. In virtual-thread mode every run gets its own thread and the size is unused.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskSchedulerCustomizer schedulerPoolSize(@Value("${traffic.scheduling.pool-size:4}") int poolSize) {
+        return scheduler -> scheduler.setPoolSize(poolSize);
+    }
+}
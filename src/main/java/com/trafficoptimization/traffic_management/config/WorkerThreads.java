@@ -0,0 +1,64 @@
+package com.trafficoptimization.traffic_management.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the application's own background threads so that they follow spring.threads.virtual.enabled
+ * like Tomcat, @Scheduled jobs and the MVC async executor do. Virtual threads are only used when the
+ * property is set and the runtime is Java 21 or later; otherwise these are daemon platform threads.
+ */
+@Component
+public class WorkerThreads {
+
+    private final boolean virtual;
+
+    @Autowired
+    public WorkerThreads(Environment environment) {
+        this(Threading.VIRTUAL.isActive(environment));
+    }
+
+    public WorkerThreads(boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    public static WorkerThreads platform() {
+        return new WorkerThreads(false);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public ThreadFactory threadFactory(String namePrefix) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Executor for short blocking tasks. On platform threads the pool size bounds the number of
+     * threads; with virtual threads each task gets its own thread, so one blocked task never delays
+     * another.
+     */
+    public Executor taskExecutor(String namePrefix, int platformThreads) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(namePrefix);
+        }
+        return Executors.newFixedThreadPool(platformThreads, threadFactory(namePrefix));
+    }
+}
@@ -0,0 +1,51 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.service.IngestionBuffer;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/traffic/async")
+public class AsyncIngestionController {
+
+    private final IngestionBuffer ingestionBuffer;
+    private final String retryAfterSeconds;
+
+    @Autowired
+    public AsyncIngestionController(IngestionBuffer ingestionBuffer,
+                                    @Value("${traffic.ingest.async.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.ingestionBuffer = ingestionBuffer;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    @PostMapping
+    public ResponseEntity<Void> addTrafficData(@Valid @RequestBody TrafficData trafficData) {
+        return accept(List.of(trafficData));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> addTrafficDataBatch(@RequestBody List<TrafficData> batch) {
+        return accept(batch);
+    }
+
+    private ResponseEntity<Void> accept(List<TrafficData> readings) {
+        if (!ingestionBuffer.enqueue(readings)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                    .build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+}
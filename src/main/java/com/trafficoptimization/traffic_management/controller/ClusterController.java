@@ -0,0 +1,183 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.trafficoptimization.traffic_management.cluster.ClusterCoordinator;
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.ClusterStatus;
+import com.trafficoptimization.traffic_management.model.CongestionForecast;
+import com.trafficoptimization.traffic_management.model.CursorPage;
+import com.trafficoptimization.traffic_management.model.Hotspot;
+import com.trafficoptimization.traffic_management.model.NetworkEmissionsSnapshot;
+import com.trafficoptimization.traffic_management.model.RollupBucket;
+import com.trafficoptimization.traffic_management.model.RouteSegmentInput;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
+import com.trafficoptimization.traffic_management.route.LocalRouteInputs;
+import com.trafficoptimization.traffic_management.service.NetworkSummaryServiceImpl;
+import com.trafficoptimization.traffic_management.service.TrafficServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.trafficoptimization.traffic_management.controller.TrafficController.APPLICATION_NDJSON_VALUE;
+
+/**
+ * Cluster membership, and the node-local traffic, summary and route endpoints other members call:
+ * they read and write this node's own store only, without routing to owners or gathering from other nodes.
+ */
+@RestController
+@RequestMapping("/api/cluster")
+@ConditionalOnProperty(name = "traffic.cluster.enabled", havingValue = "true")
+public class ClusterController {
+
+    private final ClusterCoordinator clusterCoordinator;
+    private final TrafficServiceImpl localTrafficService;
+    private final NetworkSummaryServiceImpl localSummaries;
+    private final LocalRouteInputs localRouteInputs;
+    private final ObjectWriter trafficDataWriter;
+
+    @Autowired
+    public ClusterController(ClusterCoordinator clusterCoordinator, TrafficServiceImpl localTrafficService,
+                             NetworkSummaryServiceImpl localSummaries, LocalRouteInputs localRouteInputs,
+                             ObjectMapper objectMapper) {
+        this.clusterCoordinator = clusterCoordinator;
+        this.localTrafficService = localTrafficService;
+        this.localSummaries = localSummaries;
+        this.localRouteInputs = localRouteInputs;
+        this.trafficDataWriter = objectMapper.writerFor(TrafficData.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @GetMapping
+    public ResponseEntity<ClusterStatus> getStatus() {
+        return new ResponseEntity<>(clusterCoordinator.getStatus(), HttpStatus.OK);
+    }
+
+    @PostMapping("/members")
+    public ResponseEntity<List<String>> join(@RequestParam("url") String url) {
+        return new ResponseEntity<>(clusterCoordinator.join(url), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/members")
+    public ResponseEntity<List<String>> leave(@RequestParam("url") String url) {
+        return new ResponseEntity<>(clusterCoordinator.leave(url), HttpStatus.OK);
+    }
+
+    // The complete member list, sent by the member that handled a join or leave
+    @PutMapping("/members")
+    public ResponseEntity<Void> updateMembers(@RequestBody List<String> members) {
+        clusterCoordinator.apply(members);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @PostMapping("/local/traffic")
+    public ResponseEntity<TrafficData> addLocalTrafficData(@RequestBody TrafficData trafficData) {
+        return new ResponseEntity<>(localTrafficService.saveTrafficData(trafficData), HttpStatus.CREATED);
+    }
+
+    @PostMapping(value = "/local/traffic/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchIngestionResult> addLocalTrafficDataBatch(@RequestBody List<TrafficData> batch) {
+        return new ResponseEntity<>(localTrafficService.saveTrafficDataBatch(batch), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/local/traffic", params = "limit")
+    public ResponseEntity<CursorPage<TrafficData>> getLocalTrafficDataPage(
+            @RequestParam(value = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(value = "end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam("limit") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        return new ResponseEntity<>(localTrafficService.getTrafficDataPage(query(start, end), cursor, limit),
+                HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/local/traffic", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamLocalTrafficData(
+            @RequestParam(value = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(value = "end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        TrafficQuery query = query(start, end);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = trafficDataWriter.createGenerator(out)) {
+                localTrafficService.streamTrafficData(query, data -> {
+                    try {
+                        trafficDataWriter.writeValue(generator, data);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    @GetMapping("/local/emissions/network")
+    public ResponseEntity<NetworkEmissionsSnapshot> getLocalNetworkEmissions(
+            @RequestParam(value = "roadSegmentId", required = false) List<String> roadSegmentIds,
+            @RequestParam("top") int top,
+            @RequestParam("includeSegments") boolean includeSegments) {
+        return new ResponseEntity<>(localSummaries.estimateNetworkEmissions(roadSegmentIds, top, includeSegments),
+                HttpStatus.OK);
+    }
+
+    @GetMapping("/local/hotspots")
+    public ResponseEntity<List<Hotspot>> getLocalHotspots(@RequestParam("limit") int limit) {
+        return new ResponseEntity<>(localSummaries.getHotspots(limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/local/forecast")
+    public ResponseEntity<List<CongestionForecast>> getLocalMostCongested(
+            @RequestParam("horizon") int horizonMinutes,
+            @RequestParam("limit") int limit) {
+        return new ResponseEntity<>(localSummaries.getMostCongested(horizonMinutes, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/local/rollups")
+    public ResponseEntity<List<RollupBucket>> getLocalRollups(
+            @RequestParam(value = "roadSegmentId", required = false) String roadSegmentId,
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam("granularity") Duration granularity) {
+        return new ResponseEntity<>(localSummaries.queryRollups(roadSegmentId, start, end, granularity), HttpStatus.OK);
+    }
+
+    @PostMapping("/local/route-inputs")
+    public ResponseEntity<Map<String, RouteSegmentInput>> getLocalRouteInputs(@RequestBody List<String> roadSegmentIds) {
+        return new ResponseEntity<>(localRouteInputs.getInputs(roadSegmentIds), HttpStatus.OK);
+    }
+
+    @PostMapping("/local/successors")
+    public ResponseEntity<Map<String, List<String>>> getLocalSuccessors(@RequestBody List<String> roadSegmentIds) {
+        return new ResponseEntity<>(localRouteInputs.getSuccessors(roadSegmentIds), HttpStatus.OK);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    private static TrafficQuery query(LocalDateTime start, LocalDateTime end) {
+        if (start == null && end == null) {
+            return TrafficQuery.all();
+        }
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("start and end must be given together");
+        }
+        return TrafficQuery.timeRange(start, end);
+    }
+}
@@ -0,0 +1,36 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers requests that could not obtain a database connection within the pool's connection
+ * timeout with 503 and Retry-After, so clients back off instead of piling more waiters onto the pool.
+ */
+@RestControllerAdvice
+public class DatabaseBusyHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseBusyHandler.class);
+
+    private final String retryAfterSeconds;
+
+    public DatabaseBusyHandler(@Value("${traffic.db.busy-retry-after-seconds:1}") int retryAfterSeconds) {
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<String> handleConnectionUnavailable(RuntimeException e) {
+        log.warn("No database connection available: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                .body("Database busy, retry later");
+    }
+}
@@ -1,28 +1,64 @@
 package com.trafficoptimization.traffic_management.controller;
 
+import com.trafficoptimization.traffic_management.cluster.RoutedToOwner;
 import com.trafficoptimization.traffic_management.model.EmissionsEstimate;
+import com.trafficoptimization.traffic_management.model.NetworkEmissionsSnapshot;
 import com.trafficoptimization.traffic_management.service.EmissionsService;
+import com.trafficoptimization.traffic_management.service.NetworkSummaryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/traffic")
 public class EmissionsController {
 
     private final EmissionsService emissionsService;
+    private final NetworkSummaryService networkSummaryService;
 
     @Autowired
-    public EmissionsController(EmissionsService emissionsService) {
+    public EmissionsController(EmissionsService emissionsService, NetworkSummaryService networkSummaryService) {
         this.emissionsService = emissionsService;
+        this.networkSummaryService = networkSummaryService;
     }
 
+    @RoutedToOwner("roadSegmentId")
     @GetMapping("/emissions/estimate/{roadSegmentId}")
-    public ResponseEntity<EmissionsEstimate> getEmissionsEstimate(@PathVariable String roadSegmentId) {
-        EmissionsEstimate emissions = emissionsService.estimateEmissionsForRoadSegment(roadSegmentId);
+    public ResponseEntity<EmissionsEstimate> getEmissionsEstimate(
+            @PathVariable String roadSegmentId,
+            @RequestParam(value = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(value = "end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        if (start == null && end == null) {
+            return ResponseEntity.ok(emissionsService.estimateEmissionsForRoadSegment(roadSegmentId));
+        }
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("start and end must be given together");
+        }
+        EmissionsEstimate emissions = emissionsService.estimateEmissionsForRoadSegment(roadSegmentId, start, end);
         return ResponseEntity.ok(emissions);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/emissions/network")
+    public ResponseEntity<NetworkEmissionsSnapshot> getNetworkEmissions(
+            @RequestParam(value = "roadSegmentId", required = false) List<String> roadSegmentIds,
+            @RequestParam(value = "top", defaultValue = "10") int top,
+            @RequestParam(value = "includeSegments", defaultValue = "true") boolean includeSegments) {
+        NetworkEmissionsSnapshot snapshot = networkSummaryService.estimateNetworkEmissions(roadSegmentIds, top, includeSegments);
+        return ResponseEntity.ok(snapshot);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
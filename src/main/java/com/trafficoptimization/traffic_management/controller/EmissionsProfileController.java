@@ -0,0 +1,70 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.emissions.EmissionsModels;
+import com.trafficoptimization.traffic_management.emissions.EmissionsProfileSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Emissions profiles in use, replaceable at runtime without a restart.
+ */
+@RestController
+@RequestMapping("/api/traffic/emissions/profiles")
+public class EmissionsProfileController {
+
+    private final EmissionsModels emissionsModels;
+
+    @Autowired
+    public EmissionsProfileController(EmissionsModels emissionsModels) {
+        this.emissionsModels = emissionsModels;
+    }
+
+    @GetMapping
+    public ResponseEntity<EmissionsProfileSet> getProfiles() {
+        return new ResponseEntity<>(emissionsModels.getProfiles(), HttpStatus.OK);
+    }
+
+    @PutMapping
+    public ResponseEntity<EmissionsProfileSet> putProfiles(@RequestBody EmissionsProfileSet profiles) {
+        emissionsModels.apply(profiles);
+        return new ResponseEntity<>(emissionsModels.getProfiles(), HttpStatus.OK);
+    }
+
+    /**
+     * Re-read the configured profile file.
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<EmissionsProfileSet> reloadProfiles() {
+        emissionsModels.reload();
+        return new ResponseEntity<>(emissionsModels.getProfiles(), HttpStatus.OK);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidProfiles(IllegalArgumentException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleNoProfileFile(IllegalStateException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * The profile file could not be read or parsed. The profiles in use are unchanged, and a reload
+     * can be retried once the file is fixed.
+     */
+    @ExceptionHandler(UncheckedIOException.class)
+    public ResponseEntity<String> handleUnreadableProfileFile(UncheckedIOException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,54 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.cluster.RoutedToOwner;
+import com.trafficoptimization.traffic_management.forecast.TrafficForecaster;
+import com.trafficoptimization.traffic_management.model.CongestionForecast;
+import com.trafficoptimization.traffic_management.service.NetworkSummaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/traffic/forecast")
+public class ForecastController {
+
+    private final TrafficForecaster trafficForecaster;
+    private final NetworkSummaryService networkSummaryService;
+
+    @Autowired
+    public ForecastController(TrafficForecaster trafficForecaster, NetworkSummaryService networkSummaryService) {
+        this.trafficForecaster = trafficForecaster;
+        this.networkSummaryService = networkSummaryService;
+    }
+
+    @RoutedToOwner("roadSegmentId")
+    @GetMapping("/{roadSegmentId}")
+    public ResponseEntity<CongestionForecast> getForecast(
+            @PathVariable String roadSegmentId,
+            @RequestParam(value = "horizon", defaultValue = "15,30,60") List<Integer> horizonMinutes) {
+        return trafficForecaster.forecast(roadSegmentId, horizonMinutes)
+                .map(forecast -> new ResponseEntity<>(forecast, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<CongestionForecast>> getMostCongested(
+            @RequestParam(value = "horizon", defaultValue = "30") int horizonMinutes,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<CongestionForecast> forecasts = networkSummaryService.getMostCongested(horizonMinutes, limit);
+        return new ResponseEntity<>(forecasts, HttpStatus.OK);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
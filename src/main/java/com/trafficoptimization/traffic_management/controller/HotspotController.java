@@ -0,0 +1,31 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.model.Hotspot;
+import com.trafficoptimization.traffic_management.service.NetworkSummaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/traffic/hotspots")
+public class HotspotController {
+
+    private final NetworkSummaryService networkSummaryService;
+
+    @Autowired
+    public HotspotController(NetworkSummaryService networkSummaryService) {
+        this.networkSummaryService = networkSummaryService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Hotspot>> getHotspots(@RequestParam(value = "limit", defaultValue = "10") int limit) {
+        List<Hotspot> hotspots = networkSummaryService.getHotspots(limit);
+        return new ResponseEntity<>(hotspots, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,32 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.live.LiveTrafficBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/traffic/live")
+public class LiveTrafficController {
+
+    private final LiveTrafficBroadcaster broadcaster;
+
+    @Autowired
+    public LiveTrafficController(LiveTrafficBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @RequestParam(value = "roadSegmentId", required = false) List<String> roadSegmentIds,
+            @RequestParam(value = "threshold", required = false) Double threshold) {
+        return broadcaster.subscribe(roadSegmentIds == null ? Set.of() : Set.copyOf(roadSegmentIds), threshold);
+    }
+}
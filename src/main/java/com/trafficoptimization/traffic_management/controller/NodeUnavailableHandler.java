@@ -0,0 +1,42 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.cluster.NodeRejectedRequestException;
+import com.trafficoptimization.traffic_management.cluster.NodeUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers requests that needed another cluster node, which could not be reached, with 503 and
+ * Retry-After. A node that rejected the request as invalid has its status and body passed on.
+ */
+@RestControllerAdvice
+public class NodeUnavailableHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(NodeUnavailableHandler.class);
+
+    private final String retryAfterSeconds;
+
+    public NodeUnavailableHandler(@Value("${traffic.cluster.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    @ExceptionHandler(NodeUnavailableException.class)
+    public ResponseEntity<String> handleNodeUnavailable(NodeUnavailableException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                .body(e.getMessage());
+    }
+
+    @ExceptionHandler(NodeRejectedRequestException.class)
+    public ResponseEntity<String> handleNodeRejectedRequest(NodeRejectedRequestException e) {
+        log.debug(e.getMessage());
+        return ResponseEntity.status(e.getStatus()).body(e.getBody());
+    }
+}
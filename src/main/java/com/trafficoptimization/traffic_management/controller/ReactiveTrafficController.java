@@ -0,0 +1,79 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.cluster.RoutedToOwner;
+import com.trafficoptimization.traffic_management.config.ConditionalOnReactiveReads;
+import com.trafficoptimization.traffic_management.model.EmissionsEstimate;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
+import com.trafficoptimization.traffic_management.service.ReactiveTrafficService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static com.trafficoptimization.traffic_management.controller.TrafficController.APPLICATION_NDJSON_VALUE;
+
+/**
+ * Non-blocking variants of the streaming reads. Rows are written as newline-delimited JSON and
+ * requested from the database one at a time as the client takes them, so a slow client is
+ * throttled by its own connection instead of holding a database connection for the whole response.
+ */
+@RestController
+@RequestMapping("/api/traffic/reactive")
+@ConditionalOnReactiveReads
+public class ReactiveTrafficController {
+
+    private final ReactiveTrafficService reactiveTrafficService;
+
+    @Autowired
+    public ReactiveTrafficController(ReactiveTrafficService reactiveTrafficService) {
+        this.reactiveTrafficService = reactiveTrafficService;
+    }
+
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public Flux<TrafficData> streamAllTrafficData() {
+        return reactiveTrafficService.streamTrafficData(TrafficQuery.all());
+    }
+
+    @RoutedToOwner
+    @GetMapping(value = "/road-segment/{id}", produces = APPLICATION_NDJSON_VALUE)
+    public Flux<TrafficData> streamTrafficDataByRoadSegment(@PathVariable("id") String roadSegmentId) {
+        return reactiveTrafficService.streamTrafficData(TrafficQuery.roadSegment(roadSegmentId));
+    }
+
+    @GetMapping(value = "/time-range", produces = APPLICATION_NDJSON_VALUE)
+    public Flux<TrafficData> streamTrafficDataByTimeRange(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return reactiveTrafficService.streamTrafficData(TrafficQuery.timeRange(start, end));
+    }
+
+    @RoutedToOwner
+    @GetMapping(value = "/congestion/{id}", produces = APPLICATION_NDJSON_VALUE)
+    public Flux<TrafficData> streamCongestionPoints(
+            @PathVariable("id") String roadSegmentId,
+            @RequestParam(value = "threshold", defaultValue = "0.7") Double congestionThreshold) {
+        return reactiveTrafficService.streamTrafficData(TrafficQuery.congestionPoints(roadSegmentId, congestionThreshold));
+    }
+
+    @RoutedToOwner("roadSegmentId")
+    @GetMapping("/emissions/estimate/{roadSegmentId}")
+    public Mono<EmissionsEstimate> getEmissionsEstimate(@PathVariable String roadSegmentId) {
+        return reactiveTrafficService.estimateEmissions(roadSegmentId);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
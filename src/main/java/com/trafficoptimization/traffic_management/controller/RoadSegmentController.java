@@ -0,0 +1,67 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.cluster.RoutedToOwner;
+import com.trafficoptimization.traffic_management.model.RoadSegment;
+import com.trafficoptimization.traffic_management.segment.RoadSegmentService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/segments")
+public class RoadSegmentController {
+
+    private final RoadSegmentService roadSegmentService;
+
+    @Autowired
+    public RoadSegmentController(RoadSegmentService roadSegmentService) {
+        this.roadSegmentService = roadSegmentService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RoadSegment>> getAllSegments() {
+        return new ResponseEntity<>(roadSegmentService.getAll(), HttpStatus.OK);
+    }
+
+    @RoutedToOwner
+    @GetMapping("/{id}")
+    public ResponseEntity<RoadSegment> getSegment(@PathVariable("id") String id) {
+        return roadSegmentService.get(id)
+                .map(segment -> new ResponseEntity<>(segment, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @RoutedToOwner
+    @PutMapping("/{id}")
+    public ResponseEntity<RoadSegment> putSegment(@PathVariable("id") String id, @Valid @RequestBody RoadSegment segment) {
+        segment.setId(id);
+        return new ResponseEntity<>(roadSegmentService.save(segment), HttpStatus.OK);
+    }
+
+    @RoutedToOwner
+    @GetMapping("/{id}/next")
+    public ResponseEntity<List<String>> getNextSegments(@PathVariable("id") String id) {
+        return new ResponseEntity<>(roadSegmentService.getNext(id), HttpStatus.OK);
+    }
+
+    @RoutedToOwner
+    @PutMapping("/{id}/next")
+    public ResponseEntity<List<String>> putNextSegments(@PathVariable("id") String id, @RequestBody List<String> next) {
+        return new ResponseEntity<>(roadSegmentService.setNext(id, next), HttpStatus.OK);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
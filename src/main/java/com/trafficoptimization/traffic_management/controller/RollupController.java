@@ -0,0 +1,56 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.model.RollupBucket;
+import com.trafficoptimization.traffic_management.rollup.RollupService;
+import com.trafficoptimization.traffic_management.service.NetworkSummaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/traffic/rollups")
+public class RollupController {
+
+    private final RollupService rollupService;
+    private final NetworkSummaryService networkSummaryService;
+
+    @Autowired
+    public RollupController(RollupService rollupService, NetworkSummaryService networkSummaryService) {
+        this.rollupService = rollupService;
+        this.networkSummaryService = networkSummaryService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RollupBucket>> getRollups(
+            @RequestParam(value = "roadSegmentId", required = false) String roadSegmentId,
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(value = "granularity", defaultValue = "PT15M") Duration granularity) {
+        List<RollupBucket> buckets = networkSummaryService.queryRollups(roadSegmentId, start, end, granularity);
+        return new ResponseEntity<>(buckets, HttpStatus.OK);
+    }
+
+    @PostMapping("/backfill")
+    public ResponseEntity<Integer> backfill(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        int written = rollupService.backfill(start, end);
+        return new ResponseEntity<>(written, HttpStatus.OK);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,51 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.model.RouteEvaluation;
+import com.trafficoptimization.traffic_management.route.RouteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/routes")
+public class RouteController {
+
+    private final RouteService routeService;
+
+    @Autowired
+    public RouteController(RouteService routeService) {
+        this.routeService = routeService;
+    }
+
+    /**
+     * Evaluate routes given as lists of segment ids in driving order.
+     */
+    @PostMapping
+    public ResponseEntity<List<RouteEvaluation>> evaluateRoutes(@RequestBody List<List<String>> routes) {
+        return ResponseEntity.ok(routeService.evaluateRoutes(routes));
+    }
+
+    /**
+     * Evaluate the route between two segments that crosses the fewest segments of the road graph.
+     */
+    @GetMapping
+    public ResponseEntity<RouteEvaluation> findRoute(@RequestParam("from") String from, @RequestParam("to") String to) {
+        return routeService.findRoute(from, to)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+}
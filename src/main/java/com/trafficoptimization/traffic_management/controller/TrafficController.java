@@ -1,25 +1,64 @@
 package com.trafficoptimization.traffic_management.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.trafficoptimization.traffic_management.cluster.RoutedToOwner;
+import com.trafficoptimization.traffic_management.codec.TrafficBinaryFormat;
+import com.trafficoptimization.traffic_management.codec.TrafficBinaryReader;
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.CursorPage;
+import com.trafficoptimization.traffic_management.model.RecordIngestionResult;
 import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
 import com.trafficoptimization.traffic_management.service.TrafficService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/traffic")
 public class TrafficController {
     
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    
+    // Rows between explicit flushes of a streamed response
+    private static final int STREAM_FLUSH_ROWS = 500;
+    
     private final TrafficService trafficService;
+    private final ObjectReader trafficDataReader;
+    private final ObjectWriter trafficDataWriter;
+    private final int batchSize;
+    private final int maxPageSize;
     
     @Autowired
-    public TrafficController(TrafficService trafficService) {
+    public TrafficController(TrafficService trafficService, ObjectMapper objectMapper,
+                             @Value("${traffic.ingest.batch-size:500}") int batchSize,
+                             @Value("${traffic.query.max-page-size:1000}") int maxPageSize) {
         this.trafficService = trafficService;
+        this.trafficDataReader = objectMapper.readerFor(TrafficData.class);
+        this.trafficDataWriter = objectMapper.writerFor(TrafficData.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.batchSize = batchSize;
+        this.maxPageSize = maxPageSize;
     }
     
     @PostMapping
@@ -28,12 +67,79 @@ public class TrafficController {
         return new ResponseEntity<>(savedData, HttpStatus.CREATED);
     }
     
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchIngestionResult> addTrafficDataBatch(@RequestBody List<TrafficData> batch) {
+        BatchIngestionResult result = trafficService.saveTrafficDataBatch(batch);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+    
+    /**
+     * Newline-delimited JSON variant of the batch endpoint. The body is read line by line and
+     * handed to the service in chunks, so arbitrarily long streams are ingested in bounded memory.
+     * Lines that cannot be parsed are rejected individually.
+     */
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchIngestionResult> addTrafficDataStream(HttpServletRequest request) throws IOException {
+        ChunkedIngestion ingestion = new ChunkedIngestion();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            int index = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    ingestion.add(index, trafficDataReader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    ingestion.reject(index, e.getOriginalMessage());
+                }
+                index++;
+            }
+        }
+        return new ResponseEntity<>(ingestion.finish(), HttpStatus.OK);
+    }
+    
+    /**
+     * Binary variant of the batch endpoint, see {@link TrafficBinaryFormat}. Readings are decoded
+     * from the body one at a time and ingested in chunks like the NDJSON variant. A malformed
+     * frame cannot be skipped, so it is rejected and ends the batch.
+     */
+    @PostMapping(value = "/batch", consumes = TrafficBinaryFormat.MEDIA_TYPE_VALUE)
+    public ResponseEntity<BatchIngestionResult> addTrafficDataBinary(HttpServletRequest request) throws IOException {
+        ChunkedIngestion ingestion = new ChunkedIngestion();
+        TrafficBinaryReader reader;
+        try {
+            reader = new TrafficBinaryReader(request.getInputStream());
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        try (reader) {
+            int index = 0;
+            while (true) {
+                TrafficData data;
+                try {
+                    data = reader.read();
+                } catch (IOException e) {
+                    ingestion.reject(index, e.getMessage());
+                    break;
+                }
+                if (data == null) {
+                    break;
+                }
+                ingestion.add(index++, data);
+            }
+        }
+        return new ResponseEntity<>(ingestion.finish(), HttpStatus.OK);
+    }
+    
     @GetMapping
     public ResponseEntity<List<TrafficData>> getAllTrafficData() {
         List<TrafficData> trafficDataList = trafficService.getAllTrafficData();
         return new ResponseEntity<>(trafficDataList, HttpStatus.OK);
     }
     
+    @RoutedToOwner
     @GetMapping("/road-segment/{id}")
     public ResponseEntity<List<TrafficData>> getTrafficDataByRoadSegment(@PathVariable("id") String roadSegmentId) {
         List<TrafficData> trafficDataList = trafficService.getTrafficDataByRoadSegment(roadSegmentId);
@@ -48,6 +154,7 @@ public class TrafficController {
         return new ResponseEntity<>(trafficDataList, HttpStatus.OK);
     }
     
+    @RoutedToOwner
     @GetMapping("/congestion/{id}")
     public ResponseEntity<List<TrafficData>> getCongestionPoints(
             @PathVariable("id") String roadSegmentId,
@@ -56,9 +163,146 @@ public class TrafficController {
         return new ResponseEntity<>(congestionPoints, HttpStatus.OK);
     }
     
+    // Keyset-paginated variants, selected when a "limit" parameter is present
+    
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<TrafficData>> getAllTrafficDataPage(
+            @RequestParam("limit") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        return page(TrafficQuery.all(), cursor, limit);
+    }
+    
+    @RoutedToOwner
+    @GetMapping(value = "/road-segment/{id}", params = "limit")
+    public ResponseEntity<CursorPage<TrafficData>> getTrafficDataByRoadSegmentPage(
+            @PathVariable("id") String roadSegmentId,
+            @RequestParam("limit") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        return page(TrafficQuery.roadSegment(roadSegmentId), cursor, limit);
+    }
+    
+    @GetMapping(value = "/time-range", params = "limit")
+    public ResponseEntity<CursorPage<TrafficData>> getTrafficDataByTimeRangePage(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam("limit") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        return page(TrafficQuery.timeRange(start, end), cursor, limit);
+    }
+    
+    @RoutedToOwner
+    @GetMapping(value = "/congestion/{id}", params = "limit")
+    public ResponseEntity<CursorPage<TrafficData>> getCongestionPointsPage(
+            @PathVariable("id") String roadSegmentId,
+            @RequestParam(value = "threshold", defaultValue = "0.7") Double congestionThreshold,
+            @RequestParam("limit") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        return page(TrafficQuery.congestionPoints(roadSegmentId, congestionThreshold), cursor, limit);
+    }
+    
+    // Streaming variants, selected with "Accept: application/x-ndjson"
+    
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTrafficData() {
+        return stream(TrafficQuery.all());
+    }
+    
+    @RoutedToOwner
+    @GetMapping(value = "/road-segment/{id}", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTrafficDataByRoadSegment(@PathVariable("id") String roadSegmentId) {
+        return stream(TrafficQuery.roadSegment(roadSegmentId));
+    }
+    
+    @GetMapping(value = "/time-range", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTrafficDataByTimeRange(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return stream(TrafficQuery.timeRange(start, end));
+    }
+    
+    @RoutedToOwner
+    @GetMapping(value = "/congestion/{id}", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCongestionPoints(
+            @PathVariable("id") String roadSegmentId,
+            @RequestParam(value = "threshold", defaultValue = "0.7") Double congestionThreshold) {
+        return stream(TrafficQuery.congestionPoints(roadSegmentId, congestionThreshold));
+    }
+    
+    @RoutedToOwner
     @GetMapping("/average-congestion/{id}")
     public ResponseEntity<Double> getAverageCongestion(@PathVariable("id") String roadSegmentId) {
         Double averageCongestion = trafficService.calculateAverageCongestion(roadSegmentId);
         return new ResponseEntity<>(averageCongestion, HttpStatus.OK);
     }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+    
+    private ResponseEntity<CursorPage<TrafficData>> page(TrafficQuery query, String cursor, int limit) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+        return new ResponseEntity<>(trafficService.getTrafficDataPage(query, cursor, limit), HttpStatus.OK);
+    }
+    
+    private ResponseEntity<StreamingResponseBody> stream(TrafficQuery query) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = trafficDataWriter.createGenerator(out)) {
+                int[] written = {0};
+                trafficService.streamTrafficData(query, data -> {
+                    try {
+                        trafficDataWriter.writeValue(generator, data);
+                        generator.writeRaw('\n');
+                        if (++written[0] % STREAM_FLUSH_ROWS == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+    
+    /**
+     * Hands decoded readings to the service in chunks of the configured batch size, so a streamed
+     * request body is ingested in bounded memory, and collects the results in request order.
+     */
+    private final class ChunkedIngestion {
+        
+        private final BatchIngestionResult result = new BatchIngestionResult();
+        private List<TrafficData> chunk = new ArrayList<>(batchSize);
+        private List<Integer> chunkIndexes = new ArrayList<>(batchSize);
+        
+        void add(int index, TrafficData data) {
+            chunk.add(data);
+            chunkIndexes.add(index);
+            if (chunk.size() == batchSize) {
+                flush();
+            }
+        }
+        
+        void reject(int index, String reason) {
+            result.add(RecordIngestionResult.rejected(index, reason));
+        }
+        
+        BatchIngestionResult finish() {
+            if (!chunk.isEmpty()) {
+                flush();
+            }
+            result.getResults().sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+            return result;
+        }
+        
+        private void flush() {
+            result.addAll(trafficService.saveTrafficDataBatch(chunk), chunkIndexes);
+            chunk = new ArrayList<>(batchSize);
+            chunkIndexes = new ArrayList<>(batchSize);
+        }
+    }
 }
@@ -0,0 +1,175 @@
+package com.trafficoptimization.traffic_management.emissions;
+
+/**
+ * An {@link EmissionsProfile} compiled for evaluation: constants are folded into one factor per
+ * pollutant and the speed and congestion curves into {@link FactorTable}s, so estimating a segment
+ * allocates nothing and takes no data-dependent branch; columns of segments are estimated one curve
+ * at a time through two small scratch columns. Instances are immutable and shared by every segment using
+ * the profile. The built-in {@value EmissionsProfile#STANDARD} model is not compiled but evaluated by
+ * {@link StandardEmissions}, which keeps its original boundaries and its faster column loops.
+ */
+public final class EmissionsModel {
+
+    // Segments per block of the column path; its scratch columns stay in the L1 cache
+    private static final int BLOCK_SIZE = 256;
+
+    private static final EmissionsModel BUILT_IN = new EmissionsModel(EmissionsProfile.STANDARD, null, null, null, true);
+
+    private final String name;
+    private final Pollutant co2;
+    private final Pollutant nox;
+    private final Pollutant particulateMatter;
+    // Evaluated by StandardEmissions instead of the pollutants, which are null
+    private final boolean builtIn;
+
+    private EmissionsModel(String name, Pollutant co2, Pollutant nox, Pollutant particulateMatter, boolean builtIn) {
+        this.name = name;
+        this.co2 = co2;
+        this.nox = nox;
+        this.particulateMatter = particulateMatter;
+        this.builtIn = builtIn;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the profile is incomplete or has out-of-range values
+     */
+    public static EmissionsModel compile(String name, EmissionsProfile profile) {
+        if (profile == null) {
+            throw new IllegalArgumentException("Emissions profile '" + name + "' is empty");
+        }
+        return new EmissionsModel(name,
+                Pollutant.compile(name + ": co2", profile.getCo2()),
+                Pollutant.compile(name + ": nox", profile.getNox()),
+                Pollutant.compile(name + ": particulateMatter", profile.getParticulateMatter()), false);
+    }
+
+    /**
+     * The built-in model of {@link EmissionsProfile#standard()}. Unlike a compiled profile, whose
+     * bands apply from their start, its urban PM factor applies only above 0.5 congestion, as it
+     * always has.
+     */
+    public static EmissionsModel standard() {
+        return BUILT_IN;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * CO2 in kg per hour.
+     */
+    public double co2(double vehicleCount, double averageSpeed, double congestionLevel) {
+        if (builtIn) {
+            return StandardEmissions.co2(vehicleCount, averageSpeed, congestionLevel);
+        }
+        return co2.emissions(vehicleCount, averageSpeed, congestionLevel);
+    }
+
+    /**
+     * NOx in grams per hour.
+     */
+    public double nox(double vehicleCount, double averageSpeed, double congestionLevel) {
+        if (builtIn) {
+            return StandardEmissions.nox(vehicleCount, averageSpeed, congestionLevel);
+        }
+        return nox.emissions(vehicleCount, averageSpeed, congestionLevel);
+    }
+
+    /**
+     * Particulate matter in grams per hour.
+     */
+    public double particulateMatter(double vehicleCount, double averageSpeed, double congestionLevel) {
+        if (builtIn) {
+            return StandardEmissions.particulateMatter(vehicleCount, averageSpeed, congestionLevel);
+        }
+        return particulateMatter.emissions(vehicleCount, averageSpeed, congestionLevel);
+    }
+
+    /**
+     * Fills {@code co2}, {@code nox} and {@code pm} for segments {@code from} (inclusive) to
+     * {@code to} (exclusive) of the input columns. Blocks of segments are evaluated one pollutant
+     * and one curve at a time so the loops vectorize. The results are bit-for-bit identical to the
+     * per-segment methods.
+     */
+    public void calculate(int from, int to, double[] vehicleCounts, double[] averageSpeeds, double[] congestionLevels,
+                          double[] co2, double[] nox, double[] pm) {
+        if (builtIn) {
+            StandardEmissions.calculate(from, to, vehicleCounts, averageSpeeds, congestionLevels, co2, nox, pm);
+            return;
+        }
+        // Blocks are copied into scratch columns first: C2 only vectorizes loops indexing every array alike
+        Block block = new Block();
+        for (int start = from; start < to; start += BLOCK_SIZE) {
+            int length = Math.min(to - start, BLOCK_SIZE);
+            System.arraycopy(vehicleCounts, start, block.vehicleCounts, 0, length);
+            System.arraycopy(averageSpeeds, start, block.averageSpeeds, 0, length);
+            System.arraycopy(congestionLevels, start, block.congestionLevels, 0, length);
+            this.co2.emissions(block, length);
+            System.arraycopy(block.emissions, 0, co2, start, length);
+            this.nox.emissions(block, length);
+            System.arraycopy(block.emissions, 0, nox, start, length);
+            particulateMatter.emissions(block, length);
+            System.arraycopy(block.emissions, 0, pm, start, length);
+        }
+    }
+
+    private static final class Block {
+
+        final double[] vehicleCounts = new double[BLOCK_SIZE];
+        final double[] averageSpeeds = new double[BLOCK_SIZE];
+        final double[] congestionLevels = new double[BLOCK_SIZE];
+        final double[] speedFactors = new double[BLOCK_SIZE];
+        final double[] congestionFactors = new double[BLOCK_SIZE];
+        final double[] emissions = new double[BLOCK_SIZE];
+    }
+
+    private static final class Pollutant {
+
+        private final double perVehicle;
+        private final FactorTable speedFactor;
+        private final FactorTable congestionFactor;
+
+        private Pollutant(double perVehicle, FactorTable speedFactor, FactorTable congestionFactor) {
+            this.perVehicle = perVehicle;
+            this.speedFactor = speedFactor;
+            this.congestionFactor = congestionFactor;
+        }
+
+        static Pollutant compile(String what, EmissionsProfile.Pollutant pollutant) {
+            if (pollutant == null) {
+                throw new IllegalArgumentException(what + " is missing");
+            }
+            if (!(pollutant.getPerVehicle() >= 0) || Double.isInfinite(pollutant.getPerVehicle())) {
+                throw new IllegalArgumentException(what + " perVehicle must be a non-negative number");
+            }
+            if (!(pollutant.getDieselProportion() >= 0 && pollutant.getDieselProportion() <= 1)) {
+                throw new IllegalArgumentException(what + " dieselProportion must be between 0 and 1");
+            }
+            if (!(pollutant.getDieselFactor() >= 0) || Double.isInfinite(pollutant.getDieselFactor())) {
+                throw new IllegalArgumentException(what + " dieselFactor must be a non-negative number");
+            }
+            double diesel = pollutant.getDieselProportion();
+            double fleetFactor = (1 - diesel) + diesel * pollutant.getDieselFactor();
+            return new Pollutant(pollutant.getPerVehicle() * fleetFactor,
+                    FactorTable.compile(what + " speedFactor", pollutant.getSpeedFactor()),
+                    FactorTable.compile(what + " congestionFactor", pollutant.getCongestionFactor()));
+        }
+
+        double emissions(double vehicleCount, double averageSpeed, double congestionLevel) {
+            return perVehicle * vehicleCount * speedFactor.factor(averageSpeed) * congestionFactor.factor(congestionLevel);
+        }
+
+        void emissions(Block block, int length) {
+            double[] vehicleCounts = block.vehicleCounts;
+            double[] speedFactors = block.speedFactors;
+            double[] congestionFactors = block.congestionFactors;
+            double[] out = block.emissions;
+            speedFactor.factors(block.averageSpeeds, length, speedFactors);
+            congestionFactor.factors(block.congestionLevels, length, congestionFactors);
+            for (int i = 0; i < length; i++) {
+                out[i] = perVehicle * vehicleCounts[i] * speedFactors[i] * congestionFactors[i];
+            }
+        }
+    }
+}
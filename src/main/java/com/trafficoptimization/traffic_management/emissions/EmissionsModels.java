@@ -0,0 +1,210 @@
+package com.trafficoptimization.traffic_management.emissions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trafficoptimization.traffic_management.config.CacheConfig;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import com.trafficoptimization.traffic_management.segment.SegmentTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The compiled emissions models in use and which segment uses which. A new profile set is compiled
+ * and validated in full before it replaces the current {@link Selection} with a single volatile
+ * write, so estimates in flight finish on the models they started with and none wait for the swap.
+ * Cached estimates are dropped on every swap.
+ */
+@Component
+public class EmissionsModels {
+
+    private static final Logger log = LoggerFactory.getLogger(EmissionsModels.class);
+
+    private final SegmentRegistry segmentRegistry;
+    private final ObjectMapper objectMapper;
+    private final Path profileFile;
+    private final Cache estimates;
+
+    private volatile Selection selection;
+
+    @Autowired
+    public EmissionsModels(SegmentRegistry segmentRegistry, CacheManager cacheManager, ObjectMapper objectMapper,
+                           @Value("${traffic.emissions.profile-file:}") String profileFile) {
+        this.segmentRegistry = segmentRegistry;
+        this.objectMapper = objectMapper;
+        this.profileFile = profileFile.isBlank() ? null : Paths.get(profileFile);
+        this.estimates = cacheManager.getCache(CacheConfig.EMISSIONS_ESTIMATES);
+        this.selection = compile(this.profileFile == null ? EmissionsProfileSet.standard() : read());
+        log.info("Emissions profiles: {}", this.profileFile == null ? "built-in" : this.profileFile);
+    }
+
+    /**
+     * Fixed profiles, not backed by a file or a cache.
+     */
+    public EmissionsModels(SegmentRegistry segmentRegistry, EmissionsProfileSet profiles) {
+        this.segmentRegistry = segmentRegistry;
+        this.objectMapper = null;
+        this.profileFile = null;
+        this.estimates = null;
+        this.selection = compile(profiles);
+    }
+
+    /**
+     * The models in use now. Take it once and resolve every segment through it when several
+     * estimates must agree, such as the segments of one network snapshot.
+     */
+    public Selection current() {
+        return selection;
+    }
+
+    public EmissionsModel forSegment(String roadSegmentId) {
+        return selection.forSegment(roadSegmentId);
+    }
+
+    public EmissionsProfileSet getProfiles() {
+        return selection.profiles;
+    }
+
+    /**
+     * Compile {@code profiles} and switch to them.
+     *
+     * @throws IllegalArgumentException if a profile is invalid or an assignment names an unknown
+     *                                  profile; the current models stay in use
+     */
+    public synchronized void apply(EmissionsProfileSet profiles) {
+        selection = compile(profiles);
+        if (estimates != null) {
+            estimates.clear();
+        }
+        log.info("Switched to {} emissions profiles, default '{}'", selection.models.size(), selection.defaultModel.getName());
+    }
+
+    /**
+     * Re-read the profile file and switch to it.
+     *
+     * @throws IllegalStateException if no profile file is configured
+     * @throws UncheckedIOException  if the file cannot be read or parsed; the current models stay
+     *                               in use
+     */
+    public synchronized void reload() {
+        if (profileFile == null) {
+            throw new IllegalStateException("No emissions profile file is configured");
+        }
+        apply(read());
+    }
+
+    private EmissionsProfileSet read() {
+        try {
+            return objectMapper.readValue(profileFile.toFile(), EmissionsProfileSet.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read emissions profiles from " + profileFile, e);
+        }
+    }
+
+    private Selection compile(EmissionsProfileSet profiles) {
+        Map<String, EmissionsModel> models = new HashMap<>();
+        models.put(EmissionsProfile.STANDARD, EmissionsModel.standard());
+        orEmpty(profiles.getProfiles()).forEach((name, profile) -> models.put(name, EmissionsModel.compile(name, profile)));
+
+        String defaultProfile = profiles.getDefaultProfile() != null ? profiles.getDefaultProfile() : EmissionsProfile.STANDARD;
+        EmissionsModel defaultModel = resolve(models, defaultProfile, "the default");
+        Map<String, EmissionsModel> byRegion = new HashMap<>();
+        orEmpty(profiles.getRegions()).forEach((region, name) -> byRegion.put(region, resolve(models, name, "region " + region)));
+        Map<String, EmissionsModel> bySegmentId = new HashMap<>();
+        orEmpty(profiles.getSegments()).forEach((id, name) -> bySegmentId.put(id, resolve(models, name, "segment " + id)));
+
+        // Segments that have not reported yet stay keyed by id rather than being registered for a payload
+        SegmentTable<EmissionsModel> bySegment = new SegmentTable<>();
+        Map<String, EmissionsModel> unregistered = new HashMap<>();
+        bySegmentId.forEach((id, model) -> {
+            int handle = segmentRegistry.find(id);
+            if (handle == SegmentRegistry.UNKNOWN) {
+                unregistered.put(id, model);
+            } else {
+                bySegment.put(handle, model);
+            }
+        });
+        return new Selection(segmentRegistry, profiles, models, defaultModel, byRegion, bySegment, unregistered);
+    }
+
+    private static EmissionsModel resolve(Map<String, EmissionsModel> models, String name, String assignee) {
+        EmissionsModel model = models.get(name);
+        if (model == null) {
+            throw new IllegalArgumentException("Unknown emissions profile '" + name + "' for " + assignee);
+        }
+        return model;
+    }
+
+    private static <V> Map<String, V> orEmpty(Map<String, V> map) {
+        return map != null ? map : Map.of();
+    }
+
+    /**
+     * One immutable generation of compiled models and assignments.
+     */
+    public static final class Selection {
+
+        private final SegmentRegistry segmentRegistry;
+        private final EmissionsProfileSet profiles;
+        private final Map<String, EmissionsModel> models;
+        private final EmissionsModel defaultModel;
+        private final Map<String, EmissionsModel> byRegion;
+        private final SegmentTable<EmissionsModel> bySegment;
+        // Assigned segments that were not registered when compiled, moved to bySegment when first seen
+        private final Map<String, EmissionsModel> unregistered;
+
+        private Selection(SegmentRegistry segmentRegistry, EmissionsProfileSet profiles, Map<String, EmissionsModel> models,
+                          EmissionsModel defaultModel, Map<String, EmissionsModel> byRegion,
+                          SegmentTable<EmissionsModel> bySegment, Map<String, EmissionsModel> unregistered) {
+            this.segmentRegistry = segmentRegistry;
+            this.profiles = profiles;
+            this.models = models;
+            this.defaultModel = defaultModel;
+            this.byRegion = byRegion;
+            this.bySegment = bySegment;
+            this.unregistered = unregistered;
+        }
+
+        public EmissionsModel forSegment(String roadSegmentId) {
+            int handle = segmentRegistry.find(roadSegmentId);
+            if (handle == SegmentRegistry.UNKNOWN) {
+                return unregistered.getOrDefault(roadSegmentId, defaultModel);
+            }
+            return forHandle(handle);
+        }
+
+        /**
+         * Model of the segment behind {@code handle}. Regions are read from the registry on every
+         * call, so a segment moved to another region switches models without a reload.
+         */
+        public EmissionsModel forHandle(int handle) {
+            if (handle == SegmentRegistry.UNKNOWN) {
+                return defaultModel;
+            }
+            EmissionsModel model = bySegment.get(handle);
+            if (model != null) {
+                return model;
+            }
+            if (!unregistered.isEmpty()) {
+                model = unregistered.get(segmentRegistry.getId(handle));
+                if (model != null) {
+                    bySegment.put(handle, model);
+                    return model;
+                }
+            }
+            String region = segmentRegistry.getRegion(handle);
+            model = region != null ? byRegion.get(region) : null;
+            return model != null ? model : defaultModel;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.trafficoptimization.traffic_management.emissions;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Definition of an emissions model for one fleet mix. Each pollutant is
+ * {@code perVehicle * fleetFactor * vehicleCount * speedFactor(speed) * congestionFactor(congestion)},
+ * where the fleet factor weighs the diesel share by how much more a diesel vehicle emits, and both
+ * factors are piecewise linear curves given as bands. Definitions are compiled into an
+ * {@link EmissionsModel} before use.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmissionsProfile {
+
+    /**
+     * Name of the built-in profile, the fleet mix the service was originally calibrated for.
+     */
+    public static final String STANDARD = "standard";
+
+    /**
+     * CO2 in kg per hour.
+     */
+    private Pollutant co2;
+
+    /**
+     * NOx in grams per hour.
+     */
+    private Pollutant nox;
+
+    /**
+     * Particulate matter in grams per hour.
+     */
+    private Pollutant particulateMatter;
+
+    /**
+     * Average passenger car mix with 40% diesel: CO2 follows a U-shaped speed curve, lowest between
+     * 60 and 90 km/h; NOx is highest in low-speed stop-and-go traffic and rises more steeply with
+     * congestion; PM is higher below 30 km/h and on congested urban roads. The built-in model,
+     * {@link EmissionsModel#standard()}, applies the urban PM factor only above 0.5 congestion;
+     * compiled from this definition, the band applies from 0.5 itself.
+     */
+    public static EmissionsProfile standard() {
+        return new EmissionsProfile(
+                new Pollutant(2.5, 0.0, 1.0,
+                        List.of(new Band(0, 2.0, 0), new Band(10, 1.5, -0.01), new Band(60, 1.0, 0),
+                                new Band(90, 1.0, 0.02)),
+                        List.of(new Band(0, 1.0, 1.0))),
+                new Pollutant(1.5, 0.4, 3.0,
+                        List.of(new Band(0, 2.0, 0), new Band(20, 1.5, -0.016), new Band(60, 1.0, 0)),
+                        List.of(new Band(0, 1.0, 1.5))),
+                new Pollutant(0.1, 0.4, 5.0,
+                        List.of(new Band(0, 1.8, 0), new Band(30, 1.0, 0)),
+                        List.of(new Band(0, 1.0, 0), new Band(0.5, 1.5, 0))));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pollutant {
+
+        /**
+         * Emissions of one non-diesel vehicle per hour with both factors at 1.
+         */
+        private double perVehicle;
+
+        /**
+         * Share of diesel vehicles in the fleet, from 0 to 1.
+         */
+        private double dieselProportion;
+
+        /**
+         * How many times more a diesel vehicle emits than a non-diesel one.
+         */
+        private double dieselFactor = 1.0;
+
+        private List<Band> speedFactor;
+
+        private List<Band> congestionFactor;
+    }
+
+    /**
+     * One piece of a factor curve, applying from {@code from} (inclusive) up to the next band's
+     * start: {@code factor + slope * (x - from)}. The first band also covers everything below its
+     * start and the last one everything above.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Band {
+
+        private double from;
+        private double factor;
+        private double slope;
+    }
+}
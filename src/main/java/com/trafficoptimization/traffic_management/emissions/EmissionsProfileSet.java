@@ -0,0 +1,41 @@
+package com.trafficoptimization.traffic_management.emissions;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Every emissions profile in use and which segments use which, as read from the profile file or
+ * uploaded at runtime. A segment uses the profile assigned to its id, else the one assigned to its
+ * region, else the default. The built-in {@value EmissionsProfile#STANDARD} profile is available
+ * without being listed, unless a profile of that name replaces it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmissionsProfileSet {
+
+    private String defaultProfile = EmissionsProfile.STANDARD;
+
+    private Map<String, EmissionsProfile> profiles = new LinkedHashMap<>();
+
+    /**
+     * Profile name by region.
+     */
+    private Map<String, String> regions = new LinkedHashMap<>();
+
+    /**
+     * Profile name by road segment id.
+     */
+    private Map<String, String> segments = new LinkedHashMap<>();
+
+    /**
+     * Only the built-in profile, used for every segment.
+     */
+    public static EmissionsProfileSet standard() {
+        return new EmissionsProfileSet();
+    }
+}
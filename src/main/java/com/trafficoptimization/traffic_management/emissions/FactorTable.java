@@ -0,0 +1,154 @@
+package com.trafficoptimization.traffic_management.emissions;
+
+import java.util.List;
+
+/**
+ * A piecewise linear factor curve compiled into a lookup table over a uniform grid. Each grid cell
+ * holds the intercept and slope of the band covering it, so evaluation is one truncating multiply,
+ * a clamp and a lookup, with no search over the bands and no branches. The grid step is the
+ * coarsest power of two that puts every band boundary on a cell edge, so the table reproduces the
+ * bands exactly; boundaries that need a finer step than 1/1024, or a table larger than
+ * {@value #MAX_CELLS} cells, are rounded to the finest step that fits.
+ * <p>
+ * Table lookups are gathers, which C2 does not vectorize, so whole columns are instead evaluated
+ * band by band with the band boundaries as exact 0/1 masks. Both use the same lines and boundaries
+ * and give identical results.
+ */
+final class FactorTable {
+
+    private static final int MAX_RESOLUTION_BITS = 10;
+    private static final int MAX_CELLS = 4096;
+
+    private final double cellsPerUnit;
+    private final int lastCell;
+    // Intercept and slope of each cell, interleaved so one lookup touches one cache line
+    private final double[] lines;
+
+    // By band: where it starts on the grid, and its line
+    private final double[] starts;
+    private final double[] intercepts;
+    private final double[] slopes;
+
+    private FactorTable(double cellsPerUnit, double[] lines, double[] starts, double[] intercepts, double[] slopes) {
+        this.cellsPerUnit = cellsPerUnit;
+        this.lastCell = lines.length / 2 - 1;
+        this.lines = lines;
+        this.starts = starts;
+        this.intercepts = intercepts;
+        this.slopes = slopes;
+    }
+
+    /**
+     * @param what curve name for error messages
+     * @throws IllegalArgumentException if the bands are missing, not finite, negative or out of order
+     */
+    static FactorTable compile(String what, List<EmissionsProfile.Band> bands) {
+        if (bands == null || bands.isEmpty()) {
+            throw new IllegalArgumentException(what + " needs at least one band");
+        }
+        double previous = -1;
+        for (EmissionsProfile.Band band : bands) {
+            if (!Double.isFinite(band.getFrom()) || !Double.isFinite(band.getFactor()) || !Double.isFinite(band.getSlope())) {
+                throw new IllegalArgumentException(what + " has a band with a non-finite value");
+            }
+            if (band.getFrom() < 0 || band.getFrom() <= previous) {
+                throw new IllegalArgumentException(what + " bands must start at increasing, non-negative values");
+            }
+            previous = band.getFrom();
+        }
+
+        double last = bands.get(bands.size() - 1).getFrom();
+        if (cells(last, 0) > MAX_CELLS) {
+            throw new IllegalArgumentException(what + " has a band starting beyond " + (MAX_CELLS - 1));
+        }
+        int bits = 0;
+        while (bits < MAX_RESOLUTION_BITS && !onGrid(bands, bits) && cells(last, bits + 1) <= MAX_CELLS) {
+            bits++;
+        }
+        double cellsPerUnit = Math.scalb(1.0, bits);
+
+        int count = bands.size();
+        double[] starts = new double[count];
+        double[] intercepts = new double[count];
+        double[] slopes = new double[count];
+        for (int band = 0; band < count; band++) {
+            EmissionsProfile.Band current = bands.get(band);
+            starts[band] = Math.rint(current.getFrom() * cellsPerUnit);
+            if (band > 0 && starts[band] == starts[band - 1]) {
+                throw new IllegalArgumentException(what + " has bands closer than 1/" + (long) cellsPerUnit);
+            }
+            intercepts[band] = current.getFactor() - current.getSlope() * current.getFrom();
+            slopes[band] = current.getSlope();
+        }
+
+        double[] lines = new double[2 * (int) cells(last, bits)];
+        int band = 0;
+        for (int cell = 0; cell < lines.length / 2; cell++) {
+            while (band + 1 < count && starts[band + 1] <= cell) {
+                band++;
+            }
+            lines[2 * cell] = intercepts[band];
+            lines[2 * cell + 1] = slopes[band];
+        }
+        for (int i = 0; i < count; i++) {
+            starts[i] /= cellsPerUnit;
+        }
+        return new FactorTable(cellsPerUnit, lines, starts, intercepts, slopes);
+    }
+
+    /**
+     * Factor at {@code x}. Values below the grid fall in the first cell and values beyond it in the
+     * last, whose lines extend the first and last band.
+     */
+    double factor(double x) {
+        int cell = Math.min(Math.max((int) (x * cellsPerUnit), 0), lastCell);
+        return lines[2 * cell] + lines[2 * cell + 1] * x;
+    }
+
+    /**
+     * {@link #factor} of the first {@code length} values of {@code x} into {@code out}. The first
+     * band's line is evaluated for every value, and each later band overwrites the values at or
+     * beyond its start, in loops simple enough for C2 to vectorize.
+     */
+    void factors(double[] x, int length, double[] out) {
+        double intercept = intercepts[0];
+        double slope = slopes[0];
+        for (int i = 0; i < length; i++) {
+            out[i] = intercept + slope * x[i];
+        }
+        for (int band = 1; band < starts.length; band++) {
+            double start = starts[band];
+            intercept = intercepts[band];
+            slope = slopes[band];
+            for (int i = 0; i < length; i++) {
+                double value = x[i];
+                double mask = notBelow(value, start);
+                out[i] = mask * (intercept + slope * value) + (1.0 - mask) * out[i];
+            }
+        }
+    }
+
+    /**
+     * 1.0 when {@code value >= limit}, otherwise 0.0, for values below the grid too. Any positive
+     * difference scaled by the largest double is at least 1, so clamping yields exactly 0 or 1
+     * without a comparison; selecting with the mask is exact because multiplying a finite value by 0
+     * or 1 and adding 0 introduces no rounding.
+     */
+    private static double notBelow(double value, double limit) {
+        return 1.0 - Math.min(Math.max((limit - value) * Double.MAX_VALUE, 0.0), 1.0);
+    }
+
+    private static boolean onGrid(List<EmissionsProfile.Band> bands, int bits) {
+        for (EmissionsProfile.Band band : bands) {
+            double scaled = Math.scalb(band.getFrom(), bits);
+            if (scaled != Math.rint(scaled)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long cells(double last, int bits) {
+        return Math.round(Math.scalb(last, bits)) + 1;
+    }
+}
@@ -0,0 +1,77 @@
+package com.trafficoptimization.traffic_management.emissions;
+
+/**
+ * The built-in {@value EmissionsProfile#STANDARD} model written out by hand, as the service computed
+ * it before profiles were configurable. Its curves are min/max and exact 0/1 masks rather than
+ * factor tables, so a column of segments is one vectorized loop per pollutant instead of one per
+ * band, and its boundaries are the original ones: the urban PM factor applies above 0.5
+ * congestion, not at it. The column loops inline the scalar methods, so both give identical results.
+ */
+final class StandardEmissions {
+
+    private static final double CO2_PER_VEHICLE = 2.5;
+
+    private static final double NOX_PER_VEHICLE = 1.5;
+    private static final double NOX_DIESEL_PROPORTION = 0.4;
+
+    private static final double PM_PER_VEHICLE = 0.1;
+    private static final double PM_DIESEL_PROPORTION = 0.4;
+
+    private StandardEmissions() {
+    }
+
+    /**
+     * Between 10 and 90 km/h the falling and rising bands of the U-shaped speed curve never exceed
+     * 1.0 outside their own range, so the curve is the max of both and 1.0.
+     */
+    static double co2(double vehicleCount, double speed, double congestionLevel) {
+        double falling = 1.5 - (speed - 10) * 0.01;
+        double rising = 1.0 + (speed - 90) * 0.02;
+        double speedFactor = select(below(speed, 10), 2.0, Math.max(Math.max(falling, rising), 1.0));
+        return CO2_PER_VEHICLE * vehicleCount * speedFactor * (1.0 + congestionLevel);
+    }
+
+    static double nox(double vehicleCount, double speed, double congestionLevel) {
+        double speedFactor = select(below(speed, 20), 2.0, select(below(speed, 60), 1.5 - (speed - 20) * 0.016, 1.0));
+        double dieselEmissions = NOX_PER_VEHICLE * NOX_DIESEL_PROPORTION * vehicleCount * 3.0;
+        double petrolEmissions = NOX_PER_VEHICLE * (1 - NOX_DIESEL_PROPORTION) * vehicleCount;
+        return (dieselEmissions + petrolEmissions) * speedFactor * (1.0 + (congestionLevel * 1.5));
+    }
+
+    static double particulateMatter(double vehicleCount, double speed, double congestionLevel) {
+        double urbanFactor = select(below(0.5, congestionLevel), 1.5, 1.0);
+        double speedFactor = select(below(speed, 30), 1.8, 1.0);
+        double dieselEmissions = PM_PER_VEHICLE * PM_DIESEL_PROPORTION * vehicleCount * 5.0;
+        double petrolEmissions = PM_PER_VEHICLE * (1 - PM_DIESEL_PROPORTION) * vehicleCount;
+        return (dieselEmissions + petrolEmissions) * speedFactor * urbanFactor;
+    }
+
+    static void calculate(int from, int to, double[] vehicleCounts, double[] averageSpeeds, double[] congestionLevels,
+                          double[] co2, double[] nox, double[] pm) {
+        for (int i = from; i < to; i++) {
+            co2[i] = co2(vehicleCounts[i], averageSpeeds[i], congestionLevels[i]);
+        }
+        for (int i = from; i < to; i++) {
+            nox[i] = nox(vehicleCounts[i], averageSpeeds[i], congestionLevels[i]);
+        }
+        for (int i = from; i < to; i++) {
+            pm[i] = particulateMatter(vehicleCounts[i], averageSpeeds[i], congestionLevels[i]);
+        }
+    }
+
+    /**
+     * 1.0 when {@code value < limit}, otherwise 0.0. Any positive difference scaled by the largest
+     * double is at least 1, so clamping yields exactly 0 or 1 without a comparison.
+     */
+    private static double below(double value, double limit) {
+        return Math.min(Math.max((limit - value) * Double.MAX_VALUE, 0.0), 1.0);
+    }
+
+    /**
+     * {@code whenSet} for a mask of 1.0 and {@code otherwise} for 0.0; exact because multiplying a
+     * finite value by 0 or 1 and adding 0 introduces no rounding.
+     */
+    private static double select(double mask, double whenSet, double otherwise) {
+        return mask * whenSet + (1.0 - mask) * otherwise;
+    }
+}
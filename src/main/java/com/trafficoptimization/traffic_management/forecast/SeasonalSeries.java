@@ -0,0 +1,80 @@
+package com.trafficoptimization.traffic_management.forecast;
+
+/**
+ * Additive Holt-Winters state of one quantity of one segment: a smoothed level, a damped trend
+ * per slot, and an offset for every slot of the day. Over the first day the level stays at the
+ * first value and each slot's offset is taken as observed, as the classic initialisation from a
+ * first season does; smoothing only starts after that, as the profile would otherwise take weeks to
+ * emerge. Each update and each forecast is a constant number of operations, whatever the history.
+ * Not thread-safe; guarded by {@link SegmentForecast}.
+ */
+final class SeasonalSeries {
+
+    private double level = Double.NaN;
+    private double trend;
+    private final double[] seasonal;
+    // Slots since the first value, up to a day
+    private long learnedSlots;
+
+    SeasonalSeries(int slotsPerDay) {
+        this.seasonal = new double[slotsPerDay];
+    }
+
+    boolean isEmpty() {
+        return Double.isNaN(level);
+    }
+
+    /**
+     * Fold in the mean of one slot.
+     *
+     * @param season  slot of the day
+     * @param elapsed slots since the previously folded one
+     */
+    void update(double value, int season, long elapsed, SmoothingParameters parameters) {
+        if (isEmpty()) {
+            level = value;
+            return;
+        }
+        if (learnedSlots < seasonal.length) {
+            learnedSlots += elapsed;
+            if (learnedSlots < seasonal.length) {
+                seasonal[season] = value - level;
+                return;
+            }
+        }
+        double newLevel = project(value, season, elapsed, parameters);
+        if (elapsed > 0) {
+            trend = parameters.beta() * (newLevel - level) / elapsed
+                    + (1 - parameters.beta()) * trend * Math.pow(parameters.damping(), elapsed);
+        }
+        seasonal[season] = parameters.gamma() * (value - newLevel) + (1 - parameters.gamma()) * seasonal[season];
+        level = newLevel;
+    }
+
+    /**
+     * The level {@link #update} would move to, without changing any state.
+     */
+    double project(double value, int season, long elapsed, SmoothingParameters parameters) {
+        if (isEmpty()) {
+            return value;
+        }
+        if (learnedSlots + elapsed < seasonal.length) {
+            return level;
+        }
+        double expected = level + trend * parameters.dampedSlots(elapsed);
+        return parameters.alpha() * (value - seasonal[season]) + (1 - parameters.alpha()) * expected;
+    }
+
+    /**
+     * Value {@code ahead} slots after the last folded slot, starting from {@code fromLevel}.
+     *
+     * @param season slot of the day of the forecast target
+     */
+    double forecast(double fromLevel, long ahead, int season, SmoothingParameters parameters) {
+        return fromLevel + trend * parameters.dampedSlots(ahead) + seasonal[season];
+    }
+
+    double getLevel() {
+        return level;
+    }
+}
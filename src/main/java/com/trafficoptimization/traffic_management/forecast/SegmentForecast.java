@@ -0,0 +1,118 @@
+package com.trafficoptimization.traffic_management.forecast;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Forecasting state of one road segment: a {@link SeasonalSeries} each for vehicle count, speed and
+ * congestion. Readings are averaged per slot, and a slot's means are folded into the series once
+ * the first reading of a later slot arrives, so that the smoothing weights mean the same however
+ * often a segment reports. Forecasts also take the still open slot into account. Readings for a
+ * slot that has been folded already count towards the open one. All access is synchronized on the
+ * instance.
+ */
+final class SegmentForecast {
+
+    static final int VEHICLE_COUNT = 0;
+    static final int SPEED = 1;
+    static final int CONGESTION = 2;
+    private static final int QUANTITIES = 3;
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final String roadSegmentId;
+    private final SmoothingParameters parameters;
+    private final int slotsPerDay;
+    private final SeasonalSeries[] series = new SeasonalSeries[QUANTITIES];
+    // Last slot folded into each series
+    private final long[] foldedSlots = new long[QUANTITIES];
+    private long openSlot = NONE;
+    private final double[] openSums = new double[QUANTITIES];
+    private final long[] openWeights = new long[QUANTITIES];
+    private LocalDateTime latestTimestamp;
+
+    SegmentForecast(String roadSegmentId, SmoothingParameters parameters, int slotsPerDay) {
+        this.roadSegmentId = roadSegmentId;
+        this.parameters = parameters;
+        this.slotsPerDay = slotsPerDay;
+        for (int quantity = 0; quantity < QUANTITIES; quantity++) {
+            series[quantity] = new SeasonalSeries(slotsPerDay);
+        }
+        Arrays.fill(foldedSlots, NONE);
+    }
+
+    /**
+     * Record {@code weight} readings of slot {@code slot} averaging the given values; a NaN value
+     * leaves that quantity out.
+     */
+    synchronized void add(long slot, double vehicleCount, double speed, double congestion, long weight,
+                          LocalDateTime timestamp) {
+        if (slot > openSlot) {
+            fold();
+            openSlot = slot;
+        }
+        accumulate(VEHICLE_COUNT, vehicleCount, weight);
+        accumulate(SPEED, speed, weight);
+        accumulate(CONGESTION, congestion, weight);
+        if (latestTimestamp == null || timestamp.isAfter(latestTimestamp)) {
+            latestTimestamp = timestamp;
+        }
+    }
+
+    /**
+     * Forecast of {@code quantity} for slot {@code targetSlot}, or NaN if it has never been reported.
+     */
+    synchronized double forecast(int quantity, long targetSlot) {
+        SeasonalSeries quantitySeries = series[quantity];
+        double level;
+        long from;
+        if (openWeights[quantity] > 0) {
+            level = quantitySeries.project(openSums[quantity] / openWeights[quantity], season(openSlot),
+                    elapsed(quantity, openSlot), parameters);
+            from = openSlot;
+        } else if (!quantitySeries.isEmpty()) {
+            level = quantitySeries.getLevel();
+            from = foldedSlots[quantity];
+        } else {
+            return Double.NaN;
+        }
+        return quantitySeries.forecast(level, Math.max(0, targetSlot - from), season(targetSlot), parameters);
+    }
+
+    synchronized LocalDateTime getLatestTimestamp() {
+        return latestTimestamp;
+    }
+
+    String getRoadSegmentId() {
+        return roadSegmentId;
+    }
+
+    private void accumulate(int quantity, double value, long weight) {
+        if (!Double.isNaN(value)) {
+            openSums[quantity] += value * weight;
+            openWeights[quantity] += weight;
+        }
+    }
+
+    private void fold() {
+        if (openSlot == NONE) {
+            return;
+        }
+        for (int quantity = 0; quantity < QUANTITIES; quantity++) {
+            if (openWeights[quantity] > 0) {
+                series[quantity].update(openSums[quantity] / openWeights[quantity], season(openSlot),
+                        elapsed(quantity, openSlot), parameters);
+                foldedSlots[quantity] = openSlot;
+                openSums[quantity] = 0;
+                openWeights[quantity] = 0;
+            }
+        }
+    }
+
+    private long elapsed(int quantity, long slot) {
+        return foldedSlots[quantity] == NONE ? 0 : slot - foldedSlots[quantity];
+    }
+
+    private int season(long slot) {
+        return (int) Math.floorMod(slot, (long) slotsPerDay);
+    }
+}
@@ -0,0 +1,35 @@
+package com.trafficoptimization.traffic_management.forecast;
+
+/**
+ * Weights of the exponential smoothing: {@code alpha} for the level, {@code beta} for the trend,
+ * {@code gamma} for the time-of-day profile, and {@code damping} by which the trend fades per slot
+ * ahead, so forecasts flatten out instead of extrapolating a ramp indefinitely.
+ */
+record SmoothingParameters(double alpha, double beta, double gamma, double damping) {
+
+    SmoothingParameters {
+        if (!(alpha > 0 && alpha <= 1)) {
+            throw new IllegalArgumentException("Level weight must be in (0, 1], got " + alpha);
+        }
+        if (!(beta >= 0 && beta <= 1) || !(gamma >= 0 && gamma <= 1)) {
+            throw new IllegalArgumentException("Trend and seasonal weights must be in [0, 1], got " + beta + " and " + gamma);
+        }
+        if (!(damping > 0 && damping <= 1)) {
+            throw new IllegalArgumentException("Trend damping must be in (0, 1], got " + damping);
+        }
+    }
+
+    /**
+     * How many slots' worth of trend accumulate over {@code slots} slots:
+     * {@code damping + damping^2 + ... + damping^slots}.
+     */
+    double dampedSlots(long slots) {
+        if (slots <= 0) {
+            return 0;
+        }
+        if (damping == 1) {
+            return slots;
+        }
+        return damping * (1 - Math.pow(damping, slots)) / (1 - damping);
+    }
+}
@@ -0,0 +1,228 @@
+package com.trafficoptimization.traffic_management.forecast;
+
+import com.trafficoptimization.traffic_management.emissions.EmissionsModel;
+import com.trafficoptimization.traffic_management.emissions.EmissionsModels;
+import com.trafficoptimization.traffic_management.model.CongestionForecast;
+import com.trafficoptimization.traffic_management.model.ForecastPoint;
+import com.trafficoptimization.traffic_management.model.RollupBucket;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.rollup.RollupService;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import com.trafficoptimization.traffic_management.segment.SegmentTable;
+import com.trafficoptimization.traffic_management.service.TopN;
+import com.trafficoptimization.traffic_management.service.TrafficDataListener;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Short-term forecasts of congestion, speed, vehicle count and emissions per road segment, from
+ * online exponential smoothing with a time-of-day profile (additive Holt-Winters with a damped
+ * trend). Time is divided into slots; every reading updates its segment's state in constant time
+ * and forecasts are computed from that state alone, so no history is read after startup. The state
+ * is seeded from the rollups of the warm-up period when the application starts. Emissions are the
+ * segment's emissions model applied to the forecast traffic.
+ */
+@Component
+public class TrafficForecaster implements TrafficDataListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TrafficForecaster.class);
+    private static final long MINUTES_PER_DAY = Duration.ofDays(1).toMinutes();
+
+    private final RollupService rollupService;
+    private final SegmentRegistry segmentRegistry;
+    private final EmissionsModels emissionsModels;
+    private final SegmentTable<SegmentForecast> forecasts = new SegmentTable<>();
+    private final SmoothingParameters parameters;
+    private final Duration slot;
+    private final long slotSeconds;
+    private final int slotsPerDay;
+    private final Duration warmUp;
+    private final Duration maxHorizon;
+    private final Clock clock;
+
+    @Autowired
+    public TrafficForecaster(RollupService rollupService, SegmentRegistry segmentRegistry, EmissionsModels emissionsModels,
+                             @Value("${traffic.forecast.slot:PT15M}") Duration slot,
+                             @Value("${traffic.forecast.level-weight:0.3}") double alpha,
+                             @Value("${traffic.forecast.trend-weight:0.05}") double beta,
+                             @Value("${traffic.forecast.seasonal-weight:0.2}") double gamma,
+                             @Value("${traffic.forecast.trend-damping:0.9}") double damping,
+                             @Value("${traffic.forecast.warm-up:P7D}") Duration warmUp,
+                             @Value("${traffic.forecast.max-horizon:PT6H}") Duration maxHorizon) {
+        this(rollupService, segmentRegistry, emissionsModels, slot, alpha, beta, gamma, damping, warmUp, maxHorizon,
+                Clock.systemDefaultZone());
+    }
+
+    public TrafficForecaster(RollupService rollupService, SegmentRegistry segmentRegistry, EmissionsModels emissionsModels,
+                             Duration slot, double alpha, double beta, double gamma, double damping, Duration warmUp,
+                             Duration maxHorizon, Clock clock) {
+        long slotMinutes = slot.toMinutes();
+        if (slotMinutes <= 0 || !slot.equals(Duration.ofMinutes(slotMinutes)) || MINUTES_PER_DAY % slotMinutes != 0) {
+            throw new IllegalArgumentException("Forecast slot must be a whole number of minutes dividing a day, got " + slot);
+        }
+        this.rollupService = rollupService;
+        this.segmentRegistry = segmentRegistry;
+        this.emissionsModels = emissionsModels;
+        this.parameters = new SmoothingParameters(alpha, beta, gamma, damping);
+        this.slot = slot;
+        this.slotSeconds = slot.toSeconds();
+        this.slotsPerDay = (int) (MINUTES_PER_DAY / slotMinutes);
+        this.warmUp = warmUp;
+        this.maxHorizon = maxHorizon;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        if (warmUp.isZero() || warmUp.isNegative()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        // Sorted by segment and time, as the per-slot folding expects
+        List<RollupBucket> buckets = rollupService.query(null, now.minus(warmUp), now, slot);
+        for (RollupBucket bucket : buckets) {
+            forecastFor(bucket.getRoadSegmentId()).add(slotOf(bucket.getBucketStart()),
+                    valueOf(bucket.getAverageVehicleCount()), valueOf(bucket.getAverageSpeed()),
+                    valueOf(bucket.getAverageCongestion()), bucket.getReadingCount(), bucket.getBucketStart());
+        }
+        log.info("Seeded forecasts with {} rollup buckets from the last {}", buckets.size(), warmUp);
+    }
+
+    @Override
+    public void onTrafficDataSaved(List<TrafficData> saved) {
+        for (TrafficData data : saved) {
+            record(data);
+        }
+    }
+
+    public void record(TrafficData data) {
+        if (data.getTimestamp() == null) {
+            return;
+        }
+        forecastFor(data.getRoadSegmentId()).add(slotOf(data.getTimestamp()),
+                data.getVehicleCount() != null ? data.getVehicleCount() : Double.NaN,
+                valueOf(data.getAverageSpeed()), valueOf(data.getCongestionLevel()), 1, data.getTimestamp());
+    }
+
+    /**
+     * Forecast for each of {@code horizonMinutes} from now, or empty if the segment has no readings.
+     *
+     * @throws IllegalArgumentException if a horizon is not positive or beyond the maximum
+     */
+    public Optional<CongestionForecast> forecast(String roadSegmentId, List<Integer> horizonMinutes) {
+        for (int horizon : horizonMinutes) {
+            checkHorizon(horizon);
+        }
+        int handle = segmentRegistry.find(roadSegmentId);
+        SegmentForecast state = handle == SegmentRegistry.UNKNOWN ? null : forecasts.get(handle);
+        if (state == null) {
+            return Optional.empty();
+        }
+        return Optional.of(forecast(state, LocalDateTime.now(clock), horizonMinutes));
+    }
+
+    /**
+     * Segments with the highest forecast congestion {@code horizonMinutes} from now, most congested
+     * first. Only congestion is forecast for the ranking; the full forecast is built for the top
+     * segments.
+     */
+    public List<CongestionForecast> getMostCongested(int horizonMinutes, int limit) {
+        checkHorizon(horizonMinutes);
+        if (limit <= 0) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        long target = slotOf(now.plusMinutes(horizonMinutes));
+        TopN<Ranked> top = new TopN<>(limit, forecasts.size(), Comparator.comparingDouble(Ranked::congestion));
+        forecasts.forEach(state -> {
+            double congestion = state.forecast(SegmentForecast.CONGESTION, target);
+            if (!Double.isNaN(congestion)) {
+                top.offer(new Ranked(state, congestion));
+            }
+        });
+
+        List<Ranked> ranked = top.toList();
+        List<CongestionForecast> result = new ArrayList<>(ranked.size());
+        for (Ranked candidate : ranked) {
+            result.add(forecast(candidate.state(), now, List.of(horizonMinutes)));
+        }
+        return result;
+    }
+
+    /**
+     * Forget the forecast state of a segment handed to another cluster member.
+     */
+    public void remove(String roadSegmentId) {
+        int handle = segmentRegistry.find(roadSegmentId);
+        if (handle != SegmentRegistry.UNKNOWN) {
+            forecasts.remove(handle);
+        }
+    }
+
+    private CongestionForecast forecast(SegmentForecast state, LocalDateTime now, List<Integer> horizonMinutes) {
+        EmissionsModel model = emissionsModels.forSegment(state.getRoadSegmentId());
+        List<ForecastPoint> points = new ArrayList<>(horizonMinutes.size());
+        for (int horizon : horizonMinutes) {
+            LocalDateTime at = now.plusMinutes(horizon);
+            long target = slotOf(at);
+            double congestion = clamp(state.forecast(SegmentForecast.CONGESTION, target), 0, 1);
+            double speed = clamp(state.forecast(SegmentForecast.SPEED, target), 0, Double.MAX_VALUE);
+            double vehicleCount = clamp(state.forecast(SegmentForecast.VEHICLE_COUNT, target), 0, Double.MAX_VALUE);
+            ForecastPoint point = new ForecastPoint(horizon, at, orNull(congestion), orNull(speed), orNull(vehicleCount),
+                    null, null, null);
+            // Emissions need all three quantities
+            if (!Double.isNaN(congestion) && !Double.isNaN(speed) && !Double.isNaN(vehicleCount)) {
+                point.setCo2KgPerHour(model.co2(vehicleCount, speed, congestion));
+                point.setNoxGramsPerHour(model.nox(vehicleCount, speed, congestion));
+                point.setParticulateMatterGramsPerHour(model.particulateMatter(vehicleCount, speed, congestion));
+            }
+            points.add(point);
+        }
+        return new CongestionForecast(state.getRoadSegmentId(), state.getLatestTimestamp(), points);
+    }
+
+    private SegmentForecast forecastFor(String roadSegmentId) {
+        return forecasts.computeIfAbsent(segmentRegistry.intern(roadSegmentId),
+                handle -> new SegmentForecast(segmentRegistry.getId(handle), parameters, slotsPerDay));
+    }
+
+    private void checkHorizon(int horizonMinutes) {
+        if (horizonMinutes <= 0 || Duration.ofMinutes(horizonMinutes).compareTo(maxHorizon) > 0) {
+            throw new IllegalArgumentException("Forecast horizon must be between 1 and " + maxHorizon.toMinutes()
+                    + " minutes, got " + horizonMinutes);
+        }
+    }
+
+    private long slotOf(LocalDateTime timestamp) {
+        return Math.floorDiv(timestamp.toEpochSecond(ZoneOffset.UTC), slotSeconds);
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    // NaN, for a quantity the segment never reported, passes through
+    private static double clamp(double value, double min, double max) {
+        return Double.isNaN(value) ? value : Math.min(Math.max(value, min), max);
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private record Ranked(SegmentForecast state, double congestion) {
+    }
+}
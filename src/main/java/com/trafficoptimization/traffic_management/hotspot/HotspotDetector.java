@@ -0,0 +1,181 @@
+package com.trafficoptimization.traffic_management.hotspot;
+
+import com.trafficoptimization.traffic_management.model.Hotspot;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.repository.TrafficMetricsView;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import com.trafficoptimization.traffic_management.segment.SegmentTable;
+import com.trafficoptimization.traffic_management.service.TopN;
+import com.trafficoptimization.traffic_management.service.TrafficDataListener;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Answers "which segments are congested right now, and since when" from a sliding window of recent
+ * readings per segment, updated on every ingest. A segment is a hotspot while both its windowed
+ * average congestion and its latest reading are at or above the threshold; it is congested since
+ * the first reading of its current unbroken run at or above the threshold. The windows are seeded
+ * from the database once at startup and never read from it afterwards.
+ */
+@Component
+public class HotspotDetector implements TrafficDataListener {
+
+    private static final Logger log = LoggerFactory.getLogger(HotspotDetector.class);
+
+    private final TrafficDataRepository trafficDataRepository;
+    private final SegmentRegistry segmentRegistry;
+    private final SegmentTable<SegmentWindow> windows = new SegmentTable<>();
+    private final Duration window;
+    private final double threshold;
+    private final int capacity;
+    private final Clock clock;
+
+    @Autowired
+    public HotspotDetector(TrafficDataRepository trafficDataRepository, SegmentRegistry segmentRegistry,
+                           @Value("${traffic.hotspot.window:PT15M}") Duration window,
+                           @Value("${traffic.hotspot.threshold:0.7}") double threshold,
+                           @Value("${traffic.hotspot.window-capacity:256}") int capacity) {
+        this(trafficDataRepository, segmentRegistry, window, threshold, capacity, Clock.systemDefaultZone());
+    }
+
+    public HotspotDetector(TrafficDataRepository trafficDataRepository, SegmentRegistry segmentRegistry,
+                           Duration window, double threshold, int capacity, Clock clock) {
+        this.trafficDataRepository = trafficDataRepository;
+        this.segmentRegistry = segmentRegistry;
+        this.window = window;
+        this.threshold = threshold;
+        this.capacity = capacity;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        // Only the columns the windows keep, already in timestamp order
+        List<TrafficMetricsView> recent = trafficDataRepository.findMetrics(now.minus(window), now);
+        for (TrafficMetricsView reading : recent) {
+            record(reading.getRoadSegmentId(), reading.getTimestamp(), reading.getCongestionLevel());
+        }
+        log.info("Seeded hotspot windows with {} readings from the last {}", recent.size(), window);
+    }
+
+    @Override
+    public void onTrafficDataSaved(List<TrafficData> saved) {
+        for (TrafficData data : saved) {
+            record(data);
+        }
+    }
+
+    public void record(TrafficData data) {
+        record(data.getRoadSegmentId(), data.getTimestamp(), data.getCongestionLevel());
+    }
+
+    private void record(String roadSegmentId, LocalDateTime readAt, Double congestionLevel) {
+        if (congestionLevel == null || readAt == null) {
+            return;
+        }
+        int handle = segmentRegistry.intern(roadSegmentId);
+        long timestamp = toMillis(readAt);
+        while (true) {
+            SegmentWindow segmentWindow = windows.computeIfAbsent(handle,
+                    key -> new SegmentWindow(key, segmentRegistry.getId(key), capacity));
+            if (segmentWindow.add(timestamp, congestionLevel, threshold)) {
+                return;
+            }
+            // Emptied and retired meanwhile; make way for a fresh window
+            windows.remove(handle, segmentWindow);
+        }
+    }
+
+    /**
+     * Drop readings that have left the window and the windows of segments that stopped reporting.
+     * Also done by every {@link #getHotspots} call, so this only matters when nobody asks.
+     */
+    @Scheduled(fixedDelayString = "${traffic.hotspot.evict-interval-ms:60000}",
+            initialDelayString = "${traffic.hotspot.evict-interval-ms:60000}")
+    public void evictExpired() {
+        long cutoff = toMillis(LocalDateTime.now(clock).minus(window));
+        windows.forEach(segmentWindow -> evict(segmentWindow, cutoff));
+    }
+
+    /**
+     * Drop the window of a segment that another cluster member now reports on.
+     */
+    public void remove(String roadSegmentId) {
+        int handle = segmentRegistry.find(roadSegmentId);
+        if (handle != SegmentRegistry.UNKNOWN) {
+            windows.remove(handle);
+        }
+    }
+
+    /**
+     * Number of segments with readings in the window, or not yet evicted.
+     */
+    public int size() {
+        return windows.size();
+    }
+
+    /**
+     * Current hotspots, most congested first.
+     */
+    public List<Hotspot> getHotspots(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        long cutoff = toMillis(now.minus(window));
+        TopN<SegmentWindow.HotspotCandidate> top = new TopN<>(limit, windows.size(),
+                Comparator.comparingDouble(SegmentWindow.HotspotCandidate::average));
+        windows.forEach(segmentWindow -> {
+            if (evict(segmentWindow, cutoff)) {
+                return;
+            }
+            SegmentWindow.HotspotCandidate candidate = segmentWindow.evaluate(threshold);
+            if (candidate != null) {
+                top.offer(candidate);
+            }
+        });
+
+        List<SegmentWindow.HotspotCandidate> ranked = top.toList();
+        long nowMillis = toMillis(now);
+        List<Hotspot> hotspots = new ArrayList<>(ranked.size());
+        for (SegmentWindow.HotspotCandidate candidate : ranked) {
+            hotspots.add(new Hotspot(
+                    candidate.window().getRoadSegmentId(),
+                    candidate.average(),
+                    candidate.window().peak(),
+                    candidate.readingCount(),
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(candidate.congestedSince()), ZoneOffset.UTC),
+                    Math.max(0, (nowMillis - candidate.congestedSince()) / 1000)
+            ));
+        }
+        return hotspots;
+    }
+
+    private boolean evict(SegmentWindow segmentWindow, long cutoff) {
+        if (segmentWindow.evict(cutoff)) {
+            windows.remove(segmentWindow.getHandle(), segmentWindow);
+            return true;
+        }
+        return false;
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,136 @@
+package com.trafficoptimization.traffic_management.hotspot;
+
+/**
+ * Congestion readings of one road segment inside a sliding time window, held in a fixed-size ring
+ * buffer in time order with a running sum. Readings are expected roughly in time order; a late one
+ * is moved into place, and when the buffer is full the oldest reading is dropped early. Also tracks
+ * when the current run of congested readings began, which may lie before the window. A window that
+ * has emptied is retired and refuses further readings, so that it can be removed from the detector.
+ * All access is synchronized on the instance.
+ */
+class SegmentWindow {
+
+    private final int handle;
+    private final String roadSegmentId;
+    private final long[] timestamps;
+    private final double[] congestion;
+    private int head;
+    private int size;
+    private double sum;
+    private long latestTimestamp = Long.MIN_VALUE;
+    private double latestCongestion;
+    // Start of the current run of readings at or above the threshold, or MIN_VALUE outside a run
+    private long congestedSince = Long.MIN_VALUE;
+    private boolean retired;
+
+    SegmentWindow(int handle, String roadSegmentId, int capacity) {
+        this.handle = handle;
+        this.roadSegmentId = roadSegmentId;
+        this.timestamps = new long[capacity];
+        this.congestion = new double[capacity];
+    }
+
+    /**
+     * @return false if the window has been retired, in which case the reading was not added
+     */
+    synchronized boolean add(long timestamp, double level, double threshold) {
+        if (retired) {
+            return false;
+        }
+        if (size == timestamps.length) {
+            if (timestamp < timestamps[head]) {
+                // Older than everything a full window holds, so it would be the one dropped
+                return true;
+            }
+            removeOldest();
+        }
+        // Shift newer readings up so that expired ones are always found at the head
+        int index = size;
+        while (index > 0 && timestamps[slot(index - 1)] > timestamp) {
+            timestamps[slot(index)] = timestamps[slot(index - 1)];
+            congestion[slot(index)] = congestion[slot(index - 1)];
+            index--;
+        }
+        timestamps[slot(index)] = timestamp;
+        congestion[slot(index)] = level;
+        size++;
+        sum += level;
+
+        if (timestamp >= latestTimestamp) {
+            latestTimestamp = timestamp;
+            latestCongestion = level;
+            if (level < threshold) {
+                congestedSince = Long.MIN_VALUE;
+            } else if (congestedSince == Long.MIN_VALUE) {
+                congestedSince = timestamp;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops readings older than {@code cutoff}, retiring the window if none are left.
+     *
+     * @return whether the window is retired
+     */
+    synchronized boolean evict(long cutoff) {
+        while (size > 0 && timestamps[head] < cutoff) {
+            removeOldest();
+        }
+        if (size == 0) {
+            retired = true;
+        }
+        return retired;
+    }
+
+    /**
+     * The segment as a hotspot, or {@code null} when its windowed average is below
+     * {@code threshold} or its latest reading is no longer congested.
+     */
+    synchronized HotspotCandidate evaluate(double threshold) {
+        if (size == 0 || congestedSince == Long.MIN_VALUE || latestCongestion < threshold) {
+            return null;
+        }
+        double average = sum / size;
+        if (average < threshold) {
+            return null;
+        }
+        return new HotspotCandidate(this, average, size, congestedSince);
+    }
+
+    /**
+     * Highest reading in the window; only computed for the segments that make the ranking.
+     */
+    synchronized double peak() {
+        double peak = 0;
+        for (int i = 0, index = head; i < size; i++, index = (index + 1) % timestamps.length) {
+            peak = Math.max(peak, congestion[index]);
+        }
+        return peak;
+    }
+
+    int getHandle() {
+        return handle;
+    }
+
+    String getRoadSegmentId() {
+        return roadSegmentId;
+    }
+
+    private int slot(int offset) {
+        return (head + offset) % timestamps.length;
+    }
+
+    private void removeOldest() {
+        sum -= congestion[head];
+        head = (head + 1) % timestamps.length;
+        size--;
+        if (size == 0) {
+            // Avoid drift from repeated subtraction once the window empties
+            sum = 0;
+        }
+    }
+
+    record HotspotCandidate(SegmentWindow window, double average, int readingCount, long congestedSince) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.trafficoptimization.traffic_management.live;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One connected client: its filter, the events buffered for it, and whether a sender is currently
+ * draining that buffer.
+ */
+class LiveSubscription {
+
+    private static final long IDLE = Long.MIN_VALUE;
+    private static final long STALLED = Long.MIN_VALUE + 1;
+
+    private final SseEmitter emitter;
+    // Segment handles to deliver, or null for all segments; replaced, never mutated, once published
+    private volatile BitSet roadSegments;
+    // Requested segments that had not reported when subscribing, moved to roadSegments when first seen
+    private volatile Set<String> unregisteredSegments;
+    private final Double threshold;
+    private final ArrayBlockingQueue<SseEmitter.SseEventBuilder> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // System.nanoTime() when the send in progress started, or IDLE or STALLED
+    private final AtomicLong sendStarted = new AtomicLong(IDLE);
+
+    LiveSubscription(SseEmitter emitter, BitSet roadSegments, Set<String> unregisteredSegments, Double threshold,
+                     int bufferSize) {
+        this.emitter = emitter;
+        this.roadSegments = roadSegments;
+        this.unregisteredSegments = Set.copyOf(unregisteredSegments);
+        this.threshold = threshold;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    Double getThreshold() {
+        return threshold;
+    }
+
+    boolean matches(int roadSegmentHandle, String roadSegmentId) {
+        BitSet handles = roadSegments;
+        if (handles == null || (roadSegmentHandle >= 0 && handles.get(roadSegmentHandle))) {
+            return true;
+        }
+        if (!unregisteredSegments.contains(roadSegmentId)) {
+            return false;
+        }
+        if (roadSegmentHandle >= 0) {
+            register(roadSegmentHandle, roadSegmentId);
+        }
+        return true;
+    }
+
+    private synchronized void register(int roadSegmentHandle, String roadSegmentId) {
+        BitSet handles = (BitSet) roadSegments.clone();
+        handles.set(roadSegmentHandle);
+        roadSegments = handles;
+        Set<String> unregistered = new HashSet<>(unregisteredSegments);
+        unregistered.remove(roadSegmentId);
+        unregisteredSegments = Set.copyOf(unregistered);
+    }
+
+    boolean isAlert(TrafficData data) {
+        return threshold != null && data.getCongestionLevel() != null && data.getCongestionLevel() >= threshold;
+    }
+
+    /**
+     * @return {@code false} when the buffer is full, i.e. the client is not keeping up
+     */
+    boolean offer(SseEmitter.SseEventBuilder event) {
+        return buffer.offer(event);
+    }
+
+    SseEmitter.SseEventBuilder poll() {
+        return buffer.poll();
+    }
+
+    boolean hasPending() {
+        return !buffer.isEmpty();
+    }
+
+    /**
+     * Claims the right to drain this subscription, so that at most one sender writes to it at a time.
+     */
+    boolean startDraining() {
+        return draining.compareAndSet(false, true);
+    }
+
+    void stopDraining() {
+        draining.set(false);
+    }
+
+    void startSend() {
+        sendStarted.set(System.nanoTime());
+    }
+
+    /**
+     * @return whether the send was marked stalled while it was in progress
+     */
+    boolean endSend() {
+        return sendStarted.getAndSet(IDLE) == STALLED;
+    }
+
+    /**
+     * Marks the send in progress as stalled if it started at least {@code timeoutNanos} ago. Either
+     * this or {@link #endSend()} wins, so a send is never found stalled after it returned.
+     *
+     * @return {@code true} only for the first caller to find it stalled
+     */
+    boolean markStalled(long timeoutNanos) {
+        long started = sendStarted.get();
+        return started != IDLE && started != STALLED && System.nanoTime() - started >= timeoutNanos
+                && sendStarted.compareAndSet(started, STALLED);
+    }
+
+    /**
+     * @return {@code true} only for the first caller
+     */
+    boolean close() {
+        return closed.compareAndSet(false, true);
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+}
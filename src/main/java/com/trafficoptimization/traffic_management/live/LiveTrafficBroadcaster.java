@@ -0,0 +1,309 @@
+package com.trafficoptimization.traffic_management.live;
+
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.model.CongestionAlert;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import com.trafficoptimization.traffic_management.service.TrafficDataListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes committed readings and congestion alerts to Server-Sent Events subscribers. Ingestion
+ * threads only filter and enqueue into each subscriber's bounded buffer; sender threads (a small
+ * pool, or one virtual thread per drain in virtual-thread mode) serialise and write.
+ * <p>
+ * A subscriber whose buffer overflows is disconnected rather than allowed to hold back ingestion
+ * or other subscribers, and can reconnect to resume from live data.
+ * <p>
+ * A write to a client that stopped reading blocks until the container's own write timeout, and is
+ * neither interruptible nor abortable from here. A subscriber whose send is still blocked after
+ * {@code traffic.live.send-timeout-ms} is therefore disconnected as a slow consumer too, and the
+ * sender pool runs an extra thread in place of the stuck one until its write gives up. The check
+ * runs on a thread of its own, every {@code traffic.live.send-check-interval-ms}, so that it does
+ * not wait on the shared scheduler.
+ */
+@Service
+public class LiveTrafficBroadcaster implements TrafficDataListener {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveTrafficBroadcaster.class);
+
+    static final String READING_EVENT = "reading";
+    static final String ALERT_EVENT = "congestion-alert";
+
+    private final List<LiveSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final SegmentRegistry segmentRegistry;
+    private final Executor senders;
+    private final ScheduledExecutorService sendCheck;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final int senderPoolSize;
+    private int standInSenders;
+    private final Counter slowConsumerDisconnects;
+
+    @Autowired
+    public LiveTrafficBroadcaster(MeterRegistry meterRegistry, WorkerThreads workerThreads, SegmentRegistry segmentRegistry,
+                                  @Value("${traffic.live.buffer-size:256}") int bufferSize,
+                                  @Value("${traffic.live.sender-threads:2}") int senderThreads,
+                                  @Value("${traffic.live.timeout-ms:-1}") long timeoutMillis,
+                                  @Value("${traffic.live.send-timeout-ms:5000}") long sendTimeoutMillis,
+                                  @Value("${traffic.live.send-check-interval-ms:1000}") long sendCheckIntervalMillis) {
+        this(meterRegistry, segmentRegistry, workerThreads.taskExecutor("traffic-live-sender-", senderThreads),
+                sendTimeoutMillis > 0
+                        ? Executors.newSingleThreadScheduledExecutor(workerThreads.threadFactory("traffic-live-send-check-"))
+                        : null,
+                bufferSize, timeoutMillis, sendTimeoutMillis, sendCheckIntervalMillis);
+    }
+
+    LiveTrafficBroadcaster(MeterRegistry meterRegistry, SegmentRegistry segmentRegistry, Executor senders,
+                           ScheduledExecutorService sendCheck, int bufferSize, long timeoutMillis,
+                           long sendTimeoutMillis, long sendCheckIntervalMillis) {
+        this.segmentRegistry = segmentRegistry;
+        this.senders = senders;
+        this.sendCheck = sendCheck;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.senderPoolSize = senders instanceof ThreadPoolExecutor pool ? pool.getCorePoolSize() : 0;
+
+        Gauge.builder("traffic.live.subscribers", subscriptions, List::size)
+                .description("Connected live traffic subscribers")
+                .register(meterRegistry);
+        this.slowConsumerDisconnects = Counter.builder("traffic.live.disconnected")
+                .description("Subscribers disconnected by the server")
+                .tag("reason", "slow_consumer")
+                .register(meterRegistry);
+
+        if (sendCheck != null) {
+            sendCheck.scheduleWithFixedDelay(this::expireStalledSends, sendCheckIntervalMillis,
+                    sendCheckIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Subscribe to readings for {@code roadSegmentIds} (all segments when empty). When a
+     * {@code threshold} is given, readings at or above it additionally raise a congestion alert.
+     */
+    public SseEmitter subscribe(Set<String> roadSegmentIds, Double threshold) {
+        return subscribe(new SseEmitter(timeoutMillis), roadSegmentIds, threshold);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Set<String> roadSegmentIds, Double threshold) {
+        BitSet roadSegments = null;
+        // Ids that never reported are matched by name, so clients cannot grow the registry
+        Set<String> unregistered = new HashSet<>();
+        if (!roadSegmentIds.isEmpty()) {
+            roadSegments = new BitSet();
+            for (String roadSegmentId : roadSegmentIds) {
+                int handle = segmentRegistry.find(roadSegmentId);
+                if (handle == SegmentRegistry.UNKNOWN) {
+                    unregistered.add(roadSegmentId);
+                } else {
+                    roadSegments.set(handle);
+                }
+            }
+        }
+        LiveSubscription subscription = new LiveSubscription(emitter, roadSegments, unregistered, threshold, bufferSize);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> close(subscription));
+        emitter.onError(error -> close(subscription));
+        subscriptions.add(subscription);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void onTrafficDataSaved(List<TrafficData> saved) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        // Resolve each reading's segment once, so that filtering is a bit test per subscriber
+        int[] handles = new int[saved.size()];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = segmentRegistry.find(saved.get(i).getRoadSegmentId());
+        }
+        for (LiveSubscription subscription : subscriptions) {
+            boolean queued = false;
+            for (int i = 0; i < handles.length; i++) {
+                TrafficData data = saved.get(i);
+                if (!subscription.matches(handles[i], data.getRoadSegmentId())) {
+                    continue;
+                }
+                queued = true;
+                SseEmitter.SseEventBuilder reading = SseEmitter.event()
+                        .name(READING_EVENT)
+                        .data(data, MediaType.APPLICATION_JSON);
+                if (!enqueue(subscription, reading)) {
+                    break;
+                }
+                if (subscription.isAlert(data)) {
+                    CongestionAlert alert = new CongestionAlert(data.getId(), data.getRoadSegmentId(),
+                            data.getTimestamp(), data.getCongestionLevel(), subscription.getThreshold());
+                    if (!enqueue(subscription, SseEmitter.event().name(ALERT_EVENT).data(alert, MediaType.APPLICATION_JSON))) {
+                        break;
+                    }
+                }
+            }
+            if (queued) {
+                schedule(subscription);
+            }
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and detects clients that went away.
+     */
+    @Scheduled(fixedDelayString = "${traffic.live.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (LiveSubscription subscription : subscriptions) {
+            if (enqueue(subscription, SseEmitter.event().comment("heartbeat"))) {
+                schedule(subscription);
+            }
+        }
+    }
+
+    /**
+     * Disconnects subscribers whose send has been blocked for longer than the send timeout.
+     */
+    void expireStalledSends() {
+        if (sendTimeoutNanos <= 0) {
+            return;
+        }
+        for (LiveSubscription subscription : subscriptions) {
+            if (subscription.markStalled(sendTimeoutNanos)) {
+                if (close(subscription)) {
+                    slowConsumerDisconnects.increment();
+                    log.warn("Disconnecting live subscriber whose send has been blocked for over {} ms",
+                            TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+                }
+                addStandInSender();
+            }
+        }
+    }
+
+    private boolean enqueue(LiveSubscription subscription, SseEmitter.SseEventBuilder event) {
+        if (subscription.offer(event)) {
+            return true;
+        }
+        if (close(subscription)) {
+            slowConsumerDisconnects.increment();
+            log.warn("Disconnecting live subscriber that fell {} events behind", bufferSize);
+        }
+        return false;
+    }
+
+    private void schedule(LiveSubscription subscription) {
+        if (!subscription.isClosed() && subscription.startDraining()) {
+            try {
+                senders.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.stopDraining();
+            }
+        }
+    }
+
+    private void drain(LiveSubscription subscription) {
+        do {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!subscription.isClosed() && (event = subscription.poll()) != null) {
+                    subscription.startSend();
+                    try {
+                        subscription.getEmitter().send(event);
+                    } finally {
+                        if (subscription.endSend()) {
+                            removeStandInSender();
+                        }
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client disconnected or the emitter already completed
+                close(subscription);
+            } finally {
+                subscription.stopDraining();
+            }
+            // An event queued after the last poll but before stopDraining would otherwise be stranded
+        } while (!subscription.isClosed() && subscription.hasPending() && subscription.startDraining());
+    }
+
+    /**
+     * Lets a fixed sender pool keep serving other subscribers while one of its threads is stuck in
+     * a write. Virtual-thread senders need no stand-in, as every drain has its own thread.
+     */
+    private void addStandInSender() {
+        resizeSenders(1);
+    }
+
+    private void removeStandInSender() {
+        resizeSenders(-1);
+    }
+
+    // The stuck send may return before its stand-in was added, so the count can briefly go negative
+    private synchronized void resizeSenders(int standInDelta) {
+        standInSenders += standInDelta;
+        if (senders instanceof ThreadPoolExecutor pool && !pool.isShutdown()) {
+            int size = senderPoolSize + Math.max(standInSenders, 0);
+            if (size > pool.getMaximumPoolSize()) {
+                pool.setMaximumPoolSize(size);
+                pool.setCorePoolSize(size);
+            } else {
+                pool.setCorePoolSize(size);
+                pool.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private boolean close(LiveSubscription subscription) {
+        subscriptions.remove(subscription);
+        if (!subscription.close()) {
+            return false;
+        }
+        try {
+            subscription.getEmitter().complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (LiveSubscription subscription : subscriptions) {
+            close(subscription);
+        }
+        if (sendCheck != null) {
+            sendCheck.shutdownNow();
+        }
+        if (senders instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.trafficoptimization.traffic_management.metrics;
+
+import com.trafficoptimization.traffic_management.model.RoadClass;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Latency timers and row count summaries of one service's operations, tagged by operation and by
+ * the road class of the segment the operation concerns. Segments are tagged by class rather than
+ * id to keep the number of series bounded: one per road class, plus {@value #UNCLASSIFIED} for
+ * segments without metadata and {@value #ALL_SEGMENTS} for network-wide operations. Both meter
+ * kinds publish a percentile histogram. Meters are created on first use and cached, so recording
+ * costs a map lookup and two clock reads.
+ */
+public class OperationMeters {
+
+    public static final String ALL_SEGMENTS = "all";
+    public static final String UNCLASSIFIED = "unclassified";
+
+    private static final RoadClass[] ROAD_CLASSES = RoadClass.values();
+    private static final int UNCLASSIFIED_INDEX = ROAD_CLASSES.length;
+    private static final int ALL_SEGMENTS_INDEX = ROAD_CLASSES.length + 1;
+
+    private final MeterRegistry meterRegistry;
+    private final SegmentRegistry segmentRegistry;
+    private final String name;
+    private final String description;
+    private final ConcurrentMap<String, Meters[]> meters = new ConcurrentHashMap<>();
+
+    /**
+     * @param name timer name; the row count summaries are named {@code <name>.rows}
+     */
+    public OperationMeters(MeterRegistry meterRegistry, SegmentRegistry segmentRegistry, String name, String description) {
+        this.meterRegistry = meterRegistry;
+        this.segmentRegistry = segmentRegistry;
+        this.name = name;
+        this.description = description;
+    }
+
+    /**
+     * Meters of a network-wide operation.
+     */
+    public Meters of(String operation) {
+        return meters(operation, ALL_SEGMENTS_INDEX);
+    }
+
+    /**
+     * Meters of an operation on one segment, tagged with its road class.
+     */
+    public Meters of(String operation, String roadSegmentId) {
+        int handle = segmentRegistry.find(roadSegmentId);
+        RoadClass roadClass = handle == SegmentRegistry.UNKNOWN ? null : segmentRegistry.getRoadClass(handle);
+        return meters(operation, roadClass == null ? UNCLASSIFIED_INDEX : roadClass.ordinal());
+    }
+
+    private Meters meters(String operation, int roadClassIndex) {
+        Meters[] byRoadClass = meters.computeIfAbsent(operation, key -> new Meters[ALL_SEGMENTS_INDEX + 1]);
+        Meters found = byRoadClass[roadClassIndex];
+        if (found == null) {
+            // Registration is idempotent, so a racing thread at worst stores an equal instance
+            found = new Meters(operation, roadClassTag(roadClassIndex));
+            byRoadClass[roadClassIndex] = found;
+        }
+        return found;
+    }
+
+    private static String roadClassTag(int index) {
+        if (index == ALL_SEGMENTS_INDEX) {
+            return ALL_SEGMENTS;
+        }
+        return index == UNCLASSIFIED_INDEX ? UNCLASSIFIED : ROAD_CLASSES[index].name().toLowerCase(Locale.ROOT);
+    }
+
+    public final class Meters {
+
+        private final String operation;
+        private final String roadClass;
+        private final Timer timer;
+        private volatile DistributionSummary rows;
+
+        private Meters(String operation, String roadClass) {
+            this.operation = operation;
+            this.roadClass = roadClass;
+            this.timer = Timer.builder(name)
+                    .description(description)
+                    .tag("operation", operation)
+                    .tag("road_class", roadClass)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(10_000))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+        }
+
+        public <T> T time(Supplier<T> operation) {
+            long start = System.nanoTime();
+            try {
+                return operation.get();
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        public void time(Runnable operation) {
+            long start = System.nanoTime();
+            try {
+                operation.run();
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * Time a query and record the number of rows it returned.
+         */
+        public <T> List<T> query(Supplier<List<T>> query) {
+            List<T> result = time(query);
+            rows(result.size());
+            return result;
+        }
+
+        public void rows(long count) {
+            DistributionSummary summary = rows;
+            if (summary == null) {
+                summary = DistributionSummary.builder(name + ".rows")
+                        .description("Rows read or written per call")
+                        .baseUnit("rows")
+                        .tag("operation", operation)
+                        .tag("road_class", roadClass)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(1.0)
+                        .maximumExpectedValue(1_000_000.0)
+                        .register(meterRegistry);
+                rows = summary;
+            }
+            summary.record(count);
+        }
+
+        public Timer getTimer() {
+            return timer;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.trafficoptimization.traffic_management.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BatchIngestionResult {
+    private int received;
+    private int accepted;
+    private int rejected;
+    private List<RecordIngestionResult> results = new ArrayList<>();
+
+    public void add(RecordIngestionResult result) {
+        received++;
+        if (result.getStatus() == RecordIngestionResult.Status.ACCEPTED) {
+            accepted++;
+        } else {
+            rejected++;
+        }
+        results.add(result);
+    }
+
+    /**
+     * Append the results of a chunk whose record indexes are relative to the chunk,
+     * remapping them through {@code indexes} to positions in the whole request.
+     */
+    public void addAll(BatchIngestionResult chunk, List<Integer> indexes) {
+        for (RecordIngestionResult result : chunk.getResults()) {
+            result.setIndex(indexes.get(result.getIndex()));
+            add(result);
+        }
+    }
+}
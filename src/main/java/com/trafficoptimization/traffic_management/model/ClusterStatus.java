@@ -0,0 +1,20 @@
+package com.trafficoptimization.traffic_management.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A node's view of the cluster. {@code rebalancing} is true while it is still handing segments it
+ * no longer owns to their owners.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterStatus {
+    private String self;
+    private List<String> members;
+    private boolean rebalancing;
+}
@@ -0,0 +1,19 @@
+package com.trafficoptimization.traffic_management.model;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CongestionAlert {
+    private Long trafficDataId;
+    private String roadSegmentId;
+    private LocalDateTime timestamp;
+    private Double congestionLevel;
+    private Double threshold;
+}
@@ -0,0 +1,18 @@
+package com.trafficoptimization.traffic_management.model;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CongestionForecast {
+    private String roadSegmentId;
+    private LocalDateTime latestReading;
+    private List<ForecastPoint> points;
+}
@@ -0,0 +1,22 @@
+package com.trafficoptimization.traffic_management.model;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForecastPoint {
+    private Integer horizonMinutes;
+    private LocalDateTime timestamp;
+    private Double congestionLevel;
+    private Double averageSpeed;
+    private Double vehicleCount;
+    private Double co2KgPerHour;
+    private Double noxGramsPerHour;
+    private Double particulateMatterGramsPerHour;
+}
@@ -0,0 +1,20 @@
+package com.trafficoptimization.traffic_management.model;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Hotspot {
+    private String roadSegmentId;
+    private Double windowedCongestion;
+    private Double peakCongestion;
+    private Integer readingCount;
+    private LocalDateTime congestedSince;
+    private Long congestedForSeconds;
+}
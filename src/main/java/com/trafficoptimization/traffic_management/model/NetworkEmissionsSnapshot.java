@@ -0,0 +1,22 @@
+package com.trafficoptimization.traffic_management.model;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NetworkEmissionsSnapshot {
+    private LocalDateTime generatedAt;
+    private Integer segmentCount;
+    private Double totalCo2KgPerHour;
+    private Double totalNoxGramsPerHour;
+    private Double totalParticulateMatterGramsPerHour;
+    private List<EmissionsEstimate> topEmitters;
+    private List<EmissionsEstimate> segments;
+}
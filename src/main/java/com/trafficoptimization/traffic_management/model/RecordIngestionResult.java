@@ -0,0 +1,29 @@
+package com.trafficoptimization.traffic_management.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordIngestionResult {
+
+    public enum Status {
+        ACCEPTED,
+        REJECTED
+    }
+
+    private int index;
+    private Status status;
+    private Long id;
+    private String error;
+
+    public static RecordIngestionResult accepted(int index, Long id) {
+        return new RecordIngestionResult(index, Status.ACCEPTED, id, null);
+    }
+
+    public static RecordIngestionResult rejected(int index, String error) {
+        return new RecordIngestionResult(index, Status.REJECTED, null, error);
+    }
+}
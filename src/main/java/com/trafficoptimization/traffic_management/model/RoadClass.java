@@ -0,0 +1,12 @@
+package com.trafficoptimization.traffic_management.model;
+
+/**
+ * Functional class of a road segment, from highest capacity to lowest.
+ */
+public enum RoadClass {
+    MOTORWAY,
+    TRUNK,
+    PRIMARY,
+    SECONDARY,
+    LOCAL
+}
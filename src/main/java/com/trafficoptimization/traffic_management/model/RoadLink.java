@@ -0,0 +1,28 @@
+package com.trafficoptimization.traffic_management.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Traffic leaving one road segment can continue onto another. Links are directed; a two-way road
+ * is linked both ways.
+ */
+@Entity
+@Table(name = "road_link")
+@IdClass(RoadLinkId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoadLink {
+
+    @Id
+    private String fromSegmentId;
+
+    @Id
+    private String toSegmentId;
+}
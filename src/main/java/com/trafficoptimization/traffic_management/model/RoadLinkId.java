@@ -0,0 +1,15 @@
+package com.trafficoptimization.traffic_management.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoadLinkId implements Serializable {
+    private String fromSegmentId;
+    private String toSegmentId;
+}
@@ -0,0 +1,37 @@
+package com.trafficoptimization.traffic_management.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Descriptive metadata of a road segment. Readings reference segments by id only, and a segment
+ * does not need a row here to receive readings.
+ */
+@Entity
+@Table(name = "road_segment")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoadSegment {
+
+    @Id
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    private RoadClass roadClass;
+
+    @Positive
+    private Double lengthKm;
+
+    /**
+     * Operator-defined area the segment belongs to, used to pick its emissions profile.
+     */
+    private String region;
+}
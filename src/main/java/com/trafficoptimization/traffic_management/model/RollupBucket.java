@@ -0,0 +1,38 @@
+package com.trafficoptimization.traffic_management.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupBucket {
+    private String roadSegmentId;
+    private LocalDateTime bucketStart;
+    private RollupResolution sourceResolution;
+    private long readingCount;
+    private Double averageVehicleCount;
+    private Integer maxVehicleCount;
+    private Double averageSpeed;
+    private Double minSpeed;
+    private Double averageCongestion;
+    private Double maxCongestion;
+
+    public static RollupBucket from(TrafficRollup rollup, LocalDateTime bucketStart) {
+        return new RollupBucket(
+                rollup.getRoadSegmentId(),
+                bucketStart,
+                rollup.getResolution(),
+                rollup.getReadingCount(),
+                rollup.getReadingCount() > 0 ? (double) rollup.getVehicleCountSum() / rollup.getReadingCount() : null,
+                rollup.getVehicleCountMax(),
+                rollup.getSpeedCount() > 0 ? rollup.getSpeedSum() / rollup.getSpeedCount() : null,
+                rollup.getSpeedMin(),
+                rollup.getCongestionCount() > 0 ? rollup.getCongestionSum() / rollup.getCongestionCount() : null,
+                rollup.getCongestionMax()
+        );
+    }
+}
@@ -0,0 +1,50 @@
+package com.trafficoptimization.traffic_management.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Bucket widths kept by the rollup tables, finest first. Buckets are aligned to the epoch with
+ * timestamps read as UTC, which is also how the backfill SQL computes them.
+ */
+public enum RollupResolution {
+    ONE_MINUTE(Duration.ofMinutes(1)),
+    FIFTEEN_MINUTES(Duration.ofMinutes(15)),
+    ONE_HOUR(Duration.ofHours(1));
+
+    private final Duration duration;
+
+    RollupResolution(Duration duration) {
+        this.duration = duration;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public LocalDateTime bucketStart(LocalDateTime timestamp) {
+        return floor(timestamp, duration);
+    }
+
+    /**
+     * Coarsest resolution whose buckets tile the requested granularity exactly, or {@code null}
+     * if the granularity is finer than one minute or not a whole number of minutes.
+     */
+    public static RollupResolution forGranularity(Duration granularity) {
+        RollupResolution best = null;
+        for (RollupResolution resolution : values()) {
+            long width = resolution.duration.getSeconds();
+            if (granularity.getSeconds() >= width && granularity.getSeconds() % width == 0 && granularity.getNano() == 0) {
+                best = resolution;
+            }
+        }
+        return best;
+    }
+
+    public static LocalDateTime floor(LocalDateTime timestamp, Duration width) {
+        long seconds = width.getSeconds();
+        long epochSecond = timestamp.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochSecond, seconds) * seconds, 0, ZoneOffset.UTC);
+    }
+}
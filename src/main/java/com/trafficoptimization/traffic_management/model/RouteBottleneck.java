@@ -0,0 +1,20 @@
+package com.trafficoptimization.traffic_management.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The most congested segment of a route, by average congestion level, with slower traffic
+ * breaking ties.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteBottleneck {
+    private String roadSegmentId;
+    private Integer position;
+    private Double congestionLevel;
+    private Double averageSpeed;
+    private Double travelTimeSeconds;
+}
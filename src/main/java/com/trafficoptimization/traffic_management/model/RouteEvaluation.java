@@ -0,0 +1,30 @@
+package com.trafficoptimization.traffic_management.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Totals along a route of chained road segments. Emissions are the sum of the segments' estimates;
+ * travel time covers only the segments with both a known length and a measured speed, and the
+ * segments left out are counted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteEvaluation {
+    private LocalDateTime generatedAt;
+    private List<String> roadSegmentIds;
+    private Integer segmentCount;
+    private Double lengthKm;
+    private Double travelTimeSeconds;
+    private Integer segmentsWithoutReadings;
+    private Integer segmentsWithoutTravelTime;
+    private Double totalCo2KgPerHour;
+    private Double totalNoxGramsPerHour;
+    private Double totalParticulateMatterGramsPerHour;
+    private RouteBottleneck bottleneck;
+}
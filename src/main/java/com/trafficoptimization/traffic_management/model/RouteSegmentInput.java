@@ -0,0 +1,25 @@
+package com.trafficoptimization.traffic_management.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What route evaluation needs of one segment: its length, its average readings and the emissions
+ * estimated from them with the segment's own emissions profile. Segments without readings have a
+ * reading count of zero and no emissions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteSegmentInput {
+    private String roadSegmentId;
+    private Double lengthKm;
+    private long readingCount;
+    private long congestionCount;
+    private double averageSpeed;
+    private double averageCongestion;
+    private double co2KgPerHour;
+    private double noxGramsPerHour;
+    private double particulateMatterGramsPerHour;
+}
@@ -6,19 +6,32 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(indexes = {
+        // Segment history and per-segment time windows
+        @Index(name = "idx_traffic_data_segment_time", columnList = "roadSegmentId, timestamp"),
+        // Congestion points: equality on the segment, range on the level
+        @Index(name = "idx_traffic_data_segment_congestion", columnList = "roadSegmentId, congestionLevel"),
+        // Network-wide time ranges
+        @Index(name = "idx_traffic_data_time", columnList = "timestamp")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class TrafficData {
     
+    // Sequence ids are pre-allocated in blocks, which lets Hibernate batch the inserts (IDENTITY cannot)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "traffic_data_seq")
+    @SequenceGenerator(name = "traffic_data_seq", sequenceName = "traffic_data_seq", allocationSize = 50)
     private Long id;
     
     @NotNull
@@ -0,0 +1,44 @@
+package com.trafficoptimization.traffic_management.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * The filter of one of the listing endpoints, so paging and streaming share a single code path.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TrafficQuery {
+
+    public enum Kind {
+        ALL,
+        ROAD_SEGMENT,
+        TIME_RANGE,
+        CONGESTION_POINTS
+    }
+
+    private final Kind kind;
+    private final String roadSegmentId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final Double congestionThreshold;
+
+    public static TrafficQuery all() {
+        return new TrafficQuery(Kind.ALL, null, null, null, null);
+    }
+
+    public static TrafficQuery roadSegment(String roadSegmentId) {
+        return new TrafficQuery(Kind.ROAD_SEGMENT, roadSegmentId, null, null, null);
+    }
+
+    public static TrafficQuery timeRange(LocalDateTime start, LocalDateTime end) {
+        return new TrafficQuery(Kind.TIME_RANGE, null, start, end, null);
+    }
+
+    public static TrafficQuery congestionPoints(String roadSegmentId, Double congestionThreshold) {
+        return new TrafficQuery(Kind.CONGESTION_POINTS, roadSegmentId, null, null, congestionThreshold);
+    }
+}
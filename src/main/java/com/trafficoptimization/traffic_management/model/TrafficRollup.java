@@ -0,0 +1,89 @@
+package com.trafficoptimization.traffic_management.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated readings of one road segment within one time bucket. Rows are additive: two
+ * rollups of the same bucket combine with {@link #merge}, which is how live deltas are applied.
+ */
+@Entity
+@Table(name = "traffic_rollup")
+@IdClass(TrafficRollupId.class)
+@Data
+@NoArgsConstructor
+public class TrafficRollup {
+
+    @Id
+    private String roadSegmentId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private RollupResolution resolution;
+
+    @Id
+    private LocalDateTime bucketStart;
+
+    private long readingCount;
+    private long vehicleCountSum;
+    private Integer vehicleCountMax;
+    private long speedCount;
+    private double speedSum;
+    private Double speedMin;
+    private long congestionCount;
+    private double congestionSum;
+    private Double congestionMax;
+
+    public TrafficRollup(String roadSegmentId, RollupResolution resolution, LocalDateTime bucketStart) {
+        this.roadSegmentId = roadSegmentId;
+        this.resolution = resolution;
+        this.bucketStart = bucketStart;
+    }
+
+    public void add(TrafficData data) {
+        readingCount++;
+        vehicleCountSum += data.getVehicleCount();
+        vehicleCountMax = max(vehicleCountMax, data.getVehicleCount());
+        if (data.getAverageSpeed() != null) {
+            speedCount++;
+            speedSum += data.getAverageSpeed();
+            speedMin = speedMin == null ? data.getAverageSpeed() : Math.min(speedMin, data.getAverageSpeed());
+        }
+        if (data.getCongestionLevel() != null) {
+            congestionCount++;
+            congestionSum += data.getCongestionLevel();
+            congestionMax = congestionMax == null ? data.getCongestionLevel() : Math.max(congestionMax, data.getCongestionLevel());
+        }
+    }
+
+    public void merge(TrafficRollup other) {
+        readingCount += other.readingCount;
+        vehicleCountSum += other.vehicleCountSum;
+        vehicleCountMax = max(vehicleCountMax, other.vehicleCountMax);
+        speedCount += other.speedCount;
+        speedSum += other.speedSum;
+        if (other.speedMin != null) {
+            speedMin = speedMin == null ? other.speedMin : Math.min(speedMin, other.speedMin);
+        }
+        congestionCount += other.congestionCount;
+        congestionSum += other.congestionSum;
+        if (other.congestionMax != null) {
+            congestionMax = congestionMax == null ? other.congestionMax : Math.max(congestionMax, other.congestionMax);
+        }
+    }
+
+    private static Integer max(Integer current, Integer candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null ? candidate : Math.max(current, candidate);
+    }
+}
@@ -0,0 +1,17 @@
+package com.trafficoptimization.traffic_management.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrafficRollupId implements Serializable {
+    private String roadSegmentId;
+    private RollupResolution resolution;
+    private LocalDateTime bucketStart;
+}
@@ -0,0 +1,511 @@
+package com.trafficoptimization.traffic_management.recent;
+
+import com.trafficoptimization.traffic_management.aggregate.SegmentStatistics;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import com.trafficoptimization.traffic_management.service.TrafficDataListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The readings of the last few hours, held off-heap in primitive columns so that time range,
+ * congestion point and windowed emissions queries scan them without the database, entities or any
+ * allocation per row; only matching readings are turned back into {@link TrafficData}. Readings are
+ * kept in arrival order in a ring of fixed-size blocks. Each block is one direct buffer laid out
+ * column by column, allocated when the ring first reaches it. The oldest readings are dropped once
+ * they fall out of the horizon or the ring is full.
+ * <p>
+ * The store is complete from a lower timestamp bound on: every reading in the table at or after it
+ * is also here, see {@link #covers}. Dropping a reading raises the bound past it, and late readings
+ * older than the bound are not kept, so a range starting at or after it is answered completely.
+ * Timestamps are kept as UTC epoch microseconds, the precision of the table.
+ */
+@Component
+public class RecentReadingStore implements TrafficDataListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RecentReadingStore.class);
+
+    private static final int BLOCK_SHIFT = 16;
+    private static final int BLOCK_ROWS = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_ROWS - 1;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int LOAD_PAGE_SIZE = 5_000;
+    private static final int NO_VEHICLE_COUNT = Integer.MIN_VALUE;
+    private static final Comparator<TrafficData> KEYSET_ORDER = Comparator.comparing(TrafficData::getTimestamp)
+            .thenComparing(TrafficData::getId);
+
+    private final TrafficDataRepository trafficDataRepository;
+    private final SegmentRegistry segmentRegistry;
+    private final Duration horizon;
+    private final Clock clock;
+    // Rows, a whole number of blocks; zero disables the store
+    private final int capacity;
+    private final Block[] blocks;
+
+    // Shared by queries, exclusive for adding and dropping readings
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Sequence numbers of the oldest reading and of the next one; a reading's slot is its sequence modulo capacity
+    private long head;
+    private long tail;
+    // Readings held per segment handle
+    private int[] segmentRows = new int[256];
+    // Long.MAX_VALUE, covering nothing, until loaded
+    private volatile long coveredFrom = Long.MAX_VALUE;
+
+    @Autowired
+    public RecentReadingStore(TrafficDataRepository trafficDataRepository, SegmentRegistry segmentRegistry,
+                              MeterRegistry meterRegistry,
+                              @Value("${traffic.recent.horizon:PT6H}") Duration horizon,
+                              @Value("${traffic.recent.capacity:1000000}") int capacity) {
+        this(trafficDataRepository, segmentRegistry, meterRegistry, horizon, capacity, Clock.systemDefaultZone());
+    }
+
+    public RecentReadingStore(TrafficDataRepository trafficDataRepository, SegmentRegistry segmentRegistry,
+                              MeterRegistry meterRegistry, Duration horizon, int capacity, Clock clock) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 0 and " + MAX_CAPACITY);
+        }
+        this.trafficDataRepository = trafficDataRepository;
+        this.segmentRegistry = segmentRegistry;
+        this.horizon = horizon;
+        this.clock = clock;
+        this.blocks = new Block[(capacity + BLOCK_MASK) >>> BLOCK_SHIFT];
+        this.capacity = blocks.length << BLOCK_SHIFT;
+
+        Gauge.builder("traffic.recent.readings", this, RecentReadingStore::size)
+                .description("Readings held in the recent reading store")
+                .register(meterRegistry);
+        Gauge.builder("traffic.recent.memory", this, RecentReadingStore::getAllocatedBytes)
+                .description("Off-heap memory allocated by the recent reading store")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Read the readings within the horizon from the table, in timestamp order.
+     */
+    @PostConstruct
+    public void load() {
+        if (capacity == 0) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        LocalDateTime from = LocalDateTime.now(clock).minus(horizon);
+        lock.writeLock().lock();
+        try {
+            coveredFrom = toMicros(from);
+            LocalDateTime afterTimestamp = from;
+            long afterId = Long.MIN_VALUE;
+            List<TrafficData> page;
+            do {
+                page = trafficDataRepository.findPage(afterTimestamp, afterId, Limit.of(LOAD_PAGE_SIZE));
+                for (TrafficData data : page) {
+                    add(data);
+                }
+                if (!page.isEmpty()) {
+                    afterTimestamp = page.get(page.size() - 1).getTimestamp();
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+            log.info("Loaded {} readings since {} into the recent reading store in {} ms", tail - head, from,
+                    System.currentTimeMillis() - start);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onTrafficDataSaved(List<TrafficData> saved) {
+        if (capacity == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (TrafficData data : saved) {
+                add(data);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop the readings that have fallen out of the horizon.
+     */
+    @Scheduled(fixedDelayString = "${traffic.recent.evict-interval-ms:60000}",
+            initialDelayString = "${traffic.recent.evict-interval-ms:60000}")
+    public void evictExpired() {
+        if (capacity == 0) {
+            return;
+        }
+        long cutoff = toMicros(LocalDateTime.now(clock).minus(horizon));
+        lock.writeLock().lock();
+        try {
+            if (coveredFrom == Long.MAX_VALUE) {
+                return;
+            }
+            coveredFrom = Math.max(coveredFrom, cutoff);
+            // Older readings behind a newer head stay until they reach it; time ranges from the bound on skip them
+            while (head < tail && timestampAt(head) < coveredFrom) {
+                dropHead();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forget a segment whose readings no longer live in this node's table, such as one handed to
+     * another cluster member. Its slots stay in the ring until they are dropped.
+     */
+    public void remove(String roadSegmentId) {
+        int handle = segmentRegistry.find(roadSegmentId);
+        if (handle == SegmentRegistry.UNKNOWN || capacity == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            scan((block, row) -> {
+                if (block.handle(row) == handle) {
+                    block.setHandle(row, SegmentRegistry.UNKNOWN);
+                }
+            });
+            if (handle < segmentRows.length) {
+                segmentRows[handle] = 0;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether every stored reading from {@code start} on is held here.
+     */
+    public boolean covers(LocalDateTime start) {
+        return toMicros(start) >= coveredFrom;
+    }
+
+    /**
+     * Number of readings of the segment held here. When it equals the segment's total count, its
+     * whole history is here.
+     */
+    public int count(String roadSegmentId) {
+        int handle = segmentRegistry.find(roadSegmentId);
+        if (handle == SegmentRegistry.UNKNOWN) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            return handle < segmentRows.length ? segmentRows[handle] : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Readings with a timestamp between {@code start} and {@code end}, both inclusive, in
+     * (timestamp, id) order.
+     */
+    public List<TrafficData> findByTimeRange(LocalDateTime start, LocalDateTime end) {
+        long from = toMicros(start);
+        long to = toMicros(end);
+        List<TrafficData> found = new ArrayList<>();
+        read((block, row) -> {
+            long timestamp = block.timestamp(row);
+            if (timestamp >= from && timestamp <= to && block.handle(row) != SegmentRegistry.UNKNOWN) {
+                found.add(toTrafficData(block, row));
+            }
+        });
+        found.sort(KEYSET_ORDER);
+        return found;
+    }
+
+    /**
+     * Readings of the segment held here with a congestion level above {@code congestionThreshold},
+     * in (timestamp, id) order.
+     */
+    public List<TrafficData> findCongestionPoints(String roadSegmentId, Double congestionThreshold) {
+        int handle = segmentRegistry.find(roadSegmentId);
+        if (handle == SegmentRegistry.UNKNOWN || congestionThreshold == null) {
+            return List.of();
+        }
+        double threshold = congestionThreshold;
+        List<TrafficData> found = new ArrayList<>();
+        read((block, row) -> {
+            // A missing level is NaN and never above the threshold
+            if (block.handle(row) == handle && block.congestionLevel(row) > threshold) {
+                found.add(toTrafficData(block, row));
+            }
+        });
+        found.sort(KEYSET_ORDER);
+        return found;
+    }
+
+    /**
+     * Count, sum, min and max of the segment's readings between {@code start} and {@code end}, both
+     * inclusive; the count is zero if there are none.
+     */
+    public SegmentStatistics summarize(String roadSegmentId, LocalDateTime start, LocalDateTime end) {
+        int handle = segmentRegistry.find(roadSegmentId);
+        Summary summary = new Summary();
+        if (handle != SegmentRegistry.UNKNOWN) {
+            long from = toMicros(start);
+            long to = toMicros(end);
+            read((block, row) -> {
+                if (block.handle(row) == handle) {
+                    long timestamp = block.timestamp(row);
+                    if (timestamp >= from && timestamp <= to) {
+                        summary.add(block, row);
+                    }
+                }
+            });
+        }
+        return summary.toStatistics(roadSegmentId);
+    }
+
+    /**
+     * Number of slots in use, including those of removed segments.
+     */
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return tail - head;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getAllocatedBytes() {
+        lock.readLock().lock();
+        try {
+            return Arrays.stream(blocks).filter(block -> block != null).count() * Block.BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers hold the write lock
+    private void add(TrafficData data) {
+        if (data.getId() == null || data.getTimestamp() == null || data.getRoadSegmentId() == null) {
+            return;
+        }
+        long timestamp = toMicros(data.getTimestamp());
+        if (timestamp < coveredFrom) {
+            return;
+        }
+        if (tail - head == capacity) {
+            dropHead();
+        }
+        int slot = (int) (tail % capacity);
+        Block block = blocks[slot >>> BLOCK_SHIFT];
+        if (block == null) {
+            block = new Block();
+            blocks[slot >>> BLOCK_SHIFT] = block;
+        }
+        int handle = segmentRegistry.intern(data.getRoadSegmentId());
+        block.set(slot & BLOCK_MASK, timestamp, data.getId(), handle,
+                data.getVehicleCount() != null ? data.getVehicleCount() : NO_VEHICLE_COUNT,
+                data.getAverageSpeed() != null ? data.getAverageSpeed() : Double.NaN,
+                data.getCongestionLevel() != null ? data.getCongestionLevel() : Double.NaN);
+        if (handle >= segmentRows.length) {
+            segmentRows = Arrays.copyOf(segmentRows, Math.max(handle + 1, segmentRows.length * 2));
+        }
+        segmentRows[handle]++;
+        tail++;
+    }
+
+    // Callers hold the write lock; the store no longer covers the dropped reading's timestamp
+    private void dropHead() {
+        int slot = (int) (head % capacity);
+        Block block = blocks[slot >>> BLOCK_SHIFT];
+        int row = slot & BLOCK_MASK;
+        int handle = block.handle(row);
+        if (handle != SegmentRegistry.UNKNOWN) {
+            segmentRows[handle]--;
+        }
+        coveredFrom = Math.max(coveredFrom, block.timestamp(row) + 1);
+        head++;
+    }
+
+    private long timestampAt(long sequence) {
+        int slot = (int) (sequence % capacity);
+        return blocks[slot >>> BLOCK_SHIFT].timestamp(slot & BLOCK_MASK);
+    }
+
+    private void read(RowVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            scan(visitor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers hold the lock. Visits every slot from head to tail, one block at a time
+    private void scan(RowVisitor visitor) {
+        long sequence = head;
+        while (sequence < tail) {
+            int slot = (int) (sequence % capacity);
+            Block block = blocks[slot >>> BLOCK_SHIFT];
+            int from = slot & BLOCK_MASK;
+            int to = (int) Math.min(BLOCK_ROWS, from + (tail - sequence));
+            for (int row = from; row < to; row++) {
+                visitor.visit(block, row);
+            }
+            sequence += to - from;
+        }
+    }
+
+    private TrafficData toTrafficData(Block block, int row) {
+        int vehicleCount = block.vehicleCount(row);
+        double speed = block.averageSpeed(row);
+        double congestion = block.congestionLevel(row);
+        return new TrafficData(block.id(row), toDateTime(block.timestamp(row)), segmentRegistry.getId(block.handle(row)),
+                vehicleCount == NO_VEHICLE_COUNT ? null : vehicleCount,
+                Double.isNaN(speed) ? null : speed,
+                Double.isNaN(congestion) ? null : congestion);
+    }
+
+    static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    static LocalDateTime toDateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    @FunctionalInterface
+    private interface RowVisitor {
+        void visit(Block block, int row);
+    }
+
+    /**
+     * One block of rows, stored column after column: timestamps, ids, speeds, congestion levels,
+     * segment handles and vehicle counts.
+     */
+    private static final class Block {
+
+        private static final int IDS = BLOCK_ROWS * Long.BYTES;
+        private static final int SPEEDS = IDS + BLOCK_ROWS * Long.BYTES;
+        private static final int CONGESTION_LEVELS = SPEEDS + BLOCK_ROWS * Double.BYTES;
+        private static final int HANDLES = CONGESTION_LEVELS + BLOCK_ROWS * Double.BYTES;
+        private static final int VEHICLE_COUNTS = HANDLES + BLOCK_ROWS * Integer.BYTES;
+        static final int BYTES = VEHICLE_COUNTS + BLOCK_ROWS * Integer.BYTES;
+
+        private final ByteBuffer columns = ByteBuffer.allocateDirect(BYTES).order(ByteOrder.nativeOrder());
+
+        void set(int row, long timestamp, long id, int handle, int vehicleCount, double averageSpeed,
+                 double congestionLevel) {
+            columns.putLong(row << 3, timestamp);
+            columns.putLong(IDS + (row << 3), id);
+            columns.putDouble(SPEEDS + (row << 3), averageSpeed);
+            columns.putDouble(CONGESTION_LEVELS + (row << 3), congestionLevel);
+            columns.putInt(HANDLES + (row << 2), handle);
+            columns.putInt(VEHICLE_COUNTS + (row << 2), vehicleCount);
+        }
+
+        long timestamp(int row) {
+            return columns.getLong(row << 3);
+        }
+
+        long id(int row) {
+            return columns.getLong(IDS + (row << 3));
+        }
+
+        double averageSpeed(int row) {
+            return columns.getDouble(SPEEDS + (row << 3));
+        }
+
+        double congestionLevel(int row) {
+            return columns.getDouble(CONGESTION_LEVELS + (row << 3));
+        }
+
+        int handle(int row) {
+            return columns.getInt(HANDLES + (row << 2));
+        }
+
+        void setHandle(int row, int handle) {
+            columns.putInt(HANDLES + (row << 2), handle);
+        }
+
+        int vehicleCount(int row) {
+            return columns.getInt(VEHICLE_COUNTS + (row << 2));
+        }
+    }
+
+    /**
+     * Running count, sum, min and max over the rows of one scan.
+     */
+    private static final class Summary {
+
+        long count;
+        long vehicleCountSum;
+        int vehicleCountMin = Integer.MAX_VALUE;
+        int vehicleCountMax = Integer.MIN_VALUE;
+        long speedCount;
+        double speedSum;
+        double speedMin = Double.POSITIVE_INFINITY;
+        double speedMax = Double.NEGATIVE_INFINITY;
+        long congestionCount;
+        double congestionSum;
+        double congestionMin = Double.POSITIVE_INFINITY;
+        double congestionMax = Double.NEGATIVE_INFINITY;
+        long latestTimestamp = Long.MIN_VALUE;
+
+        void add(Block block, int row) {
+            count++;
+            int vehicleCount = block.vehicleCount(row);
+            if (vehicleCount != NO_VEHICLE_COUNT) {
+                vehicleCountSum += vehicleCount;
+                vehicleCountMin = Math.min(vehicleCountMin, vehicleCount);
+                vehicleCountMax = Math.max(vehicleCountMax, vehicleCount);
+            }
+            double speed = block.averageSpeed(row);
+            if (!Double.isNaN(speed)) {
+                speedCount++;
+                speedSum += speed;
+                speedMin = Math.min(speedMin, speed);
+                speedMax = Math.max(speedMax, speed);
+            }
+            double congestion = block.congestionLevel(row);
+            if (!Double.isNaN(congestion)) {
+                congestionCount++;
+                congestionSum += congestion;
+                congestionMin = Math.min(congestionMin, congestion);
+                congestionMax = Math.max(congestionMax, congestion);
+            }
+            latestTimestamp = Math.max(latestTimestamp, block.timestamp(row));
+        }
+
+        SegmentStatistics toStatistics(String roadSegmentId) {
+            return new SegmentStatistics(roadSegmentId, count,
+                    vehicleCountSum, vehicleCountMin, vehicleCountMax,
+                    speedCount, speedSum, speedMin, speedMax,
+                    congestionCount, congestionSum, congestionMin, congestionMax,
+                    count > 0 ? toDateTime(latestTimestamp) : null);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import com.trafficoptimization.traffic_management.config.ConditionalOnReactiveReads;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * The keyset page queries of {@link TrafficDataRepository} over R2DBC, for the reactive read
+ * endpoints. Each call borrows a connection for the one statement and returns it when the page
+ * has been read.
+ */
+@Repository
+@ConditionalOnReactiveReads
+public class ReactiveTrafficDataRepository {
+
+    private static final String SELECT = "SELECT id, \"TIMESTAMP\", road_segment_id, vehicle_count, average_speed, "
+            + "congestion_level FROM traffic_data ";
+    // Strictly after (afterTimestamp, afterId); the redundant "TIMESTAMP" >= lets the indexes bound the range
+    private static final String AFTER = "\"TIMESTAMP\" >= :afterTimestamp "
+            + "AND (\"TIMESTAMP\" > :afterTimestamp OR id > :afterId) ";
+    private static final String ORDER = "ORDER BY \"TIMESTAMP\", id LIMIT :limit";
+
+    private final DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactiveTrafficDataRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<TrafficData> findPage(LocalDateTime afterTimestamp, long afterId, int limit) {
+        return page(databaseClient.sql(SELECT + "WHERE " + AFTER + ORDER), afterTimestamp, afterId, limit);
+    }
+
+    public Flux<TrafficData> findRoadSegmentPage(String roadSegmentId, LocalDateTime afterTimestamp, long afterId,
+                                                 int limit) {
+        return page(databaseClient.sql(SELECT + "WHERE road_segment_id = :roadSegmentId AND " + AFTER + ORDER)
+                .bind("roadSegmentId", roadSegmentId), afterTimestamp, afterId, limit);
+    }
+
+    public Flux<TrafficData> findTimeRangePage(LocalDateTime afterTimestamp, long afterId, LocalDateTime end, int limit) {
+        return page(databaseClient.sql(SELECT + "WHERE " + AFTER + "AND \"TIMESTAMP\" <= :end " + ORDER)
+                .bind("end", end), afterTimestamp, afterId, limit);
+    }
+
+    public Flux<TrafficData> findCongestionPointsPage(String roadSegmentId, Double congestionThreshold,
+                                                      LocalDateTime afterTimestamp, long afterId, int limit) {
+        return page(databaseClient.sql(SELECT + "WHERE road_segment_id = :roadSegmentId "
+                        + "AND congestion_level > :threshold AND " + AFTER + ORDER)
+                .bind("roadSegmentId", roadSegmentId)
+                .bind("threshold", congestionThreshold), afterTimestamp, afterId, limit);
+    }
+
+    private static Flux<TrafficData> page(DatabaseClient.GenericExecuteSpec spec, LocalDateTime afterTimestamp,
+                                          long afterId, int limit) {
+        return spec.bind("afterTimestamp", afterTimestamp)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveTrafficDataRepository::toTrafficData)
+                .all();
+    }
+
+    private static TrafficData toTrafficData(Readable row) {
+        return new TrafficData(
+                row.get("id", Long.class),
+                row.get("TIMESTAMP", LocalDateTime.class),
+                row.get("road_segment_id", String.class),
+                row.get("vehicle_count", Integer.class),
+                row.get("average_speed", Double.class),
+                row.get("congestion_level", Double.class));
+    }
+}
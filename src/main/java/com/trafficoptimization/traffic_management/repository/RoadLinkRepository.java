@@ -0,0 +1,20 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import com.trafficoptimization.traffic_management.model.RoadLink;
+import com.trafficoptimization.traffic_management.model.RoadLinkId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RoadLinkRepository extends JpaRepository<RoadLink, RoadLinkId> {
+
+    /**
+     * Bulk delete, run immediately so that links saved afterwards in the same transaction are not
+     * flushed before it.
+     */
+    @Modifying
+    @Query("DELETE FROM RoadLink l WHERE l.fromSegmentId = ?1")
+    int deleteByFromSegmentId(String fromSegmentId);
+}
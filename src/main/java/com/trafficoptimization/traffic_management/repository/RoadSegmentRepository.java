@@ -0,0 +1,9 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import com.trafficoptimization.traffic_management.model.RoadSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RoadSegmentRepository extends JpaRepository<RoadSegment, String> {
+}
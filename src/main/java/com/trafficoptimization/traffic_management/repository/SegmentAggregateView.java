@@ -0,0 +1,38 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the per-segment grouped aggregation used to rebuild in-memory statistics.
+ * Sums, minima and maxima of optional columns are {@code null} when a segment has no values.
+ */
+public interface SegmentAggregateView {
+
+    String getRoadSegmentId();
+
+    Long getReadingCount();
+
+    Long getVehicleCountSum();
+
+    Integer getVehicleCountMin();
+
+    Integer getVehicleCountMax();
+
+    Long getSpeedCount();
+
+    Double getSpeedSum();
+
+    Double getSpeedMin();
+
+    Double getSpeedMax();
+
+    Long getCongestionCount();
+
+    Double getCongestionSum();
+
+    Double getCongestionMin();
+
+    Double getCongestionMax();
+
+    LocalDateTime getLatestTimestamp();
+}
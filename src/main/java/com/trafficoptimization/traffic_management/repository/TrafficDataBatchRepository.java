@@ -0,0 +1,13 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import java.util.List;
+
+public interface TrafficDataBatchRepository {
+
+    /**
+     * Persist all records in one transaction using JDBC batching, then detach them so the
+     * persistence context does not grow with the size of the ingested stream.
+     */
+    List<TrafficData> insertBatch(List<TrafficData> batch);
+}
@@ -0,0 +1,24 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+
+public class TrafficDataBatchRepositoryImpl implements TrafficDataBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public List<TrafficData> insertBatch(List<TrafficData> batch) {
+        for (TrafficData data : batch) {
+            entityManager.persist(data);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return batch;
+    }
+}
@@ -1,19 +1,112 @@
 package com.trafficoptimization.traffic_management.repository;
 
 import com.trafficoptimization.traffic_management.model.TrafficData;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface TrafficDataRepository extends JpaRepository<TrafficData, Long> {
+public interface TrafficDataRepository extends JpaRepository<TrafficData, Long>, TrafficDataBatchRepository,
+        TrafficDataStreamingRepository, TrafficDataRetentionRepository {
+    
+    String AGGREGATE_COLUMNS = "t.roadSegmentId AS roadSegmentId, COUNT(t) AS readingCount, "
+            + "SUM(t.vehicleCount) AS vehicleCountSum, MIN(t.vehicleCount) AS vehicleCountMin, MAX(t.vehicleCount) AS vehicleCountMax, "
+            + "COUNT(t.averageSpeed) AS speedCount, SUM(t.averageSpeed) AS speedSum, MIN(t.averageSpeed) AS speedMin, MAX(t.averageSpeed) AS speedMax, "
+            + "COUNT(t.congestionLevel) AS congestionCount, SUM(t.congestionLevel) AS congestionSum, "
+            + "MIN(t.congestionLevel) AS congestionMin, MAX(t.congestionLevel) AS congestionMax, "
+            + "MAX(t.timestamp) AS latestTimestamp";
     
     List<TrafficData> findByRoadSegmentId(String roadSegmentId);
     
     List<TrafficData> findByTimestampBetween(LocalDateTime start, LocalDateTime end);
     
+    boolean existsByRoadSegmentId(String roadSegmentId);
+    
+    @Query("SELECT MAX(t.id) FROM TrafficData t")
+    Long findMaxId();
+    
+    // Segments with readings stored on this node, for cluster rebalancing
+    @Query("SELECT DISTINCT t.roadSegmentId FROM TrafficData t")
+    List<String> findDistinctRoadSegmentIds();
+    
+    // Catch-up after loading an aggregate snapshot, in id order
+    @Query("SELECT t FROM TrafficData t WHERE t.id > ?1 ORDER BY t.id")
+    List<TrafficData> findAfterId(long afterId, Limit limit);
+    
+    @Query("SELECT MIN(t.timestamp) FROM TrafficData t")
+    LocalDateTime findEarliestTimestamp();
+    
+    @Query("SELECT COUNT(t) FROM TrafficData t WHERE t.timestamp >= ?1 AND t.timestamp < ?2")
+    long countInRange(LocalDateTime start, LocalDateTime end);
+    
+    @Query("SELECT DISTINCT t.roadSegmentId FROM TrafficData t WHERE t.timestamp >= ?1 AND t.timestamp < ?2")
+    List<String> findSegmentIdsInRange(LocalDateTime start, LocalDateTime end);
+    
     @Query("SELECT t FROM TrafficData t WHERE t.roadSegmentId = ?1 AND t.congestionLevel > ?2")
     List<TrafficData> findCongestionPoints(String roadSegmentId, Double congestionThreshold);
+    
+    // Keyset pages, ordered by (timestamp, id) and starting strictly after the given position.
+    // The redundant "timestamp >= ?" lets the timestamp indexes bound the range.
+    
+    @Query("SELECT t FROM TrafficData t WHERE t.timestamp >= ?1 AND (t.timestamp > ?1 OR t.id > ?2) "
+            + "ORDER BY t.timestamp, t.id")
+    List<TrafficData> findPage(LocalDateTime afterTimestamp, long afterId, Limit limit);
+    
+    @Query("SELECT t FROM TrafficData t WHERE t.roadSegmentId = ?1 AND t.timestamp >= ?2 AND (t.timestamp > ?2 OR t.id > ?3) "
+            + "ORDER BY t.timestamp, t.id")
+    List<TrafficData> findRoadSegmentPage(String roadSegmentId, LocalDateTime afterTimestamp, long afterId, Limit limit);
+    
+    @Query("SELECT t FROM TrafficData t WHERE t.timestamp >= ?1 AND (t.timestamp > ?1 OR t.id > ?2) AND t.timestamp <= ?3 "
+            + "ORDER BY t.timestamp, t.id")
+    List<TrafficData> findTimeRangePage(LocalDateTime afterTimestamp, long afterId, LocalDateTime end, Limit limit);
+    
+    @Query("SELECT t FROM TrafficData t WHERE t.roadSegmentId = ?1 AND t.congestionLevel > ?2 "
+            + "AND t.timestamp >= ?3 AND (t.timestamp > ?3 OR t.id > ?4) ORDER BY t.timestamp, t.id")
+    List<TrafficData> findCongestionPointsPage(String roadSegmentId, Double congestionThreshold,
+                                               LocalDateTime afterTimestamp, long afterId, Limit limit);
+    
+    // Streams must be consumed inside a transaction; rows are fetched from the driver in blocks
+    
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT t FROM TrafficData t ORDER BY t.timestamp, t.id")
+    Stream<TrafficData> streamAll();
+    
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT t FROM TrafficData t WHERE t.roadSegmentId = ?1 ORDER BY t.timestamp, t.id")
+    Stream<TrafficData> streamByRoadSegmentId(String roadSegmentId);
+    
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT t FROM TrafficData t WHERE t.timestamp BETWEEN ?1 AND ?2 ORDER BY t.timestamp, t.id")
+    Stream<TrafficData> streamByTimestampBetween(LocalDateTime start, LocalDateTime end);
+    
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT t FROM TrafficData t WHERE t.roadSegmentId = ?1 AND t.congestionLevel > ?2 ORDER BY t.timestamp, t.id")
+    Stream<TrafficData> streamCongestionPoints(String roadSegmentId, Double congestionThreshold);
+    
+    @Query("SELECT new com.trafficoptimization.traffic_management.repository.TrafficMetricsView("
+            + "t.roadSegmentId, t.timestamp, t.vehicleCount, t.averageSpeed, t.congestionLevel) "
+            + "FROM TrafficData t WHERE t.timestamp BETWEEN ?1 AND ?2 ORDER BY t.timestamp, t.id")
+    List<TrafficMetricsView> findMetrics(LocalDateTime start, LocalDateTime end);
+    
+    @Query("SELECT " + AGGREGATE_COLUMNS + " FROM TrafficData t GROUP BY t.roadSegmentId")
+    List<SegmentAggregateView> aggregateBySegment();
+    
+    @Query("SELECT " + AGGREGATE_COLUMNS + " FROM TrafficData t WHERE t.roadSegmentId IN ?1 GROUP BY t.roadSegmentId")
+    List<SegmentAggregateView> aggregateBySegment(Collection<String> roadSegmentIds);
+    
+    // One segment over a window that reaches back past the recent reading store
+    @Query("SELECT " + AGGREGATE_COLUMNS + " FROM TrafficData t WHERE t.roadSegmentId = ?1 "
+            + "AND t.timestamp BETWEEN ?2 AND ?3 GROUP BY t.roadSegmentId")
+    Optional<SegmentAggregateView> aggregateSegment(String roadSegmentId, LocalDateTime start, LocalDateTime end);
 }
@@ -0,0 +1,31 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface TrafficDataRetentionRepository {
+
+    /**
+     * Pass every reading with a timestamp in {@code [from, to)} to {@code sink}, in (timestamp, id)
+     * order, without building entities in a persistence context.
+     */
+    void forEachInRange(LocalDateTime from, LocalDateTime to, Consumer<TrafficData> sink);
+
+    /**
+     * Delete at most {@code limit} readings with a timestamp in {@code [from, to)} in one short
+     * transaction, so that repeated calls never hold locks on a whole partition.
+     *
+     * @return number of readings deleted
+     */
+    int deleteRange(LocalDateTime from, LocalDateTime to, int limit);
+
+    /**
+     * Delete the given readings in one transaction.
+     *
+     * @return number of readings deleted
+     */
+    int deleteByIds(List<Long> ids);
+}
@@ -0,0 +1,81 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Plain-SQL access for the retention job: whole days of readings are read through a forward-only
+ * cursor and removed in bounded chunks, keeping both memory and lock time independent of the
+ * size of the day.
+ */
+public class TrafficDataRetentionRepositoryImpl implements TrafficDataRetentionRepository {
+
+    private static final String SELECT_RANGE_SQL = """
+            SELECT id, "TIMESTAMP", road_segment_id, vehicle_count, average_speed, congestion_level
+            FROM traffic_data
+            WHERE "TIMESTAMP" >= ? AND "TIMESTAMP" < ?
+            ORDER BY "TIMESTAMP", id
+            """;
+
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM traffic_data WHERE \"TIMESTAMP\" >= ? AND \"TIMESTAMP\" < ? FETCH FIRST ? ROWS ONLY";
+
+    private static final String DELETE_BY_ID_SQL = "DELETE FROM traffic_data WHERE id = ?";
+
+    private static final int FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TrafficDataRetentionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachInRange(LocalDateTime from, LocalDateTime to, Consumer<TrafficData> sink) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_RANGE_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(to));
+            return statement;
+        }, resultSet -> {
+            sink.accept(new TrafficData(
+                    resultSet.getLong(1),
+                    resultSet.getTimestamp(2).toLocalDateTime(),
+                    resultSet.getString(3),
+                    resultSet.getObject(4, Integer.class),
+                    resultSet.getObject(5, Double.class),
+                    resultSet.getObject(6, Double.class)));
+        });
+    }
+
+    @Override
+    @Transactional
+    public int deleteRange(LocalDateTime from, LocalDateTime to, int limit) {
+        return jdbcTemplate.update(DELETE_RANGE_SQL, Timestamp.valueOf(from), Timestamp.valueOf(to), limit);
+    }
+
+    @Override
+    @Transactional
+    public int deleteByIds(List<Long> ids) {
+        int deleted = 0;
+        for (int[] counts : jdbcTemplate.batchUpdate(DELETE_BY_ID_SQL, ids, ids.size(),
+                (statement, id) -> statement.setLong(1, id))) {
+            for (int count : counts) {
+                deleted += count;
+            }
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,12 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+
+public interface TrafficDataStreamingRepository {
+
+    /**
+     * Evict a streamed entity from the persistence context once it has been written out, so that
+     * memory stays flat however many rows the stream produces.
+     */
+    void detach(TrafficData trafficData);
+}
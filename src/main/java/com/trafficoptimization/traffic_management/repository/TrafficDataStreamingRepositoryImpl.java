@@ -0,0 +1,16 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class TrafficDataStreamingRepositoryImpl implements TrafficDataStreamingRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void detach(TrafficData trafficData) {
+        entityManager.detach(trafficData);
+    }
+}
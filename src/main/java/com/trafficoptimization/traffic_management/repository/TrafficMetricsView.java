@@ -0,0 +1,19 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Column-only view of a reading for code that computes over the numbers and never needs a
+ * managed entity. Built with a JPQL constructor expression, which avoids both entity
+ * hydration and the proxy overhead of interface projections.
+ */
+@Value
+public class TrafficMetricsView {
+    String roadSegmentId;
+    LocalDateTime timestamp;
+    Integer vehicleCount;
+    Double averageSpeed;
+    Double congestionLevel;
+}
@@ -0,0 +1,34 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import com.trafficoptimization.traffic_management.model.RollupResolution;
+import com.trafficoptimization.traffic_management.model.TrafficRollup;
+import com.trafficoptimization.traffic_management.model.TrafficRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TrafficRollupRepository extends JpaRepository<TrafficRollup, TrafficRollupId>, TrafficRollupWriter {
+
+    @Query("SELECT r FROM TrafficRollup r WHERE r.resolution = ?1 AND r.roadSegmentId = ?2 "
+            + "AND r.bucketStart >= ?3 AND r.bucketStart < ?4 ORDER BY r.bucketStart")
+    List<TrafficRollup> findBuckets(RollupResolution resolution, String roadSegmentId, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT r FROM TrafficRollup r WHERE r.resolution = ?1 "
+            + "AND r.bucketStart >= ?2 AND r.bucketStart < ?3 ORDER BY r.roadSegmentId, r.bucketStart")
+    List<TrafficRollup> findBuckets(RollupResolution resolution, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT COALESCE(SUM(r.readingCount), 0) FROM TrafficRollup r WHERE r.resolution = ?1 "
+            + "AND r.bucketStart >= ?2 AND r.bucketStart < ?3")
+    long sumReadingCount(RollupResolution resolution, LocalDateTime start, LocalDateTime end);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TrafficRollup r WHERE r.roadSegmentId = ?1")
+    int deleteByRoadSegmentId(String roadSegmentId);
+}
@@ -0,0 +1,23 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import com.trafficoptimization.traffic_management.model.TrafficRollup;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface TrafficRollupWriter {
+
+    /**
+     * Add the given deltas to their buckets, creating buckets that do not exist yet.
+     */
+    void upsert(Collection<TrafficRollup> deltas);
+
+    /**
+     * Replace the rollups of all resolutions whose bucket starts in {@code [from, to)} with
+     * aggregates recomputed from the raw readings. Both bounds should be aligned to the coarsest
+     * resolution so that no bucket is only partially recomputed.
+     *
+     * @return number of rollup rows written
+     */
+    int rebuildFromReadings(LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,109 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import com.trafficoptimization.traffic_management.model.RollupResolution;
+import com.trafficoptimization.traffic_management.model.TrafficRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based rollup maintenance in plain SQL: live deltas are applied with a batched additive
+ * {@code MERGE}, and backfill aggregates raw readings inside the database with
+ * {@code INSERT ... SELECT ... GROUP BY} so that no reading is loaded into the JVM.
+ */
+public class TrafficRollupWriterImpl implements TrafficRollupWriter {
+
+    private static final String UPSERT_SQL = """
+            MERGE INTO traffic_rollup t
+            USING (VALUES (CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS TIMESTAMP),
+                           CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS INTEGER),
+                           CAST(? AS BIGINT), CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION),
+                           CAST(? AS BIGINT), CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION)))
+                AS s(road_segment_id, resolution, bucket_start, reading_count, vehicle_count_sum, vehicle_count_max,
+                     speed_count, speed_sum, speed_min, congestion_count, congestion_sum, congestion_max)
+            ON t.road_segment_id = s.road_segment_id AND t.resolution = s.resolution AND t.bucket_start = s.bucket_start
+            WHEN MATCHED THEN UPDATE SET
+                reading_count = t.reading_count + s.reading_count,
+                vehicle_count_sum = t.vehicle_count_sum + s.vehicle_count_sum,
+                vehicle_count_max = GREATEST(COALESCE(t.vehicle_count_max, s.vehicle_count_max), COALESCE(s.vehicle_count_max, t.vehicle_count_max)),
+                speed_count = t.speed_count + s.speed_count,
+                speed_sum = t.speed_sum + s.speed_sum,
+                speed_min = LEAST(COALESCE(t.speed_min, s.speed_min), COALESCE(s.speed_min, t.speed_min)),
+                congestion_count = t.congestion_count + s.congestion_count,
+                congestion_sum = t.congestion_sum + s.congestion_sum,
+                congestion_max = GREATEST(COALESCE(t.congestion_max, s.congestion_max), COALESCE(s.congestion_max, t.congestion_max))
+            WHEN NOT MATCHED THEN INSERT
+                (road_segment_id, resolution, bucket_start, reading_count, vehicle_count_sum, vehicle_count_max,
+                 speed_count, speed_sum, speed_min, congestion_count, congestion_sum, congestion_max)
+            VALUES (s.road_segment_id, s.resolution, s.bucket_start, s.reading_count, s.vehicle_count_sum, s.vehicle_count_max,
+                    s.speed_count, s.speed_sum, s.speed_min, s.congestion_count, s.congestion_sum, s.congestion_max)
+            """;
+
+    private static final String DELETE_SQL =
+            "DELETE FROM traffic_rollup WHERE bucket_start >= ? AND bucket_start < ?";
+
+    // Buckets are computed as whole multiples of the resolution width since the epoch
+    private static final String REBUILD_SQL = """
+            INSERT INTO traffic_rollup
+                (road_segment_id, resolution, bucket_start, reading_count, vehicle_count_sum, vehicle_count_max,
+                 speed_count, speed_sum, speed_min, congestion_count, congestion_sum, congestion_max)
+            SELECT road_segment_id, ?, bucket_start, COUNT(*), SUM(vehicle_count), MAX(vehicle_count),
+                   COUNT(average_speed), COALESCE(SUM(average_speed), 0), MIN(average_speed),
+                   COUNT(congestion_level), COALESCE(SUM(congestion_level), 0), MAX(congestion_level)
+            FROM (SELECT road_segment_id, vehicle_count, average_speed, congestion_level,
+                         DATEADD(SECOND, (DATEDIFF(SECOND, TIMESTAMP '1970-01-01 00:00:00', "TIMESTAMP") / ?) * ?,
+                                 TIMESTAMP '1970-01-01 00:00:00') AS bucket_start
+                  FROM traffic_data
+                  WHERE "TIMESTAMP" >= ? AND "TIMESTAMP" < ?) readings
+            GROUP BY road_segment_id, bucket_start
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TrafficRollupWriterImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void upsert(Collection<TrafficRollup> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        for (TrafficRollup delta : deltas) {
+            rows.add(new Object[] {
+                    delta.getRoadSegmentId(), delta.getResolution().name(), Timestamp.valueOf(delta.getBucketStart()),
+                    delta.getReadingCount(), delta.getVehicleCountSum(), delta.getVehicleCountMax(),
+                    delta.getSpeedCount(), delta.getSpeedSum(), delta.getSpeedMin(),
+                    delta.getCongestionCount(), delta.getCongestionSum(), delta.getCongestionMax()
+            });
+        }
+        int[] types = {
+                Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP,
+                Types.BIGINT, Types.BIGINT, Types.INTEGER,
+                Types.BIGINT, Types.DOUBLE, Types.DOUBLE,
+                Types.BIGINT, Types.DOUBLE, Types.DOUBLE
+        };
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, types);
+    }
+
+    @Override
+    @Transactional
+    public int rebuildFromReadings(LocalDateTime from, LocalDateTime to) {
+        Timestamp start = Timestamp.valueOf(from);
+        Timestamp end = Timestamp.valueOf(to);
+        jdbcTemplate.update(DELETE_SQL, start, end);
+        int written = 0;
+        for (RollupResolution resolution : RollupResolution.values()) {
+            long width = resolution.getDuration().getSeconds();
+            written += jdbcTemplate.update(REBUILD_SQL, resolution.name(), width, width, start, end);
+        }
+        return written;
+    }
+}
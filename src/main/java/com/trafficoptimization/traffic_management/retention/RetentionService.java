@@ -0,0 +1,245 @@
+package com.trafficoptimization.traffic_management.retention;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.trafficoptimization.traffic_management.aggregate.SegmentAggregateStore;
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.model.RollupResolution;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.repository.TrafficRollupRepository;
+import com.trafficoptimization.traffic_management.rollup.RollupService;
+import com.trafficoptimization.traffic_management.service.IngestionGate;
+import com.trafficoptimization.traffic_management.service.SegmentCacheEvictor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Drops raw readings older than the configured horizon, one day at a time. Days are the storage
+ * partitions: each is bounded on the timestamp index, compacted into the rollups if they do not
+ * already cover it, optionally archived as gzipped NDJSON, and then deleted in small chunks so that
+ * concurrent ingestion never waits on more than one chunk's row locks.
+ * <p>
+ * The per-segment statistics of {@link SegmentAggregateStore} cover retained readings only, as a
+ * rebuild from the table after a restart would. Once a purge is done, the segments it touched are
+ * recomputed a few hundred at a time, each batch with ingestion shut out through the
+ * {@link IngestionGate}.
+ * <p>
+ * A first purge over a long history can take hours, so scheduled runs go to a thread of their own
+ * instead of holding a scheduler thread, and a run that is still going when the next is due is
+ * left to finish rather than queued behind.
+ */
+@Service
+public class RetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RetentionService.class);
+    private static final int AGGREGATE_REBUILD_BATCH = 500;
+
+    private final TrafficDataRepository trafficDataRepository;
+    private final TrafficRollupRepository rollupRepository;
+    private final RollupService rollupService;
+    private final RetentionWatermark watermark;
+    private final SegmentAggregateStore aggregateStore;
+    private final SegmentCacheEvictor cacheEvictor;
+    private final IngestionGate ingestionGate;
+    private final ObjectWriter trafficDataWriter;
+    private final Duration rawHorizon;
+    private final Path archiveDirectory;
+    private final int deleteChunkSize;
+    private final ExecutorService purger;
+    private volatile Future<?> scheduledRun;
+
+    private final Counter archivedReadings;
+    private final Counter deletedReadings;
+
+    @Autowired
+    public RetentionService(TrafficDataRepository trafficDataRepository, TrafficRollupRepository rollupRepository,
+                            RollupService rollupService, RetentionWatermark watermark,
+                            SegmentAggregateStore aggregateStore, SegmentCacheEvictor cacheEvictor,
+                            IngestionGate ingestionGate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            WorkerThreads workerThreads,
+                            @Value("${traffic.retention.raw-horizon:P90D}") Duration rawHorizon,
+                            @Value("${traffic.retention.archive-dir:}") String archiveDirectory,
+                            @Value("${traffic.retention.delete-chunk-size:5000}") int deleteChunkSize) {
+        this.trafficDataRepository = trafficDataRepository;
+        this.rollupRepository = rollupRepository;
+        this.rollupService = rollupService;
+        this.watermark = watermark;
+        this.aggregateStore = aggregateStore;
+        this.cacheEvictor = cacheEvictor;
+        this.ingestionGate = ingestionGate;
+        this.trafficDataWriter = objectMapper.writerFor(TrafficData.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.rawHorizon = rawHorizon;
+        this.archiveDirectory = archiveDirectory.isBlank() ? null : Paths.get(archiveDirectory);
+        this.deleteChunkSize = deleteChunkSize;
+        this.purger = Executors.newSingleThreadExecutor(workerThreads.threadFactory("traffic-retention-"));
+
+        this.archivedReadings = Counter.builder("traffic.retention.archived")
+                .description("Readings written to retention archives")
+                .register(meterRegistry);
+        this.deletedReadings = Counter.builder("traffic.retention.deleted")
+                .description("Readings deleted by the retention job")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${traffic.retention.cron:0 15 3 * * *}")
+    public void run() {
+        Future<?> previous = scheduledRun;
+        if (previous != null && !previous.isDone()) {
+            log.warn("Skipping retention run, the previous one is still in progress");
+            return;
+        }
+        LocalDateTime cutoff = LocalDate.now().atStartOfDay().minus(rawHorizon);
+        scheduledRun = purger.submit(() -> {
+            try {
+                purgeBefore(cutoff);
+            } catch (RuntimeException e) {
+                log.error("Retention run before {} failed", cutoff, e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+
+    /**
+     * Compact, archive and delete every whole day of readings before {@code cutoff}, which is
+     * rounded down to a day boundary.
+     *
+     * @return number of readings deleted
+     */
+    public synchronized long purgeBefore(LocalDateTime cutoff) {
+        LocalDateTime end = cutoff.toLocalDate().atStartOfDay();
+        LocalDateTime earliest = watermark.get();
+        if (earliest == null || !earliest.isBefore(end)) {
+            return 0;
+        }
+        // Fold pending deltas into the table so the coverage check below sees them
+        rollupService.flush();
+
+        long deleted = 0;
+        Set<String> purgedSegments = new TreeSet<>();
+        for (LocalDateTime day = earliest.toLocalDate().atStartOfDay(); day.isBefore(end); day = day.plusDays(1)) {
+            LocalDateTime expected = watermark.get();
+            LocalDateTime next = day.plusDays(1);
+            deleted += purgeDay(day, next, purgedSegments);
+            watermark.advance(expected, next);
+        }
+        rebuildAggregates(new ArrayList<>(purgedSegments));
+        log.info("Retention removed {} readings before {}", deleted, end);
+        return deleted;
+    }
+
+    private long purgeDay(LocalDateTime day, LocalDateTime next, Set<String> purgedSegments) {
+        long readings = trafficDataRepository.countInRange(day, next);
+        if (readings == 0) {
+            return 0;
+        }
+        purgedSegments.addAll(trafficDataRepository.findSegmentIdsInRange(day, next));
+        // Rollups normally track ingestion; rebuild only days they do not fully cover. After an
+        // earlier partial purge the rollups hold more readings than the table, and must be kept.
+        long rolledUp = rollupRepository.sumReadingCount(RollupResolution.ONE_HOUR, day, next);
+        if (rolledUp < readings) {
+            rollupService.backfill(day, next);
+        }
+
+        if (archiveDirectory == null) {
+            long deleted = 0;
+            int chunk;
+            do {
+                chunk = trafficDataRepository.deleteRange(day, next, deleteChunkSize);
+                deleted += chunk;
+            } while (chunk == deleteChunkSize);
+            deletedReadings.increment(deleted);
+            return deleted;
+        }
+
+        // Delete exactly what was archived, so readings arriving for this day in the meantime survive
+        List<Long> archived = archive(day, next);
+        long deleted = 0;
+        for (int from = 0; from < archived.size(); from += deleteChunkSize) {
+            deleted += trafficDataRepository.deleteByIds(
+                    archived.subList(from, Math.min(from + deleteChunkSize, archived.size())));
+        }
+        deletedReadings.increment(deleted);
+        return deleted;
+    }
+
+    private void rebuildAggregates(List<String> roadSegmentIds) {
+        for (int from = 0; from < roadSegmentIds.size(); from += AGGREGATE_REBUILD_BATCH) {
+            List<String> batch = roadSegmentIds.subList(from, Math.min(from + AGGREGATE_REBUILD_BATCH, roadSegmentIds.size()));
+            ingestionGate.exclusive(() -> {
+                aggregateStore.rebuild(batch);
+                return null;
+            });
+            batch.forEach(cacheEvictor::evict);
+        }
+    }
+
+    private List<Long> archive(LocalDateTime day, LocalDateTime next) {
+        List<Long> ids = new ArrayList<>();
+        try {
+            Files.createDirectories(archiveDirectory);
+            Path target = archiveFile(day.toLocalDate());
+            Path partial = target.resolveSibling(target.getFileName() + ".part");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial));
+                 JsonGenerator generator = trafficDataWriter.createGenerator(out)) {
+                trafficDataRepository.forEachInRange(day, next, data -> {
+                    try {
+                        trafficDataWriter.writeValue(generator, data);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    ids.add(data.getId());
+                });
+            }
+            // Only a complete archive ever carries the final name
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive readings of " + day.toLocalDate(), e);
+        }
+        archivedReadings.increment(ids.size());
+        return ids;
+    }
+
+    // Late readings for an already archived day go to a numbered sibling of the day's archive
+    private Path archiveFile(LocalDate day) {
+        Path target = archiveDirectory.resolve("traffic-data-" + day + ".ndjson.gz");
+        for (int sequence = 1; Files.exists(target); sequence++) {
+            target = archiveDirectory.resolve("traffic-data-" + day + "-" + sequence + ".ndjson.gz");
+        }
+        return target;
+    }
+}
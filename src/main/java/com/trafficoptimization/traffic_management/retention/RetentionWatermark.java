@@ -0,0 +1,87 @@
+package com.trafficoptimization.traffic_management.retention;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.service.TrafficDataListener;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lower bound of the stored readings: nothing older than {@link #get()} is in the table, so time
+ * range queries can skip the part of the range, or the whole query, that lies before it. The bound
+ * is read from the table at startup, raised by the retention job as it drops whole days, and
+ * lowered again by late readings that arrive for days already dropped.
+ */
+@Component
+public class RetentionWatermark implements TrafficDataListener {
+
+    private final TrafficDataRepository trafficDataRepository;
+
+    // null while nothing is known to be stored, which disables pruning
+    private final AtomicReference<LocalDateTime> earliest = new AtomicReference<>();
+
+    @Autowired
+    public RetentionWatermark(TrafficDataRepository trafficDataRepository) {
+        this.trafficDataRepository = trafficDataRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        LocalDateTime stored = trafficDataRepository.findEarliestTimestamp();
+        if (stored != null) {
+            lower(stored);
+        }
+    }
+
+    @Override
+    public void onTrafficDataSaved(List<TrafficData> saved) {
+        for (TrafficData data : saved) {
+            if (data.getTimestamp() != null) {
+                lower(data.getTimestamp());
+            }
+        }
+    }
+
+    public LocalDateTime get() {
+        return earliest.get();
+    }
+
+    /**
+     * The start of a time range with the part before the watermark pruned away.
+     */
+    public LocalDateTime clamp(LocalDateTime start) {
+        LocalDateTime bound = earliest.get();
+        return bound != null && start.isBefore(bound) ? bound : start;
+    }
+
+    /**
+     * Whether a range ending at {@code end} (inclusive) lies entirely before the watermark and
+     * therefore cannot match any stored reading.
+     */
+    public boolean isPruned(LocalDateTime end) {
+        LocalDateTime bound = earliest.get();
+        return bound != null && end.isBefore(bound);
+    }
+
+    /**
+     * Raise the watermark once everything before {@code retainedFrom} has been dropped. Fails, and
+     * leaves the lower value in place, if a late reading lowered the watermark since
+     * {@code expected} was read.
+     */
+    boolean advance(LocalDateTime expected, LocalDateTime retainedFrom) {
+        if (expected != null && !retainedFrom.isAfter(expected)) {
+            return true;
+        }
+        return earliest.compareAndSet(expected, retainedFrom);
+    }
+
+    private void lower(LocalDateTime timestamp) {
+        earliest.accumulateAndGet(timestamp, (current, candidate) ->
+                current == null || candidate.isBefore(current) ? candidate : current);
+    }
+}
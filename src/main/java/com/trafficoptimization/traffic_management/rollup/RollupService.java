@@ -0,0 +1,212 @@
+package com.trafficoptimization.traffic_management.rollup;
+
+import com.trafficoptimization.traffic_management.model.RollupBucket;
+import com.trafficoptimization.traffic_management.model.RollupResolution;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficRollup;
+import com.trafficoptimization.traffic_management.model.TrafficRollupId;
+import com.trafficoptimization.traffic_management.repository.TrafficRollupRepository;
+import com.trafficoptimization.traffic_management.service.IngestionGate;
+import com.trafficoptimization.traffic_management.service.TrafficDataListener;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maintains per-segment rollups at every {@link RollupResolution}. Committed readings are folded
+ * into in-memory deltas that a scheduled job merges into the rollup table; range queries combine
+ * the stored buckets with the pending deltas so results are never behind ingestion.
+ */
+@Service
+public class RollupService implements TrafficDataListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupService.class);
+
+    private final TrafficRollupRepository rollupRepository;
+    private final IngestionGate ingestionGate;
+
+    // Ingestion and queries hold the read lock; flushing and rebuilding take the write lock so a
+    // delta is never visible both in the table and in memory
+    private final ReadWriteLock pendingLock = new ReentrantReadWriteLock();
+    private volatile Map<TrafficRollupId, TrafficRollup> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RollupService(TrafficRollupRepository rollupRepository, IngestionGate ingestionGate) {
+        this.rollupRepository = rollupRepository;
+        this.ingestionGate = ingestionGate;
+    }
+
+    @Override
+    public void onTrafficDataSaved(List<TrafficData> saved) {
+        pendingLock.readLock().lock();
+        try {
+            Map<TrafficRollupId, TrafficRollup> target = pending;
+            for (TrafficData data : saved) {
+                for (RollupResolution resolution : RollupResolution.values()) {
+                    TrafficRollupId id = new TrafficRollupId(data.getRoadSegmentId(), resolution,
+                            resolution.bucketStart(data.getTimestamp()));
+                    target.compute(id, (key, delta) -> {
+                        TrafficRollup bucket = delta != null ? delta
+                                : new TrafficRollup(key.getRoadSegmentId(), key.getResolution(), key.getBucketStart());
+                        synchronized (bucket) {
+                            bucket.add(data);
+                        }
+                        return bucket;
+                    });
+                }
+            }
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${traffic.rollup.flush-interval-ms:5000}")
+    public void flush() {
+        pendingLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            rollupRepository.upsert(pending.values());
+            log.debug("Flushed {} rollup deltas", pending.size());
+            pending = new ConcurrentHashMap<>();
+        } catch (RuntimeException e) {
+            // Keep the deltas so the next flush retries them
+            log.error("Rollup flush of {} deltas failed", pending.size(), e);
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recompute the rollups of {@code [from, to)} from the raw readings, widened to whole hours.
+     * Runs one hour at a time and only blocks ingestion for the hour in progress. Ingestion is shut
+     * out through the {@link IngestionGate} as well as the pending lock, so no reading can be
+     * committed before a rebuild and reach its listener, and the pending deltas, after it.
+     *
+     * @return number of rollup rows written
+     */
+    public int backfill(LocalDateTime from, LocalDateTime to) {
+        Duration coarsest = coarsest().getDuration();
+        LocalDateTime start = RollupResolution.floor(from, coarsest);
+        LocalDateTime end = RollupResolution.floor(to, coarsest);
+        if (end.isBefore(to)) {
+            end = end.plus(coarsest);
+        }
+        int written = 0;
+        for (LocalDateTime chunkStart = start; chunkStart.isBefore(end); chunkStart = chunkStart.plus(coarsest)) {
+            LocalDateTime chunkStartTime = chunkStart;
+            LocalDateTime chunkEnd = chunkStart.plus(coarsest);
+            written += ingestionGate.exclusive(() -> rebuild(chunkStartTime, chunkEnd));
+        }
+        log.info("Backfilled {} rollup rows for {} to {}", written, start, end);
+        return written;
+    }
+
+    /**
+     * Buckets of the requested width covering {@code [start, end)}, served from the coarsest
+     * stored resolution that tiles the width. Wider buckets are combined on the fly.
+     *
+     * @param roadSegmentId segment to query, or {@code null} for all segments
+     */
+    public List<RollupBucket> query(String roadSegmentId, LocalDateTime start, LocalDateTime end, Duration granularity) {
+        RollupResolution resolution = RollupResolution.forGranularity(granularity);
+        if (resolution == null) {
+            throw new IllegalArgumentException("Granularity must be a whole number of minutes, got " + granularity);
+        }
+        LocalDateTime from = RollupResolution.floor(start, granularity);
+
+        // Group by segment and output bucket
+        Map<TrafficRollupId, TrafficRollup> combined = new HashMap<>();
+        pendingLock.readLock().lock();
+        try {
+            List<TrafficRollup> stored = roadSegmentId != null
+                    ? rollupRepository.findBuckets(resolution, roadSegmentId, from, end)
+                    : rollupRepository.findBuckets(resolution, from, end);
+            for (TrafficRollup rollup : stored) {
+                combine(combined, rollup, granularity);
+            }
+            for (TrafficRollup delta : pending.values()) {
+                if (delta.getResolution() == resolution
+                        && (roadSegmentId == null || roadSegmentId.equals(delta.getRoadSegmentId()))
+                        && !delta.getBucketStart().isBefore(from) && delta.getBucketStart().isBefore(end)) {
+                    synchronized (delta) {
+                        combine(combined, delta, granularity);
+                    }
+                }
+            }
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+
+        List<RollupBucket> buckets = new ArrayList<>(combined.size());
+        for (Map.Entry<TrafficRollupId, TrafficRollup> entry : combined.entrySet()) {
+            buckets.add(RollupBucket.from(entry.getValue(), entry.getKey().getBucketStart()));
+        }
+        buckets.sort((a, b) -> {
+            int bySegment = a.getRoadSegmentId().compareTo(b.getRoadSegmentId());
+            return bySegment != 0 ? bySegment : a.getBucketStart().compareTo(b.getBucketStart());
+        });
+        return buckets;
+    }
+
+    /**
+     * Delete every rollup of a segment, stored or pending, once its readings have been handed to
+     * another cluster member that rolls them up itself.
+     */
+    public void remove(String roadSegmentId) {
+        pendingLock.writeLock().lock();
+        try {
+            pending.values().removeIf(delta -> roadSegmentId.equals(delta.getRoadSegmentId()));
+            rollupRepository.deleteByRoadSegmentId(roadSegmentId);
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static void combine(Map<TrafficRollupId, TrafficRollup> combined, TrafficRollup rollup, Duration granularity) {
+        LocalDateTime bucketStart = RollupResolution.floor(rollup.getBucketStart(), granularity);
+        TrafficRollupId id = new TrafficRollupId(rollup.getRoadSegmentId(), rollup.getResolution(), bucketStart);
+        // Copy rather than mutate the loaded entities
+        combined.computeIfAbsent(id, key -> new TrafficRollup(key.getRoadSegmentId(), key.getResolution(), bucketStart))
+                .merge(rollup);
+    }
+
+    private int rebuild(LocalDateTime from, LocalDateTime to) {
+        pendingLock.writeLock().lock();
+        try {
+            // Pending deltas are already committed readings, so the raw scan covers them
+            discardPending(from, to);
+            return rollupRepository.rebuildFromReadings(from, to);
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+    }
+
+    private void discardPending(LocalDateTime from, LocalDateTime to) {
+        pending.values().removeIf(delta -> !delta.getBucketStart().isBefore(from) && delta.getBucketStart().isBefore(to));
+    }
+
+    private static RollupResolution coarsest() {
+        RollupResolution[] resolutions = RollupResolution.values();
+        return resolutions[resolutions.length - 1];
+    }
+}
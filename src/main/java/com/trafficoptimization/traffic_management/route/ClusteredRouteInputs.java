@@ -0,0 +1,118 @@
+package com.trafficoptimization.traffic_management.route;
+
+import com.trafficoptimization.traffic_management.cluster.ClusterClient;
+import com.trafficoptimization.traffic_management.cluster.ClusterMembership;
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.model.RouteSegmentInput;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Route inputs in cluster mode. A segment's metadata, aggregate and outgoing links are held by its
+ * owner, so the segments asked about are grouped by owner and every owner is asked about its own,
+ * in parallel. Paths are found breadth first one level at a time, each level asking the owners of
+ * its segments for their successors, so a path of n segments takes n rounds of requests.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "traffic.cluster.enabled", havingValue = "true")
+public class ClusteredRouteInputs implements RouteInputs {
+
+    private final LocalRouteInputs local;
+    private final ClusterMembership membership;
+    private final ClusterClient clusterClient;
+    private final Executor executor;
+
+    @Autowired
+    public ClusteredRouteInputs(LocalRouteInputs local, ClusterMembership membership, ClusterClient clusterClient,
+                                WorkerThreads workerThreads) {
+        this.local = local;
+        this.membership = membership;
+        this.clusterClient = clusterClient;
+        this.executor = workerThreads.taskExecutor("cluster-route-", 8);
+    }
+
+    @Override
+    public Map<String, RouteSegmentInput> getInputs(Collection<String> roadSegmentIds) {
+        return byOwner(roadSegmentIds, local::getInputs, clusterClient::routeInputs);
+    }
+
+    @Override
+    public Optional<List<String>> findPath(String from, String to) {
+        Map<String, String> previous = new HashMap<>();
+        previous.put(from, from);
+        List<String> level = List.of(from);
+        while (!level.isEmpty()) {
+            if (previous.containsKey(to)) {
+                return Optional.of(path(previous, from, to));
+            }
+            Map<String, List<String>> successors = byOwner(level, local::getSuccessors, clusterClient::successors);
+            List<String> next = new ArrayList<>();
+            for (String roadSegmentId : level) {
+                for (String successor : successors.getOrDefault(roadSegmentId, List.of())) {
+                    if (previous.putIfAbsent(successor, roadSegmentId) == null) {
+                        next.add(successor);
+                    }
+                }
+            }
+            level = next;
+        }
+        return Optional.empty();
+    }
+
+    // Answers about each segment from its owner, this node's own answered here
+    private <T> Map<String, T> byOwner(Collection<String> roadSegmentIds,
+                                       Function<Collection<String>, Map<String, T>> own,
+                                       BiFunction<String, List<String>, Map<String, T>> remote) {
+        Map<String, List<String>> grouped = new LinkedHashMap<>();
+        for (String roadSegmentId : roadSegmentIds) {
+            grouped.computeIfAbsent(membership.ownerOf(roadSegmentId), owner -> new ArrayList<>()).add(roadSegmentId);
+        }
+        List<String> ownIds = grouped.remove(membership.getSelf());
+        List<CompletableFuture<Map<String, T>>> asked = new ArrayList<>(grouped.size());
+        grouped.forEach((owner, ids) -> asked.add(CompletableFuture.supplyAsync(() -> remote.apply(owner, ids), executor)));
+        Map<String, T> answers = new HashMap<>(roadSegmentIds.size() * 2);
+        if (ownIds != null) {
+            answers.putAll(own.apply(ownIds));
+        }
+        asked.forEach(future -> answers.putAll(join(future)));
+        return answers;
+    }
+
+    private static List<String> path(Map<String, String> previous, String from, String to) {
+        List<String> path = new ArrayList<>();
+        for (String roadSegmentId = to; !roadSegmentId.equals(from); roadSegmentId = previous.get(roadSegmentId)) {
+            path.add(roadSegmentId);
+        }
+        path.add(from);
+        Collections.reverse(path);
+        return path;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.trafficoptimization.traffic_management.route;
+
+import com.trafficoptimization.traffic_management.aggregate.SegmentAggregateStore;
+import com.trafficoptimization.traffic_management.aggregate.SegmentStatistics;
+import com.trafficoptimization.traffic_management.emissions.EmissionsModel;
+import com.trafficoptimization.traffic_management.emissions.EmissionsModels;
+import com.trafficoptimization.traffic_management.model.RouteSegmentInput;
+import com.trafficoptimization.traffic_management.segment.RoadGraph;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import com.trafficoptimization.traffic_management.service.EmissionsBatchCalculator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Route inputs from this node's in-memory segment aggregates, metadata and road graph, without
+ * touching the database. The emissions of all the segments asked about in one call are estimated
+ * in one batch, with the same generation of emissions profiles.
+ */
+@Component
+public class LocalRouteInputs implements RouteInputs {
+
+    private final SegmentAggregateStore aggregateStore;
+    private final RoadGraph roadGraph;
+    private final SegmentRegistry segmentRegistry;
+    private final EmissionsModels emissionsModels;
+
+    @Autowired
+    public LocalRouteInputs(SegmentAggregateStore aggregateStore, RoadGraph roadGraph, SegmentRegistry segmentRegistry,
+                            EmissionsModels emissionsModels) {
+        this.aggregateStore = aggregateStore;
+        this.roadGraph = roadGraph;
+        this.segmentRegistry = segmentRegistry;
+        this.emissionsModels = emissionsModels;
+    }
+
+    @Override
+    public Map<String, RouteSegmentInput> getInputs(Collection<String> roadSegmentIds) {
+        EmissionsModels.Selection selection = emissionsModels.current();
+        int n = roadSegmentIds.size();
+        // Columns of the segments with readings
+        RouteSegmentInput[] withReadings = new RouteSegmentInput[n];
+        EmissionsModel[] models = new EmissionsModel[n];
+        double[] vehicleCounts = new double[n];
+        double[] speeds = new double[n];
+        double[] congestionLevels = new double[n];
+        int count = 0;
+
+        Map<String, RouteSegmentInput> inputs = new HashMap<>(n * 2);
+        for (String roadSegmentId : roadSegmentIds) {
+            int handle = segmentRegistry.find(roadSegmentId);
+            double lengthKm = handle == SegmentRegistry.UNKNOWN ? Double.NaN : segmentRegistry.getLengthKm(handle);
+            RouteSegmentInput input = new RouteSegmentInput(roadSegmentId, Double.isNaN(lengthKm) ? null : lengthKm,
+                    0, 0, 0, 0, 0, 0, 0);
+            inputs.put(roadSegmentId, input);
+
+            SegmentStatistics statistics = aggregateStore.get(roadSegmentId).orElse(null);
+            if (statistics == null || statistics.getCount() == 0) {
+                continue;
+            }
+            input.setReadingCount(statistics.getCount());
+            input.setCongestionCount(statistics.getCongestionCount());
+            input.setAverageSpeed(statistics.getAverageSpeed());
+            input.setAverageCongestion(statistics.getAverageCongestion());
+            withReadings[count] = input;
+            models[count] = selection.forSegment(roadSegmentId);
+            vehicleCounts[count] = statistics.getAverageVehicleCount();
+            speeds[count] = statistics.getAverageSpeed();
+            congestionLevels[count] = statistics.getAverageCongestion();
+            count++;
+        }
+
+        double[] co2 = new double[count];
+        double[] nox = new double[count];
+        double[] pm = new double[count];
+        EmissionsBatchCalculator.calculate(0, count, models, vehicleCounts, speeds, congestionLevels, co2, nox, pm);
+        for (int i = 0; i < count; i++) {
+            withReadings[i].setCo2KgPerHour(co2[i]);
+            withReadings[i].setNoxGramsPerHour(nox[i]);
+            withReadings[i].setParticulateMatterGramsPerHour(pm[i]);
+        }
+        return inputs;
+    }
+
+    @Override
+    public Optional<List<String>> findPath(String from, String to) {
+        return roadGraph.findPath(from, to);
+    }
+
+    /**
+     * Successors of each of {@code roadSegmentIds} in this node's road graph.
+     */
+    public Map<String, List<String>> getSuccessors(Collection<String> roadSegmentIds) {
+        Map<String, List<String>> successors = new HashMap<>(roadSegmentIds.size() * 2);
+        for (String roadSegmentId : roadSegmentIds) {
+            successors.put(roadSegmentId, roadGraph.getSuccessors(roadSegmentId));
+        }
+        return successors;
+    }
+}
@@ -0,0 +1,28 @@
+package com.trafficoptimization.traffic_management.route;
+
+import com.trafficoptimization.traffic_management.model.RouteSegmentInput;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The per-segment inputs of route evaluation and the road graph that routes are found on. In
+ * cluster mode both live with each segment's owner, so {@link ClusteredRouteInputs} collects them
+ * from the owners rather than from this node alone.
+ */
+public interface RouteInputs {
+
+    /**
+     * Inputs of each of {@code roadSegmentIds}, including those without readings or metadata.
+     */
+    Map<String, RouteSegmentInput> getInputs(Collection<String> roadSegmentIds);
+
+    /**
+     * The path from {@code from} to {@code to}, both included, that crosses the fewest segments.
+     *
+     * @return empty if {@code to} cannot be reached
+     */
+    Optional<List<String>> findPath(String from, String to);
+}
@@ -0,0 +1,154 @@
+package com.trafficoptimization.traffic_management.route;
+
+import com.trafficoptimization.traffic_management.metrics.OperationMeters;
+import com.trafficoptimization.traffic_management.model.RouteBottleneck;
+import com.trafficoptimization.traffic_management.model.RouteEvaluation;
+import com.trafficoptimization.traffic_management.model.RouteSegmentInput;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Emissions, travel time and bottleneck of routes of chained road segments, computed from the
+ * per-segment {@link RouteInputs}: in-memory aggregates and metadata, gathered from the segments'
+ * owners in cluster mode. Each segment's emissions are estimated from its average readings as for
+ * a single segment, so a route's totals equal the sum of its segments' estimates. A segment takes
+ * its length over its average speed to travel. The inputs of every segment in one request are
+ * fetched once, and the routes are then evaluated in parallel on the common fork-join pool.
+ */
+@Service
+public class RouteService {
+
+    private static final double SECONDS_PER_HOUR = 3600.0;
+
+    private final RouteInputs routeInputs;
+    private final OperationMeters meters;
+
+    @Autowired
+    public RouteService(RouteInputs routeInputs, SegmentRegistry segmentRegistry, MeterRegistry meterRegistry) {
+        this.routeInputs = routeInputs;
+        this.meters = new OperationMeters(meterRegistry, segmentRegistry, "traffic.route.operation",
+                "Route evaluation over the in-memory segment aggregates");
+    }
+
+    /**
+     * Evaluate each route, given as its segment ids in driving order, in the order given. Segments
+     * do not need to be linked in the road graph.
+     */
+    public List<RouteEvaluation> evaluateRoutes(List<List<String>> routes) {
+        if (routes == null || routes.isEmpty()) {
+            throw new IllegalArgumentException("At least one route is required");
+        }
+        routes.forEach(RouteService::validate);
+        OperationMeters.Meters evaluateMeters = meters.of("evaluate");
+        List<RouteEvaluation> evaluations = evaluateMeters.time(() -> {
+            Set<String> roadSegmentIds = new LinkedHashSet<>();
+            routes.forEach(roadSegmentIds::addAll);
+            Map<String, RouteSegmentInput> inputs = routeInputs.getInputs(roadSegmentIds);
+            return routes.parallelStream()
+                    .map(route -> evaluate(route, inputs))
+                    .toList();
+        });
+        evaluateMeters.rows(routes.stream().mapToLong(List::size).sum());
+        return evaluations;
+    }
+
+    /**
+     * Evaluate the route from {@code from} to {@code to} along the road graph that crosses the
+     * fewest segments.
+     *
+     * @return empty if there is no such route
+     */
+    public Optional<RouteEvaluation> findRoute(String from, String to) {
+        validate(List.of(from, to));
+        OperationMeters.Meters findMeters = meters.of("find");
+        Optional<RouteEvaluation> evaluation = findMeters.time(() -> routeInputs.findPath(from, to)
+                .map(path -> evaluate(path, routeInputs.getInputs(new LinkedHashSet<>(path)))));
+        evaluation.ifPresent(route -> findMeters.rows(route.getSegmentCount()));
+        return evaluation;
+    }
+
+    private static RouteEvaluation evaluate(List<String> roadSegmentIds, Map<String, RouteSegmentInput> inputs) {
+        int n = roadSegmentIds.size();
+        int withReadings = 0;
+        double lengthKm = 0;
+        double travelTimeSeconds = 0;
+        int withoutTravelTime = 0;
+        double totalCo2 = 0;
+        double totalNox = 0;
+        double totalPm = 0;
+        RouteBottleneck bottleneck = null;
+        for (int position = 0; position < n; position++) {
+            String roadSegmentId = roadSegmentIds.get(position);
+            RouteSegmentInput input = inputs.get(roadSegmentId);
+            Double segmentLengthKm = input.getLengthKm();
+            if (segmentLengthKm != null) {
+                lengthKm += segmentLengthKm;
+            }
+            if (input.getReadingCount() == 0) {
+                withoutTravelTime++;
+                continue;
+            }
+            totalCo2 += input.getCo2KgPerHour();
+            totalNox += input.getNoxGramsPerHour();
+            totalPm += input.getParticulateMatterGramsPerHour();
+
+            double speed = input.getAverageSpeed();
+            Double segmentTravelTime = null;
+            if (segmentLengthKm != null && speed > 0) {
+                segmentTravelTime = segmentLengthKm / speed * SECONDS_PER_HOUR;
+                travelTimeSeconds += segmentTravelTime;
+            } else {
+                withoutTravelTime++;
+            }
+
+            if (input.getCongestionCount() > 0 && isWorse(input, bottleneck)) {
+                bottleneck = new RouteBottleneck(roadSegmentId, position, input.getAverageCongestion(),
+                        speed, segmentTravelTime);
+            }
+            withReadings++;
+        }
+
+        return new RouteEvaluation(
+                LocalDateTime.now(),
+                roadSegmentIds,
+                n,
+                lengthKm,
+                travelTimeSeconds,
+                n - withReadings,
+                withoutTravelTime,
+                totalCo2,
+                totalNox,
+                totalPm,
+                bottleneck
+        );
+    }
+
+    private static boolean isWorse(RouteSegmentInput input, RouteBottleneck bottleneck) {
+        if (bottleneck == null) {
+            return true;
+        }
+        double congestion = input.getAverageCongestion();
+        return congestion > bottleneck.getCongestionLevel()
+                || congestion == bottleneck.getCongestionLevel() && input.getAverageSpeed() < bottleneck.getAverageSpeed();
+    }
+
+    private static void validate(List<String> route) {
+        if (route == null || route.isEmpty()) {
+            throw new IllegalArgumentException("A route needs at least one segment");
+        }
+        for (String roadSegmentId : route) {
+            if (roadSegmentId == null || roadSegmentId.isBlank()) {
+                throw new IllegalArgumentException("Segment ids must not be blank");
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.trafficoptimization.traffic_management.segment;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Which road segments traffic can continue onto from each segment, held as arrays of successor
+ * handles in a {@link SegmentTable}. The {@code road_link} table is the source of truth and
+ * {@link RoadSegmentService} keeps this copy in step with it. A segment's successors are replaced
+ * as a whole, so readers see either the old or the new array and never lock.
+ */
+@Component
+public class RoadGraph {
+
+    private static final int UNVISITED = -1;
+
+    private final SegmentRegistry segmentRegistry;
+    private final SegmentTable<int[]> successors = new SegmentTable<>();
+
+    @Autowired
+    public RoadGraph(SegmentRegistry segmentRegistry) {
+        this.segmentRegistry = segmentRegistry;
+    }
+
+    /**
+     * Replace the successors of {@code roadSegmentId}, registering any segment not seen before.
+     * Duplicates are dropped and an empty collection removes every link.
+     */
+    public void setSuccessors(String roadSegmentId, Collection<String> next) {
+        int handle = segmentRegistry.intern(roadSegmentId);
+        int[] handles = next.stream().mapToInt(segmentRegistry::intern).distinct().toArray();
+        if (handles.length == 0) {
+            successors.remove(handle);
+        } else {
+            successors.put(handle, handles);
+        }
+    }
+
+    public List<String> getSuccessors(String roadSegmentId) {
+        int handle = segmentRegistry.find(roadSegmentId);
+        int[] next = handle == SegmentRegistry.UNKNOWN ? null : successors.get(handle);
+        if (next == null) {
+            return List.of();
+        }
+        List<String> ids = new ArrayList<>(next.length);
+        for (int successor : next) {
+            ids.add(segmentRegistry.getId(successor));
+        }
+        return ids;
+    }
+
+    /**
+     * Number of segments with at least one successor.
+     */
+    public int size() {
+        return successors.size();
+    }
+
+    /**
+     * The path from {@code from} to {@code to}, both included, that crosses the fewest segments.
+     * Found breadth first over handles, with ids resolved only for the result.
+     *
+     * @return empty if either segment is unknown or {@code to} cannot be reached
+     */
+    public Optional<List<String>> findPath(String from, String to) {
+        int source = segmentRegistry.find(from);
+        int target = segmentRegistry.find(to);
+        if (source == SegmentRegistry.UNKNOWN || target == SegmentRegistry.UNKNOWN) {
+            return Optional.empty();
+        }
+        // Segments registered during the search are left out; they cannot have been linked before it began
+        int n = segmentRegistry.size();
+        int[] previous = new int[n];
+        Arrays.fill(previous, UNVISITED);
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        previous[source] = source;
+        queue[tail++] = source;
+        while (head < tail) {
+            int handle = queue[head++];
+            if (handle == target) {
+                return Optional.of(path(previous, source, target));
+            }
+            int[] next = successors.get(handle);
+            if (next == null) {
+                continue;
+            }
+            for (int successor : next) {
+                if (successor < n && previous[successor] == UNVISITED) {
+                    previous[successor] = handle;
+                    queue[tail++] = successor;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<String> path(int[] previous, int source, int target) {
+        List<String> path = new ArrayList<>();
+        for (int handle = target; handle != source; handle = previous[handle]) {
+            path.add(segmentRegistry.getId(handle));
+        }
+        path.add(segmentRegistry.getId(source));
+        Collections.reverse(path);
+        return path;
+    }
+}
@@ -0,0 +1,136 @@
+package com.trafficoptimization.traffic_management.segment;
+
+import com.trafficoptimization.traffic_management.config.CacheConfig;
+import com.trafficoptimization.traffic_management.model.RoadLink;
+import com.trafficoptimization.traffic_management.model.RoadSegment;
+import com.trafficoptimization.traffic_management.repository.RoadLinkRepository;
+import com.trafficoptimization.traffic_management.repository.RoadSegmentRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Road segment metadata and the links between segments. The tables are the source of truth; the
+ * {@link SegmentRegistry} and the {@link RoadGraph} hold copies loaded at startup and updated on
+ * every write, and are what reads are answered from.
+ */
+@Service
+public class RoadSegmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoadSegmentService.class);
+
+    private final RoadSegmentRepository roadSegmentRepository;
+    private final RoadLinkRepository roadLinkRepository;
+    private final SegmentRegistry segmentRegistry;
+    private final RoadGraph roadGraph;
+    private final Cache emissionsEstimates;
+
+    @Autowired
+    public RoadSegmentService(RoadSegmentRepository roadSegmentRepository, RoadLinkRepository roadLinkRepository,
+                              SegmentRegistry segmentRegistry, RoadGraph roadGraph, CacheManager cacheManager) {
+        this.roadSegmentRepository = roadSegmentRepository;
+        this.roadLinkRepository = roadLinkRepository;
+        this.segmentRegistry = segmentRegistry;
+        this.roadGraph = roadGraph;
+        this.emissionsEstimates = cacheManager.getCache(CacheConfig.EMISSIONS_ESTIMATES);
+    }
+
+    @PostConstruct
+    public void load() {
+        List<RoadSegment> segments = roadSegmentRepository.findAll();
+        for (RoadSegment segment : segments) {
+            segmentRegistry.describe(segment);
+        }
+        log.info("Loaded metadata of {} road segments", segments.size());
+
+        List<RoadLink> links = roadLinkRepository.findAll();
+        Map<String, List<String>> successors = links.stream().collect(Collectors.groupingBy(RoadLink::getFromSegmentId,
+                Collectors.mapping(RoadLink::getToSegmentId, Collectors.toList())));
+        successors.forEach(roadGraph::setSuccessors);
+        log.info("Loaded {} links between road segments", links.size());
+    }
+
+    /**
+     * Every segment that has metadata or has received readings since startup.
+     */
+    public List<RoadSegment> getAll() {
+        int size = segmentRegistry.size();
+        List<RoadSegment> segments = new ArrayList<>(size);
+        for (int handle = 0; handle < size; handle++) {
+            segments.add(segmentRegistry.getSegment(handle));
+        }
+        return segments;
+    }
+
+    public Optional<RoadSegment> get(String roadSegmentId) {
+        int handle = segmentRegistry.find(roadSegmentId);
+        return handle == SegmentRegistry.UNKNOWN ? Optional.empty() : Optional.of(segmentRegistry.getSegment(handle));
+    }
+
+    public RoadSegment save(RoadSegment segment) {
+        RoadSegment saved = roadSegmentRepository.save(segment);
+        segmentRegistry.describe(saved);
+        // A new region may select another emissions profile
+        if (emissionsEstimates != null) {
+            emissionsEstimates.evict(saved.getId());
+        }
+        return saved;
+    }
+
+    /**
+     * Segments that traffic leaving {@code roadSegmentId} can continue onto.
+     */
+    public List<String> getNext(String roadSegmentId) {
+        return roadGraph.getSuccessors(roadSegmentId);
+    }
+
+    /**
+     * Replace the segments that traffic leaving {@code roadSegmentId} can continue onto. The
+     * {@link RoadGraph} follows once the transaction commits, so a rolled-back change never shows
+     * up in routes.
+     *
+     * @return the new successors, without duplicates
+     */
+    @Transactional
+    public List<String> setNext(String roadSegmentId, List<String> next) {
+        List<String> distinct = next.stream().distinct().toList();
+        for (String successor : distinct) {
+            if (successor == null || successor.isBlank()) {
+                throw new IllegalArgumentException("Linked segment ids must not be blank");
+            }
+            if (successor.equals(roadSegmentId)) {
+                throw new IllegalArgumentException("Segment " + roadSegmentId + " cannot be linked to itself");
+            }
+        }
+        roadLinkRepository.deleteByFromSegmentId(roadSegmentId);
+        roadLinkRepository.saveAll(distinct.stream().map(successor -> new RoadLink(roadSegmentId, successor)).toList());
+        afterCommit(() -> roadGraph.setSuccessors(roadSegmentId, distinct));
+        return distinct;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
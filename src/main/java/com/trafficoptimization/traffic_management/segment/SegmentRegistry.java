@@ -0,0 +1,154 @@
+package com.trafficoptimization.traffic_management.segment;
+
+import com.trafficoptimization.traffic_management.model.RoadClass;
+import com.trafficoptimization.traffic_management.model.RoadSegment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interns road segment ids into dense int handles, assigned from zero in order of first sight and
+ * never reused, so that per-segment state can live in arrays indexed by handle. The registry also
+ * holds each segment's metadata in columns indexed the same way. The id is resolved once per
+ * reading; {@link #canonical} additionally swaps it for the registry's own instance, whose cached
+ * hash and identity make every later lookup by id cheap.
+ */
+@Component
+public class SegmentRegistry {
+
+    public static final int UNKNOWN = -1;
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final byte NO_ROAD_CLASS = -1;
+    private static final RoadClass[] ROAD_CLASSES = RoadClass.values();
+
+    private final ConcurrentMap<String, Integer> handles = new ConcurrentHashMap<>();
+
+    // Written under the instance lock; a handle is published through the map only after its slots
+    private volatile Columns columns = new Columns(INITIAL_CAPACITY);
+    private volatile int size;
+
+    /**
+     * Handle of {@code roadSegmentId}, registering it if it has not been seen before.
+     */
+    public int intern(String roadSegmentId) {
+        Integer handle = handles.get(roadSegmentId);
+        return handle != null ? handle : register(roadSegmentId);
+    }
+
+    /**
+     * Handle of {@code roadSegmentId}, or {@link #UNKNOWN} if it has never been registered. Use
+     * this on read paths so that lookups of arbitrary ids do not grow the registry.
+     */
+    public int find(String roadSegmentId) {
+        Integer handle = roadSegmentId == null ? null : handles.get(roadSegmentId);
+        return handle != null ? handle : UNKNOWN;
+    }
+
+    /**
+     * The registry's instance of {@code roadSegmentId}, registering it if needed.
+     */
+    public String canonical(String roadSegmentId) {
+        return roadSegmentId == null ? null : getId(intern(roadSegmentId));
+    }
+
+    public String getId(int handle) {
+        return columns.ids[handle];
+    }
+
+    /**
+     * Number of handles handed out; valid handles are {@code 0} to {@code size() - 1}.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Record the road class, length and region of a segment, registering it if needed. Unset values
+     * clear what was known before.
+     */
+    public synchronized int describe(RoadSegment segment) {
+        int handle = intern(segment.getId());
+        Columns current = columns;
+        current.roadClasses[handle] = segment.getRoadClass() != null ? (byte) segment.getRoadClass().ordinal() : NO_ROAD_CLASS;
+        current.lengthsKm[handle] = segment.getLengthKm() != null ? segment.getLengthKm() : Double.NaN;
+        current.regions[handle] = segment.getRegion();
+        return handle;
+    }
+
+    /**
+     * Id and metadata of the segment behind {@code handle}, with {@code null} for whatever has not
+     * been described.
+     */
+    public RoadSegment getSegment(int handle) {
+        Columns current = columns;
+        byte roadClass = current.roadClasses[handle];
+        double lengthKm = current.lengthsKm[handle];
+        return new RoadSegment(current.ids[handle],
+                roadClass == NO_ROAD_CLASS ? null : ROAD_CLASSES[roadClass],
+                Double.isNaN(lengthKm) ? null : lengthKm,
+                current.regions[handle]);
+    }
+
+    public RoadClass getRoadClass(int handle) {
+        byte roadClass = columns.roadClasses[handle];
+        return roadClass == NO_ROAD_CLASS ? null : ROAD_CLASSES[roadClass];
+    }
+
+    /**
+     * @return length in kilometres, or {@code NaN} if unknown
+     */
+    public double getLengthKm(int handle) {
+        return columns.lengthsKm[handle];
+    }
+
+    public String getRegion(int handle) {
+        return columns.regions[handle];
+    }
+
+    private synchronized int register(String roadSegmentId) {
+        Integer existing = handles.get(roadSegmentId);
+        if (existing != null) {
+            return existing;
+        }
+        int handle = size;
+        Columns current = columns;
+        if (handle == current.ids.length) {
+            current = current.grow();
+        }
+        current.ids[handle] = roadSegmentId;
+        columns = current;
+        size = handle + 1;
+        handles.put(roadSegmentId, handle);
+        return handle;
+    }
+
+    private static final class Columns {
+
+        final String[] ids;
+        final byte[] roadClasses;
+        final double[] lengthsKm;
+        final String[] regions;
+
+        Columns(int capacity) {
+            this(new String[capacity], new byte[capacity], new double[capacity], new String[capacity], 0);
+        }
+
+        private Columns(String[] ids, byte[] roadClasses, double[] lengthsKm, String[] regions, int from) {
+            this.ids = ids;
+            this.roadClasses = roadClasses;
+            this.lengthsKm = lengthsKm;
+            this.regions = regions;
+            Arrays.fill(roadClasses, from, roadClasses.length, NO_ROAD_CLASS);
+            Arrays.fill(lengthsKm, from, lengthsKm.length, Double.NaN);
+        }
+
+        Columns grow() {
+            int capacity = ids.length * 2;
+            return new Columns(Arrays.copyOf(ids, capacity), Arrays.copyOf(roadClasses, capacity),
+                    Arrays.copyOf(lengthsKm, capacity), Arrays.copyOf(regions, capacity), ids.length);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.trafficoptimization.traffic_management.segment;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Concurrent map from {@link SegmentRegistry} handles to per-segment state, stored in fixed-size
+ * pages of a plain array. Lookups are two array loads with no hashing, boxing or per-entry node.
+ * Pages are allocated on demand and never move, so growing the table does not copy entries or
+ * race with writers. Removing an entry empties its slot; the page stays allocated.
+ */
+public class SegmentTable<T> {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private volatile AtomicReferenceArray<T>[] pages = newDirectory(0);
+    private final AtomicInteger size = new AtomicInteger();
+
+    public T get(int handle) {
+        AtomicReferenceArray<T>[] directory = pages;
+        int page = handle >>> PAGE_BITS;
+        if (page >= directory.length) {
+            return null;
+        }
+        return directory[page].get(handle & PAGE_MASK);
+    }
+
+    /**
+     * The entry for {@code handle}, created with {@code factory} if there is none. Under contention
+     * the factory may run more than once, with only one result kept.
+     */
+    public T computeIfAbsent(int handle, IntFunction<? extends T> factory) {
+        AtomicReferenceArray<T> page = page(handle);
+        int slot = handle & PAGE_MASK;
+        T value = page.get(slot);
+        if (value != null) {
+            return value;
+        }
+        T created = factory.apply(handle);
+        if (page.compareAndSet(slot, null, created)) {
+            size.incrementAndGet();
+            return created;
+        }
+        return page.get(slot);
+    }
+
+    /**
+     * Set the entry for {@code handle}, replacing any previous one.
+     *
+     * @return the replaced entry, or null
+     */
+    public T put(int handle, T value) {
+        T previous = page(handle).getAndSet(handle & PAGE_MASK, value);
+        if (previous == null) {
+            size.incrementAndGet();
+        }
+        return previous;
+    }
+
+    /**
+     * Visit every entry in handle order. Entries added concurrently may or may not be seen.
+     */
+    public void forEach(Consumer<? super T> action) {
+        for (AtomicReferenceArray<T> page : pages) {
+            for (int slot = 0; slot < PAGE_SIZE; slot++) {
+                T value = page.get(slot);
+                if (value != null) {
+                    action.accept(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the entry for {@code handle}, if any.
+     *
+     * @return the removed entry, or null
+     */
+    public T remove(int handle) {
+        AtomicReferenceArray<T>[] directory = pages;
+        int page = handle >>> PAGE_BITS;
+        if (handle < 0 || page >= directory.length) {
+            return null;
+        }
+        T removed = directory[page].getAndSet(handle & PAGE_MASK, null);
+        if (removed != null) {
+            size.decrementAndGet();
+        }
+        return removed;
+    }
+
+    /**
+     * Remove the entry for {@code handle} only if it is still {@code expected}.
+     *
+     * @return whether it was removed
+     */
+    public boolean remove(int handle, T expected) {
+        AtomicReferenceArray<T>[] directory = pages;
+        int page = handle >>> PAGE_BITS;
+        if (handle < 0 || page >= directory.length || expected == null) {
+            return false;
+        }
+        boolean removed = directory[page].compareAndSet(handle & PAGE_MASK, expected, null);
+        if (removed) {
+            size.decrementAndGet();
+        }
+        return removed;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public synchronized void clear() {
+        pages = newDirectory(0);
+        size.set(0);
+    }
+
+    private AtomicReferenceArray<T> page(int handle) {
+        if (handle < 0) {
+            throw new IndexOutOfBoundsException("Invalid segment handle " + handle);
+        }
+        AtomicReferenceArray<T>[] directory = pages;
+        int page = handle >>> PAGE_BITS;
+        return page < directory.length ? directory[page] : allocate(page);
+    }
+
+    private synchronized AtomicReferenceArray<T> allocate(int page) {
+        AtomicReferenceArray<T>[] directory = pages;
+        if (page >= directory.length) {
+            AtomicReferenceArray<T>[] grown = Arrays.copyOf(directory, Math.max(page + 1, directory.length * 2));
+            for (int i = directory.length; i < grown.length; i++) {
+                grown[i] = new AtomicReferenceArray<>(PAGE_SIZE);
+            }
+            pages = grown;
+            directory = grown;
+        }
+        return directory[page];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> AtomicReferenceArray<T>[] newDirectory(int length) {
+        return new AtomicReferenceArray[length];
+    }
+}
@@ -0,0 +1,168 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.trafficoptimization.traffic_management.cluster.ClusterClient;
+import com.trafficoptimization.traffic_management.cluster.ClusterMembership;
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.model.CongestionForecast;
+import com.trafficoptimization.traffic_management.model.EmissionsEstimate;
+import com.trafficoptimization.traffic_management.model.Hotspot;
+import com.trafficoptimization.traffic_management.model.NetworkEmissionsSnapshot;
+import com.trafficoptimization.traffic_management.model.RollupBucket;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Network summaries in cluster mode. Every member summarises the segments it owns, in parallel,
+ * and the results are combined here: totals are summed, and rankings are merged by keeping the
+ * top of the members' own top lists, which hold every candidate of the network's top list. Rollups
+ * of one segment are asked of its owner only.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "traffic.cluster.enabled", havingValue = "true")
+public class ClusteredNetworkSummaryService implements NetworkSummaryService {
+
+    private static final Comparator<RollupBucket> ROLLUP_ORDER = Comparator.comparing(RollupBucket::getRoadSegmentId)
+            .thenComparing(RollupBucket::getBucketStart);
+
+    private final NetworkSummaryServiceImpl local;
+    private final ClusterMembership membership;
+    private final ClusterClient clusterClient;
+    private final Executor executor;
+
+    @Autowired
+    public ClusteredNetworkSummaryService(NetworkSummaryServiceImpl local, ClusterMembership membership,
+                                          ClusterClient clusterClient, WorkerThreads workerThreads) {
+        this.local = local;
+        this.membership = membership;
+        this.clusterClient = clusterClient;
+        this.executor = workerThreads.taskExecutor("cluster-summary-", 8);
+    }
+
+    @Override
+    public NetworkEmissionsSnapshot estimateNetworkEmissions(List<String> roadSegmentIds, int top, boolean includeSegments) {
+        List<NetworkEmissionsSnapshot> snapshots;
+        if (roadSegmentIds == null || roadSegmentIds.isEmpty()) {
+            snapshots = gather(membership.getPeers(),
+                    peer -> clusterClient.networkEmissions(peer, null, top, includeSegments),
+                    () -> local.estimateNetworkEmissions(null, top, includeSegments));
+        } else {
+            // Each owner is asked about its own segments only
+            Map<String, List<String>> byOwner = new LinkedHashMap<>();
+            for (String roadSegmentId : roadSegmentIds) {
+                byOwner.computeIfAbsent(membership.ownerOf(roadSegmentId), owner -> new ArrayList<>()).add(roadSegmentId);
+            }
+            List<String> own = byOwner.remove(membership.getSelf());
+            snapshots = gather(new ArrayList<>(byOwner.keySet()),
+                    peer -> clusterClient.networkEmissions(peer, byOwner.get(peer), top, includeSegments),
+                    own == null ? null : () -> local.estimateNetworkEmissions(own, top, includeSegments));
+        }
+
+        int segmentCount = 0;
+        double totalCo2 = 0;
+        double totalNox = 0;
+        double totalPm = 0;
+        int candidates = 0;
+        List<EmissionsEstimate> segments = new ArrayList<>();
+        for (NetworkEmissionsSnapshot snapshot : snapshots) {
+            segmentCount += snapshot.getSegmentCount();
+            totalCo2 += snapshot.getTotalCo2KgPerHour();
+            totalNox += snapshot.getTotalNoxGramsPerHour();
+            totalPm += snapshot.getTotalParticulateMatterGramsPerHour();
+            candidates += snapshot.getTopEmitters().size();
+            segments.addAll(snapshot.getSegments());
+        }
+        TopN<EmissionsEstimate> topEmitters = new TopN<>(top, candidates,
+                Comparator.comparingDouble(EmissionsEstimate::getCo2KgPerHour));
+        snapshots.forEach(snapshot -> snapshot.getTopEmitters().forEach(topEmitters::offer));
+        return new NetworkEmissionsSnapshot(LocalDateTime.now(), segmentCount, totalCo2, totalNox, totalPm,
+                topEmitters.toList(), segments);
+    }
+
+    @Override
+    public List<Hotspot> getHotspots(int limit) {
+        List<List<Hotspot>> ranked = gather(membership.getPeers(),
+                peer -> clusterClient.hotspots(peer, limit),
+                () -> local.getHotspots(limit));
+        return top(ranked, limit, Comparator.comparingDouble(Hotspot::getWindowedCongestion));
+    }
+
+    @Override
+    public List<CongestionForecast> getMostCongested(int horizonMinutes, int limit) {
+        List<List<CongestionForecast>> ranked = gather(membership.getPeers(),
+                peer -> clusterClient.mostCongested(peer, horizonMinutes, limit),
+                () -> local.getMostCongested(horizonMinutes, limit));
+        // Each forecast holds the one requested horizon
+        return top(ranked, limit, Comparator.comparingDouble(forecast -> forecast.getPoints().get(0).getCongestionLevel()));
+    }
+
+    @Override
+    public List<RollupBucket> queryRollups(String roadSegmentId, LocalDateTime start, LocalDateTime end, Duration granularity) {
+        if (roadSegmentId != null) {
+            String owner = membership.ownerOf(roadSegmentId);
+            return owner.equals(membership.getSelf())
+                    ? local.queryRollups(roadSegmentId, start, end, granularity)
+                    : clusterClient.rollups(owner, roadSegmentId, start, end, granularity);
+        }
+        List<List<RollupBucket>> parts = gather(membership.getPeers(),
+                peer -> clusterClient.rollups(peer, null, start, end, granularity),
+                () -> local.queryRollups(null, start, end, granularity));
+        List<RollupBucket> buckets = new ArrayList<>();
+        parts.forEach(buckets::addAll);
+        buckets.sort(ROLLUP_ORDER);
+        return buckets;
+    }
+
+    private static <T> List<T> top(List<List<T>> ranked, int limit, Comparator<? super T> order) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        int candidates = 0;
+        for (List<T> part : ranked) {
+            candidates += part.size();
+        }
+        TopN<T> top = new TopN<>(limit, candidates, order);
+        ranked.forEach(part -> part.forEach(top::offer));
+        return top.toList();
+    }
+
+    // The peers' answers, asked in parallel, and this node's unless {@code own} is null
+    private <T> List<T> gather(List<String> peers, Function<String, T> call, Supplier<T> own) {
+        List<CompletableFuture<T>> remote = new ArrayList<>(peers.size());
+        for (String peer : peers) {
+            remote.add(CompletableFuture.supplyAsync(() -> call.apply(peer), executor));
+        }
+        List<T> results = new ArrayList<>(peers.size() + 1);
+        if (own != null) {
+            results.add(own.get());
+        }
+        remote.forEach(future -> results.add(join(future)));
+        return results;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.trafficoptimization.traffic_management.cluster.ClusterClient;
+import com.trafficoptimization.traffic_management.cluster.ClusterMembership;
+import com.trafficoptimization.traffic_management.config.ConditionalOnReactiveReads;
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
+import com.trafficoptimization.traffic_management.repository.ReactiveTrafficDataRepository;
+import com.trafficoptimization.traffic_management.retention.RetentionWatermark;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The reactive reads in cluster mode. Network-wide streams merge this node's reactive stream with
+ * every other member's stream of its own rows, in (timestamp, id) order, like
+ * {@link ClusteredTrafficService} does for the blocking streams. Remote rows are read on worker
+ * threads as the merged stream is requested, so a slow client still throttles every source.
+ * Per-segment streams have already been forwarded to the segment's owner.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "traffic.cluster.enabled", havingValue = "true")
+@ConditionalOnReactiveReads
+public class ClusteredReactiveTrafficService extends ReactiveTrafficService {
+
+    private static final Comparator<TrafficData> KEYSET_ORDER = Comparator.comparing(TrafficData::getTimestamp)
+            .thenComparing(TrafficData::getId);
+
+    private final ClusterMembership membership;
+    private final ClusterClient clusterClient;
+    private final Scheduler remoteScheduler;
+
+    @Autowired
+    public ClusteredReactiveTrafficService(ReactiveTrafficDataRepository reactiveTrafficDataRepository,
+                                           EmissionsService emissionsService, RetentionWatermark retentionWatermark,
+                                           MeterRegistry meterRegistry, SegmentRegistry segmentRegistry,
+                                           @Value("${traffic.reactive.page-size:500}") int pageSize,
+                                           ClusterMembership membership, ClusterClient clusterClient,
+                                           WorkerThreads workerThreads) {
+        super(reactiveTrafficDataRepository, emissionsService, retentionWatermark, meterRegistry, segmentRegistry,
+                pageSize);
+        this.membership = membership;
+        this.clusterClient = clusterClient;
+        this.remoteScheduler = Schedulers.fromExecutor(workerThreads.taskExecutor("cluster-stream-", 8));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Flux<TrafficData> streamTrafficData(TrafficQuery query) {
+        if (query.getKind() != TrafficQuery.Kind.ALL && query.getKind() != TrafficQuery.Kind.TIME_RANGE) {
+            return super.streamTrafficData(query);
+        }
+        return Flux.defer(() -> {
+            List<Publisher<TrafficData>> sources = new ArrayList<>();
+            sources.add(super.streamTrafficData(query));
+            for (String peer : membership.getPeers()) {
+                sources.add(remote(peer, query));
+            }
+            return Flux.mergeComparing(KEYSET_ORDER, sources.toArray(Publisher[]::new));
+        });
+    }
+
+    private Flux<TrafficData> remote(String peer, TrafficQuery query) {
+        return Flux.using(() -> clusterClient.stream(peer, query),
+                        stream -> Flux.fromIterable(() -> stream),
+                        ClusteredReactiveTrafficService::close)
+                // The response is read with blocking calls, which must stay off the caller's thread
+                .subscribeOn(remoteScheduler);
+    }
+
+    private static void close(MappingIterator<TrafficData> stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            // The response is abandoned either way
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.trafficoptimization.traffic_management.cluster.ClusterClient;
+import com.trafficoptimization.traffic_management.cluster.ClusterMembership;
+import com.trafficoptimization.traffic_management.cluster.NodeUnavailableException;
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.CursorPage;
+import com.trafficoptimization.traffic_management.model.RecordIngestionResult;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The traffic service in cluster mode. Every reading is stored on the node that owns its road
+ * segment, so ingestion sends each reading to its owner, and the network-wide listings ask every
+ * member for its own rows in parallel and combine them. Pages and streams merge the members' rows
+ * in (timestamp, id) order. Ids are only unique per node, so pages break ties by node and their
+ * cursors name the node of the last row; every node resumes from its own position after it.
+ * <p>
+ * Per-segment queries are answered from this node's store: {@code OwnerRoutingInterceptor} has
+ * already forwarded the request to the segment's owner.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "traffic.cluster.enabled", havingValue = "true")
+public class ClusteredTrafficService implements TrafficService {
+
+    private static final Comparator<TrafficData> KEYSET_ORDER = Comparator.comparing(TrafficData::getTimestamp)
+            .thenComparing(TrafficData::getId);
+    private static final Comparator<NodeRow> CLUSTER_ORDER = Comparator.comparing(NodeRow::row, KEYSET_ORDER)
+            .thenComparing(NodeRow::node);
+
+    private final TrafficServiceImpl local;
+    private final ClusterMembership membership;
+    private final ClusterClient clusterClient;
+    private final Executor executor;
+
+    @Autowired
+    public ClusteredTrafficService(TrafficServiceImpl local, ClusterMembership membership,
+                                   ClusterClient clusterClient, WorkerThreads workerThreads) {
+        this.local = local;
+        this.membership = membership;
+        this.clusterClient = clusterClient;
+        this.executor = workerThreads.taskExecutor("cluster-request-", 8);
+    }
+
+    @Override
+    public TrafficData saveTrafficData(TrafficData trafficData) {
+        String owner = ownerOf(trafficData);
+        return owner == null ? local.saveTrafficData(trafficData) : clusterClient.save(owner, trafficData);
+    }
+
+    @Override
+    public BatchIngestionResult saveTrafficDataBatch(List<TrafficData> batch) {
+        // Indexes of the readings each remote owner gets; the rest stay here
+        Map<String, List<Integer>> remote = new LinkedHashMap<>();
+        List<Integer> localIndexes = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            String owner = ownerOf(batch.get(i));
+            (owner == null ? localIndexes : remote.computeIfAbsent(owner, node -> new ArrayList<>())).add(i);
+        }
+        if (remote.isEmpty()) {
+            return local.saveTrafficDataBatch(batch);
+        }
+
+        Map<String, CompletableFuture<BatchIngestionResult>> sent = new LinkedHashMap<>();
+        remote.forEach((owner, indexes) -> sent.put(owner, CompletableFuture.supplyAsync(
+                () -> clusterClient.saveBatch(owner, select(batch, indexes)), executor)));
+        BatchIngestionResult result = new BatchIngestionResult();
+        if (!localIndexes.isEmpty()) {
+            result.addAll(local.saveTrafficDataBatch(select(batch, localIndexes)), localIndexes);
+        }
+        sent.forEach((owner, future) -> {
+            List<Integer> indexes = remote.get(owner);
+            try {
+                result.addAll(future.join(), indexes);
+            } catch (CompletionException e) {
+                // The owner is down or failed; only its share of the batch is rejected
+                for (int index : indexes) {
+                    result.add(RecordIngestionResult.rejected(index, e.getCause().getMessage()));
+                }
+            }
+        });
+        result.getResults().sort(Comparator.comparingInt(RecordIngestionResult::getIndex));
+        return result;
+    }
+
+    @Override
+    public List<TrafficData> getAllTrafficData() {
+        return gather(TrafficQuery.all(), local.getAllTrafficData());
+    }
+
+    @Override
+    public List<TrafficData> getTrafficDataByRoadSegment(String roadSegmentId) {
+        return local.getTrafficDataByRoadSegment(roadSegmentId);
+    }
+
+    @Override
+    public List<TrafficData> getTrafficDataByTimeRange(LocalDateTime start, LocalDateTime end) {
+        return gather(TrafficQuery.timeRange(start, end), local.getTrafficDataByTimeRange(start, end));
+    }
+
+    @Override
+    public List<TrafficData> getCongestionPoints(String roadSegmentId, Double congestionThreshold) {
+        return local.getCongestionPoints(roadSegmentId, congestionThreshold);
+    }
+
+    @Override
+    public Double calculateAverageCongestion(String roadSegmentId) {
+        return local.calculateAverageCongestion(roadSegmentId);
+    }
+
+    @Override
+    public CursorPage<TrafficData> getTrafficDataPage(TrafficQuery query, String cursor, int limit) {
+        if (!isNetworkWide(query)) {
+            return local.getTrafficDataPage(query, cursor, limit);
+        }
+        // Every member's first page after the cursor holds the network's first page
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<String> peers = membership.getPeers();
+        List<CompletableFuture<CursorPage<TrafficData>>> remote = ask(peers, peer ->
+                clusterClient.page(peer, query, pageCursor(after, cursor, peer), limit));
+        String self = membership.getSelf();
+        List<NodeRow> rows = new ArrayList<>();
+        boolean more = collect(rows, self, local.getTrafficDataPage(query, pageCursor(after, cursor, self), limit));
+        for (int i = 0; i < peers.size(); i++) {
+            more |= collect(rows, peers.get(i), join(remote.get(i)));
+        }
+        rows.sort(CLUSTER_ORDER);
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            more = true;
+        }
+        List<TrafficData> items = new ArrayList<>(rows.size());
+        rows.forEach(row -> items.add(row.row()));
+        NodeRow last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        return new CursorPage<>(items, more ? KeysetCursor.after(last.row(), last.node()).encode() : null);
+    }
+
+    // The member's own cursor for the rows after a cluster cursor
+    private static String pageCursor(KeysetCursor after, String cursor, String member) {
+        return cursor == null || cursor.isEmpty() ? cursor : after.forNode(member).encode();
+    }
+
+    // Adds a member's page to the rows to merge; whether the member has more rows after it
+    private static boolean collect(List<NodeRow> rows, String node, CursorPage<TrafficData> page) {
+        page.getItems().forEach(row -> rows.add(new NodeRow(row, node)));
+        return page.getNextCursor() != null;
+    }
+
+    @Override
+    public void streamTrafficData(TrafficQuery query, Consumer<TrafficData> sink) {
+        if (!isNetworkWide(query)) {
+            local.streamTrafficData(query, sink);
+            return;
+        }
+        List<CompletableFuture<MappingIterator<TrafficData>>> opened = ask(membership.getPeers(),
+                peer -> clusterClient.stream(peer, query));
+        try {
+            // The head row of every remote stream, merged into the local stream as it is read
+            PriorityQueue<Head> heads = new PriorityQueue<>((a, b) -> KEYSET_ORDER.compare(a.row, b.row));
+            for (CompletableFuture<MappingIterator<TrafficData>> stream : opened) {
+                advance(heads, join(stream));
+            }
+            local.streamTrafficData(query, row -> {
+                while (!heads.isEmpty() && KEYSET_ORDER.compare(heads.peek().row, row) < 0) {
+                    emit(heads, sink);
+                }
+                sink.accept(row);
+            });
+            while (!heads.isEmpty()) {
+                emit(heads, sink);
+            }
+        } finally {
+            // Including streams still opening when another failed
+            opened.forEach(stream -> stream.thenAccept(ClusteredTrafficService::close));
+        }
+    }
+
+    private static void emit(PriorityQueue<Head> heads, Consumer<TrafficData> sink) {
+        Head head = heads.poll();
+        sink.accept(head.row);
+        advance(heads, head.stream);
+    }
+
+    private static void advance(PriorityQueue<Head> heads, MappingIterator<TrafficData> stream) {
+        if (stream.hasNext()) {
+            heads.add(new Head(stream.next(), stream));
+        }
+    }
+
+    private static void close(MappingIterator<TrafficData> stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            // The response is abandoned either way
+        }
+    }
+
+    private List<TrafficData> gather(TrafficQuery query, List<TrafficData> localRows) {
+        List<CompletableFuture<List<TrafficData>>> remote = ask(membership.getPeers(), peer -> {
+            try (MappingIterator<TrafficData> stream = clusterClient.stream(peer, query)) {
+                return stream.readAll();
+            } catch (IOException e) {
+                throw new NodeUnavailableException(peer, e.toString(), e);
+            }
+        });
+        List<TrafficData> rows = new ArrayList<>(localRows);
+        remote.forEach(future -> rows.addAll(join(future)));
+        return rows;
+    }
+
+    private <T> List<CompletableFuture<T>> ask(List<String> peers, Function<String, T> call) {
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (String peer : peers) {
+            futures.add(CompletableFuture.supplyAsync(() -> call.apply(peer), executor));
+        }
+        return futures;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // The remote owner of the reading, or null if it is stored here
+    private String ownerOf(TrafficData trafficData) {
+        // Readings without a segment are rejected by local validation
+        if (trafficData == null || trafficData.getRoadSegmentId() == null) {
+            return null;
+        }
+        String owner = membership.ownerOf(trafficData.getRoadSegmentId());
+        return owner.equals(membership.getSelf()) ? null : owner;
+    }
+
+    private static boolean isNetworkWide(TrafficQuery query) {
+        return query.getKind() == TrafficQuery.Kind.ALL || query.getKind() == TrafficQuery.Kind.TIME_RANGE;
+    }
+
+    private static List<TrafficData> select(List<TrafficData> batch, List<Integer> indexes) {
+        List<TrafficData> selected = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            selected.add(batch.get(index));
+        }
+        return selected;
+    }
+
+    private record Head(TrafficData row, MappingIterator<TrafficData> stream) {
+    }
+
+    private record NodeRow(TrafficData row, String node) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.trafficoptimization.traffic_management.emissions.EmissionsModel;
+
+/**
+ * Column-oriented counterpart of the per-segment estimate in {@link EmissionsService}, for
+ * estimating many segments at once. Inputs are parallel primitive arrays indexed by segment, with
+ * either one {@link EmissionsModel} for all of them or a column of models when segments use
+ * different profiles; each run of consecutive segments sharing a model is evaluated in vectorizable
+ * column loops by {@link EmissionsModel#calculate}. The results are bit-for-bit identical to the
+ * per-segment estimate.
+ */
+public final class EmissionsBatchCalculator {
+
+    private EmissionsBatchCalculator() {
+    }
+
+    /**
+     * Fills {@code co2}, {@code nox} and {@code pm} for the first {@code length} segments, all
+     * estimated with {@code model}.
+     */
+    public static void calculate(EmissionsModel model, int length, double[] vehicleCounts, double[] averageSpeeds,
+                                 double[] congestionLevels, double[] co2, double[] nox, double[] pm) {
+        checkLength(length, vehicleCounts, averageSpeeds, congestionLevels, co2, nox, pm);
+        model.calculate(0, length, vehicleCounts, averageSpeeds, congestionLevels, co2, nox, pm);
+    }
+
+    /**
+     * Fills {@code co2}, {@code nox} and {@code pm} for segments {@code from} (inclusive) to
+     * {@code to} (exclusive), each estimated with its entry in {@code models}, so disjoint ranges of
+     * the same columns can be computed in parallel.
+     */
+    public static void calculate(int from, int to, EmissionsModel[] models, double[] vehicleCounts,
+                                 double[] averageSpeeds, double[] congestionLevels, double[] co2, double[] nox,
+                                 double[] pm) {
+        if (from < 0 || from > to) {
+            throw new IllegalArgumentException("Invalid segment range [" + from + ", " + to + ")");
+        }
+        if (models.length < to) {
+            throw new IllegalArgumentException("Model column of length " + models.length + " is shorter than " + to);
+        }
+        checkLength(to, vehicleCounts, averageSpeeds, congestionLevels, co2, nox, pm);
+        int start = from;
+        for (int i = from + 1; i <= to; i++) {
+            if (i == to || models[i] != models[start]) {
+                models[start].calculate(start, i, vehicleCounts, averageSpeeds, congestionLevels, co2, nox, pm);
+                start = i;
+            }
+        }
+    }
+
+    private static void checkLength(int length, double[]... columns) {
+        for (double[] column : columns) {
+            if (column.length < length) {
+                throw new IllegalArgumentException("Column of length " + column.length + " is shorter than " + length);
+            }
+        }
+    }
+}
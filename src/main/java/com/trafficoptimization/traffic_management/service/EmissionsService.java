@@ -1,68 +1,104 @@
 package com.trafficoptimization.traffic_management.service;
 
+import com.trafficoptimization.traffic_management.aggregate.SegmentAggregateStore;
+import com.trafficoptimization.traffic_management.aggregate.SegmentStatistics;
+import com.trafficoptimization.traffic_management.config.CacheConfig;
+import com.trafficoptimization.traffic_management.emissions.EmissionsModel;
+import com.trafficoptimization.traffic_management.emissions.EmissionsModels;
+import com.trafficoptimization.traffic_management.metrics.OperationMeters;
 import com.trafficoptimization.traffic_management.model.EmissionsEstimate;
-import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.NetworkEmissionsSnapshot;
+import com.trafficoptimization.traffic_management.recent.RecentReadingStore;
 import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
-import java.util.OptionalDouble;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 @Service
 public class EmissionsService {
 
+    // Segments per fork-join task when estimating the whole network
+    private static final int NETWORK_CHUNK_SIZE = 4096;
+
+    private final SegmentAggregateStore aggregateStore;
+    private final RecentReadingStore recentReadings;
     private final TrafficDataRepository trafficDataRepository;
+    private final EmissionsModels emissionsModels;
+    private final OperationMeters meters;
 
     @Autowired
-    public EmissionsService(TrafficDataRepository trafficDataRepository) {
+    public EmissionsService(SegmentAggregateStore aggregateStore, RecentReadingStore recentReadings,
+                            TrafficDataRepository trafficDataRepository, EmissionsModels emissionsModels,
+                            SegmentRegistry segmentRegistry, MeterRegistry meterRegistry) {
+        this.aggregateStore = aggregateStore;
+        this.recentReadings = recentReadings;
         this.trafficDataRepository = trafficDataRepository;
+        this.emissionsModels = emissionsModels;
+        this.meters = new OperationMeters(meterRegistry, segmentRegistry, "traffic.emissions.operation",
+                "Emissions estimation, split into reading the segment statistics and computing from them");
     }
 
+    /**
+     * Only cache misses get here; hits show in the cache's own metrics.
+     */
+    @Cacheable(cacheNames = CacheConfig.EMISSIONS_ESTIMATES, sync = true)
     public EmissionsEstimate estimateEmissionsForRoadSegment(String roadSegmentId) {
-        // Get the most recent traffic data for this road segment
-        List<TrafficData> recentTrafficData = trafficDataRepository.findByRoadSegmentId(roadSegmentId);
+        // Running statistics over the segment's history, maintained on ingestion
+        SegmentStatistics statistics = meters.of("lookup", roadSegmentId)
+                .time(() -> aggregateStore.get(roadSegmentId).orElse(null));
         
-        if (recentTrafficData.isEmpty()) {
+        if (statistics == null || statistics.getCount() == 0) {
             return new EmissionsEstimate(roadSegmentId, LocalDateTime.now(), 0.0, 0.0, 0.0, 0, 0.0, 0.0);
         }
+        return meters.of("compute", roadSegmentId).time(() -> estimate(roadSegmentId, statistics));
+    }
 
-        // Calculate averages from the recent data
-        int totalVehicles = 0;
-        double speedSum = 0;
-        double congestionSum = 0;
-        int validSpeedRecords = 0;
-        int validCongestionRecords = 0;
-        LocalDateTime mostRecent = recentTrafficData.get(0).getTimestamp();
-
-        for (TrafficData data : recentTrafficData) {
-            if (data.getTimestamp().isAfter(mostRecent)) {
-                mostRecent = data.getTimestamp();
-            }
-            
-            totalVehicles += data.getVehicleCount();
-            
-            if (data.getAverageSpeed() != null) {
-                speedSum += data.getAverageSpeed();
-                validSpeedRecords++;
-            }
-            
-            if (data.getCongestionLevel() != null) {
-                congestionSum += data.getCongestionLevel();
-                validCongestionRecords++;
-            }
+    /**
+     * Estimate from the segment's readings between {@code start} and {@code end}, both inclusive,
+     * instead of its whole history. Windows within the last hours are summarized by a scan of
+     * {@link RecentReadingStore}, older ones by a grouped query over the table.
+     */
+    public EmissionsEstimate estimateEmissionsForRoadSegment(String roadSegmentId, LocalDateTime start,
+                                                             LocalDateTime end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("end must not be before start");
         }
+        SegmentStatistics statistics = recentReadings.covers(start)
+                ? meters.of("window_lookup_recent", roadSegmentId).time(() ->
+                        recentReadings.summarize(roadSegmentId, start, end))
+                : meters.of("window_lookup", roadSegmentId).time(() ->
+                        trafficDataRepository.aggregateSegment(roadSegmentId, start, end)
+                                .map(SegmentStatistics::from)
+                                .orElse(null));
 
+        if (statistics == null || statistics.getCount() == 0) {
+            return new EmissionsEstimate(roadSegmentId, LocalDateTime.now(), 0.0, 0.0, 0.0, 0, 0.0, 0.0);
+        }
+        return meters.of("compute", roadSegmentId).time(() -> estimate(roadSegmentId, statistics));
+    }
+
+    private EmissionsEstimate estimate(String roadSegmentId, SegmentStatistics statistics) {
         // Calculate average values
-        double avgVehicles = (double) totalVehicles / recentTrafficData.size();
-        double avgSpeed = validSpeedRecords > 0 ? speedSum / validSpeedRecords : 0;
-        double avgCongestion = validCongestionRecords > 0 ? congestionSum / validCongestionRecords : 0;
+        double avgVehicles = statistics.getAverageVehicleCount();
+        double avgSpeed = statistics.getAverageSpeed();
+        double avgCongestion = statistics.getAverageCongestion();
+        LocalDateTime mostRecent = statistics.getLatestTimestamp();
 
-        // Calculate emissions based on these metrics
-        double co2Emissions = calculateCO2Emissions(avgVehicles, avgSpeed, avgCongestion);
-        double noxEmissions = calculateNOxEmissions(avgVehicles, avgSpeed, avgCongestion);
-        double pmEmissions = calculateParticulateMatterEmissions(avgVehicles, avgSpeed, avgCongestion);
+        // Calculate emissions with the model of the segment's fleet mix
+        EmissionsModel model = emissionsModels.forSegment(roadSegmentId);
+        double co2Emissions = model.co2(avgVehicles, avgSpeed, avgCongestion);
+        double noxEmissions = model.nox(avgVehicles, avgSpeed, avgCongestion);
+        double pmEmissions = model.particulateMatter(avgVehicles, avgSpeed, avgCongestion);
 
         return new EmissionsEstimate(
                 roadSegmentId,
@@ -77,92 +113,105 @@ public class EmissionsService {
     }
 
     /**
-     * Calculate CO2 emissions in kg per hour based on traffic parameters.
-     * This uses a simplified model where:
-     * - Emissions increase with vehicle count
-     * - Emissions are higher at low speeds (stop-and-go traffic) and very high speeds
-     * - Emissions increase with congestion (idling vehicles)
+     * Estimates every segment with readings, or only {@code roadSegmentIds} when given, in one pass
+     * over the in-memory aggregates. Segments are split into chunks that are copied into primitive
+     * columns and run through {@link EmissionsBatchCalculator} in parallel on the common fork-join
+     * pool. Every segment's model is resolved from the same generation of emissions profiles, even
+     * if they are swapped meanwhile. Unknown segments are left out rather than reported as zero.
+     *
+     * @throws IllegalArgumentException if {@code topN} is not positive
      */
-    private double calculateCO2Emissions(double vehicleCount, double averageSpeed, double congestionLevel) {
-        // Base emissions per vehicle per hour (kg of CO2)
-        double baseEmissionsPerVehicle = 2.5;  // Average passenger car emits ~2.5 kg CO2 per hour at optimal speed
-        
-        // Speed efficiency factor (U-shaped curve: emissions higher at very low and very high speeds)
-        double speedFactor;
-        if (averageSpeed < 10) {
-            // Slow stop-and-go traffic (high emissions)
-            speedFactor = 2.0;
-        } else if (averageSpeed >= 10 && averageSpeed < 60) {
-            // Gradual reduction in emissions as speed increases to optimal range
-            speedFactor = 1.5 - (averageSpeed - 10) * 0.01; // Decrease from 1.5 to 1.0
-        } else if (averageSpeed >= 60 && averageSpeed < 90) {
-            // Optimal speed range
-            speedFactor = 1.0;
-        } else {
-            // Higher speeds increase emissions again
-            speedFactor = 1.0 + (averageSpeed - 90) * 0.02; // Increase from 1.0 up
+    public NetworkEmissionsSnapshot estimateNetworkEmissions(Collection<String> roadSegmentIds, int topN,
+                                                             boolean includeSegments) {
+        if (topN <= 0) {
+            throw new IllegalArgumentException("top must be positive");
         }
-        
-        // Congestion factor (higher congestion = more emissions due to inefficient driving)
-        double congestionFactor = 1.0 + congestionLevel; // Scale from 1.0 to 2.0
-        
-        // Total CO2 emissions (kg per hour for the road segment)
-        return baseEmissionsPerVehicle * vehicleCount * speedFactor * congestionFactor;
+        OperationMeters.Meters networkMeters = meters.of("network");
+        NetworkEmissionsSnapshot snapshot = networkMeters.time(() ->
+                estimateNetwork(selectStatistics(roadSegmentIds), topN, includeSegments));
+        networkMeters.rows(snapshot.getSegmentCount());
+        return snapshot;
     }
 
-    /**
-     * Calculate NOx emissions in grams per hour based on traffic parameters.
-     * NOx emissions are especially sensitive to acceleration events common in congested traffic.
-     */
-    private double calculateNOxEmissions(double vehicleCount, double averageSpeed, double congestionLevel) {
-        // Base NOx emissions per vehicle per hour (grams)
-        double baseNOxPerVehicle = 1.5;
-        
-        // Diesel proportion estimate (NOx emissions are higher for diesel vehicles)
-        double dieselProportion = 0.4; // Assuming 40% of vehicles are diesel
-        
-        // Congestion has a stronger effect on NOx than on CO2
-        double congestionFactor = 1.0 + (congestionLevel * 1.5);
-        
-        // Speed factor
-        double speedFactor;
-        if (averageSpeed < 20) {
-            // Low speed, high NOx due to frequent acceleration
-            speedFactor = 2.0;
-        } else if (averageSpeed < 60) {
-            speedFactor = 1.5 - (averageSpeed - 20) * 0.016; // Decrease from 1.5 to 1.0
-        } else {
-            speedFactor = 1.0;
+    private NetworkEmissionsSnapshot estimateNetwork(SegmentStatistics[] statistics, int topN, boolean includeSegments) {
+        int n = statistics.length;
+        EmissionsModels.Selection selection = emissionsModels.current();
+
+        EmissionsModel[] models = new EmissionsModel[n];
+        double[] vehicleCounts = new double[n];
+        double[] speeds = new double[n];
+        double[] congestionLevels = new double[n];
+        double[] co2 = new double[n];
+        double[] nox = new double[n];
+        double[] pm = new double[n];
+        int chunks = (n + NETWORK_CHUNK_SIZE - 1) / NETWORK_CHUNK_SIZE;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int from = chunk * NETWORK_CHUNK_SIZE;
+            int to = Math.min(n, from + NETWORK_CHUNK_SIZE);
+            for (int i = from; i < to; i++) {
+                models[i] = selection.forSegment(statistics[i].getRoadSegmentId());
+                vehicleCounts[i] = statistics[i].getAverageVehicleCount();
+                speeds[i] = statistics[i].getAverageSpeed();
+                congestionLevels[i] = statistics[i].getAverageCongestion();
+            }
+            EmissionsBatchCalculator.calculate(from, to, models, vehicleCounts, speeds, congestionLevels, co2, nox, pm);
+        });
+
+        EmissionsEstimate[] estimates = new EmissionsEstimate[n];
+        Arrays.parallelSetAll(estimates, i -> new EmissionsEstimate(
+                statistics[i].getRoadSegmentId(),
+                statistics[i].getLatestTimestamp(),
+                co2[i],
+                nox[i],
+                pm[i],
+                (int) vehicleCounts[i],
+                speeds[i],
+                congestionLevels[i]
+        ));
+
+        double totalCo2 = 0;
+        double totalNox = 0;
+        double totalPm = 0;
+        for (int i = 0; i < n; i++) {
+            totalCo2 += co2[i];
+            totalNox += nox[i];
+            totalPm += pm[i];
         }
-        
-        // Calculate NOx emissions
-        double dieselEmissions = baseNOxPerVehicle * dieselProportion * vehicleCount * 3.0; // Diesel emits ~3x more NOx
-        double petrolEmissions = baseNOxPerVehicle * (1 - dieselProportion) * vehicleCount;
-        
-        return (dieselEmissions + petrolEmissions) * speedFactor * congestionFactor;
+
+        return new NetworkEmissionsSnapshot(
+                LocalDateTime.now(),
+                n,
+                totalCo2,
+                totalNox,
+                totalPm,
+                topEmitters(estimates, topN),
+                includeSegments ? Arrays.asList(estimates) : List.of()
+        );
+    }
+
+    private SegmentStatistics[] selectStatistics(Collection<String> roadSegmentIds) {
+        if (roadSegmentIds == null || roadSegmentIds.isEmpty()) {
+            return aggregateStore.getAll().stream()
+                    .filter(statistics -> statistics.getCount() > 0)
+                    .toArray(SegmentStatistics[]::new);
+        }
+        return roadSegmentIds.stream()
+                .distinct()
+                .map(aggregateStore::get)
+                .flatMap(Optional::stream)
+                .filter(statistics -> statistics.getCount() > 0)
+                .toArray(SegmentStatistics[]::new);
     }
 
     /**
-     * Calculate particulate matter (PM) emissions in grams per hour.
-     * PM is especially relevant for diesel vehicles and in congested urban areas.
+     * Highest CO2 emitters first.
      */
-    private double calculateParticulateMatterEmissions(double vehicleCount, double averageSpeed, double congestionLevel) {
-        // Base PM emissions per vehicle per hour (grams)
-        double basePMPerVehicle = 0.1;
-        
-        // Diesel proportion (PM emissions are much higher for diesel vehicles)
-        double dieselProportion = 0.4;
-        
-        // Urban factor (assuming this is an urban road if congestion is high)
-        double urbanFactor = congestionLevel > 0.5 ? 1.5 : 1.0;
-        
-        // Speed factor (PM emissions are higher at lower speeds)
-        double speedFactor = averageSpeed < 30 ? 1.8 : 1.0;
-        
-        // Calculate PM emissions
-        double dieselEmissions = basePMPerVehicle * dieselProportion * vehicleCount * 5.0; // Diesel emits ~5x more PM
-        double petrolEmissions = basePMPerVehicle * (1 - dieselProportion) * vehicleCount;
-        
-        return (dieselEmissions + petrolEmissions) * speedFactor * urbanFactor;
+    private static List<EmissionsEstimate> topEmitters(EmissionsEstimate[] estimates, int topN) {
+        TopN<EmissionsEstimate> top = new TopN<>(topN, estimates.length,
+                Comparator.comparingDouble(EmissionsEstimate::getCo2KgPerHour));
+        for (EmissionsEstimate estimate : estimates) {
+            top.offer(estimate);
+        }
+        return top.toList();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+
+import java.util.List;
+
+/**
+ * Accepts readings for asynchronous persistence through {@link TrafficService#saveTrafficDataBatch},
+ * backing the acknowledge-first ingestion endpoints. Selected with {@code traffic.ingest.async.mode}.
+ */
+public interface IngestionBuffer {
+
+    /**
+     * Accept all readings, or none of them.
+     *
+     * @return {@code false} when the caller should back off and retry later
+     */
+    boolean enqueue(List<TrafficData> readings);
+}
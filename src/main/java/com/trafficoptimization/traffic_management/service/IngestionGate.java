@@ -0,0 +1,37 @@
+package com.trafficoptimization.traffic_management.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Lets components that rebuild derived state from the stored readings shut out ingestion while
+ * they do. Every save holds the gate shared from before its insert until the
+ * {@link TrafficDataListener}s have seen the saved readings, so while the gate is held exclusively
+ * there is no reading that is committed but not yet passed to the listeners.
+ */
+@Component
+public class IngestionGate {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public <T> T saving(Supplier<T> save) {
+        lock.readLock().lock();
+        try {
+            return save.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public <T> T exclusive(Supplier<T> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
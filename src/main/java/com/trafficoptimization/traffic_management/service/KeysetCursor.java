@@ -0,0 +1,96 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page, ordered by (timestamp, id). Serialized as an opaque
+ * URL-safe token so clients do not depend on its layout.
+ * <p>
+ * Ids are only unique per node, so a cursor over the rows of a whole cluster also names the node
+ * the last row came from, and rows with the same (timestamp, id) are ordered by node.
+ */
+final class KeysetCursor {
+
+    // Sorts before every stored reading
+    static final KeysetCursor START = new KeysetCursor(LocalDateTime.of(1, 1, 1, 0, 0), Long.MIN_VALUE);
+
+    private final LocalDateTime timestamp;
+    private final long id;
+    private final String node;
+
+    private KeysetCursor(LocalDateTime timestamp, long id, String node) {
+        this.timestamp = timestamp;
+        this.id = id;
+        this.node = node;
+    }
+
+    private KeysetCursor(LocalDateTime timestamp, long id) {
+        this(timestamp, id, null);
+    }
+
+    // Sorts before every reading at or after the given time
+    static KeysetCursor from(LocalDateTime timestamp) {
+        return new KeysetCursor(timestamp, Long.MIN_VALUE);
+    }
+
+    static KeysetCursor after(TrafficData last) {
+        return new KeysetCursor(last.getTimestamp(), last.getId());
+    }
+
+    static KeysetCursor after(TrafficData last, String node) {
+        return new KeysetCursor(last.getTimestamp(), last.getId(), node);
+    }
+
+    /**
+     * The position in one node's own rows that this cluster position corresponds to. A node
+     * ordered after the cursor's node has not yet returned its row with exactly this (timestamp,
+     * id), if it has one.
+     */
+    KeysetCursor forNode(String member) {
+        if (node == null || member.compareTo(node) <= 0 || id == Long.MIN_VALUE) {
+            return new KeysetCursor(timestamp, id);
+        }
+        return new KeysetCursor(timestamp, id - 1);
+    }
+
+    static KeysetCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return START;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('|');
+            int nodeSeparator = decoded.indexOf('|', separator + 1);
+            LocalDateTime timestamp = LocalDateTime.parse(decoded.substring(0, separator));
+            if (nodeSeparator < 0) {
+                return new KeysetCursor(timestamp, Long.parseLong(decoded.substring(separator + 1)));
+            }
+            return new KeysetCursor(timestamp, Long.parseLong(decoded.substring(separator + 1, nodeSeparator)),
+                    decoded.substring(nodeSeparator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    String encode() {
+        String raw = node == null ? timestamp + "|" + id : timestamp + "|" + id + "|" + node;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    String getNode() {
+        return node;
+    }
+}
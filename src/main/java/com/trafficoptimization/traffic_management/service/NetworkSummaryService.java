@@ -0,0 +1,29 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.trafficoptimization.traffic_management.model.CongestionForecast;
+import com.trafficoptimization.traffic_management.model.Hotspot;
+import com.trafficoptimization.traffic_management.model.NetworkEmissionsSnapshot;
+import com.trafficoptimization.traffic_management.model.RollupBucket;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Rankings and totals over every road segment of the network. In cluster mode each member only
+ * holds the segments it owns, so {@link ClusteredNetworkSummaryService} combines the members' own
+ * summaries instead of answering from this node alone.
+ */
+public interface NetworkSummaryService {
+
+    NetworkEmissionsSnapshot estimateNetworkEmissions(List<String> roadSegmentIds, int top, boolean includeSegments);
+
+    List<Hotspot> getHotspots(int limit);
+
+    List<CongestionForecast> getMostCongested(int horizonMinutes, int limit);
+
+    /**
+     * @param roadSegmentId segment to query, or {@code null} for all segments
+     */
+    List<RollupBucket> queryRollups(String roadSegmentId, LocalDateTime start, LocalDateTime end, Duration granularity);
+}
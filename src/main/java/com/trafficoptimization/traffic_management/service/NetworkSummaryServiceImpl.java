@@ -0,0 +1,56 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.trafficoptimization.traffic_management.forecast.TrafficForecaster;
+import com.trafficoptimization.traffic_management.hotspot.HotspotDetector;
+import com.trafficoptimization.traffic_management.model.CongestionForecast;
+import com.trafficoptimization.traffic_management.model.Hotspot;
+import com.trafficoptimization.traffic_management.model.NetworkEmissionsSnapshot;
+import com.trafficoptimization.traffic_management.model.RollupBucket;
+import com.trafficoptimization.traffic_management.rollup.RollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Summaries of the segments held by this node.
+ */
+@Service
+public class NetworkSummaryServiceImpl implements NetworkSummaryService {
+
+    private final EmissionsService emissionsService;
+    private final HotspotDetector hotspotDetector;
+    private final TrafficForecaster trafficForecaster;
+    private final RollupService rollupService;
+
+    @Autowired
+    public NetworkSummaryServiceImpl(EmissionsService emissionsService, HotspotDetector hotspotDetector,
+                                     TrafficForecaster trafficForecaster, RollupService rollupService) {
+        this.emissionsService = emissionsService;
+        this.hotspotDetector = hotspotDetector;
+        this.trafficForecaster = trafficForecaster;
+        this.rollupService = rollupService;
+    }
+
+    @Override
+    public NetworkEmissionsSnapshot estimateNetworkEmissions(List<String> roadSegmentIds, int top, boolean includeSegments) {
+        return emissionsService.estimateNetworkEmissions(roadSegmentIds, top, includeSegments);
+    }
+
+    @Override
+    public List<Hotspot> getHotspots(int limit) {
+        return hotspotDetector.getHotspots(limit);
+    }
+
+    @Override
+    public List<CongestionForecast> getMostCongested(int horizonMinutes, int limit) {
+        return trafficForecaster.getMostCongested(horizonMinutes, limit);
+    }
+
+    @Override
+    public List<RollupBucket> queryRollups(String roadSegmentId, LocalDateTime start, LocalDateTime end, Duration granularity) {
+        return rollupService.query(roadSegmentId, start, end, granularity);
+    }
+}
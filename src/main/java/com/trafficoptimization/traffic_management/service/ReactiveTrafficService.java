@@ -0,0 +1,117 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.trafficoptimization.traffic_management.config.ConditionalOnReactiveReads;
+import com.trafficoptimization.traffic_management.metrics.OperationMeters;
+import com.trafficoptimization.traffic_management.model.EmissionsEstimate;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
+import com.trafficoptimization.traffic_management.repository.ReactiveTrafficDataRepository;
+import com.trafficoptimization.traffic_management.retention.RetentionWatermark;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reactive variants of the listing queries and the emissions estimate. Results are read in keyset
+ * pages, and the next page is only queried once the subscriber has taken every row of the current
+ * one, so a slow consumer holds neither a connection nor more than a page of rows while it catches
+ * up.
+ */
+@Service
+@ConditionalOnReactiveReads
+public class ReactiveTrafficService {
+
+    private final ReactiveTrafficDataRepository reactiveTrafficDataRepository;
+    private final EmissionsService emissionsService;
+    private final RetentionWatermark retentionWatermark;
+    private final OperationMeters meters;
+    private final int pageSize;
+
+    @Autowired
+    public ReactiveTrafficService(ReactiveTrafficDataRepository reactiveTrafficDataRepository,
+                                  EmissionsService emissionsService, RetentionWatermark retentionWatermark,
+                                  MeterRegistry meterRegistry, SegmentRegistry segmentRegistry,
+                                  @Value("${traffic.reactive.page-size:500}") int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Reactive page size must be positive, got " + pageSize);
+        }
+        this.reactiveTrafficDataRepository = reactiveTrafficDataRepository;
+        this.emissionsService = emissionsService;
+        this.retentionWatermark = retentionWatermark;
+        this.meters = new OperationMeters(meterRegistry, segmentRegistry, "traffic.data.operation",
+                "Traffic data service calls, including their repository queries and listeners");
+        this.pageSize = pageSize;
+    }
+
+    public Flux<TrafficData> streamTrafficData(TrafficQuery query) {
+        return Flux.defer(() -> {
+            // Skip the part of the range, or all of it, that retention has already dropped
+            if (query.getKind() == TrafficQuery.Kind.TIME_RANGE) {
+                if (retentionWatermark.isPruned(query.getEnd())) {
+                    return Flux.empty();
+                }
+                return pages(query, KeysetCursor.from(retentionWatermark.clamp(query.getStart())));
+            }
+            return pages(query, KeysetCursor.START);
+        });
+    }
+
+    public Mono<EmissionsEstimate> estimateEmissions(String roadSegmentId) {
+        // Served from the in-memory aggregates, so there is nothing to wait on
+        return Mono.fromSupplier(() -> emissionsService.estimateEmissionsForRoadSegment(roadSegmentId));
+    }
+
+    private Flux<TrafficData> pages(TrafficQuery query, KeysetCursor first) {
+        OperationMeters.Meters pageMeters = query.getRoadSegmentId() != null
+                ? meters.of("reactive_page", query.getRoadSegmentId())
+                : meters.of("reactive_page");
+        // The cursor of the next page, or null once a short page has shown there is nothing after it
+        AtomicReference<KeysetCursor> next = new AtomicReference<>(first);
+        return Flux.<KeysetCursor>generate(sink -> {
+                    KeysetCursor cursor = next.get();
+                    if (cursor == null) {
+                        sink.complete();
+                    } else {
+                        sink.next(cursor);
+                    }
+                })
+                // No prefetch: a cursor is only taken, and its page queried, once the subscriber has
+                // taken every row of the previous page and asks for more
+                .concatMap(cursor -> page(query, cursor, pageMeters)
+                        .doOnNext(rows -> next.set(rows.size() < pageSize
+                                ? null
+                                : KeysetCursor.after(rows.get(rows.size() - 1))))
+                        .flatMapIterable(rows -> rows), 0);
+    }
+
+    private Mono<List<TrafficData>> page(TrafficQuery query, KeysetCursor after, OperationMeters.Meters pageMeters) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return rows(query, after.getTimestamp(), after.getId()).collectList().doOnNext(rows -> {
+                pageMeters.getTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                pageMeters.rows(rows.size());
+            });
+        });
+    }
+
+    private Flux<TrafficData> rows(TrafficQuery query, LocalDateTime afterTimestamp, long afterId) {
+        return switch (query.getKind()) {
+            case ALL -> reactiveTrafficDataRepository.findPage(afterTimestamp, afterId, pageSize);
+            case ROAD_SEGMENT -> reactiveTrafficDataRepository.findRoadSegmentPage(query.getRoadSegmentId(),
+                    afterTimestamp, afterId, pageSize);
+            case TIME_RANGE -> reactiveTrafficDataRepository.findTimeRangePage(afterTimestamp, afterId, query.getEnd(),
+                    pageSize);
+            case CONGESTION_POINTS -> reactiveTrafficDataRepository.findCongestionPointsPage(query.getRoadSegmentId(),
+                    query.getCongestionThreshold(), afterTimestamp, afterId, pageSize);
+        };
+    }
+}
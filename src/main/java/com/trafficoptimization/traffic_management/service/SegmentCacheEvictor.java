@@ -0,0 +1,62 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.trafficoptimization.traffic_management.config.CacheConfig;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Evicts the cached reads of every segment that received readings, leaving other segments cached.
+ * Runs after {@link com.trafficoptimization.traffic_management.aggregate.SegmentAggregateStore} has
+ * applied the readings, so the next read recomputes from current aggregates. The caches load with
+ * {@code sync = true}, so an eviction waits for an in-flight load of the same key instead of letting
+ * it repopulate a stale value afterwards.
+ */
+@Component
+public class SegmentCacheEvictor implements TrafficDataListener {
+
+    private final SegmentRegistry segmentRegistry;
+    private final List<Cache> caches;
+
+    @Autowired
+    public SegmentCacheEvictor(CacheManager cacheManager, SegmentRegistry segmentRegistry) {
+        this.segmentRegistry = segmentRegistry;
+        this.caches = Stream.of(CacheConfig.EMISSIONS_ESTIMATES, CacheConfig.AVERAGE_CONGESTION)
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public void onTrafficDataSaved(List<TrafficData> saved) {
+        // Deduplicate by sorting the segment handles rather than through a hash set of ids
+        int[] handles = new int[saved.size()];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = segmentRegistry.intern(saved.get(i).getRoadSegmentId());
+        }
+        Arrays.sort(handles);
+        for (int i = 0; i < handles.length; i++) {
+            if (i > 0 && handles[i] == handles[i - 1]) {
+                continue;
+            }
+            evict(segmentRegistry.getId(handles[i]));
+        }
+    }
+
+    /**
+     * Drop the cached values of a segment whose statistics changed other than by new readings.
+     */
+    public void evict(String roadSegmentId) {
+        for (Cache cache : caches) {
+            cache.evict(roadSegmentId);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.trafficoptimization.traffic_management.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The highest-ranked candidates seen so far, kept in a bounded min-heap instead of sorting every
+ * candidate. The heap is sized by the number of candidates expected rather than by the requested
+ * limit, so a client asking for an absurdly large limit costs no more than one asking for all.
+ */
+public final class TopN<T> {
+
+    private final int limit;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<T> heap;
+
+    /**
+     * @param limit         how many candidates to keep; must be positive
+     * @param expectedCount how many candidates will be offered, used only to size the heap
+     * @param order         ranking, lowest first
+     */
+    public TopN(int limit, int expectedCount, Comparator<? super T> order) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        this.limit = limit;
+        this.order = order;
+        this.heap = new PriorityQueue<>(Math.min(limit, Math.max(expectedCount, 0)) + 1, order);
+    }
+
+    public void offer(T candidate) {
+        if (heap.size() < limit) {
+            heap.add(candidate);
+        } else if (order.compare(candidate, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(candidate);
+        }
+    }
+
+    /**
+     * The candidates kept, highest first.
+     */
+    public List<T> toList() {
+        List<T> top = new ArrayList<>(heap);
+        top.sort(order.reversed());
+        return top;
+    }
+}
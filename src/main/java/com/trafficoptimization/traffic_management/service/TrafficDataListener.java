@@ -0,0 +1,13 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import java.util.List;
+
+/**
+ * Callback for components that keep derived state in step with ingestion. Invoked by
+ * {@link TrafficServiceImpl} after the readings have been committed, on the ingesting thread.
+ */
+public interface TrafficDataListener {
+    
+    void onTrafficDataSaved(List<TrafficData> saved);
+}
@@ -1,13 +1,19 @@
 package com.trafficoptimization.traffic_management.service;
 
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.CursorPage;
 import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TrafficService {
     
     TrafficData saveTrafficData(TrafficData trafficData);
     
+    BatchIngestionResult saveTrafficDataBatch(List<TrafficData> batch);
+    
     List<TrafficData> getAllTrafficData();
     
     List<TrafficData> getTrafficDataByRoadSegment(String roadSegmentId);
@@ -17,4 +23,8 @@ public interface TrafficService {
     List<TrafficData> getCongestionPoints(String roadSegmentId, Double congestionThreshold);
     
     Double calculateAverageCongestion(String roadSegmentId);
+    
+    CursorPage<TrafficData> getTrafficDataPage(TrafficQuery query, String cursor, int limit);
+    
+    void streamTrafficData(TrafficQuery query, Consumer<TrafficData> sink);
 }
@@ -1,26 +1,177 @@
 package com.trafficoptimization.traffic_management.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.trafficoptimization.traffic_management.aggregate.SegmentAggregateStore;
+import com.trafficoptimization.traffic_management.aggregate.SegmentStatistics;
+import com.trafficoptimization.traffic_management.config.CacheConfig;
+import com.trafficoptimization.traffic_management.metrics.OperationMeters;
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.CursorPage;
+import com.trafficoptimization.traffic_management.model.RecordIngestionResult;
 import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
+import com.trafficoptimization.traffic_management.recent.RecentReadingStore;
 import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.retention.RetentionWatermark;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 @Service
 public class TrafficServiceImpl implements TrafficService{
 
+    private static final Logger log = LoggerFactory.getLogger(TrafficServiceImpl.class);
 
     private final TrafficDataRepository trafficDataRepository;
+    private final SegmentAggregateStore aggregateStore;
+    private final RecentReadingStore recentReadings;
+    private final RetentionWatermark retentionWatermark;
+    private final SegmentRegistry segmentRegistry;
+    private final List<TrafficDataListener> listeners;
+    private final IngestionGate ingestionGate;
+    private final Validator validator;
+    private final int batchSize;
+    private final OperationMeters meters;
 
     @Autowired
-    public TrafficServiceImpl(TrafficDataRepository trafficDataRepository){
+    public TrafficServiceImpl(TrafficDataRepository trafficDataRepository, SegmentAggregateStore aggregateStore,
+                              RecentReadingStore recentReadings, RetentionWatermark retentionWatermark, SegmentRegistry segmentRegistry,
+                              List<TrafficDataListener> listeners, IngestionGate ingestionGate, Validator validator,
+                              MeterRegistry meterRegistry, @Value("${traffic.ingest.batch-size:500}") int batchSize){
         this.trafficDataRepository = trafficDataRepository;
+        this.aggregateStore = aggregateStore;
+        this.recentReadings = recentReadings;
+        this.retentionWatermark = retentionWatermark;
+        this.segmentRegistry = segmentRegistry;
+        this.listeners = listeners;
+        this.ingestionGate = ingestionGate;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.meters = new OperationMeters(meterRegistry, segmentRegistry, "traffic.data.operation",
+                "Traffic data service calls, including their repository queries and listeners");
     }
 
     @Override
     public TrafficData saveTrafficData(TrafficData trafficData) {
+        return meters.of("save", trafficData.getRoadSegmentId()).time(() -> {
+            deriveCongestionLevel(trafficData);
+            trafficData.setRoadSegmentId(segmentRegistry.canonical(trafficData.getRoadSegmentId()));
+            return ingestionGate.saving(() -> {
+                TrafficData saved = trafficDataRepository.save(trafficData);
+                notifyListeners(List.of(saved));
+                return saved;
+            });
+        });
+    }
+
+    @Override
+    public BatchIngestionResult saveTrafficDataBatch(List<TrafficData> batch) {
+        OperationMeters.Meters batchMeters = meters.of("save_batch");
+        batchMeters.rows(batch.size());
+        return batchMeters.time(() -> persistBatch(batch));
+    }
+
+    private BatchIngestionResult persistBatch(List<TrafficData> batch) {
+        RecordIngestionResult[] results = new RecordIngestionResult[batch.size()];
+        List<TrafficData> chunk = new ArrayList<>(Math.min(batchSize, batch.size()));
+        List<Integer> chunkIndexes = new ArrayList<>(Math.min(batchSize, batch.size()));
+
+        // Validate and derive congestion in a single pass, flushing every full chunk as one JDBC batch
+        for (int i = 0; i < batch.size(); i++) {
+            TrafficData data = batch.get(i);
+            if (data == null) {
+                results[i] = RecordIngestionResult.rejected(i, "empty record");
+                continue;
+            }
+            Set<ConstraintViolation<TrafficData>> violations = validator.validate(data);
+            if (!violations.isEmpty()) {
+                results[i] = RecordIngestionResult.rejected(i, describe(violations));
+                continue;
+            }
+            // Ingested readings are always new rows
+            data.setId(null);
+            deriveCongestionLevel(data);
+            // Share one id instance per segment, so the listeners' lookups compare by identity
+            data.setRoadSegmentId(segmentRegistry.canonical(data.getRoadSegmentId()));
+            chunk.add(data);
+            chunkIndexes.add(i);
+            if (chunk.size() == batchSize) {
+                persistChunk(chunk, chunkIndexes, results);
+                chunk.clear();
+                chunkIndexes.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persistChunk(chunk, chunkIndexes, results);
+        }
+
+        BatchIngestionResult result = new BatchIngestionResult();
+        for (RecordIngestionResult recordResult : results) {
+            result.add(recordResult);
+        }
+        return result;
+    }
+
+    private void persistChunk(List<TrafficData> chunk, List<Integer> indexes, RecordIngestionResult[] results) {
+        try {
+            ingestionGate.saving(() -> {
+                trafficDataRepository.insertBatch(chunk);
+                notifyListeners(chunk);
+                return null;
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                results[indexes.get(i)] = RecordIngestionResult.accepted(indexes.get(i), chunk.get(i).getId());
+            }
+        } catch (DataAccessException e) {
+            // The whole chunk was rolled back; retry record by record to isolate the offending rows
+            for (int i = 0; i < chunk.size(); i++) {
+                TrafficData data = chunk.get(i);
+                data.setId(null);
+                try {
+                    TrafficData saved = ingestionGate.saving(() -> {
+                        TrafficData stored = trafficDataRepository.save(data);
+                        notifyListeners(List.of(stored));
+                        return stored;
+                    });
+                    results[indexes.get(i)] = RecordIngestionResult.accepted(indexes.get(i), saved.getId());
+                } catch (DataAccessException recordFailure) {
+                    results[indexes.get(i)] = RecordIngestionResult.rejected(indexes.get(i),
+                            recordFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private void notifyListeners(List<TrafficData> saved) {
+        for (TrafficDataListener listener : listeners) {
+            try {
+                listener.onTrafficDataSaved(saved);
+            } catch (RuntimeException e) {
+                // The readings are already committed; derived state must not fail the ingestion
+                log.error("Traffic data listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    static void deriveCongestionLevel(TrafficData trafficData) {
         if (trafficData.getCongestionLevel() == null && trafficData.getVehicleCount() != null 
                 && trafficData.getAverageSpeed() != null) {
             // Simple algorithm: higher vehicle count and lower speed = higher congestion
@@ -28,43 +179,117 @@ public class TrafficServiceImpl implements TrafficService{
             double normalizedSpeed = Math.max(0.0, 1.0 - (trafficData.getAverageSpeed() / 130.0));
             trafficData.setCongestionLevel((normalizedCount + normalizedSpeed) / 2.0);
         }
-        
-        return trafficDataRepository.save(trafficData);
+    }
+
+    private static String describe(Set<ConstraintViolation<TrafficData>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
     }
 
     @Override
     public List<TrafficData> getAllTrafficData() {
-        return trafficDataRepository.findAll();
+        return meters.of("all").query(trafficDataRepository::findAll);
     }
 
     @Override
     public List<TrafficData> getTrafficDataByRoadSegment(String roadSegmentId) {
-        return trafficDataRepository.findByRoadSegmentId(roadSegmentId);
+        return meters.of("by_segment", roadSegmentId).query(() -> trafficDataRepository.findByRoadSegmentId(roadSegmentId));
     }
 
     @Override
     public List<TrafficData> getTrafficDataByTimeRange(LocalDateTime start, LocalDateTime end) {
-        return trafficDataRepository.findByTimestampBetween(start, end);
+        // Skip the part of the range, or all of it, that retention has already dropped
+        if (retentionWatermark.isPruned(end)) {
+            return List.of();
+        }
+        LocalDateTime from = retentionWatermark.clamp(start);
+        // Ranges within the last hours are scanned in memory
+        if (recentReadings.covers(from)) {
+            return meters.of("time_range_recent").query(() -> recentReadings.findByTimeRange(from, end));
+        }
+        return meters.of("time_range").query(() -> trafficDataRepository.findByTimestampBetween(from, end));
     }
 
     @Override
     public List<TrafficData> getCongestionPoints(String roadSegmentId, Double congestionThreshold) {
-        return trafficDataRepository.findCongestionPoints(roadSegmentId, congestionThreshold);
+        // Segments whose whole history is still recent are scanned in memory
+        long readings = aggregateStore.get(roadSegmentId).map(SegmentStatistics::getCount).orElse(0L);
+        if (readings > 0 && recentReadings.count(roadSegmentId) == readings) {
+            return meters.of("congestion_points_recent", roadSegmentId).query(() ->
+                    recentReadings.findCongestionPoints(roadSegmentId, congestionThreshold));
+        }
+        return meters.of("congestion_points", roadSegmentId).query(() ->
+                trafficDataRepository.findCongestionPoints(roadSegmentId, congestionThreshold));
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.AVERAGE_CONGESTION, sync = true)
     public Double calculateAverageCongestion(String roadSegmentId) {
-        List<TrafficData> trafficDataList = trafficDataRepository.findByRoadSegmentId(roadSegmentId);
-        
-        if (trafficDataList.isEmpty()) {
-            return 0.0;
+        // Only cache misses get here; hits show in the cache's own metrics
+        return meters.of("average_congestion", roadSegmentId).time(() -> aggregateStore.get(roadSegmentId)
+                .map(SegmentStatistics::getAverageCongestion)
+                .orElse(0.0));
+    }
+
+    @Override
+    public CursorPage<TrafficData> getTrafficDataPage(TrafficQuery query, String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        // Fetch one extra row to learn whether another page follows
+        Limit fetch = Limit.of(limit + 1);
+        List<TrafficData> rows = metersFor("page", query).query(() -> switch (query.getKind()) {
+            case ALL -> trafficDataRepository.findPage(after.getTimestamp(), after.getId(), fetch);
+            case ROAD_SEGMENT -> trafficDataRepository.findRoadSegmentPage(query.getRoadSegmentId(),
+                    after.getTimestamp(), after.getId(), fetch);
+            case TIME_RANGE -> retentionWatermark.isPruned(query.getEnd()) ? List.of()
+                    : after == KeysetCursor.START
+                    ? trafficDataRepository.findTimeRangePage(retentionWatermark.clamp(query.getStart()), Long.MIN_VALUE,
+                            query.getEnd(), fetch)
+                    : trafficDataRepository.findTimeRangePage(after.getTimestamp(), after.getId(), query.getEnd(), fetch);
+            case CONGESTION_POINTS -> trafficDataRepository.findCongestionPointsPage(query.getRoadSegmentId(),
+                    query.getCongestionThreshold(), after.getTimestamp(), after.getId(), fetch);
+        });
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
         }
-        
-        return trafficDataList.stream()
-                .filter(data -> data.getCongestionLevel() != null)
-                .mapToDouble(TrafficData::getCongestionLevel)
-                .average()
-                .orElse(0.0);
+        List<TrafficData> page = rows.subList(0, limit);
+        return new CursorPage<>(new ArrayList<>(page), KeysetCursor.after(page.get(limit - 1)).encode());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTrafficData(TrafficQuery query, Consumer<TrafficData> sink) {
+        if (query.getKind() == TrafficQuery.Kind.TIME_RANGE && retentionWatermark.isPruned(query.getEnd())) {
+            return;
+        }
+        OperationMeters.Meters streamMeters = metersFor("stream", query);
+        long[] streamed = new long[1];
+        streamMeters.time(() -> stream(query, row -> {
+            sink.accept(row);
+            streamed[0]++;
+        }));
+        streamMeters.rows(streamed[0]);
+    }
+
+    private void stream(TrafficQuery query, Consumer<TrafficData> sink) {
+        try (Stream<TrafficData> rows = switch (query.getKind()) {
+            case ALL -> trafficDataRepository.streamAll();
+            case ROAD_SEGMENT -> trafficDataRepository.streamByRoadSegmentId(query.getRoadSegmentId());
+            case TIME_RANGE -> trafficDataRepository.streamByTimestampBetween(retentionWatermark.clamp(query.getStart()),
+                    query.getEnd());
+            case CONGESTION_POINTS -> trafficDataRepository.streamCongestionPoints(query.getRoadSegmentId(),
+                    query.getCongestionThreshold());
+        }) {
+            rows.forEach(row -> {
+                sink.accept(row);
+                trafficDataRepository.detach(row);
+            });
+        }
+    }
+
+    private OperationMeters.Meters metersFor(String operation, TrafficQuery query) {
+        return query.getRoadSegmentId() != null ? meters.of(operation, query.getRoadSegmentId()) : meters.of(operation);
     }
     
 }
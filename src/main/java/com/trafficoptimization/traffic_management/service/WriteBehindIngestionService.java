@@ -0,0 +1,191 @@
+package com.trafficoptimization.traffic_management.service;
+
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind ingestion: readings are acknowledged once they are queued in memory and a pool of
+ * writer threads persists them in batches through {@link TrafficService#saveTrafficDataBatch}.
+ * The queue is bounded by a permit count so that a whole batch is either admitted or refused.
+ */
+@Service
+@ConditionalOnProperty(name = "traffic.ingest.async.mode", havingValue = "memory", matchIfMissing = true)
+public class WriteBehindIngestionService implements IngestionBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindIngestionService.class);
+
+    private final TrafficService trafficService;
+    private final LinkedBlockingQueue<TrafficData> queue = new LinkedBlockingQueue<>();
+    private final Semaphore capacity;
+    private final int flushSize;
+    private final long flushIntervalMillis;
+    private final long shutdownTimeoutMillis;
+    private final ExecutorService writers;
+
+    private final Timer flushLatency;
+    private final Counter flushedRecords;
+    private final Counter queueFullDrops;
+    private final Counter writeRejections;
+
+    private volatile boolean accepting = true;
+    private volatile boolean running = true;
+
+    public WriteBehindIngestionService(TrafficService trafficService, MeterRegistry meterRegistry,
+                                       int queueCapacity, int writerThreads, int flushSize,
+                                       long flushIntervalMillis, long shutdownTimeoutMillis) {
+        this(trafficService, meterRegistry, WorkerThreads.platform(), queueCapacity, writerThreads, flushSize,
+                flushIntervalMillis, shutdownTimeoutMillis);
+    }
+
+    @Autowired
+    public WriteBehindIngestionService(TrafficService trafficService, MeterRegistry meterRegistry, WorkerThreads workerThreads,
+                                       @Value("${traffic.ingest.async.queue-capacity:10000}") int queueCapacity,
+                                       @Value("${traffic.ingest.async.writer-threads:2}") int writerThreads,
+                                       @Value("${traffic.ingest.async.flush-size:500}") int flushSize,
+                                       @Value("${traffic.ingest.async.flush-interval-ms:200}") long flushIntervalMillis,
+                                       @Value("${traffic.ingest.async.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        this.trafficService = trafficService;
+        this.capacity = new Semaphore(queueCapacity);
+        this.flushSize = flushSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+
+        Gauge.builder("traffic.ingest.queue.depth", queue, LinkedBlockingQueue::size)
+                .description("Readings waiting to be written")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("traffic.ingest.flush.latency")
+                .description("Time to persist one write-behind batch")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.flushedRecords = Counter.builder("traffic.ingest.flushed")
+                .description("Readings persisted by the write-behind writers")
+                .register(meterRegistry);
+        this.queueFullDrops = Counter.builder("traffic.ingest.dropped")
+                .description("Readings that were not persisted")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.writeRejections = Counter.builder("traffic.ingest.dropped")
+                .description("Readings that were not persisted")
+                .tag("reason", "write_rejected")
+                .register(meterRegistry);
+
+        this.writers = Executors.newFixedThreadPool(writerThreads, workerThreads.threadFactory("traffic-writer-"));
+        for (int i = 0; i < writerThreads; i++) {
+            writers.execute(this::drainLoop);
+        }
+    }
+
+    /**
+     * Queue all readings for writing, or none of them if the queue cannot hold the whole batch.
+     * Empty records are dropped up front, as the synchronous path rejects them.
+     */
+    @Override
+    public boolean enqueue(List<TrafficData> readings) {
+        List<TrafficData> admitted = readings;
+        if (readings.stream().anyMatch(Objects::isNull)) {
+            admitted = readings.stream().filter(Objects::nonNull).toList();
+            writeRejections.increment(readings.size() - admitted.size());
+        }
+        if (!accepting || !capacity.tryAcquire(admitted.size())) {
+            queueFullDrops.increment(admitted.size());
+            return false;
+        }
+        int queued = 0;
+        try {
+            for (TrafficData data : admitted) {
+                queue.add(data);
+                queued++;
+            }
+        } finally {
+            // Readings that made it into the queue return their permits when flushed
+            capacity.release(admitted.size() - queued);
+        }
+        return true;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<TrafficData> buffer = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                TrafficData first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                buffer.add(first);
+                // Keep filling until the batch is full or the flush interval has elapsed
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (buffer.size() < flushSize && running) {
+                    queue.drainTo(buffer, flushSize - buffer.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (buffer.size() >= flushSize || remaining <= 0) {
+                        break;
+                    }
+                    TrafficData next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        buffer.add(next);
+                    }
+                }
+                queue.drainTo(buffer, flushSize - buffer.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!buffer.isEmpty()) {
+                flush(buffer);
+                buffer = new ArrayList<>(flushSize);
+            }
+        }
+    }
+
+    private void flush(List<TrafficData> buffer) {
+        capacity.release(buffer.size());
+        try {
+            BatchIngestionResult result = flushLatency.recordCallable(() -> trafficService.saveTrafficDataBatch(buffer));
+            flushedRecords.increment(result.getAccepted());
+            if (result.getRejected() > 0) {
+                writeRejections.increment(result.getRejected());
+                log.warn("Write-behind batch rejected {} of {} readings", result.getRejected(), result.getReceived());
+            }
+        } catch (Exception e) {
+            writeRejections.increment(buffer.size());
+            log.error("Write-behind batch of {} readings failed", buffer.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        accepting = false;
+        running = false;
+        writers.shutdown();
+        if (!writers.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            log.warn("Write-behind writers did not drain within {} ms, {} readings left in the queue",
+                    shutdownTimeoutMillis, queue.size());
+            writers.shutdownNow();
+        }
+    }
+}
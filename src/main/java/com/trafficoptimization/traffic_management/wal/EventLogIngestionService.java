@@ -0,0 +1,290 @@
+package com.trafficoptimization.traffic_management.wal;
+
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.service.IngestionBuffer;
+import com.trafficoptimization.traffic_management.service.TrafficService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Write-ahead ingestion: readings are acknowledged once they are appended to the
+ * {@link TrafficEventLog}, and a single projector thread then persists them in batches through
+ * {@link TrafficService#saveTrafficDataBatch}. The last projected sequence number is checkpointed
+ * in the log directory, so on startup projection resumes with whatever was not yet persisted.
+ * Delivery is at least once: a crash between a batch's commit and its checkpoint projects that
+ * batch again. Under {@link FsyncPolicy#INTERVAL} the log is forced on a thread of its own, so a
+ * slow scheduled job elsewhere never stretches the window of acknowledged but unforced readings.
+ */
+@Service
+@ConditionalOnProperty(name = "traffic.ingest.async.mode", havingValue = "wal")
+public class EventLogIngestionService implements IngestionBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(EventLogIngestionService.class);
+
+    static final String CHECKPOINT_FILE = "projected.checkpoint";
+
+    private final TrafficService trafficService;
+    private final TrafficEventLog eventLog;
+    private final Path checkpointFile;
+    private final int flushSize;
+    private final long flushIntervalMillis;
+    private final long shutdownTimeoutMillis;
+    private final Duration segmentRetention;
+    private final ExecutorService projector;
+    private final ScheduledExecutorService fsync;
+
+    private final Timer appendLatency;
+    private final Counter projectedRecords;
+    private final Counter writeRejections;
+    private final Counter appendFailures;
+
+    private volatile long projectedSequence;
+    private volatile boolean accepting = true;
+    private volatile boolean running = true;
+
+    @Autowired
+    public EventLogIngestionService(TrafficService trafficService, MeterRegistry meterRegistry, WorkerThreads workerThreads,
+                                    @Value("${traffic.wal.directory:./data/wal}") String directory,
+                                    @Value("${traffic.wal.segment-size-bytes:67108864}") int segmentSize,
+                                    @Value("${traffic.wal.fsync:INTERVAL}") FsyncPolicy fsyncPolicy,
+                                    @Value("${traffic.wal.fsync-interval-ms:200}") long fsyncIntervalMillis,
+                                    @Value("${traffic.wal.retention:P1D}") Duration segmentRetention,
+                                    @Value("${traffic.ingest.async.flush-size:500}") int flushSize,
+                                    @Value("${traffic.ingest.async.flush-interval-ms:200}") long flushIntervalMillis,
+                                    @Value("${traffic.ingest.async.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis)
+            throws IOException {
+        this(trafficService, meterRegistry, workerThreads, new TrafficEventLog(Paths.get(directory), segmentSize, fsyncPolicy),
+                fsyncIntervalMillis, segmentRetention, flushSize, flushIntervalMillis, shutdownTimeoutMillis);
+    }
+
+    public EventLogIngestionService(TrafficService trafficService, MeterRegistry meterRegistry, WorkerThreads workerThreads,
+                                    TrafficEventLog eventLog, long fsyncIntervalMillis, Duration segmentRetention,
+                                    int flushSize, long flushIntervalMillis, long shutdownTimeoutMillis) throws IOException {
+        this.trafficService = trafficService;
+        this.eventLog = eventLog;
+        this.checkpointFile = eventLog.getDirectory().resolve(CHECKPOINT_FILE);
+        this.segmentRetention = segmentRetention;
+        this.flushSize = flushSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.projectedSequence = readCheckpoint();
+
+        Gauge.builder("traffic.wal.backlog", this, EventLogIngestionService::getBacklog)
+                .description("Logged readings not yet projected into the database")
+                .register(meterRegistry);
+        this.appendLatency = Timer.builder("traffic.wal.append.latency")
+                .description("Time to append, and under fsync=ALWAYS force, one accepted batch")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.projectedRecords = Counter.builder("traffic.ingest.flushed")
+                .description("Readings persisted by the write-behind writers")
+                .register(meterRegistry);
+        this.writeRejections = Counter.builder("traffic.ingest.dropped")
+                .description("Readings that were not persisted")
+                .tag("reason", "write_rejected")
+                .register(meterRegistry);
+        this.appendFailures = Counter.builder("traffic.ingest.dropped")
+                .description("Readings that were not persisted")
+                .tag("reason", "append_failed")
+                .register(meterRegistry);
+
+        log.info("Projecting event log from sequence {} to {}", projectedSequence + 1, eventLog.getLastSequence());
+        this.projector = Executors.newSingleThreadExecutor(workerThreads.threadFactory("traffic-wal-projector-"));
+        projector.execute(this::projectLoop);
+        if (eventLog.getFsyncPolicy() == FsyncPolicy.INTERVAL) {
+            this.fsync = Executors.newSingleThreadScheduledExecutor(workerThreads.threadFactory("traffic-wal-fsync-"));
+            fsync.scheduleWithFixedDelay(this::sync, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.fsync = null;
+        }
+    }
+
+    /**
+     * Append all readings to the log, or none of them. Readings the log cannot hold, without a
+     * timestamp or road segment id, are dropped as the projection would reject them anyway.
+     */
+    @Override
+    public boolean enqueue(List<TrafficData> readings) {
+        if (!accepting) {
+            return false;
+        }
+        List<TrafficData> loggable = new ArrayList<>(readings.size());
+        for (TrafficData data : readings) {
+            if (TrafficEventLog.isLoggable(data)) {
+                loggable.add(data);
+            }
+        }
+        if (loggable.size() < readings.size()) {
+            writeRejections.increment(readings.size() - loggable.size());
+        }
+        try {
+            appendLatency.recordCallable(() -> eventLog.append(loggable));
+        } catch (Exception e) {
+            appendFailures.increment(loggable.size());
+            log.error("Appending {} readings to the event log failed", loggable.size(), e);
+            return false;
+        }
+        synchronized (this) {
+            notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * Pass every logged reading with a timestamp in {@code [from, to]} to {@code sink}, whether or
+     * not it has been projected yet, for reprocessing. Only readings in retained segments are seen.
+     */
+    public void replay(LocalDateTime from, LocalDateTime to, Consumer<TrafficData> sink) {
+        eventLog.replay(from, to, sink);
+    }
+
+    public long getBacklog() {
+        return eventLog.getLastSequence() - projectedSequence;
+    }
+
+    public long getProjectedSequence() {
+        return projectedSequence;
+    }
+
+    private void sync() {
+        try {
+            eventLog.force();
+        } catch (RuntimeException e) {
+            // Keep the schedule going; the next force covers these readings too
+            log.error("Forcing the event log to disk failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${traffic.wal.cleanup-interval-ms:60000}")
+    public void deleteProjectedSegments() throws IOException {
+        int deleted = eventLog.deleteSegments(projectedSequence, Instant.now().minus(segmentRetention));
+        if (deleted > 0) {
+            log.info("Deleted {} projected event log segments", deleted);
+        }
+    }
+
+    private void projectLoop() {
+        TrafficEventLog.Cursor cursor = eventLog.cursor(projectedSequence + 1);
+        List<TrafficData> batch = new ArrayList<>(flushSize);
+        while (running || cursor.getNextSequence() <= eventLog.getLastSequence()) {
+            if (batch.isEmpty()) {
+                cursor.read(flushSize, batch);
+            }
+            if (batch.isEmpty()) {
+                awaitAppend();
+                continue;
+            }
+            if (project(batch, cursor.getNextSequence() - 1)) {
+                batch = new ArrayList<>(flushSize);
+            } else if (running) {
+                // Keep the batch and retry once the database is back
+                sleep(flushIntervalMillis);
+            } else {
+                break;
+            }
+        }
+    }
+
+    private boolean project(List<TrafficData> batch, long lastSequence) {
+        try {
+            BatchIngestionResult result = trafficService.saveTrafficDataBatch(batch);
+            projectedRecords.increment(result.getAccepted());
+            if (result.getRejected() > 0) {
+                writeRejections.increment(result.getRejected());
+                log.warn("Event log projection rejected {} of {} readings", result.getRejected(), result.getReceived());
+            }
+        } catch (Exception e) {
+            log.error("Projecting {} logged readings failed, will retry", batch.size(), e);
+            return false;
+        }
+        writeCheckpoint(lastSequence);
+        projectedSequence = lastSequence;
+        return true;
+    }
+
+    private synchronized void awaitAppend() {
+        try {
+            wait(flushIntervalMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return eventLog.getFirstSequence() - 1;
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(checkpointFile)).getLong();
+    }
+
+    private void writeCheckpoint(long sequence) {
+        Path partial = checkpointFile.resolveSibling(CHECKPOINT_FILE + ".part");
+        try {
+            Files.write(partial, ByteBuffer.allocate(Long.BYTES).putLong(sequence).array());
+            Files.move(partial, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // The batch is committed; at worst it is projected again after a restart
+            log.error("Failed to checkpoint event log sequence {}", sequence, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        accepting = false;
+        running = false;
+        synchronized (this) {
+            notifyAll();
+        }
+        projector.shutdown();
+        if (!projector.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            log.warn("Event log projection did not catch up within {} ms, {} readings left to project on restart",
+                    shutdownTimeoutMillis, getBacklog());
+            projector.shutdownNow();
+            projector.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        if (fsync != null) {
+            fsync.shutdown();
+            fsync.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        eventLog.close();
+    }
+}
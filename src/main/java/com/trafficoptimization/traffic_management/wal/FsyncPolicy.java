@@ -0,0 +1,14 @@
+package com.trafficoptimization.traffic_management.wal;
+
+/**
+ * When appended readings are forced from the page cache to the storage device, which decides what
+ * an acknowledged reading survives.
+ */
+public enum FsyncPolicy {
+    /** Before every append is acknowledged; survives power loss. */
+    ALWAYS,
+    /** Periodically; a power loss can lose the last interval, a process crash loses nothing. */
+    INTERVAL,
+    /** Left to the operating system; survives a process crash but not a power loss. */
+    NEVER
+}
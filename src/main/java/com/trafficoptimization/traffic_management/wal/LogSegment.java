@@ -0,0 +1,268 @@
+package com.trafficoptimization.traffic_management.wal;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size, memory-mapped file of the event log holding consecutive sequence numbers from
+ * {@link #getFirstSequence()}. Each record is
+ *
+ * <pre>
+ * int32 body length, int32 CRC-32C of the body,
+ * body: int64 sequence, int64 epoch second, int32 nano, int8 presence flags,
+ *       int32 vehicle count, float64 average speed, float64 congestion level,
+ *       int16 road segment id length, UTF-8 road segment id
+ * </pre>
+ *
+ * followed by a zero length that marks the end of the log until the next append overwrites it.
+ * Timestamps are read as UTC. One thread appends while any number of threads read records below
+ * the published {@link #getCommitted()} position.
+ */
+final class LogSegment implements Closeable {
+
+    static final String SUFFIX = ".log";
+
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_BODY_BYTES = 8 + 8 + 4 + 1 + 4 + 8 + 8 + 2;
+    static final int MAX_SEGMENT_ID_BYTES = 1024;
+    static final int MAX_RECORD_BYTES = HEADER_BYTES + FIXED_BODY_BYTES + MAX_SEGMENT_ID_BYTES + 4;
+
+    private static final int HAS_VEHICLE_COUNT = 0x01;
+    private static final int HAS_AVERAGE_SPEED = 0x02;
+    private static final int HAS_CONGESTION_LEVEL = 0x04;
+
+    private final Path path;
+    private final long firstSequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final CRC32C crc = new CRC32C();
+
+    // Written only by the appending thread, published for readers
+    private volatile int committed;
+    private volatile long lastSequence;
+    private volatile LocalDateTime earliest;
+    private volatile LocalDateTime latest;
+    // Wall-clock time of the last append, which unlike reading timestamps only moves forward
+    private volatile long lastAppendedMillis;
+    private volatile boolean sealed;
+
+    private LogSegment(Path path, long firstSequence, int size) throws IOException {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        this.lastSequence = firstSequence - 1;
+    }
+
+    static LogSegment create(Path directory, long firstSequence, int size) throws IOException {
+        return new LogSegment(directory.resolve(fileName(firstSequence)), firstSequence, size);
+    }
+
+    /**
+     * Map an existing segment and find the end of its valid records. A torn or corrupt record and
+     * everything after it is ignored, and overwritten by the next append if this is the last segment.
+     */
+    static LogSegment open(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        long firstSequence = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        LogSegment segment = new LogSegment(path, firstSequence, (int) Files.size(path));
+        segment.recover();
+        segment.lastAppendedMillis = Files.getLastModifiedTime(path).toMillis();
+        return segment;
+    }
+
+    /**
+     * Whether a reading can be logged: it needs a timestamp and a road segment id of bounded size.
+     */
+    static boolean isLoggable(TrafficData data) {
+        String segmentId = data.getRoadSegmentId();
+        return data.getTimestamp() != null && segmentId != null
+                && (segmentId.length() * 3 <= MAX_SEGMENT_ID_BYTES
+                || segmentId.getBytes(StandardCharsets.UTF_8).length <= MAX_SEGMENT_ID_BYTES);
+    }
+
+    static String fileName(long firstSequence) {
+        return String.format("%020d%s", firstSequence, SUFFIX);
+    }
+
+    private void recover() {
+        int position = 0;
+        long expected = firstSequence;
+        while (true) {
+            int length = validRecordLength(position, expected);
+            if (length < 0) {
+                break;
+            }
+            TrafficData data = decode(position);
+            track(data.getTimestamp());
+            position += HEADER_BYTES + length;
+            expected++;
+        }
+        committed = position;
+        lastSequence = expected - 1;
+    }
+
+    /**
+     * Append one reading with the given sequence number.
+     *
+     * @return {@code false}, without writing, if the segment has no room for the record
+     */
+    boolean append(long sequence, TrafficData data) {
+        byte[] segmentId = data.getRoadSegmentId().getBytes(StandardCharsets.UTF_8);
+        if (segmentId.length > MAX_SEGMENT_ID_BYTES) {
+            throw new IllegalArgumentException("Road segment id exceeds " + MAX_SEGMENT_ID_BYTES + " bytes");
+        }
+        int bodyLength = FIXED_BODY_BYTES + segmentId.length;
+        int position = committed;
+        // Leave room for the end marker
+        if (position + HEADER_BYTES + bodyLength + 4 > buffer.capacity()) {
+            return false;
+        }
+        int body = position + HEADER_BYTES;
+        LocalDateTime timestamp = data.getTimestamp();
+        int flags = (data.getVehicleCount() != null ? HAS_VEHICLE_COUNT : 0)
+                | (data.getAverageSpeed() != null ? HAS_AVERAGE_SPEED : 0)
+                | (data.getCongestionLevel() != null ? HAS_CONGESTION_LEVEL : 0);
+        buffer.putLong(body, sequence);
+        buffer.putLong(body + 8, timestamp.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(body + 16, timestamp.getNano());
+        buffer.put(body + 20, (byte) flags);
+        buffer.putInt(body + 21, data.getVehicleCount() != null ? data.getVehicleCount() : 0);
+        buffer.putDouble(body + 25, data.getAverageSpeed() != null ? data.getAverageSpeed() : 0.0);
+        buffer.putDouble(body + 33, data.getCongestionLevel() != null ? data.getCongestionLevel() : 0.0);
+        buffer.putShort(body + 41, (short) segmentId.length);
+        buffer.put(body + 43, segmentId);
+        buffer.putInt(body + bodyLength, 0);
+        buffer.putInt(position + 4, checksum(body, bodyLength));
+        // The length goes last, so a record is never seen without its body
+        buffer.putInt(position, bodyLength);
+
+        track(timestamp);
+        lastAppendedMillis = System.currentTimeMillis();
+        lastSequence = sequence;
+        committed = body + bodyLength;
+        return true;
+    }
+
+    /**
+     * Decode the record at {@code position}, which must be below {@link #getCommitted()}.
+     */
+    TrafficData decode(int position) {
+        int body = position + HEADER_BYTES;
+        int flags = buffer.get(body + 20);
+        byte[] segmentId = new byte[buffer.getShort(body + 41)];
+        buffer.get(body + 43, segmentId);
+        return new TrafficData(null,
+                LocalDateTime.ofEpochSecond(buffer.getLong(body + 8), buffer.getInt(body + 16), ZoneOffset.UTC),
+                new String(segmentId, StandardCharsets.UTF_8),
+                (flags & HAS_VEHICLE_COUNT) != 0 ? buffer.getInt(body + 21) : null,
+                (flags & HAS_AVERAGE_SPEED) != 0 ? buffer.getDouble(body + 25) : null,
+                (flags & HAS_CONGESTION_LEVEL) != 0 ? buffer.getDouble(body + 33) : null);
+    }
+
+    long sequenceAt(int position) {
+        return buffer.getLong(position + HEADER_BYTES);
+    }
+
+    int next(int position) {
+        return position + HEADER_BYTES + buffer.getInt(position);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    private int validRecordLength(int position, long expectedSequence) {
+        if (position + HEADER_BYTES > buffer.capacity()) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length < FIXED_BODY_BYTES || length > FIXED_BODY_BYTES + MAX_SEGMENT_ID_BYTES
+                || position + HEADER_BYTES + length > buffer.capacity()) {
+            return -1;
+        }
+        int body = position + HEADER_BYTES;
+        if (buffer.getInt(position + 4) != checksum(body, length) || buffer.getLong(body) != expectedSequence) {
+            return -1;
+        }
+        return length;
+    }
+
+    private int checksum(int offset, int length) {
+        crc.reset();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private void track(LocalDateTime timestamp) {
+        if (earliest == null || timestamp.isBefore(earliest)) {
+            earliest = timestamp;
+        }
+        if (latest == null || timestamp.isAfter(latest)) {
+            latest = timestamp;
+        }
+    }
+
+    long getFirstSequence() {
+        return firstSequence;
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    int getCommitted() {
+        return committed;
+    }
+
+    boolean isEmpty() {
+        return lastSequence < firstSequence;
+    }
+
+    /**
+     * Whether any record of this segment may have a timestamp in {@code [from, to]}.
+     */
+    boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime first = earliest;
+        LocalDateTime last = latest;
+        return first != null && !last.isBefore(from) && !first.isAfter(to);
+    }
+
+    /**
+     * When a record was last appended; for a segment opened from disk, when its file was last
+     * modified.
+     */
+    Instant getLastAppended() {
+        return Instant.ofEpochMilli(lastAppendedMillis);
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    void seal() {
+        sealed = true;
+    }
+}
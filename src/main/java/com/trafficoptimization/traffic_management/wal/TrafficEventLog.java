@@ -0,0 +1,261 @@
+package com.trafficoptimization.traffic_management.wal;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Durable, append-only log of accepted readings, split into memory-mapped segment files named by
+ * their first sequence number. Appends are serialized; {@link Cursor}s and time range replays read
+ * concurrently and only ever see whole records. Opening a directory recovers the segments found in
+ * it, discarding a torn record at the tail.
+ */
+public class TrafficEventLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(TrafficEventLog.class);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+
+    // Oldest first; the last one is the active segment, the only one appended to
+    private final List<LogSegment> segments = new CopyOnWriteArrayList<>();
+    private final Object appendLock = new Object();
+    private volatile LogSegment active;
+    private volatile boolean dirty;
+
+    public TrafficEventLog(Path directory, int segmentSize, FsyncPolicy fsyncPolicy) throws IOException {
+        if (segmentSize < LogSegment.MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Segment size must be at least " + LogSegment.MAX_RECORD_BYTES + " bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().endsWith(LogSegment.SUFFIX)).sorted().toList()) {
+                segments.add(LogSegment.open(file));
+            }
+        }
+        for (int i = 0; i < segments.size() - 1; i++) {
+            segments.get(i).seal();
+        }
+        if (segments.isEmpty()) {
+            segments.add(LogSegment.create(directory, 1, segmentSize));
+        }
+        active = segments.get(segments.size() - 1);
+        log.info("Opened event log in {} with {} segments up to sequence {}", directory, segments.size(), getLastSequence());
+    }
+
+    /**
+     * Append the readings in order, forcing them to disk first under {@link FsyncPolicy#ALWAYS}.
+     *
+     * @return sequence number of the last reading
+     * @throws IllegalArgumentException if a reading cannot be logged, see {@link #isLoggable}
+     */
+    public long append(List<TrafficData> readings) throws IOException {
+        for (TrafficData data : readings) {
+            if (!isLoggable(data)) {
+                throw new IllegalArgumentException("Readings need a timestamp and a road segment id of at most "
+                        + LogSegment.MAX_SEGMENT_ID_BYTES + " bytes to be logged");
+            }
+        }
+        long last;
+        synchronized (appendLock) {
+            last = active.getLastSequence();
+            for (TrafficData data : readings) {
+                if (!active.append(last + 1, data)) {
+                    roll();
+                    active.append(last + 1, data);
+                }
+                last++;
+            }
+            dirty = true;
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                forceLocked();
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Write appended readings through to the storage device. Called by the owner on its own
+     * schedule under {@link FsyncPolicy#INTERVAL}.
+     */
+    public void force() {
+        synchronized (appendLock) {
+            forceLocked();
+        }
+    }
+
+    public static boolean isLoggable(TrafficData data) {
+        return data != null && LogSegment.isLoggable(data);
+    }
+
+    public long getLastSequence() {
+        return active.getLastSequence();
+    }
+
+    public long getFirstSequence() {
+        return segments.get(0).getFirstSequence();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    /**
+     * A reader positioned at {@code sequence}, or at the oldest retained reading if that one has
+     * already been deleted.
+     */
+    public Cursor cursor(long sequence) {
+        return new Cursor(Math.max(sequence, getFirstSequence()));
+    }
+
+    /**
+     * Pass every logged reading with a timestamp in {@code [from, to]} to {@code sink}, in log
+     * order. Segments whose time span does not overlap the range are skipped without being read.
+     */
+    public void replay(LocalDateTime from, LocalDateTime to, Consumer<TrafficData> sink) {
+        for (LogSegment segment : segments) {
+            if (!segment.overlaps(from, to)) {
+                continue;
+            }
+            int end = segment.getCommitted();
+            for (int position = 0; position < end; position = segment.next(position)) {
+                TrafficData data = segment.decode(position);
+                if (!data.getTimestamp().isBefore(from) && !data.getTimestamp().isAfter(to)) {
+                    sink.accept(data);
+                }
+            }
+        }
+    }
+
+    /**
+     * Delete whole sealed segments that hold nothing after {@code sequence} and were last appended
+     * to before {@code olderThan}. Retention goes by when readings were logged rather than by their
+     * own timestamps, so a reading timestamped in the future cannot pin its segment, and every
+     * segment after it, on disk.
+     *
+     * @return number of segments deleted
+     */
+    public int deleteSegments(long sequence, Instant olderThan) throws IOException {
+        int deleted = 0;
+        for (LogSegment segment : segments) {
+            if (!segment.isSealed() || segment.getLastSequence() > sequence
+                    || !segment.getLastAppended().isBefore(olderThan)) {
+                break;
+            }
+            segments.remove(segment);
+            segment.delete();
+            deleted++;
+        }
+        return deleted;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            forceLocked();
+            for (LogSegment segment : segments) {
+                segment.close();
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        // Whatever went into the full segment must be durable before it stops being the active one
+        active.force();
+        LogSegment next = LogSegment.create(directory, active.getLastSequence() + 1, segmentSize);
+        segments.add(next);
+        active.seal();
+        active = next;
+    }
+
+    private void forceLocked() {
+        if (dirty) {
+            active.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * Sequential reader for a single consumer. Follows appends as they are published and moves on
+     * to the next segment once the current one is sealed and exhausted.
+     */
+    public final class Cursor {
+
+        private long nextSequence;
+        private LogSegment segment;
+        private int position;
+
+        private Cursor(long sequence) {
+            this.nextSequence = sequence;
+        }
+
+        /**
+         * Read up to {@code max} readings into {@code out}.
+         *
+         * @return number of readings read; zero when the cursor has caught up with the log
+         */
+        public int read(int max, List<TrafficData> out) {
+            int read = 0;
+            while (read < max) {
+                if (segment == null && !locate()) {
+                    break;
+                }
+                if (position < segment.getCommitted()) {
+                    if (segment.sequenceAt(position) >= nextSequence) {
+                        out.add(segment.decode(position));
+                        read++;
+                        nextSequence++;
+                    }
+                    position = segment.next(position);
+                } else if (segment.isSealed() && position >= segment.getCommitted()) {
+                    segment = null;
+                } else {
+                    break;
+                }
+            }
+            return read;
+        }
+
+        /**
+         * Sequence number of the next reading this cursor returns.
+         */
+        public long getNextSequence() {
+            return nextSequence;
+        }
+
+        private boolean locate() {
+            LogSegment found = null;
+            for (LogSegment candidate : segments) {
+                if (candidate.getFirstSequence() <= nextSequence) {
+                    found = candidate;
+                } else if (found == null) {
+                    // The segment holding the next reading has been deleted; skip to the oldest retained one
+                    found = candidate;
+                    nextSequence = candidate.getFirstSequence();
+                }
+            }
+            segment = found;
+            position = 0;
+            return found != null;
+        }
+    }
+}
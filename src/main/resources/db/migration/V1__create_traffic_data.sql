@@ -0,0 +1,12 @@
+-- Schema of the first release, as created by Hibernate's ddl-auto=update. A database that predates
+-- the migrations already has it and is baselined at this version instead of running it
+
+CREATE TABLE traffic_data (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    average_speed FLOAT(53),
+    congestion_level FLOAT(53),
+    road_segment_id VARCHAR(255) NOT NULL,
+    "TIMESTAMP" TIMESTAMP(6) NOT NULL,
+    vehicle_count INTEGER NOT NULL,
+    PRIMARY KEY (id)
+);
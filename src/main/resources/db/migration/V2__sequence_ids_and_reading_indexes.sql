@@ -0,0 +1,11 @@
+-- Ids come from a sequence handed out in blocks of 50, so that inserts can be batched. Hibernate
+-- takes each value as the top of a block, so the sequence restarts a full block above existing ids
+
+ALTER TABLE traffic_data ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE traffic_data_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE traffic_data_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM traffic_data);
+
+CREATE INDEX idx_traffic_data_segment_time ON traffic_data (road_segment_id, "TIMESTAMP");
+CREATE INDEX idx_traffic_data_segment_congestion ON traffic_data (road_segment_id, congestion_level);
+CREATE INDEX idx_traffic_data_time ON traffic_data ("TIMESTAMP");
@@ -0,0 +1,25 @@
+-- Segment metadata and rollups
+
+CREATE TABLE road_segment (
+    id VARCHAR(255) NOT NULL,
+    road_class ENUM ('LOCAL', 'MOTORWAY', 'PRIMARY', 'SECONDARY', 'TRUNK'),
+    length_km FLOAT(53),
+    region VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE traffic_rollup (
+    road_segment_id VARCHAR(255) NOT NULL,
+    resolution ENUM ('FIFTEEN_MINUTES', 'ONE_HOUR', 'ONE_MINUTE') NOT NULL,
+    bucket_start TIMESTAMP(6) NOT NULL,
+    reading_count BIGINT NOT NULL,
+    vehicle_count_sum BIGINT NOT NULL,
+    vehicle_count_max INTEGER,
+    speed_count BIGINT NOT NULL,
+    speed_sum FLOAT(53) NOT NULL,
+    speed_min FLOAT(53),
+    congestion_count BIGINT NOT NULL,
+    congestion_sum FLOAT(53) NOT NULL,
+    congestion_max FLOAT(53),
+    PRIMARY KEY (bucket_start, road_segment_id, resolution)
+);
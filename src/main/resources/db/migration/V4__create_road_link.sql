@@ -0,0 +1,5 @@
+CREATE TABLE road_link (
+    from_segment_id VARCHAR(255) NOT NULL,
+    to_segment_id VARCHAR(255) NOT NULL,
+    PRIMARY KEY (from_segment_id, to_segment_id)
+);
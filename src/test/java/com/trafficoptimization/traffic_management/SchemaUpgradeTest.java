@@ -0,0 +1,76 @@
+package com.trafficoptimization.traffic_management;
+
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.service.TrafficService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Starting on a database created by the first release, before the schema was managed by Flyway.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + SchemaUpgradeTest.URL)
+@ActiveProfiles("test")
+class SchemaUpgradeTest {
+
+    static final String URL = "jdbc:h2:mem:first-release;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TrafficService trafficService;
+
+    @Autowired
+    private TrafficDataRepository trafficDataRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void createFirstReleaseDatabase() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "password");
+             Statement statement = connection.createStatement()) {
+            // Exactly as Hibernate's ddl-auto=update created it, with identity ids
+            statement.execute("create table traffic_data (id bigint generated by default as identity, "
+                    + "average_speed float(53), congestion_level float(53), road_segment_id varchar(255) not null, "
+                    + "timestamp timestamp(6) not null, vehicle_count integer not null, primary key (id))");
+            for (int i = 0; i < 8; i++) {
+                statement.execute("insert into traffic_data (average_speed, congestion_level, road_segment_id, "
+                        + "timestamp, vehicle_count) values (50.0, 0.3, 'A8-KM125-126', TIMESTAMP '2025-03-01 08:0" + i
+                        + ":00', 80)");
+            }
+        }
+    }
+
+    @Test
+    void startup_ShouldMigrateTheFirstReleaseSchemaAndKeepItsReadings() {
+        // Then it was baselined at V1 and migrated from there
+        List<String> versions = jdbcTemplate.queryForList("SELECT \"version\" || ' ' || \"type\" "
+                + "FROM \"flyway_schema_history\" WHERE \"version\" IS NOT NULL ORDER BY \"installed_rank\"", String.class);
+        assertEquals(List.of("1 BASELINE", "2 SQL", "3 SQL", "4 SQL"), versions);
+        assertEquals(8, trafficDataRepository.count());
+
+        // When new readings are stored, with ids from the sequence
+        List<TrafficData> readings = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            readings.add(new TrafficData(null, LocalDateTime.of(2025, 3, 2, 8, 0).plusMinutes(i), "A8-KM125-126",
+                    80, 50.0, 0.3));
+        }
+        BatchIngestionResult result = trafficService.saveTrafficDataBatch(readings);
+
+        // Then they do not collide with the old ones
+        assertEquals(120, result.getAccepted());
+        assertEquals(128, trafficDataRepository.count());
+    }
+}
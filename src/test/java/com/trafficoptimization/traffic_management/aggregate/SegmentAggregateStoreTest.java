@@ -0,0 +1,207 @@
+package com.trafficoptimization.traffic_management.aggregate;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.repository.SegmentAggregateView;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SegmentAggregateStoreTest {
+    
+    @Mock
+    private TrafficDataRepository trafficDataRepository;
+    
+    private SegmentAggregateStore aggregateStore;
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        aggregateStore = new SegmentAggregateStore(trafficDataRepository, new SegmentRegistry());
+    }
+    
+    @Test
+    void record_ShouldTrackCountsSumsAndExtremes() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        aggregateStore.record(new TrafficData(1L, now.minusHours(1), "A8-KM125-126", 85, 70.5, 0.65));
+        aggregateStore.record(new TrafficData(2L, now, "A8-KM125-126", 120, null, 0.85));
+        aggregateStore.record(new TrafficData(3L, now.minusHours(2), "A8-KM125-126", 65, 95.0, null));
+        
+        // When
+        SegmentStatistics statistics = aggregateStore.get("A8-KM125-126").orElseThrow();
+        
+        // Then
+        assertEquals(3, statistics.getCount());
+        assertEquals(90.0, statistics.getAverageVehicleCount(), 1e-9);
+        assertEquals(65, statistics.getVehicleCountMin());
+        assertEquals(120, statistics.getVehicleCountMax());
+        assertEquals(82.75, statistics.getAverageSpeed(), 1e-9);
+        assertEquals(0.75, statistics.getAverageCongestion(), 1e-9);
+        assertEquals(0.85, statistics.getCongestionMax(), 1e-9);
+        assertEquals(now, statistics.getLatestTimestamp());
+    }
+    
+    @Test
+    void rebuild_ShouldLoadGroupedRowsFromRepository() {
+        // Given
+        SegmentAggregateView row = mock(SegmentAggregateView.class);
+        when(row.getRoadSegmentId()).thenReturn("B27-KM45-46");
+        when(row.getReadingCount()).thenReturn(2L);
+        when(row.getVehicleCountSum()).thenReturn(115L);
+        when(row.getVehicleCountMin()).thenReturn(40);
+        when(row.getVehicleCountMax()).thenReturn(75);
+        when(row.getSpeedCount()).thenReturn(2L);
+        when(row.getSpeedSum()).thenReturn(146.1);
+        when(row.getCongestionCount()).thenReturn(0L);
+        when(trafficDataRepository.aggregateBySegment()).thenReturn(List.of(row));
+        
+        // When
+        aggregateStore.rebuild();
+        aggregateStore.record(new TrafficData(3L, LocalDateTime.now(), "B27-KM45-46", 110, 30.5, 0.9));
+        
+        // Then
+        SegmentStatistics statistics = aggregateStore.get("B27-KM45-46").orElseThrow();
+        assertEquals(3, statistics.getCount());
+        assertEquals(75.0, statistics.getAverageVehicleCount(), 1e-9);
+        assertEquals(110, statistics.getVehicleCountMax());
+        assertEquals(0.9, statistics.getAverageCongestion(), 1e-9);
+    }
+    
+    @Test
+    void record_ShouldStayConsistentUnderConcurrentWrites() throws Exception {
+        // Given
+        int threads = 8;
+        int readingsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        
+        // When
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < readingsPerThread; i++) {
+                    aggregateStore.record(new TrafficData(null, LocalDateTime.now(), "SEG-" + (i % 4), 10, 50.0, 0.5));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        
+        // Then
+        long total = aggregateStore.getAll().stream().mapToLong(SegmentStatistics::getCount).sum();
+        assertEquals((long) threads * readingsPerThread, total);
+        assertTrue(aggregateStore.getAll().stream().allMatch(s -> s.getVehicleCountSum() == s.getCount() * 10));
+    }
+    
+    @Test
+    void load_ShouldRestoreSnapshotAndCatchUpOnReadingsItMissed(@TempDir Path directory) {
+        // Given: reading 3 was still in flight when the snapshot was written
+        Path file = directory.resolve("aggregates.snap");
+        SegmentAggregateStore before = new SegmentAggregateStore(trafficDataRepository, new SegmentRegistry(),
+                file.toString(), 1024);
+        before.record(reading(1L, 80));
+        before.record(reading(2L, 90));
+        before.record(reading(4L, 100));
+        before.writeSnapshot();
+        when(trafficDataRepository.findMaxId()).thenReturn(5L);
+        when(trafficDataRepository.findAfterId(eq(0L), any(Limit.class))).thenReturn(List.of(
+                reading(1L, 80), reading(2L, 90), reading(3L, 110), reading(4L, 100), reading(5L, 120)));
+        SegmentAggregateStore after = new SegmentAggregateStore(trafficDataRepository, new SegmentRegistry(),
+                file.toString(), 1024);
+        
+        // When
+        after.load();
+        
+        // Then
+        SegmentStatistics statistics = after.get("A8-KM125-126").orElseThrow();
+        assertEquals(5, statistics.getCount());
+        assertEquals(500, statistics.getVehicleCountSum());
+        assertEquals(120, statistics.getVehicleCountMax());
+        verify(trafficDataRepository, never()).aggregateBySegment();
+    }
+    
+    @Test
+    void load_ShouldRebuildWhenSnapshotIsUnreadable(@TempDir Path directory) throws Exception {
+        // Given
+        Path file = directory.resolve("aggregates.snap");
+        Files.write(file, new byte[] {1, 2, 3});
+        SegmentAggregateStore store = new SegmentAggregateStore(trafficDataRepository, new SegmentRegistry(),
+                file.toString(), 1024);
+        
+        // When
+        store.load();
+        
+        // Then
+        verify(trafficDataRepository).aggregateBySegment();
+        verify(trafficDataRepository, never()).findAfterId(anyLong(), any(Limit.class));
+    }
+    
+    @Test
+    void load_ShouldRebuildWhenTableIsBehindSnapshot(@TempDir Path directory) {
+        // Given: the database was replaced after the snapshot was written
+        Path file = directory.resolve("aggregates.snap");
+        SegmentAggregateStore before = new SegmentAggregateStore(trafficDataRepository, new SegmentRegistry(),
+                file.toString(), 1024);
+        before.record(reading(7L, 80));
+        before.writeSnapshot();
+        when(trafficDataRepository.findMaxId()).thenReturn(3L);
+        SegmentAggregateStore after = new SegmentAggregateStore(trafficDataRepository, new SegmentRegistry(),
+                file.toString(), 1024);
+        
+        // When
+        after.load();
+        
+        // Then
+        verify(trafficDataRepository).aggregateBySegment();
+        assertTrue(after.get("A8-KM125-126").isEmpty());
+    }
+    
+    @Test
+    void capture_ShouldAdvanceCoveredIdsAsRecentIdsAreEvicted() {
+        // Given
+        SegmentAggregateStore store = new SegmentAggregateStore(trafficDataRepository, new SegmentRegistry(), "", 2);
+        
+        // When
+        store.record(reading(3L, 80));
+        store.record(reading(1L, 80));
+        store.record(reading(5L, 80));
+        store.record(reading(4L, 80));
+        AggregateSnapshot snapshot = store.capture();
+        
+        // Then
+        assertEquals(3, snapshot.coveredThrough());
+        assertTrue(snapshot.contains(2L));
+        assertTrue(snapshot.contains(4L));
+        assertTrue(snapshot.contains(5L));
+        assertFalse(snapshot.contains(6L));
+    }
+    
+    private static TrafficData reading(long id, int vehicleCount) {
+        return new TrafficData(id, LocalDateTime.of(2025, 3, 10, 8, 0).plusMinutes(id), "A8-KM125-126",
+                vehicleCount, 50.0, 0.5);
+    }
+}
@@ -0,0 +1,131 @@
+package com.trafficoptimization.traffic_management.aggregate;
+
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Startup cost of the segment aggregates: a rebuild from the grouped query over the whole table,
+ * against loading a snapshot and catching up on the readings committed after it. Loads
+ * {@code -Dbenchmark.rows} readings (default ten million) into an on-disk database under
+ * {@code target/}, which later runs reuse:
+ * <pre>mvn test -Dtest=WarmStartBenchmarkTest -Dbenchmark=true</pre>
+ */
+// A page cache of about 1 GB keeps loading the readings from being bound by disk reads
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:file:./target/warm-start-benchmark/trafficdb;CACHE_SIZE=1048576")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class WarmStartBenchmarkTest {
+    
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000_000);
+    private static final int NEWER_ROWS = 10_000;
+    private static final int SEGMENTS = 2_000;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final Path SNAPSHOT = Path.of("target/warm-start-benchmark/segment-aggregates.snap");
+    
+    @Autowired
+    private TrafficDataRepository trafficDataRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeAll
+    void loadReadings() {
+        jdbcTemplate.update("DELETE FROM traffic_data WHERE id > ?", ROWS);
+        Long stored = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM traffic_data", Long.class);
+        if (stored != null && stored == ROWS) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM traffic_data");
+        insert(1, ROWS);
+    }
+    
+    @Test
+    void compareRebuildWithSnapshotLoad() throws Exception {
+        // Cold start: grouped query over the whole table
+        SegmentAggregateStore rebuilt = new SegmentAggregateStore(trafficDataRepository, new SegmentRegistry(), "", 65_536);
+        long start = System.nanoTime();
+        rebuilt.load();
+        double rebuildMillis = (System.nanoTime() - start) / 1_000_000.0;
+        
+        SegmentAggregateStore writer = new SegmentAggregateStore(trafficDataRepository, new SegmentRegistry(),
+                SNAPSHOT.toString(), 65_536);
+        writer.rebuild();
+        start = System.nanoTime();
+        writer.writeSnapshot();
+        double writeMillis = (System.nanoTime() - start) / 1_000_000.0;
+        
+        // Readings committed after the snapshot
+        insert(ROWS + 1, NEWER_ROWS);
+        
+        // Warm start: snapshot plus the newer readings
+        SegmentAggregateStore warm = new SegmentAggregateStore(trafficDataRepository, new SegmentRegistry(),
+                SNAPSHOT.toString(), 65_536);
+        start = System.nanoTime();
+        warm.load();
+        double warmMillis = (System.nanoTime() - start) / 1_000_000.0;
+        
+        System.out.printf("Aggregate startup over %,d readings and %,d segments%n", ROWS, SEGMENTS);
+        System.out.printf("%-50s %10.1f ms%n", "rebuild from table", rebuildMillis);
+        System.out.printf("%-50s %10.1f ms (%,d bytes)%n", "write snapshot", writeMillis, Files.size(SNAPSHOT));
+        System.out.printf("%-50s %10.1f ms%n", "load snapshot + catch up on " + NEWER_ROWS + " readings", warmMillis);
+        
+        // The warm store matches a rebuild over the same rows
+        rebuilt.rebuild();
+        assertEquals(sorted(rebuilt.getAll()), sorted(warm.getAll()));
+    }
+    
+    private static List<SegmentStatistics> sorted(List<SegmentStatistics> statistics) {
+        List<SegmentStatistics> copy = new ArrayList<>(statistics);
+        copy.sort(Comparator.comparing(SegmentStatistics::getRoadSegmentId));
+        return copy;
+    }
+    
+    private void insert(long firstId, int count) {
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            rows.add(new Object[] {
+                    id,
+                    // Every segment reports every 30 seconds
+                    Timestamp.valueOf(BASE.plusSeconds(id / SEGMENTS * 30L)),
+                    "SEG-" + (id % SEGMENTS),
+                    (int) (id % 150),
+                    // Whole numbers and sixty-fourths, so sums are exact in any order
+                    (double) (20 + id % 110),
+                    (id % 64) / 64.0
+            });
+            if (rows.size() == 10_000) {
+                batchInsert(rows);
+                rows.clear();
+            }
+        }
+        batchInsert(rows);
+    }
+    
+    // One transaction per batch rather than a commit per row
+    private void batchInsert(List<Object[]> rows) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate("INSERT INTO traffic_data (id, \"TIMESTAMP\", road_segment_id, vehicle_count, "
+                + "average_speed, congestion_level) VALUES (?, ?, ?, ?, ?, ?)", rows));
+    }
+}
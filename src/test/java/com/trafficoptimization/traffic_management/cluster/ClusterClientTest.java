@@ -0,0 +1,85 @@
+package com.trafficoptimization.traffic_management.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpServer;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClusterClientTest {
+
+    private final AtomicInteger status = new AtomicInteger();
+    private HttpServer peer;
+    private String peerUrl;
+    private ClusterClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        peer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        peer.createContext("/", exchange -> {
+            byte[] body = ("answered " + status.get()).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        peer.start();
+        peerUrl = "http://localhost:" + peer.getAddress().getPort();
+        ClusterMembership membership = new ClusterMembership("http://localhost:1", List.of(peerUrl), 16);
+        client = new ClusterClient(membership, new ObjectMapper().registerModule(new JavaTimeModule()),
+                Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        peer.stop(0);
+    }
+
+    @Test
+    void send_ClientError_ShouldBePassedOnRatherThanReportedAsUnavailable() {
+        // Given
+        status.set(400);
+        TrafficData reading = new TrafficData(null, LocalDateTime.now(), "A1", 10, 50.0, 0.2);
+
+        // When
+        NodeRejectedRequestException rejected = assertThrows(NodeRejectedRequestException.class,
+                () -> client.save(peerUrl, reading));
+        NodeRejectedRequestException streamRejected = assertThrows(NodeRejectedRequestException.class,
+                () -> client.stream(peerUrl, TrafficQuery.all()));
+
+        // Then
+        assertEquals(400, rejected.getStatus());
+        assertEquals("answered 400", rejected.getBody());
+        assertEquals(400, streamRejected.getStatus());
+    }
+
+    @Test
+    void send_ServerErrorOrNoConnection_ShouldReportTheNodeUnavailable() {
+        // Given
+        status.set(503);
+        TrafficData reading = new TrafficData(null, LocalDateTime.now(), "A1", 10, 50.0, 0.2);
+
+        // Then
+        assertThrows(NodeUnavailableException.class, () -> client.save(peerUrl, reading));
+        assertThrows(NodeUnavailableException.class, () -> client.stream(peerUrl, TrafficQuery.all()));
+
+        // When the node is gone
+        peer.stop(0);
+
+        // Then
+        assertThrows(NodeUnavailableException.class, () -> client.save(peerUrl, reading));
+    }
+}
@@ -0,0 +1,288 @@
+package com.trafficoptimization.traffic_management.cluster;
+
+import com.trafficoptimization.traffic_management.TrafficManagementApplication;
+import com.trafficoptimization.traffic_management.controller.TrafficController;
+import com.trafficoptimization.traffic_management.forecast.TrafficForecaster;
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.ClusterStatus;
+import com.trafficoptimization.traffic_management.model.CursorPage;
+import com.trafficoptimization.traffic_management.model.NetworkEmissionsSnapshot;
+import com.trafficoptimization.traffic_management.model.RollupBucket;
+import com.trafficoptimization.traffic_management.model.RollupResolution;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficRollup;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.repository.TrafficRollupRepository;
+import com.trafficoptimization.traffic_management.rollup.RollupService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.client.RestClient;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Nodes of a cluster started side by side on localhost, each with its own in-memory database.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ClusterIntegrationTest {
+
+    private static final int SEGMENTS = 20;
+    private static final int READINGS_PER_SEGMENT = 10;
+    private static final int READINGS = SEGMENTS * READINGS_PER_SEGMENT;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 1, 8, 0);
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    private String urlA;
+    private String urlB;
+
+    @BeforeAll
+    void startCluster() throws IOException {
+        int portA = freePort();
+        int portB = freePort();
+        urlA = "http://localhost:" + portA;
+        urlB = "http://localhost:" + portB;
+        nodeA = start(portA, urlA + "," + urlB);
+        nodeB = start(portB, urlA + "," + urlB);
+
+        List<TrafficData> readings = new ArrayList<>();
+        for (int i = 0; i < READINGS; i++) {
+            readings.add(new TrafficData(null, BASE.plusMinutes(i), "CL-" + (i % SEGMENTS), 10 + i % 90, 20.0 + i % 100, null));
+        }
+        BatchIngestionResult result = RestClient.create(urlA).post().uri("/api/traffic/batch")
+                .body(readings)
+                .retrieve()
+                .body(BatchIngestionResult.class);
+        assertEquals(READINGS, result.getAccepted());
+    }
+
+    @AfterAll
+    void stopCluster() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void ingestion_ShouldStoreReadingsOnOwnersAndListingsShouldGatherEveryNode() {
+        // Then every node holds exactly the readings of the segments it owns
+        assertOwnedOnly(nodeA);
+        assertOwnedOnly(nodeB);
+        assertFalse(stored(nodeA).isEmpty());
+        assertFalse(stored(nodeB).isEmpty());
+        assertEquals(READINGS, stored(nodeA).size() + stored(nodeB).size());
+
+        // Per-segment requests are answered by the owner, whichever node is asked
+        String ownedByB = segmentOwnedBy(urlB);
+        List<TrafficData> segment = RestClient.create(urlA).get().uri("/api/traffic/road-segment/" + ownedByB)
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() { });
+        assertEquals(READINGS_PER_SEGMENT, segment.size());
+
+        // Network-wide listings gather the rows of both nodes
+        List<TrafficData> all = RestClient.create(urlB).get().uri("/api/traffic")
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() { });
+        assertEquals(READINGS, all.size());
+
+        List<TrafficData> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<TrafficData> page = RestClient.create(urlA).get()
+                    .uri(cursor == null ? "/api/traffic?limit=7" : "/api/traffic?limit=7&cursor=" + cursor)
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<>() { });
+            paged.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertInTimestampOrder(paged);
+
+        String streamed = RestClient.create(urlB).get().uri("/api/traffic/time-range?start={start}&end={end}",
+                        BASE, BASE.plusMinutes(READINGS))
+                .header("Accept", TrafficController.APPLICATION_NDJSON_VALUE)
+                .retrieve()
+                .body(String.class);
+        assertEquals(READINGS, streamed.lines().count());
+
+        // And so do the reactive streams, in timestamp order
+        String reactive = RestClient.create(urlA).get().uri("/api/traffic/reactive")
+                .header("Accept", TrafficController.APPLICATION_NDJSON_VALUE)
+                .retrieve()
+                .body(String.class);
+        List<String> lines = reactive.lines().toList();
+        assertEquals(READINGS, lines.size());
+        assertTrue(lines.get(0).contains(BASE.toString()), lines.get(0));
+        assertTrue(lines.get(READINGS - 1).contains(BASE.plusMinutes(READINGS - 1).toString()), lines.get(READINGS - 1));
+        String reactiveRange = RestClient.create(urlB).get().uri("/api/traffic/reactive/time-range?start={start}&end={end}",
+                        BASE, BASE.plusMinutes(READINGS))
+                .header("Accept", TrafficController.APPLICATION_NDJSON_VALUE)
+                .retrieve()
+                .body(String.class);
+        assertEquals(READINGS, reactiveRange.lines().count());
+    }
+
+    @Test
+    void networkSummaries_ShouldCombineEveryNode() {
+        // When
+        NetworkEmissionsSnapshot emissions = RestClient.create(urlA).get().uri("/api/traffic/emissions/network?top=3")
+                .retrieve()
+                .body(NetworkEmissionsSnapshot.class);
+        String ownedByA = segmentOwnedBy(urlA);
+        String ownedByB = segmentOwnedBy(urlB);
+        NetworkEmissionsSnapshot selected = RestClient.create(urlB).get()
+                .uri("/api/traffic/emissions/network?roadSegmentId={a}&roadSegmentId={b}", ownedByA, ownedByB)
+                .retrieve()
+                .body(NetworkEmissionsSnapshot.class);
+        List<RollupBucket> rollups = RestClient.create(urlB).get()
+                .uri("/api/traffic/rollups?start={start}&end={end}&granularity=PT1H", BASE, BASE.plusDays(1))
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() { });
+        List<RollupBucket> segmentRollups = RestClient.create(urlA).get()
+                .uri("/api/traffic/rollups?roadSegmentId={id}&start={start}&end={end}&granularity=PT1H",
+                        ownedByB, BASE, BASE.plusDays(1))
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() { });
+
+        // Then the segments of both nodes are counted, each once
+        assertEquals(SEGMENTS, emissions.getSegmentCount());
+        assertEquals(SEGMENTS, emissions.getSegments().size());
+        assertEquals(3, emissions.getTopEmitters().size());
+        assertEquals(2, selected.getSegmentCount());
+        assertEquals(READINGS, rollups.stream().mapToLong(RollupBucket::getReadingCount).sum());
+        assertEquals(SEGMENTS, rollups.stream().map(RollupBucket::getRoadSegmentId).distinct().count());
+        assertEquals(READINGS_PER_SEGMENT, segmentRollups.stream().mapToLong(RollupBucket::getReadingCount).sum());
+    }
+
+    @Test
+    void membershipChanges_ShouldMoveSegmentsToTheirNewOwners() throws InterruptedException, IOException {
+        // Given a third node, configured with only one existing member to join through
+        int portC = freePort();
+        String urlC = "http://localhost:" + portC;
+        try (ConfigurableApplicationContext nodeC = start(portC, urlA)) {
+            awaitMembers(List.of(urlA, urlB, urlC), urlA, urlB, urlC);
+
+            // Then it has taken over its share of the segments
+            assertOwnedOnly(nodeA);
+            assertOwnedOnly(nodeB);
+            assertOwnedOnly(nodeC);
+            assertFalse(stored(nodeC).isEmpty());
+            assertEquals(READINGS, stored(nodeA).size() + stored(nodeB).size() + stored(nodeC).size());
+
+            // And the previous owners no longer keep anything derived from the moved segments
+            assertDerivedOwnedOnly(nodeA);
+            assertDerivedOwnedOnly(nodeB);
+            assertEquals(READINGS, rolledUp(nodeA) + rolledUp(nodeB) + rolledUp(nodeC));
+
+            // When it leaves again
+            RestClient.create(urlB).delete().uri("/api/cluster/members?url={url}", urlC).retrieve().toBodilessEntity();
+            awaitMembers(List.of(urlA, urlB), urlA, urlB, urlC);
+
+            // Then its readings are back on the remaining members
+            assertTrue(stored(nodeC).isEmpty());
+            assertOwnedOnly(nodeA);
+            assertOwnedOnly(nodeB);
+            assertEquals(READINGS, stored(nodeA).size() + stored(nodeB).size());
+
+            // And segments that moved back are rolled up once
+            assertDerivedOwnedOnly(nodeA);
+            assertDerivedOwnedOnly(nodeB);
+            assertEquals(READINGS, rolledUp(nodeA) + rolledUp(nodeB));
+        }
+    }
+
+    private static ConfigurableApplicationContext start(int port, String members) {
+        return new SpringApplicationBuilder(TrafficManagementApplication.class)
+                .profiles("test")
+                .run("--server.port=" + port,
+                        "--spring.datasource.url=jdbc:h2:mem:cluster-" + port + ";DB_CLOSE_DELAY=-1",
+                        "--traffic.cluster.enabled=true",
+                        "--traffic.cluster.self-url=http://localhost:" + port,
+                        "--traffic.cluster.members=" + members);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<TrafficData> stored(ConfigurableApplicationContext node) {
+        return node.getBean(TrafficDataRepository.class).findAll();
+    }
+
+    private static void assertOwnedOnly(ConfigurableApplicationContext node) {
+        ClusterMembership membership = node.getBean(ClusterMembership.class);
+        for (TrafficData data : stored(node)) {
+            assertTrue(membership.isLocal(data.getRoadSegmentId()),
+                    data.getRoadSegmentId() + " is stored on " + membership.getSelf());
+        }
+    }
+
+    private static void assertDerivedOwnedOnly(ConfigurableApplicationContext node) {
+        ClusterMembership membership = node.getBean(ClusterMembership.class);
+        node.getBean(RollupService.class).flush();
+        for (TrafficRollup rollup : node.getBean(TrafficRollupRepository.class).findAll()) {
+            assertTrue(membership.isLocal(rollup.getRoadSegmentId()),
+                    "Rollups of " + rollup.getRoadSegmentId() + " are kept on " + membership.getSelf());
+        }
+        TrafficForecaster forecaster = node.getBean(TrafficForecaster.class);
+        for (int s = 0; s < SEGMENTS; s++) {
+            String roadSegmentId = "CL-" + s;
+            if (!membership.isLocal(roadSegmentId)) {
+                assertTrue(forecaster.forecast(roadSegmentId, List.of(15)).isEmpty(),
+                        "Forecast of " + roadSegmentId + " is kept on " + membership.getSelf());
+            }
+        }
+    }
+
+    private static long rolledUp(ConfigurableApplicationContext node) {
+        node.getBean(RollupService.class).flush();
+        return node.getBean(TrafficRollupRepository.class)
+                .sumReadingCount(RollupResolution.ONE_HOUR, BASE, BASE.plusDays(1));
+    }
+
+    private String segmentOwnedBy(String node) {
+        ClusterMembership membership = nodeA.getBean(ClusterMembership.class);
+        for (int s = 0; s < SEGMENTS; s++) {
+            if (membership.ownerOf("CL-" + s).equals(node)) {
+                return "CL-" + s;
+            }
+        }
+        throw new AssertionError("No segment owned by " + node);
+    }
+
+    private static void assertInTimestampOrder(List<TrafficData> rows) {
+        assertEquals(READINGS, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(BASE.plusMinutes(i), rows.get(i).getTimestamp());
+        }
+    }
+
+    // Until every node sees the members and has finished rebalancing
+    private static void awaitMembers(List<String> members, String... nodes) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        for (String node : nodes) {
+            while (true) {
+                ClusterStatus status = RestClient.create(node).get().uri("/api/cluster")
+                        .retrieve()
+                        .body(ClusterStatus.class);
+                if (Set.copyOf(status.getMembers()).equals(Set.copyOf(members)) && !status.isRebalancing()) {
+                    break;
+                }
+                assertTrue(System.currentTimeMillis() < deadline, node + " still reports " + status);
+                Thread.sleep(50);
+            }
+        }
+    }
+}
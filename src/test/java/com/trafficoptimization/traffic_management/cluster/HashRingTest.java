@@ -0,0 +1,73 @@
+package com.trafficoptimization.traffic_management.cluster;
+
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashRingTest {
+
+    private static final List<String> THREE_NODES = List.of("http://node-a:8080", "http://node-b:8080",
+            "http://node-c:8080");
+    private static final int SEGMENTS = 30_000;
+
+    @Test
+    void ownerOf_ShouldNotDependOnMemberOrder() {
+        // Given
+        HashRing ring = new HashRing(THREE_NODES, 128);
+        HashRing reordered = new HashRing(List.of(THREE_NODES.get(2), THREE_NODES.get(0), THREE_NODES.get(1)), 128);
+
+        // Then
+        assertEquals(THREE_NODES, reordered.getMembers());
+        for (int i = 0; i < SEGMENTS; i++) {
+            assertEquals(ring.ownerOf("SEG-" + i), reordered.ownerOf("SEG-" + i));
+        }
+    }
+
+    @Test
+    void ownerOf_ShouldSpreadSegmentsEvenly() {
+        // Given
+        HashRing ring = new HashRing(THREE_NODES, 128);
+
+        // When
+        Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < SEGMENTS; i++) {
+            owned.merge(ring.ownerOf("SEG-" + i), 1, Integer::sum);
+        }
+
+        // Then
+        for (String node : THREE_NODES) {
+            int share = owned.getOrDefault(node, 0);
+            assertTrue(Math.abs(share - SEGMENTS / 3) < SEGMENTS / 3 * 0.2, node + " owns " + share);
+        }
+    }
+
+    @Test
+    void ownerOf_NodeJoining_ShouldOnlyMoveSegmentsToIt() {
+        // Given
+        HashRing before = new HashRing(THREE_NODES, 128);
+        String joining = "http://node-d:8080";
+        HashRing after = new HashRing(List.of(THREE_NODES.get(0), THREE_NODES.get(1), THREE_NODES.get(2), joining), 128);
+
+        // When
+        int moved = 0;
+        for (int i = 0; i < SEGMENTS; i++) {
+            String owner = after.ownerOf("SEG-" + i);
+            if (!owner.equals(before.ownerOf("SEG-" + i))) {
+                assertEquals(joining, owner);
+                moved++;
+            }
+        }
+
+        // Then about a quarter of the segments move
+        assertTrue(Math.abs(moved - SEGMENTS / 4) < SEGMENTS / 4 * 0.2, moved + " segments moved");
+    }
+
+    @Test
+    void constructor_NoMembers_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new HashRing(List.of(), 128));
+    }
+}
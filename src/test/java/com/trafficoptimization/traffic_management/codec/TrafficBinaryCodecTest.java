@@ -0,0 +1,131 @@
+package com.trafficoptimization.traffic_management.codec;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrafficBinaryCodecTest {
+    
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 10, 8, 0, 0, 123_000_000);
+    
+    @Test
+    void read_ShouldReturnWhatWasWritten() throws IOException {
+        // Given
+        List<TrafficData> readings = Arrays.asList(
+                new TrafficData(null, BASE, "A8-KM125-126", 85, 70.5, 0.65),
+                new TrafficData(null, BASE.plusSeconds(30), "B27-KM45-46", 120, 45.2, null),
+                // Out of order and before the epoch, so deltas are negative
+                new TrafficData(null, LocalDateTime.of(1969, 12, 31, 23, 59, 59, 500_000_000), "A8-KM125-126", 60, null, 0.1),
+                new TrafficData(null, BASE.plusHours(1), "A8-KM125-126", null, 90.0, 0.2));
+        
+        // When
+        List<TrafficData> decoded = decode(encode(readings));
+        
+        // Then
+        assertEquals(readings, decoded);
+        assertSame(decoded.get(0).getRoadSegmentId(), decoded.get(2).getRoadSegmentId());
+    }
+    
+    @Test
+    void write_ShouldBeFarSmallerThanJsonForRepeatedSegments() throws IOException {
+        // Given
+        List<TrafficData> readings = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            readings.add(new TrafficData(null, BASE.plusSeconds(i * 30L), "A8-KM" + (i % 10), 85, 70.5, 0.65));
+        }
+        
+        // When
+        byte[] encoded = encode(readings);
+        
+        // Then the segment ids appear once, and each reading is frame, segment, delta, flags and 20 bytes of numbers
+        assertTrue(encoded.length < 1000 * 28, "encoded " + encoded.length + " bytes");
+        assertEquals(readings, decode(encoded));
+    }
+    
+    @Test
+    void constructor_WithoutHeader_ShouldFail() {
+        assertThrows(IOException.class, () -> new TrafficBinaryReader(new ByteArrayInputStream("[{}]".getBytes())));
+    }
+    
+    @Test
+    void read_TruncatedFrame_ShouldFail() throws IOException {
+        // Given
+        byte[] encoded = encode(List.of(new TrafficData(null, BASE, "A8-KM125-126", 85, 70.5, 0.65)));
+        TrafficBinaryReader reader = new TrafficBinaryReader(
+                new ByteArrayInputStream(Arrays.copyOf(encoded, encoded.length - 3)));
+        
+        // When & Then
+        assertThrows(EOFException.class, reader::read);
+    }
+    
+    @Test
+    void read_UndefinedSegment_ShouldFail() throws IOException {
+        // Given a header and a reading frame referring to dictionary entry 0, which was never defined
+        byte[] stream = {0x54, 0x44, 0x42, 0x01, 0x02, 0x00, 0x00, 0x00};
+        TrafficBinaryReader reader = new TrafficBinaryReader(new ByteArrayInputStream(stream));
+        
+        // When & Then
+        IOException e = assertThrows(IOException.class, reader::read);
+        assertTrue(e.getMessage().contains("undefined road segment"));
+    }
+    
+    @Test
+    void read_NegativeVarints_ShouldFailAsMalformed() throws IOException {
+        // Given ten-byte varints that decode to -1, as a segment id length and as a dictionary index
+        byte[] minusOne = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01};
+        byte[] negativeLength = concat(new byte[] {0x54, 0x44, 0x42, 0x01, 0x01}, minusOne);
+        byte[] negativeSegment = concat(new byte[] {0x54, 0x44, 0x42, 0x01, 0x02}, minusOne, new byte[] {0x00, 0x00});
+        
+        // When & Then
+        for (byte[] stream : List.of(negativeLength, negativeSegment)) {
+            TrafficBinaryReader reader = new TrafficBinaryReader(new ByteArrayInputStream(stream));
+            assertThrows(IOException.class, reader::read);
+        }
+    }
+    
+    @Test
+    void read_EmptyStream_ShouldReturnNull() throws IOException {
+        assertNull(new TrafficBinaryReader(new ByteArrayInputStream(encode(List.of()))).read());
+    }
+    
+    static byte[] encode(List<TrafficData> readings) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TrafficBinaryWriter writer = new TrafficBinaryWriter(out)) {
+            for (TrafficData data : readings) {
+                writer.write(data);
+            }
+        }
+        return out.toByteArray();
+    }
+    
+    private static List<TrafficData> decode(byte[] encoded) throws IOException {
+        List<TrafficData> decoded = new ArrayList<>();
+        try (TrafficBinaryReader reader = new TrafficBinaryReader(new ByteArrayInputStream(encoded))) {
+            for (TrafficData data = reader.read(); data != null; data = reader.read()) {
+                decoded.add(data);
+            }
+        }
+        return decoded;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,48 @@
+package com.trafficoptimization.traffic_management.config;
+
+import com.trafficoptimization.traffic_management.repository.ReactiveTrafficDataRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.r2dbc.core.DatabaseClient;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReactiveDatabaseConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withBean(WorkerThreads.class, WorkerThreads::platform)
+            .withUserConfiguration(ReactiveDatabaseConfig.class, ReactiveTrafficDataRepository.class);
+
+    @Test
+    void h2Database_ShouldProvideReactiveReads() {
+        contextRunner.withPropertyValues("spring.datasource.url=jdbc:h2:mem:reactive-config")
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertEquals(1, context.getBeansOfType(DatabaseClient.class).size());
+                    assertEquals(1, context.getBeansOfType(ReactiveTrafficDataRepository.class).size());
+                });
+    }
+
+    @Test
+    void otherDatabase_ShouldStartWithoutReactiveReads() {
+        contextRunner.withPropertyValues("spring.datasource.url=jdbc:postgresql://localhost/traffic")
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertEquals(0, context.getBeansOfType(DatabaseClient.class).size());
+                    assertEquals(0, context.getBeansOfType(ReactiveTrafficDataRepository.class).size());
+                });
+    }
+
+    @Test
+    void disabled_ShouldStartWithoutReactiveReads() {
+        contextRunner.withPropertyValues("spring.datasource.url=jdbc:h2:mem:reactive-config",
+                        "traffic.reactive.enabled=false")
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertEquals(0, context.getBeansOfType(DatabaseClient.class).size());
+                });
+    }
+}
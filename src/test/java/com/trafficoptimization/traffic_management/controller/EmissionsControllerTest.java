@@ -0,0 +1,65 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.model.EmissionsEstimate;
+import com.trafficoptimization.traffic_management.model.NetworkEmissionsSnapshot;
+import com.trafficoptimization.traffic_management.service.EmissionsService;
+import com.trafficoptimization.traffic_management.service.NetworkSummaryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(EmissionsController.class)
+class EmissionsControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private EmissionsService emissionsService;
+    
+    @MockBean
+    private NetworkSummaryService networkSummaryService;
+    
+    @Test
+    void getNetworkEmissions_ShouldReturnTotalsAndTopEmitters() throws Exception {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        EmissionsEstimate estimate = new EmissionsEstimate("A8-KM125-126", now, 310.0, 190.0, 12.0, 85, 70.5, 0.65);
+        NetworkEmissionsSnapshot snapshot = new NetworkEmissionsSnapshot(now, 1, 310.0, 190.0, 12.0,
+                List.of(estimate), List.of());
+        when(networkSummaryService.estimateNetworkEmissions(isNull(), eq(3), eq(false))).thenReturn(snapshot);
+        
+        // When & Then
+        mockMvc.perform(get("/api/traffic/emissions/network")
+                .param("top", "3")
+                .param("includeSegments", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.segmentCount").value(1))
+                .andExpect(jsonPath("$.totalCo2KgPerHour").value(310.0))
+                .andExpect(jsonPath("$.topEmitters[0].roadSegmentId").value("A8-KM125-126"));
+    }
+    
+    @Test
+    void getNetworkEmissions_ShouldPassSegmentFilter() throws Exception {
+        // Given
+        NetworkEmissionsSnapshot snapshot = new NetworkEmissionsSnapshot(LocalDateTime.now(), 0, 0.0, 0.0, 0.0,
+                List.of(), List.of());
+        when(networkSummaryService.estimateNetworkEmissions(eq(List.of("A", "B")), eq(10), eq(true))).thenReturn(snapshot);
+        
+        // When & Then
+        mockMvc.perform(get("/api/traffic/emissions/network")
+                .param("roadSegmentId", "A", "B"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.segmentCount").value(0));
+    }
+}
@@ -0,0 +1,84 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.emissions.EmissionsModels;
+import com.trafficoptimization.traffic_management.emissions.EmissionsProfileSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(EmissionsProfileController.class)
+class EmissionsProfileControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmissionsModels emissionsModels;
+
+    @Test
+    void putProfiles_ShouldApplyThemAndReturnTheActiveSet() throws Exception {
+        // Given
+        EmissionsProfileSet active = new EmissionsProfileSet("standard", Map.of(), Map.of("north", "standard"), Map.of());
+        when(emissionsModels.getProfiles()).thenReturn(active);
+
+        // When & Then
+        mockMvc.perform(put("/api/traffic/emissions/profiles")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"defaultProfile\":\"standard\",\"regions\":{\"north\":\"standard\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.regions.north").value("standard"));
+        verify(emissionsModels).apply(argThat(profiles -> "standard".equals(profiles.getRegions().get("north"))));
+    }
+
+    @Test
+    void putProfiles_Invalid_ShouldReturnBadRequest() throws Exception {
+        // Given
+        doThrow(new IllegalArgumentException("Unknown emissions profile 'electric' for the default"))
+                .when(emissionsModels).apply(any());
+
+        // When & Then
+        mockMvc.perform(put("/api/traffic/emissions/profiles")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"defaultProfile\":\"electric\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown emissions profile 'electric' for the default"));
+    }
+
+    @Test
+    void reloadProfiles_WithoutProfileFile_ShouldReturnConflict() throws Exception {
+        // Given
+        doThrow(new IllegalStateException("No emissions profile file is configured")).when(emissionsModels).reload();
+
+        // When & Then
+        mockMvc.perform(post("/api/traffic/emissions/profiles/reload"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void reloadProfiles_UnreadableFile_ShouldReturnServiceUnavailable() throws Exception {
+        // Given
+        doThrow(new UncheckedIOException("Could not read emissions profiles from profiles.json", new IOException("truncated")))
+                .when(emissionsModels).reload();
+
+        // When & Then
+        mockMvc.perform(post("/api/traffic/emissions/profiles/reload"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().string("Could not read emissions profiles from profiles.json"));
+    }
+}
@@ -0,0 +1,188 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.service.TrafficService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Closed-loop HTTP load against the read and write endpoints: {@code -Dload.clients} concurrent
+ * clients (default 400, above Tomcat's 200 platform threads) for {@code -Dload.seconds}. Every
+ * statement is delayed by {@code -Dload.db-latency-ms} (default 5) to stand in for a networked
+ * database, so request threads really block on JDBC. Subclasses pick the threading mode:
+ * <pre>mvn test -Dtest='*ThreadEndpointLoadTest' -Dbenchmark=true</pre>
+ * Virtual threads need the tests to run on Java 21+.
+ */
+abstract class EndpointLoadBenchmark {
+    
+    private static final int CLIENTS = Integer.getInteger("load.clients", 400);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 20);
+    private static final long DB_LATENCY_MS = Long.getLong("load.db-latency-ms", 5);
+    private static final int SEGMENTS = 20;
+    
+    @TestConfiguration
+    static class SlowDatabaseConfig {
+        @Bean
+        static BeanPostProcessor slowDatabase() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? delayStatements(dataSource) : bean;
+                }
+            };
+        }
+    }
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private TrafficService trafficService;
+    
+    @Autowired
+    private WorkerThreads workerThreads;
+    
+    @Test
+    void mixedEndpointLoad() throws Exception {
+        List<TrafficData> seed = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().minusHours(2);
+        for (int i = 0; i < SEGMENTS * 200; i++) {
+            seed.add(new TrafficData(null, start.plusSeconds(i), "LOAD-" + (i % SEGMENTS), 20 + i % 100, 30.0 + i % 90, null));
+        }
+        trafficService.saveTrafficDataBatch(seed);
+        
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        String base = "http://localhost:" + port + "/api/traffic";
+        run(client, base, 5, false);
+        long[] latencies = run(client, base, SECONDS, true);
+        
+        int count = (int) latencies[latencies.length - 1];
+        long errors = latencies[latencies.length - 2];
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        System.out.printf("%s threads, %d clients, %d ms DB latency: %.0f req/s, p50=%.1f ms, p99=%.1f ms, errors=%d%n",
+                workerThreads.isVirtual() ? "virtual" : "platform", CLIENTS, DB_LATENCY_MS, count / (double) SECONDS,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), errors);
+        assertTrue(count > 0);
+    }
+    
+    /**
+     * @return latencies in nanoseconds, followed by the error count and the number of latencies
+     */
+    private static long[] run(HttpClient client, String base, int seconds, boolean record) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<long[]> perClient = new ArrayList<>();
+        int[] counts = new int[CLIENTS];
+        AtomicLong errors = new AtomicLong();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            long[] latencies = new long[1 << 16];
+            perClient.add(latencies);
+            int clientIndex = c;
+            clients.execute(() -> {
+                int i = clientIndex;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = request(base, i++);
+                    long begin = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (record && counts[clientIndex] < latencies.length) {
+                        latencies[counts[clientIndex]++] = System.nanoTime() - begin;
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        
+        int total = Arrays.stream(counts).sum();
+        long[] merged = new long[total + 2];
+        int offset = 0;
+        for (int c = 0; c < CLIENTS; c++) {
+            System.arraycopy(perClient.get(c), 0, merged, offset, counts[c]);
+            offset += counts[c];
+        }
+        merged[total] = errors.get();
+        merged[total + 1] = total;
+        return merged;
+    }
+    
+    private static HttpRequest request(String base, int i) {
+        String segment = "LOAD-" + (i % SEGMENTS);
+        HttpRequest.Builder builder = switch (i % 10) {
+            case 0, 1 -> HttpRequest.newBuilder(URI.create(base))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"timestamp\":\"" + LocalDateTime.now()
+                            + "\",\"roadSegmentId\":\"" + segment + "\",\"vehicleCount\":" + (i % 120)
+                            + ",\"averageSpeed\":" + (20 + i % 100) + "}"));
+            case 2, 3, 4 -> HttpRequest.newBuilder(URI.create(base + "/road-segment/" + segment + "?limit=50"));
+            case 5 -> HttpRequest.newBuilder(URI.create(base + "/time-range?start=" + LocalDateTime.now().minusMinutes(30)
+                    + "&end=" + LocalDateTime.now() + "&limit=50"));
+            case 6, 7 -> HttpRequest.newBuilder(URI.create(base + "/average-congestion/" + segment));
+            default -> HttpRequest.newBuilder(URI.create(base + "/emissions/estimate/" + segment));
+        };
+        return builder.timeout(Duration.ofSeconds(30)).build();
+    }
+    
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1_000_000.0;
+    }
+    
+    private static DataSource delayStatements(DataSource dataSource) {
+        return (DataSource) Proxy.newProxyInstance(EndpointLoadBenchmark.class.getClassLoader(),
+                new Class<?>[] {DataSource.class}, (proxy, method, args) -> {
+                    Object result = invoke(method, dataSource, args);
+                    return result instanceof Connection connection ? delayStatements(connection) : result;
+                });
+    }
+    
+    private static Connection delayStatements(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(EndpointLoadBenchmark.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                        Thread.sleep(DB_LATENCY_MS);
+                    }
+                    return invoke(method, connection, args);
+                });
+    }
+    
+    private static Object invoke(java.lang.reflect.Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
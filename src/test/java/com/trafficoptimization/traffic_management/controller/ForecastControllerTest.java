@@ -0,0 +1,77 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.forecast.TrafficForecaster;
+import com.trafficoptimization.traffic_management.model.CongestionForecast;
+import com.trafficoptimization.traffic_management.model.ForecastPoint;
+import com.trafficoptimization.traffic_management.service.NetworkSummaryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ForecastController.class)
+class ForecastControllerTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 8, 0);
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private TrafficForecaster trafficForecaster;
+    
+    @MockBean
+    private NetworkSummaryService networkSummaryService;
+    
+    @Test
+    void getForecast_ShouldDefaultToStandardHorizons() throws Exception {
+        // Given
+        CongestionForecast forecast = new CongestionForecast("A8-KM125-126", NOW.minusMinutes(2), List.of(
+                point(15, 0.4), point(30, 0.6), point(60, 0.8)));
+        when(trafficForecaster.forecast("A8-KM125-126", List.of(15, 30, 60))).thenReturn(Optional.of(forecast));
+        
+        // When & Then
+        mockMvc.perform(get("/api/traffic/forecast/A8-KM125-126"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points.length()").value(3))
+                .andExpect(jsonPath("$.points[2].horizonMinutes").value(60))
+                .andExpect(jsonPath("$.points[2].congestionLevel").value(0.8));
+    }
+    
+    @Test
+    void getForecast_UnknownSegment_ShouldReturnNotFound() throws Exception {
+        // Given
+        when(trafficForecaster.forecast(eq("UNKNOWN"), anyList())).thenReturn(Optional.empty());
+        
+        // When & Then
+        mockMvc.perform(get("/api/traffic/forecast/UNKNOWN").param("horizon", "30"))
+                .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    void getMostCongested_InvalidHorizon_ShouldReturnBadRequest() throws Exception {
+        // Given
+        when(networkSummaryService.getMostCongested(eq(720), any(Integer.class)))
+                .thenThrow(new IllegalArgumentException("Forecast horizon must be between 1 and 360 minutes, got 720"));
+        
+        // When & Then
+        mockMvc.perform(get("/api/traffic/forecast").param("horizon", "720"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    private static ForecastPoint point(int horizonMinutes, double congestion) {
+        return new ForecastPoint(horizonMinutes, NOW.plusMinutes(horizonMinutes), congestion, 50.0, 90.0,
+                1.2, 30.0, 2.0);
+    }
+}
@@ -0,0 +1,78 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.live.LiveTrafficBroadcaster;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@WebMvcTest(LiveTrafficController.class)
+@Import({LiveTrafficBroadcaster.class, SegmentRegistry.class, WorkerThreads.class, LiveTrafficControllerTest.MetricsConfig.class})
+class LiveTrafficControllerTest {
+    
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private LiveTrafficBroadcaster broadcaster;
+    
+    @Test
+    void subscribe_ShouldPushMatchingReadingsAndAlerts() throws Exception {
+        // Given
+        MockHttpServletResponse response = mockMvc.perform(get("/api/traffic/live")
+                .param("roadSegmentId", "A8-KM125-126")
+                .param("threshold", "0.7")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        
+        // When
+        LocalDateTime now = LocalDateTime.now();
+        broadcaster.onTrafficDataSaved(List.of(
+                new TrafficData(1L, now, "A8-KM125-126", 120, 20.0, 0.85),
+                new TrafficData(2L, now, "B27-KM45-46", 60, 90.0, 0.95)));
+        
+        // Then
+        // The event name and its data are written separately; wait for the end of the alert
+        String body = awaitContent(response, "\"threshold\":0.7}");
+        assertTrue(body.contains("event:congestion-alert"));
+        assertTrue(body.contains("event:reading"));
+        assertTrue(body.contains("\"roadSegmentId\":\"A8-KM125-126\""));
+        assertTrue(body.contains("\"threshold\":0.7"));
+        assertFalse(body.contains("B27-KM45-46"));
+    }
+    
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String body = response.getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            body = response.getContentAsString();
+        }
+        return body;
+    }
+}
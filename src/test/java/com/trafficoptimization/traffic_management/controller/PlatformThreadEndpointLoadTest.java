@@ -0,0 +1,14 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:load-platform;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@Import(EndpointLoadBenchmark.SlowDatabaseConfig.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PlatformThreadEndpointLoadTest extends EndpointLoadBenchmark {
+}
@@ -0,0 +1,82 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trafficoptimization.traffic_management.model.EmissionsEstimate;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
+import com.trafficoptimization.traffic_management.service.ReactiveTrafficService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.LocalDateTime;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReactiveTrafficController.class)
+class ReactiveTrafficControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private ReactiveTrafficService reactiveTrafficService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    void streamCongestionPoints_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        when(reactiveTrafficService.streamTrafficData(argThat(query -> query.getKind() == TrafficQuery.Kind.CONGESTION_POINTS
+                && query.getCongestionThreshold() == 0.8)))
+                .thenReturn(Flux.just(new TrafficData(1L, now, "A8-KM125-126", 85, 20.5, 0.85),
+                        new TrafficData(2L, now, "A8-KM125-126", 90, 18.0, 0.9)));
+        
+        // When
+        MvcResult result = mockMvc.perform(get("/api/traffic/reactive/congestion/{id}", "A8-KM125-126")
+                .param("threshold", "0.8")
+                .accept(TrafficController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TrafficController.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+        
+        // Then
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readValue(lines[1], TrafficData.class).getId());
+    }
+    
+    @Test
+    void getEmissionsEstimate_ShouldReturnEstimate() throws Exception {
+        // Given
+        when(reactiveTrafficService.estimateEmissions("A8-KM125-126")).thenReturn(Mono.just(
+                new EmissionsEstimate("A8-KM125-126", LocalDateTime.now(), 120.0, 300.0, 12.0, 85, 70.5, 0.65)));
+        
+        // When
+        MvcResult result = mockMvc.perform(get("/api/traffic/reactive/emissions/estimate/{id}", "A8-KM125-126"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roadSegmentId").value("A8-KM125-126"))
+                .andExpect(jsonPath("$.co2KgPerHour").value(120.0));
+    }
+}
@@ -0,0 +1,67 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.model.RollupBucket;
+import com.trafficoptimization.traffic_management.model.RollupResolution;
+import com.trafficoptimization.traffic_management.rollup.RollupService;
+import com.trafficoptimization.traffic_management.service.NetworkSummaryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(RollupController.class)
+class RollupControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private RollupService rollupService;
+    
+    @MockBean
+    private NetworkSummaryService networkSummaryService;
+    
+    @Test
+    void getRollups_ShouldPassGranularityToService() throws Exception {
+        // Given
+        LocalDateTime start = LocalDateTime.of(2025, 3, 10, 8, 0);
+        RollupBucket bucket = new RollupBucket("A8-KM125-126", start, RollupResolution.ONE_HOUR,
+                12, 80.0, 120, 65.0, 30.5, 0.6, 0.9);
+        when(networkSummaryService.queryRollups(eq("A8-KM125-126"), any(LocalDateTime.class), any(LocalDateTime.class),
+                eq(Duration.ofDays(1)))).thenReturn(List.of(bucket));
+        
+        // When & Then
+        mockMvc.perform(get("/api/traffic/rollups")
+                .param("roadSegmentId", "A8-KM125-126")
+                .param("start", "2025-03-10T00:00:00")
+                .param("end", "2025-03-17T00:00:00")
+                .param("granularity", "P1D"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sourceResolution").value("ONE_HOUR"))
+                .andExpect(jsonPath("$[0].readingCount").value(12));
+    }
+    
+    @Test
+    void getRollups_InvalidGranularity_ShouldReturnBadRequest() throws Exception {
+        // Given
+        when(networkSummaryService.queryRollups(any(), any(LocalDateTime.class), any(LocalDateTime.class), any(Duration.class)))
+                .thenThrow(new IllegalArgumentException("Granularity must be a whole number of minutes"));
+        
+        // When & Then
+        mockMvc.perform(get("/api/traffic/rollups")
+                .param("start", "2025-03-10T00:00:00")
+                .param("end", "2025-03-17T00:00:00")
+                .param("granularity", "PT10S"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,70 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.model.RouteBottleneck;
+import com.trafficoptimization.traffic_management.model.RouteEvaluation;
+import com.trafficoptimization.traffic_management.route.RouteService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(RouteController.class)
+class RouteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RouteService routeService;
+
+    @Test
+    void evaluateRoutes_ShouldReturnOneEvaluationPerRoute() throws Exception {
+        // Given
+        List<String> corridor = List.of("A8-KM100-101", "A8-KM101-102");
+        RouteEvaluation evaluation = new RouteEvaluation(LocalDateTime.now(), corridor, 2, 2.0, 80.0, 0, 0,
+                620.0, 380.0, 24.0, new RouteBottleneck("A8-KM101-102", 1, 0.7, 60.0, 60.0));
+        when(routeService.evaluateRoutes(List.of(corridor))).thenReturn(List.of(evaluation));
+
+        // When & Then
+        mockMvc.perform(post("/api/routes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[[\"A8-KM100-101\", \"A8-KM101-102\"]]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].segmentCount").value(2))
+                .andExpect(jsonPath("$[0].totalCo2KgPerHour").value(620.0))
+                .andExpect(jsonPath("$[0].bottleneck.roadSegmentId").value("A8-KM101-102"));
+    }
+
+    @Test
+    void findRoute_Unreachable_ShouldReturnNotFound() throws Exception {
+        // Given
+        when(routeService.findRoute("A", "B")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/routes").param("from", "A").param("to", "B"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void evaluateRoutes_InvalidRoute_ShouldReturnBadRequest() throws Exception {
+        // Given
+        when(routeService.evaluateRoutes(any())).thenThrow(new IllegalArgumentException("A route needs at least one segment"));
+
+        // When & Then
+        mockMvc.perform(post("/api/routes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[[]]"))
+                .andExpect(status().isBadRequest());
+    }
+}
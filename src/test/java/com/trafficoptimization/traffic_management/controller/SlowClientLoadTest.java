@@ -0,0 +1,210 @@
+package com.trafficoptimization.traffic_management.controller;
+
+import com.trafficoptimization.traffic_management.config.ReactiveDatabaseConfig;
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.service.TrafficService;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Thousands of slow clients streaming a long segment history as NDJSON, through the blocking
+ * endpoint and through its reactive variant. {@code -Dload.clients} clients (default 2000) start
+ * over {@code -Dload.ramp-up-seconds} (default 10). Each opens a socket with a small receive buffer,
+ * reads at {@code -Dload.client-bytes-per-second} (default 512) for {@code -Dload.seconds}
+ * (default 30) and hangs up, long before the end of the history, so the server really waits on
+ * the client. Reports how many clients were served, the rows they received, and the JDBC and R2DBC
+ * connections and platform threads in use meanwhile:
+ * <pre>mvn test -Dtest=SlowClientLoadTest -Dbenchmark=true</pre>
+ * Runs with virtual threads, which needs the tests to run on Java 21+.
+ */
+// Small pages, since a slow client takes a long time to drain one
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.datasource.url=jdbc:h2:mem:slow-clients;DB_CLOSE_DELAY=-1", "traffic.reactive.page-size=100"})
+@ActiveProfiles({"test", "virtual-threads"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SlowClientLoadTest {
+    
+    private static final int CLIENTS = Integer.getInteger("load.clients", 2000);
+    private static final long RAMP_UP_MILLIS = TimeUnit.SECONDS.toMillis(Integer.getInteger("load.ramp-up-seconds", 10));
+    private static final int BYTES_PER_SECOND = Integer.getInteger("load.client-bytes-per-second", 512);
+    private static final long READ_MILLIS = TimeUnit.SECONDS.toMillis(Integer.getInteger("load.seconds", 30));
+    private static final int READ_SIZE = 256;
+    private static final int RECEIVE_BUFFER = 4096;
+    // About 2.5 MB of NDJSON, far more than a client reads or the socket buffers hold
+    private static final int ROWS = 20_000;
+    private static final String SEGMENT = "SLOW-1";
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private TrafficService trafficService;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private ReactiveDatabaseConfig reactiveDatabaseConfig;
+    
+    @Test
+    void slowClients() throws Exception {
+        List<TrafficData> seed = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().minusDays(7);
+        for (int i = 0; i < ROWS; i++) {
+            seed.add(new TrafficData(null, start.plusSeconds(i * 30L), SEGMENT, 20 + i % 100, 30.0 + i % 90, null));
+        }
+        trafficService.saveTrafficDataBatch(seed);
+        
+        int blocking = run("blocking", "/api/traffic/road-segment/" + SEGMENT);
+        int reactive = run("reactive", "/api/traffic/reactive/road-segment/" + SEGMENT);
+        
+        // Blocking streams are capped by the JDBC pool, reactive ones only by how fast pages are read
+        assertTrue(reactive > blocking, "reactive served " + reactive + ", blocking " + blocking);
+    }
+    
+    /**
+     * @return the number of clients that were served
+     */
+    private int run(String label, String path) throws Exception {
+        HikariPoolMXBean hikari = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        ConnectionSamples jdbc = new ConnectionSamples();
+        ConnectionSamples r2dbc = new ConnectionSamples();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            jdbc.add(hikari.getActiveConnections());
+            r2dbc.add(reactiveDatabaseConfig.getPoolMetrics().acquiredSize());
+        }, 0, 10, TimeUnit.MILLISECONDS);
+        
+        AtomicInteger served = new AtomicInteger();
+        AtomicLong rows = new AtomicLong();
+        long begin = System.nanoTime();
+        // One virtual thread per client
+        ExecutorService clients = Executors.newCachedThreadPool(new WorkerThreads(true).threadFactory("slow-client-"));
+        for (int c = 0; c < CLIENTS; c++) {
+            int client = c;
+            clients.execute(() -> {
+                try {
+                    Thread.sleep(RAMP_UP_MILLIS * client / CLIENTS);
+                    long received = readSlowly(path);
+                    if (received > 0) {
+                        served.incrementAndGet();
+                        rows.addAndGet(received);
+                    }
+                } catch (IOException | InterruptedException e) {
+                    // Counted as not served
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(RAMP_UP_MILLIS + READ_MILLIS + TimeUnit.MINUTES.toMillis(5), TimeUnit.MILLISECONDS);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        sampler.shutdownNow();
+        
+        System.out.printf("%-8s %d clients in %.1f s: %d served, %d refused, %,d rows received; connections in use "
+                        + "JDBC mean=%.1f max=%d, R2DBC mean=%.1f max=%d; peak platform threads=%d%n",
+                label, CLIENTS, seconds, served.get(), CLIENTS - served.get(), rows.get(), jdbc.mean(), jdbc.max(),
+                r2dbc.mean(), r2dbc.max(), threads.getPeakThreadCount());
+        return served.get();
+    }
+    
+    /**
+     * Plain HTTP/1.0, so the body is the rows themselves rather than chunks, read a little at a time
+     * until the read time is up.
+     *
+     * @return the number of rows received, or -1 if the response was not a success
+     */
+    private long readSlowly(String path) throws IOException, InterruptedException {
+        try (Socket socket = new Socket()) {
+            // Set before connecting, so the advertised window stays small
+            socket.setReceiveBufferSize(RECEIVE_BUFFER);
+            socket.connect(new InetSocketAddress("localhost", port));
+            socket.setSoTimeout(60_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET " + path + " HTTP/1.0\r\nHost: localhost\r\nAccept: "
+                    + TrafficController.APPLICATION_NDJSON_VALUE + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            
+            InputStream in = socket.getInputStream();
+            if (!readLine(in).contains(" 200 ")) {
+                return -1;
+            }
+            while (!readLine(in).isEmpty()) {
+                // Skip the headers
+            }
+            byte[] buffer = new byte[READ_SIZE];
+            long pauseMillis = 1000L * READ_SIZE / BYTES_PER_SECOND;
+            long deadline = System.currentTimeMillis() + READ_MILLIS;
+            long rows = 0;
+            int read;
+            while (System.currentTimeMillis() < deadline && (read = in.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        rows++;
+                    }
+                }
+                Thread.sleep(pauseMillis);
+            }
+            return rows;
+        }
+    }
+    
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+    
+    private static final class ConnectionSamples {
+        
+        private long sum;
+        private long count;
+        private int max;
+        
+        synchronized void add(int inUse) {
+            sum += inUse;
+            count++;
+            max = Math.max(max, inUse);
+        }
+        
+        synchronized double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+        
+        synchronized int max() {
+            return max;
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.trafficoptimization.traffic_management.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trafficoptimization.traffic_management.codec.TrafficBinaryFormat;
+import com.trafficoptimization.traffic_management.codec.TrafficBinaryWriter;
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.CursorPage;
+import com.trafficoptimization.traffic_management.model.RecordIngestionResult;
 import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
 import com.trafficoptimization.traffic_management.service.TrafficService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,14 +16,28 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.io.ByteArrayOutputStream;
+import java.util.function.Consumer;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TrafficController.class)
@@ -57,6 +77,84 @@ class TrafficControllerTest {
                 .andExpect(jsonPath("$.congestionLevel").value(0.65));
     }
     
+    @Test
+    void addTrafficDataBatch_ShouldReturnPerRecordResults() throws Exception {
+        // Given
+        BatchIngestionResult batchResult = new BatchIngestionResult();
+        batchResult.add(RecordIngestionResult.accepted(0, 1L));
+        batchResult.add(RecordIngestionResult.accepted(1, 2L));
+        when(trafficService.saveTrafficDataBatch(anyList())).thenReturn(batchResult);
+        
+        // When & Then
+        mockMvc.perform(post("/api/traffic/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(trafficData1, trafficData2))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.results[1].id").value(2));
+    }
+    
+    @Test
+    void addTrafficDataStream_ShouldRejectMalformedLines() throws Exception {
+        // Given
+        BatchIngestionResult chunkResult = new BatchIngestionResult();
+        chunkResult.add(RecordIngestionResult.accepted(0, 1L));
+        chunkResult.add(RecordIngestionResult.accepted(1, 2L));
+        when(trafficService.saveTrafficDataBatch(anyList())).thenReturn(chunkResult);
+        String body = objectMapper.writeValueAsString(trafficData1) + "\n"
+                + "{not json\n"
+                + objectMapper.writeValueAsString(trafficData2) + "\n";
+        
+        // When & Then
+        mockMvc.perform(post("/api/traffic/batch")
+                .contentType(TrafficController.APPLICATION_NDJSON_VALUE)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[2].index").value(2))
+                .andExpect(jsonPath("$.results[2].id").value(2));
+    }
+    
+    @Test
+    void addTrafficDataBinary_ShouldIngestDecodedReadingsAndRejectTruncatedTail() throws Exception {
+        // Given
+        BatchIngestionResult chunkResult = new BatchIngestionResult();
+        chunkResult.add(RecordIngestionResult.accepted(0, 1L));
+        chunkResult.add(RecordIngestionResult.accepted(1, 2L));
+        when(trafficService.saveTrafficDataBatch(anyList())).thenReturn(chunkResult);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (TrafficBinaryWriter writer = new TrafficBinaryWriter(body)) {
+            writer.write(trafficData1);
+            writer.write(trafficData2);
+        }
+        // A reading frame that ends after its segment reference
+        body.write(new byte[] {0x02, 0x00});
+        
+        // When & Then
+        mockMvc.perform(post("/api/traffic/batch")
+                .contentType(TrafficBinaryFormat.MEDIA_TYPE_VALUE)
+                .content(body.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.results[2].index").value(2))
+                .andExpect(jsonPath("$.results[2].status").value("REJECTED"));
+        verify(trafficService).saveTrafficDataBatch(argThat(batch -> batch.size() == 2
+                && batch.get(1).getVehicleCount() == 120 && batch.get(1).getId() == null));
+    }
+    
+    @Test
+    void addTrafficDataBinary_WithoutHeader_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/traffic/batch")
+                .contentType(TrafficBinaryFormat.MEDIA_TYPE_VALUE)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+    
     @Test
     void getAllTrafficData_ShouldReturnAllData() throws Exception {
         // Given
@@ -100,4 +198,62 @@ class TrafficControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").value(0.75));
     }
+    
+    @Test
+    void getTrafficDataByRoadSegment_WithLimit_ShouldReturnCursorPage() throws Exception {
+        // Given
+        String roadSegmentId = "A8-KM125-126";
+        CursorPage<TrafficData> page = new CursorPage<>(Arrays.asList(trafficData1), "next-token");
+        when(trafficService.getTrafficDataPage(any(TrafficQuery.class), isNull(), eq(1))).thenReturn(page);
+        
+        // When & Then
+        mockMvc.perform(get("/api/traffic/road-segment/{id}", roadSegmentId).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"));
+    }
+    
+    @Test
+    void getAllTrafficData_WithOversizedLimit_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/traffic").param("limit", "100000"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void getAllTrafficData_WithoutNdjsonAccept_ShouldStillReturnJsonArray() throws Exception {
+        // Given
+        when(trafficService.getAllTrafficData()).thenReturn(Arrays.asList(trafficData1));
+        
+        // When & Then
+        mockMvc.perform(get("/api/traffic").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamTrafficDataByRoadSegment_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<TrafficData> sink = invocation.getArgument(1);
+            sink.accept(trafficData1);
+            sink.accept(trafficData2);
+            return null;
+        }).when(trafficService).streamTrafficData(any(TrafficQuery.class), any(Consumer.class));
+        
+        // When
+        MvcResult result = mockMvc.perform(get("/api/traffic/road-segment/{id}", "A8-KM125-126")
+                .accept(TrafficController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TrafficController.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+        
+        // Then
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readValue(lines[1], TrafficData.class).getId());
+    }
 }
@@ -0,0 +1,178 @@
+package com.trafficoptimization.traffic_management.emissions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trafficoptimization.traffic_management.model.RoadSegment;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmissionsModelsTest {
+
+    private SegmentRegistry segmentRegistry;
+
+    @BeforeEach
+    void setUp() {
+        segmentRegistry = new SegmentRegistry();
+    }
+
+    @Test
+    void standardModel_ShouldMatchFormerHardCodedFormulas() {
+        // Given
+        EmissionsModel model = EmissionsModel.standard();
+        double[] speeds = {0.0, 9.99, 10.0, 10.01, 19.99, 20.0, 29.99, 30.0, 45.0, 59.99, 60.0, 89.99, 90.0, 130.0, 200.0};
+        double[] congestion = {0.0, 0.25, 0.4999, 0.5, 0.5001, 0.75, 1.0};
+
+        // When & Then
+        for (double speed : speeds) {
+            for (double level : congestion) {
+                String reading = "speed=" + speed + " congestion=" + level;
+                double co2Speed = speed < 10 ? 2.0 : speed < 60 ? 1.5 - (speed - 10) * 0.01 : speed < 90 ? 1.0 : 1.0 + (speed - 90) * 0.02;
+                double noxSpeed = speed < 20 ? 2.0 : speed < 60 ? 1.5 - (speed - 20) * 0.016 : 1.0;
+                double pmSpeed = speed < 30 ? 1.8 : 1.0;
+                assertEquals(2.5 * 80 * co2Speed * (1 + level), model.co2(80, speed, level), 1e-9, reading);
+                assertEquals((1.5 * 0.4 * 80 * 3 + 1.5 * 0.6 * 80) * noxSpeed * (1 + level * 1.5),
+                        model.nox(80, speed, level), 1e-9, reading);
+                assertEquals((0.1 * 0.4 * 80 * 5 + 0.1 * 0.6 * 80) * pmSpeed * (level > 0.5 ? 1.5 : 1.0),
+                        model.particulateMatter(80, speed, level), 1e-9, reading);
+            }
+        }
+    }
+
+    @Test
+    void standardModel_AtExactlyHalfCongestion_ShouldKeepTheNonUrbanPmFactor() {
+        // Given the built-in model and the same profile compiled, whose bands apply from their start
+        EmissionsModel builtIn = EmissionsModel.standard();
+        EmissionsModel compiled = EmissionsModel.compile("copy", EmissionsProfile.standard());
+        double pm = 0.1 * 0.4 * 80 * 5 + 0.1 * 0.6 * 80;
+
+        // Then
+        assertEquals(pm, builtIn.particulateMatter(80, 50, 0.5), 1e-9);
+        assertEquals(pm * 1.5, builtIn.particulateMatter(80, 50, Math.nextUp(0.5)), 1e-9);
+        assertEquals(pm * 1.5, compiled.particulateMatter(80, 50, 0.5), 1e-9);
+        assertEquals(builtIn.co2(80, 50, 0.5), compiled.co2(80, 50, 0.5), 1e-9);
+    }
+
+    @Test
+    void compile_BandsOffTheWholeGrid_ShouldSwitchExactlyAtTheirBoundary() {
+        // Given a speed band starting half-way between two whole km/h
+        EmissionsProfile profile = EmissionsProfile.standard();
+        profile.getCo2().setSpeedFactor(List.of(new EmissionsProfile.Band(0, 2.0, 0), new EmissionsProfile.Band(12.5, 1.0, 0)));
+
+        // When
+        EmissionsModel model = EmissionsModel.compile("half", profile);
+
+        // Then
+        assertEquals(2.5 * 2.0, model.co2(1, Math.nextDown(12.5), 0));
+        assertEquals(2.5 * 1.0, model.co2(1, 12.5, 0));
+        assertEquals(2.5 * 1.0, model.co2(1, 500, 0));
+    }
+
+    @Test
+    void compile_BandsOutOfOrder_ShouldThrow() {
+        // Given
+        EmissionsProfile profile = EmissionsProfile.standard();
+        profile.getNox().setSpeedFactor(List.of(new EmissionsProfile.Band(60, 1.0, 0), new EmissionsProfile.Band(20, 1.5, 0)));
+
+        // When & Then
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> EmissionsModel.compile("bad", profile));
+        assertEquals("bad: nox speedFactor bands must start at increasing, non-negative values", e.getMessage());
+    }
+
+    @Test
+    void forSegment_ShouldPreferSegmentThenRegionThenDefault() {
+        // Given
+        segmentRegistry.describe(new RoadSegment("NORTH-1", null, null, "north"));
+        segmentRegistry.describe(new RoadSegment("NORTH-2", null, null, "north"));
+        EmissionsModels models = new EmissionsModels(segmentRegistry, new EmissionsProfileSet("urban",
+                Map.of("urban", EmissionsProfile.standard(), "diesel", dieselHeavy()),
+                Map.of("north", "diesel"),
+                Map.of("NORTH-2", EmissionsProfile.STANDARD)));
+
+        // When & Then
+        assertEquals("diesel", models.forSegment("NORTH-1").getName());
+        assertEquals(EmissionsProfile.STANDARD, models.forSegment("NORTH-2").getName());
+        assertEquals("urban", models.forSegment("SOUTH-1").getName());
+
+        // When the segment moves to another region
+        segmentRegistry.describe(new RoadSegment("NORTH-1", null, null, "south"));
+
+        // Then
+        assertEquals("urban", models.forSegment("NORTH-1").getName());
+    }
+
+    @Test
+    void compile_UnregisteredSegment_ShouldNotRegisterItButApplyOnceItReports() {
+        // Given
+        EmissionsModels models = new EmissionsModels(segmentRegistry, new EmissionsProfileSet(EmissionsProfile.STANDARD,
+                Map.of("diesel", dieselHeavy()), Map.of(), Map.of("NEW-SEGMENT", "diesel")));
+
+        // Then
+        assertEquals(0, segmentRegistry.size());
+        assertEquals("diesel", models.forSegment("NEW-SEGMENT").getName());
+
+        // When the segment reports for the first time
+        int handle = segmentRegistry.intern("NEW-SEGMENT");
+
+        // Then
+        assertEquals("diesel", models.current().forHandle(handle).getName());
+        assertEquals(EmissionsProfile.STANDARD, models.current().forHandle(segmentRegistry.intern("OTHER")).getName());
+    }
+
+    @Test
+    void apply_ShouldSwapModelsAndKeepCurrentOnesWhenInvalid() {
+        // Given
+        EmissionsModels models = new EmissionsModels(segmentRegistry, EmissionsProfileSet.standard());
+        EmissionsModels.Selection before = models.current();
+
+        // When
+        models.apply(new EmissionsProfileSet("diesel", Map.of("diesel", dieselHeavy()), Map.of(), Map.of()));
+
+        // Then
+        EmissionsModel diesel = models.forSegment("A8-KM125-126");
+        assertEquals("diesel", diesel.getName());
+        assertEquals(EmissionsProfile.STANDARD, before.forSegment("A8-KM125-126").getName());
+
+        // When an assignment names an unknown profile
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> models.apply(
+                new EmissionsProfileSet("diesel", Map.of("diesel", dieselHeavy()), Map.of("north", "electric"), Map.of())));
+
+        // Then
+        assertEquals("Unknown emissions profile 'electric' for region north", e.getMessage());
+        assertSame(diesel, models.forSegment("A8-KM125-126"));
+    }
+
+    @Test
+    void reload_UnreadableFile_ShouldThrowAndKeepCurrentModels(@TempDir Path dir) throws IOException {
+        // Given
+        Path file = dir.resolve("profiles.json");
+        Files.writeString(file, "{\"defaultProfile\":\"standard\"}");
+        EmissionsModels models = new EmissionsModels(segmentRegistry, new ConcurrentMapCacheManager(),
+                new ObjectMapper(), file.toString());
+        EmissionsModels.Selection before = models.current();
+
+        // When the file is left half-written
+        Files.writeString(file, "{\"defaultProfile\":");
+
+        // Then
+        assertThrows(UncheckedIOException.class, models::reload);
+        assertSame(before, models.current());
+    }
+
+    private static EmissionsProfile dieselHeavy() {
+        EmissionsProfile profile = EmissionsProfile.standard();
+        profile.getNox().setDieselProportion(0.8);
+        profile.getParticulateMatter().setDieselProportion(0.8);
+        return profile;
+    }
+}
@@ -0,0 +1,152 @@
+package com.trafficoptimization.traffic_management.forecast;
+
+import com.trafficoptimization.traffic_management.emissions.EmissionsModel;
+import com.trafficoptimization.traffic_management.emissions.EmissionsModels;
+import com.trafficoptimization.traffic_management.emissions.EmissionsProfileSet;
+import com.trafficoptimization.traffic_management.model.CongestionForecast;
+import com.trafficoptimization.traffic_management.model.ForecastPoint;
+import com.trafficoptimization.traffic_management.model.RollupBucket;
+import com.trafficoptimization.traffic_management.model.RollupResolution;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.rollup.RollupService;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrafficForecasterTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 8, 0);
+    
+    private RollupService rollupService;
+    private SegmentRegistry segmentRegistry;
+    private TrafficForecaster forecaster;
+    
+    @BeforeEach
+    void setUp() {
+        rollupService = mock(RollupService.class);
+        segmentRegistry = new SegmentRegistry();
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        forecaster = new TrafficForecaster(rollupService, segmentRegistry,
+                new EmissionsModels(segmentRegistry, EmissionsProfileSet.standard()), Duration.ofMinutes(15),
+                0.3, 0.05, 0.2, 0.9, Duration.ofDays(1), Duration.ofHours(6), clock);
+    }
+    
+    @Test
+    void forecast_ShouldLearnTimeOfDayProfile() {
+        // Given: a week of readings every five minutes, congested from 08:30 to 09:30
+        for (LocalDateTime at = NOW.minusDays(7); at.isBefore(NOW); at = at.plusMinutes(5)) {
+            boolean peak = !at.toLocalTime().isBefore(LocalTime.of(8, 30))
+                    && at.toLocalTime().isBefore(LocalTime.of(9, 30));
+            forecaster.record(new TrafficData(null, at, "A8-KM125-126", peak ? 150 : 60, peak ? 20.0 : 90.0,
+                    peak ? 0.8 : 0.2));
+        }
+        
+        // When
+        CongestionForecast forecast = forecaster.forecast("A8-KM125-126", List.of(15, 60)).orElseThrow();
+        
+        // Then
+        assertEquals(NOW.minusMinutes(5), forecast.getLatestReading());
+        ForecastPoint beforePeak = forecast.getPoints().get(0);
+        ForecastPoint inPeak = forecast.getPoints().get(1);
+        assertEquals(NOW.plusMinutes(15), beforePeak.getTimestamp());
+        assertEquals(0.2, beforePeak.getCongestionLevel(), 0.05);
+        assertEquals(0.8, inPeak.getCongestionLevel(), 0.1);
+        assertEquals(20.0, inPeak.getAverageSpeed(), 10.0);
+        assertTrue(inPeak.getCo2KgPerHour() > beforePeak.getCo2KgPerHour());
+    }
+    
+    @Test
+    void forecast_ShouldHoldSteadyLevelAndEstimateEmissions() {
+        // Given
+        for (int minutesAgo = 120; minutesAgo > 0; minutesAgo -= 5) {
+            forecaster.record(new TrafficData(null, NOW.minusMinutes(minutesAgo), "B27-KM45-46", 100, 50.0, 0.5));
+        }
+        
+        // When
+        CongestionForecast forecast = forecaster.forecast("B27-KM45-46", List.of(15, 30, 60)).orElseThrow();
+        
+        // Then
+        EmissionsModel model = EmissionsModel.standard();
+        for (ForecastPoint point : forecast.getPoints()) {
+            assertEquals(0.5, point.getCongestionLevel(), 1e-9);
+            assertEquals(50.0, point.getAverageSpeed(), 1e-9);
+            assertEquals(100.0, point.getVehicleCount(), 1e-9);
+            assertEquals(model.co2(100, 50.0, 0.5), point.getCo2KgPerHour(), 1e-9);
+            assertEquals(model.nox(100, 50.0, 0.5), point.getNoxGramsPerHour(), 1e-9);
+        }
+        assertEquals(List.of(15, 30, 60), forecast.getPoints().stream().map(ForecastPoint::getHorizonMinutes).toList());
+    }
+    
+    @Test
+    void forecast_ShouldLeaveOutQuantitiesNeverReported() {
+        // Given
+        forecaster.record(new TrafficData(null, NOW.minusMinutes(5), "A81-KM10-11", 40, null, 0.3));
+        
+        // When
+        ForecastPoint point = forecaster.forecast("A81-KM10-11", List.of(30)).orElseThrow().getPoints().get(0);
+        
+        // Then
+        assertEquals(0.3, point.getCongestionLevel(), 1e-9);
+        assertEquals(null, point.getAverageSpeed());
+        assertEquals(null, point.getCo2KgPerHour());
+    }
+    
+    @Test
+    void forecast_ShouldBeEmptyForSegmentWithoutReadings() {
+        assertTrue(forecaster.forecast("UNKNOWN", List.of(15)).isEmpty());
+    }
+    
+    @Test
+    void forecast_ShouldRejectHorizonsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> forecaster.forecast("A8-KM125-126", List.of(0)));
+        assertThrows(IllegalArgumentException.class, () -> forecaster.forecast("A8-KM125-126", List.of(15, 361)));
+    }
+    
+    @Test
+    void getMostCongested_ShouldRankByForecastCongestion() {
+        // Given
+        for (int i = 0; i < 20; i++) {
+            forecaster.record(new TrafficData(null, NOW.minusMinutes(5), "S" + i, 80, 40.0, i / 20.0));
+        }
+        
+        // When
+        List<CongestionForecast> forecasts = forecaster.getMostCongested(30, 3);
+        
+        // Then
+        assertEquals(List.of("S19", "S18", "S17"), forecasts.stream().map(CongestionForecast::getRoadSegmentId).toList());
+        assertEquals(30, forecasts.get(0).getPoints().get(0).getHorizonMinutes());
+        assertEquals(20, forecaster.getMostCongested(30, Integer.MAX_VALUE).size());
+    }
+    
+    @Test
+    void warmUp_ShouldSeedFromRollups() {
+        // Given
+        when(rollupService.query(isNull(), any(), eq(NOW), eq(Duration.ofMinutes(15)))).thenReturn(List.of(
+                new RollupBucket("A8-KM125-126", NOW.minusMinutes(30), RollupResolution.ONE_MINUTE, 10,
+                        120.0, 140, 20.0, 15.0, 0.9, 0.95),
+                new RollupBucket("A8-KM125-126", NOW.minusMinutes(15), RollupResolution.ONE_MINUTE, 10,
+                        120.0, 140, 20.0, 15.0, 0.9, 0.95)));
+        
+        // When
+        forecaster.warmUp();
+        
+        // Then
+        CongestionForecast forecast = forecaster.forecast("A8-KM125-126", List.of(15)).orElseThrow();
+        assertEquals(NOW.minusMinutes(15), forecast.getLatestReading());
+        assertEquals(0.9, forecast.getPoints().get(0).getCongestionLevel(), 1e-9);
+    }
+}
@@ -0,0 +1,164 @@
+package com.trafficoptimization.traffic_management.hotspot;
+
+import com.trafficoptimization.traffic_management.model.Hotspot;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.repository.TrafficMetricsView;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HotspotDetectorTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 8, 30);
+    
+    private TrafficDataRepository trafficDataRepository;
+    private HotspotDetector detector;
+    
+    @BeforeEach
+    void setUp() {
+        trafficDataRepository = mock(TrafficDataRepository.class);
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        detector = new HotspotDetector(trafficDataRepository, new SegmentRegistry(), Duration.ofMinutes(15), 0.7, 8, clock);
+    }
+    
+    @Test
+    void getHotspots_ShouldRankByWindowedCongestionWithOnset() {
+        // Given
+        record("A8-KM125-126", 20, 0.5);
+        record("A8-KM125-126", 12, 0.8);
+        record("A8-KM125-126", 6, 0.9);
+        record("A8-KM125-126", 1, 0.95);
+        record("B27-KM45-46", 10, 0.75);
+        record("B27-KM45-46", 2, 0.8);
+        record("A81-KM10-11", 3, 0.2);
+        
+        // When
+        List<Hotspot> hotspots = detector.getHotspots(10);
+        
+        // Then
+        assertEquals(2, hotspots.size());
+        Hotspot first = hotspots.get(0);
+        assertEquals("A8-KM125-126", first.getRoadSegmentId());
+        // The 20-minute-old reading is outside the window
+        assertEquals(3, first.getReadingCount());
+        assertEquals((0.8 + 0.9 + 0.95) / 3, first.getWindowedCongestion(), 1e-9);
+        assertEquals(0.95, first.getPeakCongestion(), 1e-9);
+        assertEquals(NOW.minusMinutes(12), first.getCongestedSince());
+        assertEquals(12 * 60, first.getCongestedForSeconds());
+        assertEquals("B27-KM45-46", hotspots.get(1).getRoadSegmentId());
+    }
+    
+    @Test
+    void getHotspots_ShouldDropSegmentWhoseLatestReadingCleared() {
+        // Given
+        record("A8-KM125-126", 10, 0.95);
+        record("A8-KM125-126", 8, 0.95);
+        record("A8-KM125-126", 1, 0.4);
+        
+        // When & Then
+        assertTrue(detector.getHotspots(10).isEmpty());
+    }
+    
+    @Test
+    void getHotspots_ShouldRestartOnsetAfterABreak() {
+        // Given
+        record("A8-KM125-126", 14, 0.9);
+        record("A8-KM125-126", 10, 0.6);
+        record("A8-KM125-126", 5, 0.9);
+        record("A8-KM125-126", 1, 0.9);
+        
+        // When
+        Hotspot hotspot = detector.getHotspots(1).get(0);
+        
+        // Then
+        assertEquals(NOW.minusMinutes(5), hotspot.getCongestedSince());
+    }
+    
+    @Test
+    void getHotspots_ShouldHonourLimit() {
+        // Given
+        for (int i = 0; i < 50; i++) {
+            record("S" + i, 1, 0.7 + i / 200.0);
+        }
+        
+        // When
+        List<Hotspot> hotspots = detector.getHotspots(3);
+        
+        // Then
+        assertEquals(List.of("S49", "S48", "S47"), hotspots.stream().map(Hotspot::getRoadSegmentId).toList());
+    }
+    
+    @Test
+    void getHotspots_LimitBeyondSegmentCount_ShouldReturnEveryHotspot() {
+        // Given
+        record("A8-KM125-126", 1, 0.9);
+        record("B27-KM45-46", 1, 0.8);
+        
+        // When
+        List<Hotspot> hotspots = detector.getHotspots(Integer.MAX_VALUE);
+        
+        // Then
+        assertEquals(2, hotspots.size());
+    }
+    
+    @Test
+    void getHotspots_LateReading_ShouldStillLeaveTheWindow() {
+        // Given a late reading that arrives after newer ones and is already outside the window
+        record("A8-KM125-126", 5, 0.9);
+        record("A8-KM125-126", 1, 0.9);
+        record("A8-KM125-126", 20, 0.1);
+        
+        // When
+        Hotspot hotspot = detector.getHotspots(1).get(0);
+        
+        // Then
+        assertEquals(2, hotspot.getReadingCount());
+        assertEquals(0.9, hotspot.getWindowedCongestion(), 1e-9);
+    }
+    
+    @Test
+    void evictExpired_ShouldForgetSegmentsThatStoppedReporting() {
+        // Given one segment that reported recently and one that went quiet
+        record("A8-KM125-126", 1, 0.9);
+        record("B27-KM45-46", 30, 0.9);
+        record("B27-KM45-46", 20, 0.9);
+        
+        // When
+        detector.evictExpired();
+        
+        // Then
+        assertEquals(1, detector.size());
+        record("B27-KM45-46", 1, 0.95);
+        assertEquals(2, detector.size());
+        assertEquals("B27-KM45-46", detector.getHotspots(1).get(0).getRoadSegmentId());
+    }
+    
+    @Test
+    void warmUp_ShouldSeedWindowsFromRecentReadings() {
+        // Given
+        when(trafficDataRepository.findMetrics(any(), any())).thenReturn(List.of(
+                new TrafficMetricsView("A8-KM125-126", NOW.minusMinutes(4), 110, 18.0, 0.85),
+                new TrafficMetricsView("A8-KM125-126", NOW.minusMinutes(2), 120, 15.0, 0.9)));
+        
+        // When
+        detector.warmUp();
+        
+        // Then
+        assertEquals(NOW.minusMinutes(4), detector.getHotspots(1).get(0).getCongestedSince());
+    }
+    
+    private void record(String roadSegmentId, int minutesAgo, double congestion) {
+        detector.record(new TrafficData(null, NOW.minusMinutes(minutesAgo), roadSegmentId, 80, 30.0, congestion));
+    }
+}
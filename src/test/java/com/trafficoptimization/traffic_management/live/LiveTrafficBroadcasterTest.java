@@ -0,0 +1,145 @@
+package com.trafficoptimization.traffic_management.live;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveTrafficBroadcasterTest {
+    
+    private SimpleMeterRegistry meterRegistry;
+    private SegmentRegistry segmentRegistry;
+    private List<Runnable> pendingSends;
+    private LiveTrafficBroadcaster broadcaster;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        segmentRegistry = new SegmentRegistry();
+        pendingSends = new ArrayList<>();
+        // Senders never run, so every subscriber behaves like a client that stopped reading
+        broadcaster = new LiveTrafficBroadcaster(meterRegistry, segmentRegistry, pendingSends::add, null, 3, -1, -1, -1);
+    }
+    
+    @Test
+    void onTrafficDataSaved_SlowSubscriber_ShouldBeDisconnectedWithoutBlocking() {
+        // Given
+        broadcaster.subscribe(Set.of("A8-KM125-126"), null);
+        
+        // When
+        for (int i = 0; i < 4; i++) {
+            broadcaster.onTrafficDataSaved(List.of(reading("A8-KM125-126", 0.3)));
+        }
+        
+        // Then
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertEquals(1.0, meterRegistry.get("traffic.live.disconnected").counter().count());
+        assertEquals(1, pendingSends.size());
+    }
+    
+    @Test
+    void onTrafficDataSaved_ShouldOnlyBufferMatchingSegments() {
+        // Given
+        broadcaster.subscribe(Set.of("A8-KM125-126"), null);
+        
+        // When
+        for (int i = 0; i < 10; i++) {
+            broadcaster.onTrafficDataSaved(List.of(reading("B27-KM45-46", 0.9)));
+        }
+        
+        // Then
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(0, pendingSends.size());
+    }
+    
+    @Test
+    void subscribe_UnknownSegment_ShouldNotRegisterItButMatchItOnceItReports() {
+        // Given
+        segmentRegistry.intern("A8-KM125-126");
+        broadcaster.subscribe(Set.of("A8-KM125-126", "NEW-SEGMENT"), null);
+        assertEquals(1, segmentRegistry.size());
+
+        // When the new segment reports for the first time
+        segmentRegistry.intern("NEW-SEGMENT");
+        broadcaster.onTrafficDataSaved(List.of(reading("NEW-SEGMENT", 0.3)));
+        broadcaster.onTrafficDataSaved(List.of(reading("NEW-SEGMENT", 0.3)));
+
+        // Then
+        assertEquals(1, pendingSends.size());
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void onTrafficDataSaved_AlertsShouldCountTowardsTheBuffer() {
+        // Given a reading above the threshold queues both a reading and an alert
+        broadcaster.subscribe(Set.of(), 0.7);
+        
+        // When
+        broadcaster.onTrafficDataSaved(List.of(reading("A8-KM125-126", 0.8)));
+        broadcaster.onTrafficDataSaved(List.of(reading("A8-KM125-126", 0.9)));
+        
+        // Then
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+    
+    @Test
+    void sendCheck_BlockedSend_ShouldDisconnectItAndKeepServingOthers() throws Exception {
+        // Given a single sender thread and a first subscriber whose client stopped reading
+        ExecutorService senders = Executors.newFixedThreadPool(1);
+        ScheduledExecutorService sendCheck = Executors.newSingleThreadScheduledExecutor();
+        LiveTrafficBroadcaster broadcaster = new LiveTrafficBroadcaster(meterRegistry, new SegmentRegistry(), senders,
+                sendCheck, 3, -1, 50, 10);
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        broadcaster.subscribe(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder event) throws IOException {
+                stalled.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+        }, Set.of(), null);
+        CountDownLatch delivered = new CountDownLatch(1);
+        broadcaster.subscribe(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder event) {
+                delivered.countDown();
+            }
+        }, Set.of(), null);
+
+        try {
+            // When
+            broadcaster.onTrafficDataSaved(List.of(reading("A8-KM125-126", 0.3)));
+            assertTrue(stalled.await(5, TimeUnit.SECONDS));
+
+            // Then the send check alone frees a sender for the other subscriber
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+            assertEquals(1, broadcaster.getSubscriberCount());
+            assertEquals(1.0, meterRegistry.get("traffic.live.disconnected").counter().count());
+        } finally {
+            released.countDown();
+            broadcaster.shutdown();
+        }
+    }
+
+    private static TrafficData reading(String roadSegmentId, double congestion) {
+        return new TrafficData(1L, LocalDateTime.now(), roadSegmentId, 80, 40.0, congestion);
+    }
+}
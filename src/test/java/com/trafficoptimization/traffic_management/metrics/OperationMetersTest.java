@@ -0,0 +1,77 @@
+package com.trafficoptimization.traffic_management.metrics;
+
+import com.trafficoptimization.traffic_management.model.RoadClass;
+import com.trafficoptimization.traffic_management.model.RoadSegment;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class OperationMetersTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SegmentRegistry segmentRegistry;
+    private OperationMeters meters;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        segmentRegistry = new SegmentRegistry();
+        meters = new OperationMeters(meterRegistry, segmentRegistry, "test.operation", "Test operations");
+    }
+
+    @Test
+    void query_ShouldTimeAndCountRowsByRoadClass() {
+        // Given
+        segmentRegistry.describe(new RoadSegment("A8-KM125-126", RoadClass.MOTORWAY, 1.0, null));
+        segmentRegistry.intern("B27-KM45-46");
+
+        // When
+        meters.of("by_segment", "A8-KM125-126").query(() -> List.of(1, 2, 3));
+        meters.of("by_segment", "B27-KM45-46").query(() -> List.of(1));
+        meters.of("by_segment", "NEVER-SEEN").query(List::of);
+        meters.of("all").query(() -> List.of(1, 2));
+
+        // Then
+        Timer motorway = meterRegistry.get("test.operation")
+                .tags("operation", "by_segment", "road_class", "motorway").timer();
+        assertEquals(1, motorway.count());
+        DistributionSummary motorwayRows = meterRegistry.get("test.operation.rows")
+                .tags("operation", "by_segment", "road_class", "motorway").summary();
+        assertEquals(3.0, motorwayRows.totalAmount());
+        assertEquals(2, meterRegistry.get("test.operation")
+                .tags("operation", "by_segment", "road_class", OperationMeters.UNCLASSIFIED).timer().count());
+        assertEquals(2.0, meterRegistry.get("test.operation.rows")
+                .tags("operation", "all", "road_class", OperationMeters.ALL_SEGMENTS).summary().totalAmount());
+    }
+
+    @Test
+    void of_ShouldReuseMetersOfTheSameOperationAndRoadClass() {
+        // When
+        OperationMeters.Meters first = meters.of("average_congestion", "A8-KM125-126");
+        OperationMeters.Meters second = meters.of("average_congestion", "B27-KM45-46");
+
+        // Then both are unclassified
+        assertSame(first, second);
+    }
+
+    @Test
+    void time_FailingOperation_ShouldStillBeRecorded() {
+        // When
+        try {
+            meters.of("save").time(() -> {
+                throw new IllegalStateException("database down");
+            });
+        } catch (IllegalStateException expected) {
+            // recorded below
+        }
+
+        // Then
+        assertEquals(1, meterRegistry.get("test.operation").tags("operation", "save").timer().count());
+    }
+}
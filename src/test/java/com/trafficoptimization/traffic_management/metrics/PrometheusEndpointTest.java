@@ -0,0 +1,59 @@
+package com.trafficoptimization.traffic_management.metrics;
+
+import com.trafficoptimization.traffic_management.model.RoadClass;
+import com.trafficoptimization.traffic_management.model.RoadSegment;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.segment.RoadSegmentService;
+import com.trafficoptimization.traffic_management.service.EmissionsService;
+import com.trafficoptimization.traffic_management.service.TrafficService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TrafficService trafficService;
+
+    @Autowired
+    private EmissionsService emissionsService;
+
+    @Autowired
+    private RoadSegmentService roadSegmentService;
+
+    @Test
+    void prometheus_ShouldExposeServiceAndRepositoryHistograms() throws Exception {
+        // Given
+        String segment = "METRICS-A1";
+        roadSegmentService.save(new RoadSegment(segment, RoadClass.MOTORWAY, 2.5, null));
+        trafficService.saveTrafficData(new TrafficData(null, LocalDateTime.now(), segment, 80, 70.0, 0.4));
+        trafficService.getTrafficDataByRoadSegment(segment);
+        emissionsService.estimateEmissionsForRoadSegment(segment);
+
+        // When
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertTrue(scrape.contains("traffic_data_operation_seconds_bucket{"));
+        assertTrue(scrape.contains("traffic_data_operation_rows_count{operation=\"by_segment\",road_class=\"motorway\"}"));
+        assertTrue(scrape.contains("traffic_emissions_operation_seconds_count{operation=\"compute\",road_class=\"motorway\"}"));
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket{"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.trafficoptimization.traffic_management.recent;
+
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency, heap allocation and garbage collection of the recent-reading queries, answered by the
+ * repository and by {@link RecentReadingStore}. Loads {@code -Dbenchmark.rows} readings (default one
+ * million) of the last five hours into a dedicated in-memory database:
+ * <pre>mvn test -Dtest=RecentReadingStoreBenchmarkTest -Dbenchmark=true</pre>
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:recent-benchmark;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RecentReadingStoreBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int SEGMENTS = 2_000;
+    private static final int ITERATIONS = 50;
+    private static final LocalDateTime BASE = LocalDateTime.now().minusHours(5).truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private TrafficDataRepository trafficDataRepository;
+
+    @Autowired
+    private SegmentRegistry segmentRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private RecentReadingStore store;
+
+    @BeforeAll
+    void loadReadings() {
+        jdbcTemplate.update("DELETE FROM traffic_data");
+        List<Object[]> rows = new ArrayList<>(10_000);
+        // Every segment reports at the same pace, spreading the readings over five hours
+        long stepMillis = Duration.ofHours(5).toMillis() * SEGMENTS / ROWS;
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[] {
+                    (long) i + 1_000_000_000L,
+                    Timestamp.valueOf(BASE.plus(i / SEGMENTS * stepMillis, ChronoUnit.MILLIS)),
+                    "SEG-" + (i % SEGMENTS),
+                    i % 150,
+                    20.0 + i % 110,
+                    (i % 100) / 100.0
+            });
+            if (rows.size() == 10_000) {
+                insert(rows);
+                rows.clear();
+            }
+        }
+        insert(rows);
+
+        store = new RecentReadingStore(trafficDataRepository, segmentRegistry, new SimpleMeterRegistry(),
+                Duration.ofHours(6), ROWS);
+        long start = System.nanoTime();
+        store.load();
+        System.out.printf("Loaded %,d readings into %,d bytes off-heap in %,d ms%n", store.size(),
+                store.getAllocatedBytes(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Test
+    void compareRepositoryAndStore() {
+        assertEquals(ROWS, store.size());
+        // A ten-minute window and an hour in the middle of the loaded readings
+        LocalDateTime windowStart = BASE.plusMinutes(150);
+        LocalDateTime windowEnd = windowStart.plusMinutes(10);
+        LocalDateTime hourEnd = windowStart.plusHours(1);
+
+        Map<String, Supplier<?>> repository = new LinkedHashMap<>();
+        repository.put("time range, 10 minutes", () -> trafficDataRepository.findByTimestampBetween(windowStart, windowEnd));
+        repository.put("congestion points of a segment", () -> trafficDataRepository.findCongestionPoints("SEG-42", 0.9));
+        repository.put("segment statistics, 1 hour", () -> trafficDataRepository.aggregateSegment("SEG-42", windowStart, hourEnd));
+        Map<String, Supplier<?>> recent = new LinkedHashMap<>();
+        recent.put("time range, 10 minutes", () -> store.findByTimeRange(windowStart, windowEnd));
+        recent.put("congestion points of a segment", () -> store.findCongestionPoints("SEG-42", 0.9));
+        recent.put("segment statistics, 1 hour", () -> store.summarize("SEG-42", windowStart, hourEnd));
+
+        // Untimed pass so neither side pays for JIT warm-up
+        repository.values().forEach(RecentReadingStoreBenchmarkTest::measure);
+        recent.values().forEach(RecentReadingStoreBenchmarkTest::measure);
+
+        System.out.printf("Recent reading queries over %,d rows (mean of %d runs)%n", ROWS, ITERATIONS);
+        System.out.printf("%-32s %-10s %10s %16s %6s %12s%n", "query", "path", "ms", "heap bytes/call", "GCs",
+                "GC pause ms");
+        repository.forEach((query, repositoryQuery) -> {
+            Measurement database = measure(repositoryQuery);
+            Measurement memory = measure(recent.get(query));
+            database.print(query, "repository");
+            memory.print(query, "store");
+            assertTrue(memory.allocatedBytes < database.allocatedBytes,
+                    query + " should allocate less from the store");
+        });
+    }
+
+    private static Measurement measure(Supplier<?> query) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long collections = collections();
+        long pauses = collectionMillis();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Measurement(elapsed / 1_000_000.0 / ITERATIONS,
+                (threads.getCurrentThreadAllocatedBytes() - allocated) / ITERATIONS,
+                collections() - collections, collectionMillis() - pauses);
+    }
+
+    private static long collections() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .sum();
+    }
+
+    private static long collectionMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .sum();
+    }
+
+    private void insert(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO traffic_data (id, \"TIMESTAMP\", road_segment_id, vehicle_count, "
+                + "average_speed, congestion_level) VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private record Measurement(double millis, long allocatedBytes, long collections, long collectionMillis) {
+
+        void print(String query, String path) {
+            System.out.printf("%-32s %-10s %10.3f %,16d %6d %12d%n", query, path, millis, allocatedBytes, collections,
+                    collectionMillis);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.trafficoptimization.traffic_management.recent;
+
+import com.trafficoptimization.traffic_management.aggregate.SegmentStatistics;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class RecentReadingStoreTest {
+
+    private static final int BLOCK_ROWS = 65_536;
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 2, 12, 0);
+
+    private final MovingClock clock = new MovingClock(NOW.toInstant(ZoneOffset.UTC));
+    private SegmentRegistry segmentRegistry;
+    private RecentReadingStore store;
+
+    @BeforeEach
+    void setUp() {
+        segmentRegistry = new SegmentRegistry();
+        store = new RecentReadingStore(mock(TrafficDataRepository.class), segmentRegistry, new SimpleMeterRegistry(),
+                Duration.ofHours(6), BLOCK_ROWS, clock);
+        store.load();
+    }
+
+    @Test
+    void findByTimeRange_ShouldReturnReadingsAsStoredInTimestampOrder() {
+        // Given, out of order and with optional values missing
+        TrafficData late = new TrafficData(3L, NOW.minusMinutes(30), "A1", 40, 88.5, 0.2);
+        TrafficData early = new TrafficData(1L, NOW.minusMinutes(50).plusNanos(123_456_000), "A2", 12, null, null);
+        TrafficData middle = new TrafficData(2L, NOW.minusMinutes(40), "A1", 7, 30.0, 0.9);
+        TrafficData outside = new TrafficData(4L, NOW.minusMinutes(10), "A2", 3, 120.0, 0.0);
+        store.onTrafficDataSaved(List.of(late, early, middle, outside));
+
+        // When
+        List<TrafficData> found = store.findByTimeRange(NOW.minusMinutes(50).plusNanos(123_456_000), NOW.minusMinutes(30));
+
+        // Then
+        assertEquals(List.of(early, middle, late), found);
+        assertTrue(store.covers(NOW.minusHours(6)));
+        assertFalse(store.covers(NOW.minusHours(7)));
+    }
+
+    @Test
+    void onTrafficDataSaved_ReadingsBeforeTheHorizon_ShouldNotBeKept() {
+        // When
+        store.onTrafficDataSaved(List.of(new TrafficData(1L, NOW.minusHours(7), "A1", 40, 88.5, 0.2)));
+
+        // Then
+        assertEquals(0, store.size());
+        assertEquals(0, store.count("A1"));
+    }
+
+    @Test
+    void onTrafficDataSaved_FullRing_ShouldDropOldestAndRaiseCoverage() {
+        // Given a full ring and then some, one reading a second
+        LocalDateTime first = NOW.minusHours(5);
+        store.onTrafficDataSaved(readings(first, BLOCK_ROWS + 10, Duration.ofSeconds(1)));
+
+        // Then the ten oldest are gone, and ranges reaching back to them are no longer covered
+        assertEquals(BLOCK_ROWS, store.size());
+        assertEquals(BLOCK_ROWS, store.count("S"));
+        assertFalse(store.covers(first.plusSeconds(9)));
+        assertTrue(store.covers(first.plusSeconds(10)));
+        assertEquals(BLOCK_ROWS, store.findByTimeRange(first, first.plusSeconds(BLOCK_ROWS + 10)).size());
+        assertEquals(first.plusSeconds(10), store.findByTimeRange(first, first.plusSeconds(20)).get(0).getTimestamp());
+    }
+
+    @Test
+    void evictExpired_ShouldDropReadingsThatLeftTheHorizon() {
+        // Given
+        store.onTrafficDataSaved(readings(NOW.minusHours(3), 3 * 60, Duration.ofMinutes(1)));
+
+        // When four hours pass
+        clock.advance(Duration.ofHours(4));
+        store.evictExpired();
+
+        // Then only the readings of the last 6 hours remain
+        assertEquals(2 * 60, store.size());
+        assertFalse(store.covers(NOW.minusHours(3)));
+        assertTrue(store.covers(NOW.minusHours(2)));
+    }
+
+    @Test
+    void findCongestionPoints_ShouldReturnTheSegmentsReadingsAboveTheThreshold() {
+        // Given
+        store.onTrafficDataSaved(List.of(
+                new TrafficData(1L, NOW.minusMinutes(3), "A1", 40, 20.0, 0.8),
+                new TrafficData(2L, NOW.minusMinutes(2), "A1", 40, 50.0, 0.5),
+                new TrafficData(3L, NOW.minusMinutes(1), "A1", 40, 90.0, null),
+                new TrafficData(4L, NOW.minusMinutes(1), "A2", 40, 10.0, 0.9)));
+
+        // When
+        List<TrafficData> found = store.findCongestionPoints("A1", 0.5);
+
+        // Then
+        assertEquals(1, found.size());
+        assertEquals(1L, found.get(0).getId());
+        assertEquals(3, store.count("A1"));
+        assertTrue(store.findCongestionPoints("UNKNOWN", 0.5).isEmpty());
+    }
+
+    @Test
+    void remove_ShouldForgetTheSegment() {
+        // Given
+        store.onTrafficDataSaved(List.of(
+                new TrafficData(1L, NOW.minusMinutes(3), "A1", 40, 20.0, 0.8),
+                new TrafficData(2L, NOW.minusMinutes(2), "A2", 40, 50.0, 0.9)));
+
+        // When
+        store.remove("A1");
+
+        // Then
+        assertEquals(0, store.count("A1"));
+        assertTrue(store.findCongestionPoints("A1", 0.0).isEmpty());
+        assertEquals(List.of(2L), store.findByTimeRange(NOW.minusHours(1), NOW).stream().map(TrafficData::getId).toList());
+    }
+
+    @Test
+    void summarize_ShouldAggregateTheWindowWithoutAllocatingPerRow() {
+        // Given a full ring of one segment
+        store.onTrafficDataSaved(readings(NOW.minusHours(5), BLOCK_ROWS, Duration.ofSeconds(1)));
+        LocalDateTime start = NOW.minusHours(5).plusSeconds(100);
+        LocalDateTime end = NOW.minusHours(5).plusSeconds(199);
+        store.summarize("S", start, end);
+
+        // When
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        SegmentStatistics statistics = store.summarize("S", start, end);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        // Then
+        assertEquals(100, statistics.getCount());
+        assertEquals((100 + 199) / 2.0, statistics.getAverageVehicleCount(), 1e-9);
+        assertEquals(0, statistics.getCongestionCount());
+        assertEquals(end, statistics.getLatestTimestamp());
+        assertTrue(allocated < 4_096, "allocated " + allocated + " bytes scanning " + BLOCK_ROWS + " rows");
+
+        assertEquals(0, store.summarize("S", NOW.minusHours(6), NOW.minusHours(5).minusSeconds(1)).getCount());
+        assertNull(store.summarize("UNKNOWN", start, end).getLatestTimestamp());
+    }
+
+    // Readings of segment "S" a step apart, with the vehicle count counting up from zero
+    private static List<TrafficData> readings(LocalDateTime first, int count, Duration step) {
+        List<TrafficData> readings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            readings.add(new TrafficData((long) i, first.plus(step.multipliedBy(i)), "S", i, 50.0, null));
+        }
+        return readings;
+    }
+
+    private static final class MovingClock extends Clock {
+
+        private Instant instant;
+
+        MovingClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
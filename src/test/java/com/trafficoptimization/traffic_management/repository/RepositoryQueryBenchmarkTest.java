@@ -0,0 +1,127 @@
+package com.trafficoptimization.traffic_management.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query latency of the repository access paths with and without the {@code traffic_data} indexes.
+ * Loads {@code -Dbenchmark.rows} readings (default one million) into a dedicated in-memory database.
+ * H2's statement plan cache is disabled there, otherwise plans compiled before the indexes are
+ * dropped keep using them:
+ * <pre>mvn test -Dtest=RepositoryQueryBenchmarkTest -Dbenchmark=true</pre>
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:query-benchmark;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=0")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryBenchmarkTest {
+    
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int SEGMENTS = 2_000;
+    private static final int ITERATIONS = 20;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    
+    private static final Map<String, String> INDEXES = new LinkedHashMap<>();
+    
+    static {
+        INDEXES.put("idx_traffic_data_segment_time", "road_segment_id, \"TIMESTAMP\"");
+        INDEXES.put("idx_traffic_data_segment_congestion", "road_segment_id, congestion_level");
+        INDEXES.put("idx_traffic_data_time", "\"TIMESTAMP\"");
+    }
+    
+    @Autowired
+    private TrafficDataRepository trafficDataRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeAll
+    void loadReadings() {
+        jdbcTemplate.update("DELETE FROM traffic_data");
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[] {
+                    (long) i + 1_000_000_000L,
+                    // Every segment reports every 30 seconds
+                    Timestamp.valueOf(BASE.plusSeconds(i / SEGMENTS * 30L)),
+                    "SEG-" + (i % SEGMENTS),
+                    i % 150,
+                    20.0 + i % 110,
+                    (i % 100) / 100.0
+            });
+            if (rows.size() == 10_000) {
+                insert(rows);
+                rows.clear();
+            }
+        }
+        insert(rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+    
+    @Test
+    void compareQueryLatencyWithAndWithoutIndexes() {
+        assertTrue(indexExists("idx_traffic_data_segment_time"), "entity should declare the composite indexes");
+        
+        // Untimed pass so the first measured configuration does not pay for JIT warm-up
+        measureAll();
+        Map<String, Double> indexed = measureAll();
+        INDEXES.keySet().forEach(name -> jdbcTemplate.execute("DROP INDEX " + name));
+        Map<String, Double> scanned = measureAll();
+        INDEXES.forEach((name, columns) -> jdbcTemplate.execute("CREATE INDEX " + name + " ON traffic_data(" + columns + ")"));
+        
+        System.out.printf("Query latency over %,d rows (mean of %d runs)%n", ROWS, ITERATIONS);
+        System.out.printf("%-40s %14s %14s %9s%n", "query", "no index (ms)", "indexed (ms)", "speedup");
+        indexed.forEach((query, indexedMillis) -> System.out.printf("%-40s %14.3f %14.3f %8.1fx%n",
+                query, scanned.get(query), indexedMillis, scanned.get(query) / indexedMillis));
+        assertEquals(indexed.keySet(), scanned.keySet());
+    }
+    
+    private Map<String, Double> measureAll() {
+        // A ten-minute window in the middle of the loaded history
+        LocalDateTime windowStart = BASE.plusSeconds(ROWS / SEGMENTS * 15L);
+        LocalDateTime windowEnd = windowStart.plusMinutes(10);
+        Map<String, Double> results = new LinkedHashMap<>();
+        results.put("findByRoadSegmentId (entities)", measure(() -> trafficDataRepository.findByRoadSegmentId("SEG-42")));
+        results.put("findCongestionPoints (entities)", measure(() -> trafficDataRepository.findCongestionPoints("SEG-42", 0.9)));
+        results.put("findByTimestampBetween (entities)",
+                measure(() -> trafficDataRepository.findByTimestampBetween(windowStart, windowEnd)));
+        results.put("findMetrics(range) (projection)", measure(() -> trafficDataRepository.findMetrics(windowStart, windowEnd)));
+        return results;
+    }
+    
+    private static double measure(Supplier<List<?>> query) {
+        // One untimed run to warm caches and compiled plans
+        query.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+    
+    private boolean indexExists(String name) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE LOWER(INDEX_NAME) = ?", Integer.class, name);
+        return count != null && count > 0;
+    }
+    
+    private void insert(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO traffic_data (id, \"TIMESTAMP\", road_segment_id, vehicle_count, "
+                + "average_speed, congestion_level) VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,124 @@
+package com.trafficoptimization.traffic_management.retention;
+
+import com.trafficoptimization.traffic_management.aggregate.SegmentAggregateStore;
+import com.trafficoptimization.traffic_management.aggregate.SegmentStatistics;
+import com.trafficoptimization.traffic_management.model.RollupBucket;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.rollup.RollupService;
+import com.trafficoptimization.traffic_management.service.TrafficService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RetentionServiceTest {
+
+    // Far older than any other test data in the shared database
+    private static final LocalDateTime DAY = LocalDateTime.of(1990, 1, 1, 0, 0);
+
+    @TempDir
+    static Path archiveDirectory;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("traffic.retention.archive-dir", () -> archiveDirectory.toString());
+        registry.add("traffic.retention.delete-chunk-size", () -> 2);
+    }
+
+    @Autowired
+    private TrafficService trafficService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private RetentionService retentionService;
+
+    @Autowired
+    private RetentionWatermark retentionWatermark;
+
+    @Autowired
+    private SegmentAggregateStore aggregateStore;
+
+    @Test
+    void purgeBefore_ShouldCompactArchiveAndDeleteAgedDays() throws IOException {
+        // Given
+        String segment = "RETENTION-A";
+        trafficService.saveTrafficDataBatch(Arrays.asList(
+                new TrafficData(null, DAY.plusHours(8), segment, 40, 80.0, 0.2),
+                new TrafficData(null, DAY.plusHours(9), segment, 60, 60.0, 0.4),
+                new TrafficData(null, DAY.plusHours(17), segment, 80, 30.0, 0.7),
+                new TrafficData(null, DAY.plusDays(1).plusHours(10), segment, 20, 100.0, 0.1),
+                new TrafficData(null, DAY.plusDays(4).plusHours(10), segment, 30, 90.0, 0.3)));
+
+        // When
+        long deleted = retentionService.purgeBefore(DAY.plusDays(2).plusHours(12));
+
+        // Then the first two days are gone from the table and pruned from time range queries
+        assertEquals(4, deleted);
+        assertEquals(DAY.plusDays(2), retentionWatermark.get());
+        assertTrue(trafficService.getTrafficDataByTimeRange(DAY, DAY.plusDays(2)).isEmpty());
+        List<TrafficData> retained = trafficService.getTrafficDataByTimeRange(DAY, DAY.plusDays(5));
+        assertEquals(1, retained.size());
+        assertEquals(DAY.plusDays(4).plusHours(10), retained.get(0).getTimestamp());
+
+        // And the segment's statistics cover the retained reading only, as after a restart
+        SegmentStatistics statistics = aggregateStore.get(segment).orElseThrow();
+        assertEquals(1, statistics.getCount());
+        assertEquals(90.0, statistics.getAverageSpeed());
+        assertEquals(0.3, statistics.getCongestionMax());
+
+        // And their rollups survive
+        List<RollupBucket> days = rollupService.query(segment, DAY, DAY.plusDays(2), Duration.ofDays(1));
+        assertEquals(2, days.size());
+        assertEquals(3, days.get(0).getReadingCount());
+        assertEquals(1, days.get(1).getReadingCount());
+
+        // And each day was archived as one NDJSON line per reading
+        assertEquals(3, readLines(archiveDirectory.resolve("traffic-data-1990-01-01.ndjson.gz")).size());
+        List<String> secondDay = readLines(archiveDirectory.resolve("traffic-data-1990-01-02.ndjson.gz"));
+        assertEquals(1, secondDay.size());
+        assertTrue(secondDay.get(0).contains("\"roadSegmentId\":\"RETENTION-A\""));
+    }
+
+    @Test
+    void saveTrafficData_OlderThanWatermark_ShouldLowerIt() {
+        // Given
+        LocalDateTime late = DAY.minusYears(1);
+
+        // When
+        trafficService.saveTrafficData(new TrafficData(null, late, "RETENTION-LATE", 10, 50.0, 0.5));
+
+        // Then
+        assertEquals(late, retentionWatermark.get());
+        assertEquals(1, trafficService.getTrafficDataByTimeRange(late.minusDays(1), late.plusDays(1)).size());
+        assertEquals(1, retentionService.purgeBefore(late.plusDays(1)));
+        assertTrue(trafficService.getTrafficDataByTimeRange(late.minusDays(1), late.plusDays(1)).isEmpty());
+        assertTrue(aggregateStore.get("RETENTION-LATE").isEmpty());
+    }
+
+    private static List<String> readLines(Path archive) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(archive)), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+}
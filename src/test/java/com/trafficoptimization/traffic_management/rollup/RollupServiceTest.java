@@ -0,0 +1,157 @@
+package com.trafficoptimization.traffic_management.rollup;
+
+import com.trafficoptimization.traffic_management.model.RollupBucket;
+import com.trafficoptimization.traffic_management.model.RollupResolution;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.service.IngestionGate;
+import com.trafficoptimization.traffic_management.service.TrafficService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RollupServiceTest {
+    
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 10, 8, 0);
+    
+    @Autowired
+    private TrafficService trafficService;
+    
+    @Autowired
+    private RollupService rollupService;
+    
+    @Autowired
+    private IngestionGate ingestionGate;
+    
+    @Autowired
+    private TrafficDataRepository trafficDataRepository;
+    
+    @Test
+    void forGranularity_ShouldPickCoarsestTilingResolution() {
+        assertEquals(RollupResolution.ONE_MINUTE, RollupResolution.forGranularity(Duration.ofMinutes(5)));
+        assertEquals(RollupResolution.FIFTEEN_MINUTES, RollupResolution.forGranularity(Duration.ofMinutes(30)));
+        assertEquals(RollupResolution.ONE_HOUR, RollupResolution.forGranularity(Duration.ofDays(1)));
+        assertNull(RollupResolution.forGranularity(Duration.ofSeconds(30)));
+    }
+    
+    @Test
+    void query_ShouldCombinePendingAndFlushedBuckets() {
+        // Given
+        String segment = "ROLLUP-QUERY";
+        trafficService.saveTrafficDataBatch(Arrays.asList(
+                new TrafficData(null, BASE.plusMinutes(1), segment, 40, 80.0, 0.2),
+                new TrafficData(null, BASE.plusMinutes(1).plusSeconds(30), segment, 60, 60.0, 0.4)));
+        
+        // When pending only
+        List<RollupBucket> minuteBuckets = rollupService.query(segment, BASE, BASE.plusHours(2), Duration.ofMinutes(1));
+        
+        // Then
+        assertEquals(1, minuteBuckets.size());
+        assertEquals(BASE.plusMinutes(1), minuteBuckets.get(0).getBucketStart());
+        assertEquals(2, minuteBuckets.get(0).getReadingCount());
+        assertEquals(50.0, minuteBuckets.get(0).getAverageVehicleCount(), 1e-9);
+        
+        // When flushed and more readings arrive
+        rollupService.flush();
+        trafficService.saveTrafficDataBatch(Arrays.asList(
+                new TrafficData(null, BASE.plusMinutes(20), segment, 100, 20.0, 0.9),
+                new TrafficData(null, BASE.plusMinutes(75), segment, 10, 110.0, 0.1)));
+        List<RollupBucket> quarterBuckets = rollupService.query(segment, BASE, BASE.plusHours(2), Duration.ofMinutes(15));
+        List<RollupBucket> twoHourBuckets = rollupService.query(segment, BASE, BASE.plusHours(2), Duration.ofHours(2));
+        
+        // Then
+        assertEquals(3, quarterBuckets.size());
+        assertEquals(RollupResolution.FIFTEEN_MINUTES, quarterBuckets.get(0).getSourceResolution());
+        assertEquals(BASE.plusMinutes(15), quarterBuckets.get(1).getBucketStart());
+        assertEquals(1, twoHourBuckets.size());
+        assertEquals(RollupResolution.ONE_HOUR, twoHourBuckets.get(0).getSourceResolution());
+        assertEquals(4, twoHourBuckets.get(0).getReadingCount());
+        assertEquals(0.9, twoHourBuckets.get(0).getMaxCongestion(), 1e-9);
+        assertEquals(20.0, twoHourBuckets.get(0).getMinSpeed(), 1e-9);
+        assertEquals(100, twoHourBuckets.get(0).getMaxVehicleCount());
+    }
+    
+    @Test
+    void backfill_ShouldRecomputeBucketsWithoutDoubleCounting() {
+        // Given
+        String segment = "ROLLUP-BACKFILL";
+        LocalDateTime day = BASE.plusDays(3);
+        trafficService.saveTrafficDataBatch(Arrays.asList(
+                new TrafficData(null, day.plusMinutes(5), segment, 30, 90.0, 0.3),
+                new TrafficData(null, day.plusMinutes(50), segment, 70, 40.0, 0.7)));
+        rollupService.flush();
+        trafficService.saveTrafficData(new TrafficData(null, day.plusMinutes(55), segment, 50, 50.0, 0.5));
+        
+        // When
+        rollupService.backfill(day, day.plusMinutes(59));
+        List<RollupBucket> hourBuckets = rollupService.query(segment, day, day.plusHours(1), Duration.ofHours(1));
+        List<RollupBucket> minuteBuckets = rollupService.query(segment, day, day.plusHours(1), Duration.ofMinutes(1));
+        
+        // Then
+        assertEquals(1, hourBuckets.size());
+        assertEquals(3, hourBuckets.get(0).getReadingCount());
+        assertEquals(50.0, hourBuckets.get(0).getAverageVehicleCount(), 1e-9);
+        assertEquals(0.5, hourBuckets.get(0).getAverageCongestion(), 1e-9);
+        assertEquals(3, minuteBuckets.size());
+    }
+    
+    @Test
+    void backfill_ReadingCommittedBeforeItsListenerRan_ShouldBeCountedOnce() throws Exception {
+        // Given a reading committed whose listeners have not run yet
+        String segment = "ROLLUP-BACKFILL-RACE";
+        LocalDateTime day = BASE.plusDays(5);
+        CountDownLatch committed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread ingestion = new Thread(() -> ingestionGate.saving(() -> {
+            TrafficData saved = trafficDataRepository.save(new TrafficData(null, day.plusMinutes(5), segment, 30, 90.0, 0.3));
+            committed.countDown();
+            await(release);
+            rollupService.onTrafficDataSaved(List.of(saved));
+            return saved;
+        }));
+        ingestion.start();
+        committed.await();
+        
+        // When a backfill of its range starts before the listener runs
+        CompletableFuture<Integer> backfill = CompletableFuture.supplyAsync(
+                () -> rollupService.backfill(day, day.plusHours(1)));
+        Thread.sleep(200);
+        assertFalse(backfill.isDone());
+        release.countDown();
+        ingestion.join();
+        backfill.get(10, TimeUnit.SECONDS);
+        
+        // Then
+        List<RollupBucket> buckets = rollupService.query(segment, day, day.plusHours(1), Duration.ofHours(1));
+        assertEquals(1, buckets.size());
+        assertEquals(1, buckets.get(0).getReadingCount());
+    }
+    
+    @Test
+    void query_ShouldRejectSubMinuteGranularity() {
+        assertThrows(IllegalArgumentException.class,
+                () -> rollupService.query(null, BASE, BASE.plusHours(1), Duration.ofSeconds(10)));
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.trafficoptimization.traffic_management.route;
+
+import com.trafficoptimization.traffic_management.cluster.ClusterClient;
+import com.trafficoptimization.traffic_management.cluster.ClusterMembership;
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.model.RouteSegmentInput;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClusteredRouteInputsTest {
+
+    private static final String SELF = "http://node-a";
+    private static final String PEER = "http://node-b";
+
+    private LocalRouteInputs local;
+    private ClusterClient clusterClient;
+    private ClusterMembership membership;
+    private ClusteredRouteInputs routeInputs;
+
+    @BeforeEach
+    void setUp() {
+        local = mock(LocalRouteInputs.class);
+        clusterClient = mock(ClusterClient.class);
+        membership = new ClusterMembership(SELF, List.of(SELF, PEER), 16);
+        routeInputs = new ClusteredRouteInputs(local, membership, clusterClient, new WorkerThreads(false));
+    }
+
+    @Test
+    void getInputs_ShouldAskEachOwnerAboutItsOwnSegments() {
+        // Given one segment owned by each node
+        String ownA = ownedBy(SELF, 0);
+        String ownB = ownedBy(PEER, 0);
+        when(local.getInputs(List.of(ownA))).thenReturn(Map.of(ownA, input(ownA)));
+        when(clusterClient.routeInputs(PEER, List.of(ownB))).thenReturn(Map.of(ownB, input(ownB)));
+
+        // When
+        Map<String, RouteSegmentInput> inputs = routeInputs.getInputs(List.of(ownA, ownB));
+
+        // Then
+        assertEquals(Map.of(ownA, input(ownA), ownB, input(ownB)), inputs);
+    }
+
+    @Test
+    void findPath_ShouldFollowLinksHeldByEitherNode() {
+        // Given a1 -> b1 -> a2 linked on the owners of a1 and b1, and a shortcut a1 -> b2 that leads nowhere
+        String a1 = ownedBy(SELF, 0);
+        String a2 = ownedBy(SELF, 1);
+        String b1 = ownedBy(PEER, 0);
+        String b2 = ownedBy(PEER, 1);
+        when(local.getSuccessors(List.of(a1))).thenReturn(Map.of(a1, List.of(b2, b1)));
+        when(clusterClient.successors(PEER, List.of(b2, b1))).thenReturn(Map.of(b2, List.of(), b1, List.of(a2)));
+
+        // When
+        Optional<List<String>> path = routeInputs.findPath(a1, a2);
+
+        // Then
+        assertEquals(Optional.of(List.of(a1, b1, a2)), path);
+    }
+
+    @Test
+    void findPath_ShouldBeEmptyWhenTheTargetCannotBeReached() {
+        // Given
+        String a1 = ownedBy(SELF, 0);
+        String b1 = ownedBy(PEER, 0);
+        when(local.getSuccessors(List.of(a1))).thenReturn(Map.of(a1, List.of()));
+
+        // When
+        Optional<List<String>> path = routeInputs.findPath(a1, b1);
+
+        // Then
+        assertEquals(Optional.empty(), path);
+    }
+
+    private String ownedBy(String node, int skip) {
+        for (int i = 0; ; i++) {
+            if (membership.ownerOf("S-" + i).equals(node) && skip-- == 0) {
+                return "S-" + i;
+            }
+        }
+    }
+
+    private static RouteSegmentInput input(String roadSegmentId) {
+        return new RouteSegmentInput(roadSegmentId, 1.5, 10, 2, 45.0, 0.4, 12.0, 30.0, 1.5);
+    }
+}
@@ -0,0 +1,174 @@
+package com.trafficoptimization.traffic_management.route;
+
+import com.trafficoptimization.traffic_management.aggregate.SegmentAggregateStore;
+import com.trafficoptimization.traffic_management.emissions.EmissionsModels;
+import com.trafficoptimization.traffic_management.emissions.EmissionsProfileSet;
+import com.trafficoptimization.traffic_management.model.EmissionsEstimate;
+import com.trafficoptimization.traffic_management.model.RoadClass;
+import com.trafficoptimization.traffic_management.model.RoadSegment;
+import com.trafficoptimization.traffic_management.model.RouteEvaluation;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.recent.RecentReadingStore;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.segment.RoadGraph;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import com.trafficoptimization.traffic_management.service.EmissionsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class RouteServiceTest {
+
+    private static final int SEGMENTS = 2_000;
+    private static final double SEGMENT_LENGTH_KM = 1.5;
+
+    private SegmentRegistry segmentRegistry;
+    private SegmentAggregateStore aggregateStore;
+    private RoadGraph roadGraph;
+    private EmissionsService emissionsService;
+    private RouteService routeService;
+
+    @BeforeEach
+    void setUp() {
+        TrafficDataRepository trafficDataRepository = mock(TrafficDataRepository.class);
+        segmentRegistry = new SegmentRegistry();
+        aggregateStore = new SegmentAggregateStore(trafficDataRepository, segmentRegistry);
+        roadGraph = new RoadGraph(segmentRegistry);
+        EmissionsModels emissionsModels = new EmissionsModels(segmentRegistry, EmissionsProfileSet.standard());
+        // A chain of motorway segments S0 to S(n-1), each with three readings
+        Random random = new Random(7);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < SEGMENTS; i++) {
+            segmentRegistry.describe(new RoadSegment("S" + i, RoadClass.MOTORWAY, SEGMENT_LENGTH_KM, null));
+            for (int r = 0; r < 3; r++) {
+                aggregateStore.record(new TrafficData((long) i * 3 + r, now.minusMinutes(r), "S" + i,
+                        random.nextInt(150), 20.0 + random.nextDouble() * 110.0, random.nextDouble() * 0.9));
+            }
+            if (i > 0) {
+                roadGraph.setSuccessors("S" + (i - 1), List.of("S" + i));
+            }
+        }
+        RecentReadingStore disabled = new RecentReadingStore(trafficDataRepository, segmentRegistry,
+                new SimpleMeterRegistry(), Duration.ofHours(6), 0);
+        emissionsService = new EmissionsService(aggregateStore, disabled, trafficDataRepository, emissionsModels,
+                segmentRegistry, new SimpleMeterRegistry());
+        routeService = new RouteService(new LocalRouteInputs(aggregateStore, roadGraph, segmentRegistry, emissionsModels),
+                segmentRegistry, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void evaluateRoutes_ShouldTotalThePerSegmentEstimates() {
+        // Given
+        List<String> corridor = segments(100, 200);
+
+        // When
+        RouteEvaluation evaluation = routeService.evaluateRoutes(List.of(corridor)).get(0);
+
+        // Then
+        double co2 = 0;
+        double nox = 0;
+        double pm = 0;
+        double travelTime = 0;
+        EmissionsEstimate worst = null;
+        for (String roadSegmentId : corridor) {
+            EmissionsEstimate estimate = emissionsService.estimateEmissionsForRoadSegment(roadSegmentId);
+            co2 += estimate.getCo2KgPerHour();
+            nox += estimate.getNoxGramsPerHour();
+            pm += estimate.getParticulateMatterGramsPerHour();
+            travelTime += SEGMENT_LENGTH_KM / estimate.getAverageSpeed() * 3600;
+            if (worst == null || estimate.getCongestionLevel() > worst.getCongestionLevel()) {
+                worst = estimate;
+            }
+        }
+        assertEquals(corridor, evaluation.getRoadSegmentIds());
+        assertEquals(100, evaluation.getSegmentCount());
+        assertEquals(100 * SEGMENT_LENGTH_KM, evaluation.getLengthKm(), 1e-9);
+        assertEquals(co2, evaluation.getTotalCo2KgPerHour(), 1e-9);
+        assertEquals(nox, evaluation.getTotalNoxGramsPerHour(), 1e-9);
+        assertEquals(pm, evaluation.getTotalParticulateMatterGramsPerHour(), 1e-9);
+        assertEquals(travelTime, evaluation.getTravelTimeSeconds(), 1e-6);
+        assertEquals(0, evaluation.getSegmentsWithoutReadings());
+        assertEquals(0, evaluation.getSegmentsWithoutTravelTime());
+        assertEquals(worst.getRoadSegmentId(), evaluation.getBottleneck().getRoadSegmentId());
+        assertEquals(corridor.indexOf(worst.getRoadSegmentId()), evaluation.getBottleneck().getPosition());
+    }
+
+    @Test
+    void evaluateRoutes_ShouldCountSegmentsThatCannotContribute() {
+        // Given one segment without readings and one without a length
+        segmentRegistry.describe(new RoadSegment("S1", RoadClass.MOTORWAY, null, null));
+        List<String> route = List.of("S0", "S1", "NO-READINGS");
+
+        // When
+        RouteEvaluation evaluation = routeService.evaluateRoutes(List.of(route)).get(0);
+
+        // Then
+        assertEquals(3, evaluation.getSegmentCount());
+        assertEquals(SEGMENT_LENGTH_KM, evaluation.getLengthKm(), 1e-9);
+        assertEquals(1, evaluation.getSegmentsWithoutReadings());
+        assertEquals(2, evaluation.getSegmentsWithoutTravelTime());
+        double co2 = emissionsService.estimateEmissionsForRoadSegment("S0").getCo2KgPerHour()
+                + emissionsService.estimateEmissionsForRoadSegment("S1").getCo2KgPerHour();
+        assertEquals(co2, evaluation.getTotalCo2KgPerHour(), 1e-9);
+
+        RouteEvaluation empty = routeService.evaluateRoutes(List.of(List.of("NO-READINGS"))).get(0);
+        assertEquals(0.0, empty.getTotalCo2KgPerHour());
+        assertNull(empty.getBottleneck());
+    }
+
+    @Test
+    void evaluateRoutes_ManyRoutes_ShouldBeReturnedInRequestOrder() {
+        // Given overlapping corridors of different lengths
+        List<List<String>> routes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            routes.add(segments(i * 5, i * 5 + 10 + i % 50));
+        }
+
+        // When
+        List<RouteEvaluation> evaluations = routeService.evaluateRoutes(routes);
+
+        // Then
+        assertEquals(routes.size(), evaluations.size());
+        for (int i = 0; i < routes.size(); i++) {
+            RouteEvaluation single = routeService.evaluateRoutes(List.of(routes.get(i))).get(0);
+            assertEquals(routes.get(i), evaluations.get(i).getRoadSegmentIds());
+            assertEquals(single.getTotalCo2KgPerHour(), evaluations.get(i).getTotalCo2KgPerHour());
+            assertEquals(single.getTravelTimeSeconds(), evaluations.get(i).getTravelTimeSeconds());
+        }
+    }
+
+    @Test
+    void findRoute_ShouldEvaluateThePathAlongTheRoadGraph() {
+        // When
+        RouteEvaluation evaluation = routeService.findRoute("S10", "S1009").orElseThrow();
+
+        // Then
+        assertEquals(segments(10, 1010), evaluation.getRoadSegmentIds());
+        assertEquals(1000, evaluation.getSegmentCount());
+        assertTrue(routeService.findRoute("S1009", "S10").isEmpty());
+    }
+
+    @Test
+    void evaluateRoutes_EmptyRoute_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> routeService.evaluateRoutes(List.of(List.of())));
+        assertThrows(IllegalArgumentException.class, () -> routeService.evaluateRoutes(List.of()));
+    }
+
+    private static List<String> segments(int from, int to) {
+        List<String> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add("S" + i);
+        }
+        return ids;
+    }
+}
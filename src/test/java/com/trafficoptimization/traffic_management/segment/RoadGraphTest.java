@@ -0,0 +1,59 @@
+package com.trafficoptimization.traffic_management.segment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoadGraphTest {
+
+    private SegmentRegistry registry;
+    private RoadGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SegmentRegistry();
+        graph = new RoadGraph(registry);
+    }
+
+    @Test
+    void setSuccessors_ShouldReplaceLinksAndDropDuplicates() {
+        // Given
+        graph.setSuccessors("A", List.of("B", "C"));
+
+        // When
+        graph.setSuccessors("A", List.of("C", "D", "C"));
+
+        // Then
+        assertEquals(List.of("C", "D"), graph.getSuccessors("A"));
+        assertEquals(1, graph.size());
+
+        // When every link is removed
+        graph.setSuccessors("A", List.of());
+
+        // Then
+        assertTrue(graph.getSuccessors("A").isEmpty());
+        assertEquals(0, graph.size());
+        assertTrue(graph.getSuccessors("UNKNOWN").isEmpty());
+    }
+
+    @Test
+    void findPath_ShouldCrossTheFewestSegments() {
+        // Given a long way round A-B-C-D-E and a shortcut B-E, plus a one-way link back
+        graph.setSuccessors("A", List.of("B"));
+        graph.setSuccessors("B", List.of("C", "E"));
+        graph.setSuccessors("C", List.of("D"));
+        graph.setSuccessors("D", List.of("E"));
+        graph.setSuccessors("E", List.of("A"));
+        graph.setSuccessors("X", List.of("A"));
+
+        // Then
+        assertEquals(Optional.of(List.of("A", "B", "E")), graph.findPath("A", "E"));
+        assertEquals(Optional.of(List.of("C", "D", "E", "A")), graph.findPath("C", "A"));
+        assertEquals(Optional.of(List.of("D")), graph.findPath("D", "D"));
+        assertTrue(graph.findPath("A", "X").isEmpty());
+        assertTrue(graph.findPath("A", "UNKNOWN").isEmpty());
+    }
+}
@@ -0,0 +1,50 @@
+package com.trafficoptimization.traffic_management.segment;
+
+import com.trafficoptimization.traffic_management.repository.RoadLinkRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RoadSegmentServiceTest {
+
+    @Autowired
+    private RoadSegmentService roadSegmentService;
+
+    @Autowired
+    private RoadLinkRepository roadLinkRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void setNext_ShouldUpdateTheGraphOnlyOnceCommitted() {
+        // Given
+        roadSegmentService.setNext("LINK-A", List.of("LINK-B", "LINK-C", "LINK-B"));
+        assertEquals(List.of("LINK-B", "LINK-C"), roadSegmentService.getNext("LINK-A"));
+
+        // When the surrounding transaction rolls back
+        transactionTemplate.executeWithoutResult(status -> {
+            roadSegmentService.setNext("LINK-A", List.of("LINK-D"));
+            assertEquals(List.of("LINK-B", "LINK-C"), roadSegmentService.getNext("LINK-A"));
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertEquals(List.of("LINK-B", "LINK-C"), roadSegmentService.getNext("LINK-A"));
+        assertEquals(2, roadLinkRepository.findAll().stream()
+                .filter(link -> link.getFromSegmentId().equals("LINK-A")).count());
+
+        // When it is cleared
+        roadSegmentService.setNext("LINK-A", List.of());
+
+        // Then
+        assertTrue(roadSegmentService.getNext("LINK-A").isEmpty());
+    }
+}
@@ -0,0 +1,102 @@
+package com.trafficoptimization.traffic_management.segment;
+
+import com.trafficoptimization.traffic_management.model.RoadClass;
+import com.trafficoptimization.traffic_management.model.RoadSegment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentRegistryTest {
+
+    private SegmentRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SegmentRegistry();
+    }
+
+    @Test
+    void intern_ShouldAssignDenseHandlesInOrderOfFirstSight() {
+        // When
+        int a8 = registry.intern("A8-KM125-126");
+        int b27 = registry.intern("B27-KM45-46");
+
+        // Then
+        assertEquals(0, a8);
+        assertEquals(1, b27);
+        assertEquals(a8, registry.intern(new String("A8-KM125-126")));
+        assertEquals(2, registry.size());
+        assertEquals("B27-KM45-46", registry.getId(b27));
+    }
+
+    @Test
+    void find_UnknownSegment_ShouldNotRegisterIt() {
+        // When
+        int handle = registry.find("A8-KM125-126");
+
+        // Then
+        assertEquals(SegmentRegistry.UNKNOWN, handle);
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void canonical_ShouldReturnOneSharedInstancePerSegment() {
+        // Given
+        String first = registry.canonical(new String("A8-KM125-126"));
+
+        // When
+        String second = registry.canonical(new String("A8-KM125-126"));
+
+        // Then
+        assertSame(first, second);
+    }
+
+    @Test
+    void describe_ShouldHoldMetadataByHandleAcrossGrowth() {
+        // Given
+        registry.describe(new RoadSegment("A8-KM125-126", RoadClass.MOTORWAY, 1.0, "north"));
+        registry.intern("B27-KM45-46");
+
+        // When enough segments are registered to grow the columns
+        for (int i = 0; i < 1000; i++) {
+            registry.intern("SEGMENT-" + i);
+        }
+
+        // Then
+        RoadSegment a8 = registry.getSegment(registry.find("A8-KM125-126"));
+        assertEquals(RoadClass.MOTORWAY, a8.getRoadClass());
+        assertEquals(1.0, a8.getLengthKm());
+        assertEquals("north", a8.getRegion());
+        int b27 = registry.find("B27-KM45-46");
+        assertNull(registry.getRoadClass(b27));
+        assertTrue(Double.isNaN(registry.getLengthKm(b27)));
+        assertNull(registry.getRegion(b27));
+        assertEquals("SEGMENT-999", registry.getId(1001));
+    }
+
+    @Test
+    void segmentTable_ShouldStoreEntriesByHandleAcrossPages() {
+        // Given
+        SegmentTable<String> table = new SegmentTable<>();
+
+        // When
+        table.computeIfAbsent(5000, handle -> "far");
+        table.computeIfAbsent(3, handle -> "near");
+        String existing = table.computeIfAbsent(3, handle -> "replaced");
+
+        // Then
+        assertEquals("near", existing);
+        assertEquals("far", table.get(5000));
+        assertNull(table.get(4));
+        assertNull(table.get(1 << 20));
+        assertEquals(2, table.size());
+        List<String> visited = new ArrayList<>();
+        table.forEach(visited::add);
+        assertEquals(List.of("near", "far"), visited);
+    }
+}
@@ -0,0 +1,93 @@
+package com.trafficoptimization.traffic_management.services;
+
+import com.trafficoptimization.traffic_management.cluster.ClusterClient;
+import com.trafficoptimization.traffic_management.cluster.ClusterMembership;
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.model.EmissionsEstimate;
+import com.trafficoptimization.traffic_management.model.Hotspot;
+import com.trafficoptimization.traffic_management.model.NetworkEmissionsSnapshot;
+import com.trafficoptimization.traffic_management.service.ClusteredNetworkSummaryService;
+import com.trafficoptimization.traffic_management.service.NetworkSummaryServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClusteredNetworkSummaryServiceTest {
+
+    private static final String SELF = "http://node-a";
+    private static final String PEER = "http://node-b";
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 8, 0);
+
+    private NetworkSummaryServiceImpl local;
+    private ClusterClient clusterClient;
+    private ClusterMembership membership;
+    private ClusteredNetworkSummaryService service;
+
+    @BeforeEach
+    void setUp() {
+        local = mock(NetworkSummaryServiceImpl.class);
+        clusterClient = mock(ClusterClient.class);
+        membership = new ClusterMembership(SELF, List.of(SELF, PEER), 16);
+        service = new ClusteredNetworkSummaryService(local, membership, clusterClient, new WorkerThreads(false));
+    }
+
+    @Test
+    void getHotspots_ShouldRankTheHotspotsOfEveryNode() {
+        // Given
+        when(local.getHotspots(3)).thenReturn(List.of(hotspot("A-1", 0.95), hotspot("A-2", 0.8), hotspot("A-3", 0.75)));
+        when(clusterClient.hotspots(PEER, 3)).thenReturn(List.of(hotspot("B-1", 0.9), hotspot("B-2", 0.85)));
+
+        // When
+        List<Hotspot> hotspots = service.getHotspots(3);
+
+        // Then
+        assertEquals(List.of("A-1", "B-1", "B-2"), hotspots.stream().map(Hotspot::getRoadSegmentId).toList());
+    }
+
+    @Test
+    void estimateNetworkEmissions_ShouldSumTotalsAndAskEachOwnerAboutItsOwnSegments() {
+        // Given one segment owned by each node
+        String ownA = ownedBy(SELF);
+        String ownB = ownedBy(PEER);
+        when(local.estimateNetworkEmissions(List.of(ownA), 1, true)).thenReturn(snapshot(estimate(ownA, 120.0)));
+        when(clusterClient.networkEmissions(PEER, List.of(ownB), 1, true)).thenReturn(snapshot(estimate(ownB, 300.0)));
+
+        // When
+        NetworkEmissionsSnapshot snapshot = service.estimateNetworkEmissions(List.of(ownA, ownB), 1, true);
+
+        // Then
+        assertEquals(2, snapshot.getSegmentCount());
+        assertEquals(420.0, snapshot.getTotalCo2KgPerHour());
+        assertEquals(List.of(ownB), snapshot.getTopEmitters().stream().map(EmissionsEstimate::getRoadSegmentId).toList());
+        assertEquals(2, snapshot.getSegments().size());
+    }
+
+    private String ownedBy(String node) {
+        for (int i = 0; ; i++) {
+            if (membership.ownerOf("S-" + i).equals(node)) {
+                return "S-" + i;
+            }
+        }
+    }
+
+    private static Hotspot hotspot(String roadSegmentId, double congestion) {
+        return new Hotspot(roadSegmentId, congestion, congestion, 10, NOW, 600L);
+    }
+
+    private static EmissionsEstimate estimate(String roadSegmentId, double co2) {
+        return new EmissionsEstimate(roadSegmentId, NOW, co2, co2 / 2, co2 / 20, 80, 50.0, 0.5);
+    }
+
+    private static NetworkEmissionsSnapshot snapshot(EmissionsEstimate... estimates) {
+        double co2 = 0;
+        for (EmissionsEstimate estimate : estimates) {
+            co2 += estimate.getCo2KgPerHour();
+        }
+        return new NetworkEmissionsSnapshot(NOW, estimates.length, co2, co2 / 2, co2 / 20, List.of(estimates),
+                List.of(estimates));
+    }
+}
@@ -0,0 +1,95 @@
+package com.trafficoptimization.traffic_management.services;
+
+import com.trafficoptimization.traffic_management.cluster.ClusterClient;
+import com.trafficoptimization.traffic_management.cluster.ClusterMembership;
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.model.CursorPage;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
+import com.trafficoptimization.traffic_management.service.ClusteredTrafficService;
+import com.trafficoptimization.traffic_management.service.TrafficServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClusteredTrafficServiceTest {
+
+    private static final String SELF = "http://node-a";
+    private static final String PEER = "http://node-b";
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 1, 8, 0);
+
+    private ClusteredTrafficService service;
+
+    @BeforeEach
+    void setUp() {
+        // Both nodes number their rows from 1, and many rows share a timestamp
+        List<TrafficData> rowsA = new ArrayList<>();
+        List<TrafficData> rowsB = new ArrayList<>();
+        for (long id = 1; id <= 12; id++) {
+            rowsA.add(new TrafficData(id, BASE.plusMinutes(id / 5), "A-" + id, 10, 50.0, 0.1));
+            rowsB.add(new TrafficData(id, BASE.plusMinutes(id / 4), "B-" + id, 10, 50.0, 0.1));
+        }
+        TrafficServiceImpl local = mock(TrafficServiceImpl.class);
+        when(local.getTrafficDataPage(any(), any(), anyInt())).thenAnswer(invocation ->
+                page(rowsA, invocation.getArgument(1), invocation.getArgument(2)));
+        ClusterClient clusterClient = mock(ClusterClient.class);
+        when(clusterClient.page(eq(PEER), any(), any(), anyInt())).thenAnswer(invocation ->
+                page(rowsB, invocation.getArgument(2), invocation.getArgument(3)));
+        service = new ClusteredTrafficService(local, new ClusterMembership(SELF, List.of(SELF, PEER), 16),
+                clusterClient, new WorkerThreads(false));
+    }
+
+    @Test
+    void getTrafficDataPage_SameTimestampAndIdOnTwoNodes_ShouldReturnBoth() {
+        for (int limit = 1; limit <= 5; limit++) {
+            // When
+            List<TrafficData> seen = new ArrayList<>();
+            String cursor = null;
+            do {
+                CursorPage<TrafficData> page = service.getTrafficDataPage(TrafficQuery.all(), cursor, limit);
+                seen.addAll(page.getItems());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            // Then
+            Set<String> segments = new HashSet<>();
+            seen.forEach(row -> segments.add(row.getRoadSegmentId()));
+            assertEquals(24, seen.size(), "limit " + limit);
+            assertEquals(24, segments.size(), "limit " + limit);
+        }
+    }
+
+    // One node's keyset page, after a cursor in the node-local "timestamp|id" form
+    private static CursorPage<TrafficData> page(List<TrafficData> rows, String cursor, int limit) {
+        List<TrafficData> after = new ArrayList<>();
+        for (TrafficData row : rows) {
+            if (cursor == null || compare(row, cursor) > 0) {
+                after.add(row);
+            }
+        }
+        after.sort(Comparator.comparing(TrafficData::getTimestamp).thenComparing(TrafficData::getId));
+        if (after.size() <= limit) {
+            return new CursorPage<>(after, null);
+        }
+        return new CursorPage<>(new ArrayList<>(after.subList(0, limit)), "more");
+    }
+
+    private static int compare(TrafficData row, String cursor) {
+        String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        int byTime = row.getTimestamp().compareTo(LocalDateTime.parse(position[0]));
+        return byTime != 0 ? byTime : Long.compare(row.getId(), Long.parseLong(position[1]));
+    }
+}
@@ -0,0 +1,113 @@
+package com.trafficoptimization.traffic_management.services;
+
+import com.trafficoptimization.traffic_management.aggregate.SegmentAggregateStore;
+import com.trafficoptimization.traffic_management.emissions.EmissionsModel;
+import com.trafficoptimization.traffic_management.emissions.EmissionsModels;
+import com.trafficoptimization.traffic_management.emissions.EmissionsProfile;
+import com.trafficoptimization.traffic_management.emissions.EmissionsProfileSet;
+import com.trafficoptimization.traffic_management.model.EmissionsEstimate;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.recent.RecentReadingStore;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import com.trafficoptimization.traffic_management.service.EmissionsBatchCalculator;
+import com.trafficoptimization.traffic_management.service.EmissionsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class EmissionsBatchCalculatorTest {
+    
+    // Band edges of the speed and congestion factors, plus values either side of them
+    private static final double[] SPEEDS = {0.0, 9.99, 10.0, 10.01, 19.99, 20.0, 29.99, 30.0, 45.0,
+            59.99, 60.0, 60.01, 89.99, 90.0, 90.01, 130.0, 200.0};
+    private static final double[] CONGESTION = {0.0, 0.25, 0.5, 0.5000001, 0.75, 1.0};
+    
+    @Test
+    void calculate_ShouldMatchScalarEstimatesExactly() {
+        // Given one reading per segment, so the segment averages are the reading itself
+        Random random = new Random(7);
+        int length = SPEEDS.length * CONGESTION.length + 1000;
+        double[] vehicleCounts = new double[length];
+        double[] speeds = new double[length];
+        double[] congestion = new double[length];
+        SegmentRegistry segmentRegistry = new SegmentRegistry();
+        SegmentAggregateStore store = new SegmentAggregateStore(mock(TrafficDataRepository.class), segmentRegistry);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < length; i++) {
+            boolean edge = i < SPEEDS.length * CONGESTION.length;
+            vehicleCounts[i] = random.nextInt(150);
+            speeds[i] = edge ? SPEEDS[i % SPEEDS.length] : random.nextDouble() * 150.0;
+            congestion[i] = edge ? CONGESTION[i / SPEEDS.length] : random.nextDouble();
+            store.record(new TrafficData((long) i, now, "S" + i, (int) vehicleCounts[i], speeds[i], congestion[i]));
+        }
+        TrafficDataRepository trafficDataRepository = mock(TrafficDataRepository.class);
+        EmissionsService emissionsService = new EmissionsService(store,
+                new RecentReadingStore(trafficDataRepository, segmentRegistry, new SimpleMeterRegistry(), Duration.ofHours(6), 0),
+                trafficDataRepository, new EmissionsModels(segmentRegistry, EmissionsProfileSet.standard()), segmentRegistry, new SimpleMeterRegistry());
+        
+        // When
+        double[] co2 = new double[length];
+        double[] nox = new double[length];
+        double[] pm = new double[length];
+        EmissionsBatchCalculator.calculate(EmissionsModel.standard(), length, vehicleCounts, speeds, congestion,
+                co2, nox, pm);
+        
+        // Then
+        for (int i = 0; i < length; i++) {
+            EmissionsEstimate scalar = emissionsService.estimateEmissionsForRoadSegment("S" + i);
+            String reading = "speed=" + speeds[i] + " congestion=" + congestion[i];
+            assertEquals(scalar.getCo2KgPerHour(), co2[i], 0.0, reading);
+            assertEquals(scalar.getNoxGramsPerHour(), nox[i], 0.0, reading);
+            assertEquals(scalar.getParticulateMatterGramsPerHour(), pm[i], 0.0, reading);
+        }
+    }
+    
+    @Test
+    void calculate_WithModelColumn_ShouldUseEachSegmentsModel() {
+        // Given runs of two profiles, one of them with a congestion band off the whole grid
+        EmissionsProfile congested = EmissionsProfile.standard();
+        congested.getCo2().setCongestionFactor(List.of(new EmissionsProfile.Band(0, 1.0, 0.5),
+                new EmissionsProfile.Band(0.3, 2.0, 1.0)));
+        EmissionsModel[] models = {EmissionsModel.standard(), EmissionsModel.compile("congested", congested)};
+        Random random = new Random(3);
+        int length = 1000;
+        EmissionsModel[] column = new EmissionsModel[length];
+        double[] vehicleCounts = new double[length];
+        double[] speeds = new double[length];
+        double[] congestion = new double[length];
+        for (int i = 0; i < length; i++) {
+            column[i] = models[(i / 7) % 2];
+            vehicleCounts[i] = random.nextInt(150);
+            speeds[i] = random.nextDouble() * 150.0;
+            congestion[i] = random.nextDouble();
+        }
+
+        // When
+        double[] co2 = new double[length];
+        double[] nox = new double[length];
+        double[] pm = new double[length];
+        EmissionsBatchCalculator.calculate(100, length, column, vehicleCounts, speeds, congestion, co2, nox, pm);
+
+        // Then
+        for (int i = 100; i < length; i++) {
+            assertEquals(column[i].co2(vehicleCounts[i], speeds[i], congestion[i]), co2[i], 0.0);
+            assertEquals(column[i].nox(vehicleCounts[i], speeds[i], congestion[i]), nox[i], 0.0);
+            assertEquals(column[i].particulateMatter(vehicleCounts[i], speeds[i], congestion[i]), pm[i], 0.0);
+        }
+        assertEquals(0.0, co2[99]);
+    }
+
+    @Test
+    void calculate_WithShortColumn_ShouldThrow() {
+        double[] column = new double[4];
+        assertThrows(IllegalArgumentException.class, () -> EmissionsBatchCalculator.calculate(
+                EmissionsModel.standard(), 5, column, column, column, new double[5], new double[5], new double[5]));
+    }
+}
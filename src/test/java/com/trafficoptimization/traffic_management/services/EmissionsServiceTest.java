@@ -0,0 +1,147 @@
+package com.trafficoptimization.traffic_management.services;
+
+import com.trafficoptimization.traffic_management.aggregate.SegmentAggregateStore;
+import com.trafficoptimization.traffic_management.emissions.EmissionsModels;
+import com.trafficoptimization.traffic_management.emissions.EmissionsProfileSet;
+import com.trafficoptimization.traffic_management.model.EmissionsEstimate;
+import com.trafficoptimization.traffic_management.model.NetworkEmissionsSnapshot;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.recent.RecentReadingStore;
+import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import com.trafficoptimization.traffic_management.service.EmissionsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class EmissionsServiceTest {
+    
+    private static final int SEGMENTS = 10_000;
+    
+    private TrafficDataRepository trafficDataRepository;
+    private LocalDateTime now;
+    private List<TrafficData> readings;
+    private EmissionsService emissionsService;
+    
+    @BeforeEach
+    void setUp() {
+        trafficDataRepository = mock(TrafficDataRepository.class);
+        SegmentRegistry segmentRegistry = new SegmentRegistry();
+        SegmentAggregateStore store = new SegmentAggregateStore(trafficDataRepository, segmentRegistry);
+        // Holds the last 30 days, which is all of the readings below
+        RecentReadingStore recentReadings = new RecentReadingStore(trafficDataRepository, segmentRegistry,
+                new SimpleMeterRegistry(), Duration.ofDays(30), 100_000);
+        recentReadings.load();
+        Random random = new Random(11);
+        now = LocalDateTime.now();
+        readings = new ArrayList<>();
+        for (int i = 0; i < SEGMENTS * 3; i++) {
+            readings.add(new TrafficData((long) i, now.minusMinutes(i), "S" + (i % SEGMENTS),
+                    random.nextInt(150), random.nextDouble() * 130.0, random.nextDouble()));
+        }
+        readings.forEach(store::record);
+        recentReadings.onTrafficDataSaved(readings);
+        emissionsService = new EmissionsService(store, recentReadings, trafficDataRepository,
+                new EmissionsModels(segmentRegistry, EmissionsProfileSet.standard()), segmentRegistry, new SimpleMeterRegistry());
+    }
+    
+    @Test
+    void estimateNetworkEmissions_ShouldMatchPerSegmentEstimates() {
+        // When
+        NetworkEmissionsSnapshot snapshot = emissionsService.estimateNetworkEmissions(null, 5, true);
+        
+        // Then
+        assertEquals(SEGMENTS, snapshot.getSegmentCount());
+        assertEquals(SEGMENTS, snapshot.getSegments().size());
+        double totalCo2 = 0;
+        for (EmissionsEstimate estimate : snapshot.getSegments()) {
+            assertEquals(emissionsService.estimateEmissionsForRoadSegment(estimate.getRoadSegmentId()), estimate);
+            totalCo2 += estimate.getCo2KgPerHour();
+        }
+        assertEquals(totalCo2, snapshot.getTotalCo2KgPerHour(), 1e-6);
+    }
+    
+    @Test
+    void estimateNetworkEmissions_ShouldRankTopEmittersByCo2() {
+        // When
+        NetworkEmissionsSnapshot snapshot = emissionsService.estimateNetworkEmissions(null, 5, false);
+        
+        // Then
+        assertTrue(snapshot.getSegments().isEmpty());
+        List<EmissionsEstimate> top = snapshot.getTopEmitters();
+        assertEquals(5, top.size());
+        double maxCo2 = snapshot.getTopEmitters().get(0).getCo2KgPerHour();
+        for (int i = 1; i < top.size(); i++) {
+            assertTrue(top.get(i - 1).getCo2KgPerHour() >= top.get(i).getCo2KgPerHour());
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            assertTrue(emissionsService.estimateEmissionsForRoadSegment("S" + i).getCo2KgPerHour() <= maxCo2);
+        }
+    }
+    
+    @Test
+    void estimateNetworkEmissions_TopBeyondSegmentCount_ShouldRankEverySegment() {
+        // When
+        NetworkEmissionsSnapshot snapshot = emissionsService.estimateNetworkEmissions(null, Integer.MAX_VALUE, false);
+        
+        // Then
+        assertEquals(SEGMENTS, snapshot.getTopEmitters().size());
+        assertThrows(IllegalArgumentException.class, () -> emissionsService.estimateNetworkEmissions(null, 0, false));
+    }
+    
+    @Test
+    void estimateNetworkEmissions_WithFilter_ShouldSkipUnknownSegments() {
+        // When
+        NetworkEmissionsSnapshot snapshot = emissionsService.estimateNetworkEmissions(
+                List.of("S42", "S7", "S42", "UNKNOWN"), 10, true);
+        
+        // Then
+        assertEquals(2, snapshot.getSegmentCount());
+        assertEquals("S42", snapshot.getSegments().get(0).getRoadSegmentId());
+        assertEquals("S7", snapshot.getSegments().get(1).getRoadSegmentId());
+        assertEquals(2, snapshot.getTopEmitters().size());
+    }
+    
+    @Test
+    void estimateEmissionsForRoadSegment_WithRecentWindow_ShouldSummarizeItInMemory() {
+        // When the window spans every reading of the segment
+        EmissionsEstimate windowed = emissionsService.estimateEmissionsForRoadSegment("S42", now.minusDays(20), now);
+        
+        // Then
+        EmissionsEstimate whole = emissionsService.estimateEmissionsForRoadSegment("S42");
+        assertEquals(whole.getCo2KgPerHour(), windowed.getCo2KgPerHour(), 1e-9);
+        assertEquals(whole.getNoxGramsPerHour(), windowed.getNoxGramsPerHour(), 1e-9);
+        assertEquals(whole.getAverageSpeed(), windowed.getAverageSpeed(), 1e-9);
+        
+        // When only the newest of its three readings is in the window
+        EmissionsEstimate newest = emissionsService.estimateEmissionsForRoadSegment("S42", now.minusMinutes(100), now);
+        
+        // Then
+        TrafficData reading = readings.get(42);
+        assertEquals(reading.getVehicleCount(), newest.getVehicleCount());
+        assertEquals(reading.getAverageSpeed(), newest.getAverageSpeed(), 1e-9);
+        assertEquals(reading.getCongestionLevel(), newest.getCongestionLevel(), 1e-9);
+    }
+    
+    @Test
+    void estimateEmissionsForRoadSegment_WithOlderWindow_ShouldQueryTheTable() {
+        // When
+        LocalDateTime start = now.minusDays(60);
+        LocalDateTime end = now.minusDays(40);
+        EmissionsEstimate estimate = emissionsService.estimateEmissionsForRoadSegment("S42", start, end);
+        
+        // Then
+        verify(trafficDataRepository).aggregateSegment("S42", start, end);
+        assertEquals(0.0, estimate.getCo2KgPerHour());
+    }
+}
@@ -0,0 +1,77 @@
+package com.trafficoptimization.traffic_management.services;
+
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.service.TrafficService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares records per second of the single-record save path against the batch ingestion path.
+ * Timing depends on the machine, so it only runs on request. The record count can be raised with
+ * {@code -Dingest.throughput.records=...} for a longer run:
+ * <pre>mvn test -Dtest=IngestionThroughputTest -Dbenchmark=true</pre>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IngestionThroughputTest {
+    
+    private static final Logger log = LoggerFactory.getLogger(IngestionThroughputTest.class);
+    private static final int RECORDS = Integer.getInteger("ingest.throughput.records", 2_000);
+    
+    @Autowired
+    private TrafficService trafficService;
+    
+    @Test
+    void batchIngestion_ShouldOutperformSingleRecordSaves() {
+        // Warm up both paths so the comparison is not dominated by class loading and JIT
+        for (TrafficData data : readings(200, "WARMUP-SINGLE")) {
+            trafficService.saveTrafficData(data);
+        }
+        trafficService.saveTrafficDataBatch(readings(200, "WARMUP-BATCH"));
+        
+        List<TrafficData> singleReadings = readings(RECORDS, "THROUGHPUT-SINGLE");
+        long singleStart = System.nanoTime();
+        for (TrafficData data : singleReadings) {
+            trafficService.saveTrafficData(data);
+        }
+        double singleRate = RECORDS / seconds(System.nanoTime() - singleStart);
+        
+        List<TrafficData> batchReadings = readings(RECORDS, "THROUGHPUT-BATCH");
+        long batchStart = System.nanoTime();
+        BatchIngestionResult result = trafficService.saveTrafficDataBatch(batchReadings);
+        double batchRate = RECORDS / seconds(System.nanoTime() - batchStart);
+        
+        String rates = String.format("single=%.0f records/s, batch=%.0f records/s (%.1fx)",
+                singleRate, batchRate, batchRate / singleRate);
+        log.info("Ingestion throughput for {} records: {}", RECORDS, rates);
+        
+        assertEquals(RECORDS, result.getAccepted());
+        assertTrue(batchRate > singleRate, "batch ingestion should be faster than single-record saves: " + rates);
+    }
+    
+    private static List<TrafficData> readings(int count, String segmentPrefix) {
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        List<TrafficData> readings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            readings.add(new TrafficData(null, start.plusSeconds(i), segmentPrefix + "-" + (i % 50),
+                    20 + i % 100, 30.0 + i % 90, null));
+        }
+        return readings;
+    }
+    
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,136 @@
+package com.trafficoptimization.traffic_management.services;
+
+import com.trafficoptimization.traffic_management.config.ReactiveDatabaseConfig;
+import com.trafficoptimization.traffic_management.model.EmissionsEstimate;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
+import com.trafficoptimization.traffic_management.service.EmissionsService;
+import com.trafficoptimization.traffic_management.service.ReactiveTrafficService;
+import com.trafficoptimization.traffic_management.service.TrafficService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.BaseSubscriber;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A page size that does not divide the row count, so the last page is partial
+@SpringBootTest(properties = "traffic.reactive.page-size=4")
+@ActiveProfiles("test")
+class ReactiveTrafficServiceTest {
+    
+    private static final String SEGMENT = "REACTIVE-A1";
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 7, 1, 8, 0);
+    
+    @Autowired
+    private ReactiveTrafficService reactiveTrafficService;
+    
+    @Autowired
+    private TrafficService trafficService;
+    
+    @Autowired
+    private EmissionsService emissionsService;
+    
+    @Autowired
+    private ReactiveDatabaseConfig reactiveDatabaseConfig;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @BeforeEach
+    void setUp() {
+        if (!trafficService.getTrafficDataByRoadSegment(SEGMENT).isEmpty()) {
+            return;
+        }
+        // 25 readings, several sharing a timestamp so the id tie-breaker is exercised
+        List<TrafficData> readings = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            readings.add(new TrafficData(null, BASE.plusMinutes(i / 3), SEGMENT, 10 + i, 50.0, i / 25.0));
+        }
+        trafficService.saveTrafficDataBatch(readings);
+    }
+    
+    @Test
+    void streamTrafficData_ShouldReturnSameRowsAsBlockingStream() {
+        for (TrafficQuery query : List.of(TrafficQuery.roadSegment(SEGMENT), TrafficQuery.congestionPoints(SEGMENT, 0.5),
+                TrafficQuery.timeRange(BASE.plusMinutes(2), BASE.plusMinutes(5)))) {
+            // When
+            List<TrafficData> blocking = new ArrayList<>();
+            trafficService.streamTrafficData(query, blocking::add);
+            List<TrafficData> reactive = reactiveTrafficService.streamTrafficData(query).collectList().block();
+            
+            // Then
+            assertTrue(!blocking.isEmpty());
+            assertEquals(blocking, reactive);
+        }
+    }
+    
+    @Test
+    void streamTrafficData_ShouldOnlyQueryPagesAsRowsAreRequested() throws InterruptedException {
+        // Given
+        long pagesBefore = pagesQueried();
+        List<TrafficData> received = new CopyOnWriteArrayList<>();
+        CountDownLatch cancelled = new CountDownLatch(1);
+        
+        // When
+        reactiveTrafficService.streamTrafficData(TrafficQuery.roadSegment(SEGMENT)).subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(5);
+            }
+            
+            @Override
+            protected void hookOnNext(TrafficData value) {
+                received.add(value);
+                if (received.size() == 5) {
+                    cancel();
+                    cancelled.countDown();
+                }
+            }
+        });
+        assertTrue(cancelled.await(10, TimeUnit.SECONDS));
+        
+        // Then: only the two pages holding the rows requested, out of seven, and no connection kept
+        assertEquals(5, received.size());
+        assertTrue(awaitConnectionsReleased());
+        assertEquals(2, pagesQueried() - pagesBefore);
+    }
+    
+    @Test
+    void estimateEmissions_ShouldMatchBlockingEstimate() {
+        // When
+        EmissionsEstimate estimate = reactiveTrafficService.estimateEmissions(SEGMENT).block();
+        
+        // Then
+        assertEquals(emissionsService.estimateEmissionsForRoadSegment(SEGMENT).getCo2KgPerHour(),
+                estimate.getCo2KgPerHour());
+    }
+    
+    // A page still being read when the subscriber cancelled releases its connection asynchronously
+    private boolean awaitConnectionsReleased() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (reactiveDatabaseConfig.getPoolMetrics().acquiredSize() == 0) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+    
+    private long pagesQueried() {
+        return meterRegistry.find("traffic.data.operation").tag("operation", "reactive_page").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+}
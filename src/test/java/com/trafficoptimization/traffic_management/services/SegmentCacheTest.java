@@ -0,0 +1,74 @@
+package com.trafficoptimization.traffic_management.services;
+
+import com.trafficoptimization.traffic_management.config.CacheConfig;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.service.EmissionsService;
+import com.trafficoptimization.traffic_management.service.TrafficService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDateTime;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SegmentCacheTest {
+    
+    @Autowired
+    private TrafficService trafficService;
+    
+    @Autowired
+    private EmissionsService emissionsService;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void saveTrafficData_ShouldEvictOnlyTheSavedSegment() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        trafficService.saveTrafficData(new TrafficData(null, now, "CACHE-A", 20, 100.0, 0.2));
+        trafficService.saveTrafficData(new TrafficData(null, now, "CACHE-B", 40, 80.0, 0.4));
+        assertEquals(0.2, trafficService.calculateAverageCongestion("CACHE-A"), 1e-9);
+        assertEquals(0.4, trafficService.calculateAverageCongestion("CACHE-B"), 1e-9);
+        emissionsService.estimateEmissionsForRoadSegment("CACHE-A");
+        emissionsService.estimateEmissionsForRoadSegment("CACHE-B");
+        Cache congestion = cacheManager.getCache(CacheConfig.AVERAGE_CONGESTION);
+        Cache emissions = cacheManager.getCache(CacheConfig.EMISSIONS_ESTIMATES);
+        
+        // When
+        trafficService.saveTrafficData(new TrafficData(null, now, "CACHE-A", 90, 10.0, 0.8));
+        
+        // Then
+        assertNull(congestion.get("CACHE-A"));
+        assertNull(emissions.get("CACHE-A"));
+        assertNotNull(congestion.get("CACHE-B"));
+        assertNotNull(emissions.get("CACHE-B"));
+        assertEquals(0.5, trafficService.calculateAverageCongestion("CACHE-A"), 1e-9);
+        assertEquals(55, emissionsService.estimateEmissionsForRoadSegment("CACHE-A").getVehicleCount());
+    }
+    
+    @Test
+    void cacheStatistics_ShouldBeExposedAsMetrics() {
+        // When
+        trafficService.calculateAverageCongestion("CACHE-METRICS");
+        trafficService.calculateAverageCongestion("CACHE-METRICS");
+        
+        // Then
+        double hits = meterRegistry.get("cache.gets")
+                .tag("cache", CacheConfig.AVERAGE_CONGESTION).tag("result", "hit")
+                .functionCounter().count();
+        assertTrue(hits >= 1);
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", CacheConfig.EMISSIONS_ESTIMATES).meter());
+    }
+}
@@ -0,0 +1,99 @@
+package com.trafficoptimization.traffic_management.services;
+
+import com.trafficoptimization.traffic_management.model.CursorPage;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.model.TrafficQuery;
+import com.trafficoptimization.traffic_management.service.TrafficService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TrafficPagingTest {
+    
+    private static final String SEGMENT = "PAGING-A1";
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 6, 1, 12, 0);
+    
+    @Autowired
+    private TrafficService trafficService;
+    
+    @BeforeEach
+    void setUp() {
+        if (!trafficService.getTrafficDataByRoadSegment(SEGMENT).isEmpty()) {
+            return;
+        }
+        // 25 readings, several sharing a timestamp so the id tie-breaker is exercised
+        List<TrafficData> readings = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            readings.add(new TrafficData(null, BASE.plusMinutes(i / 3), SEGMENT, 10 + i, 50.0, i / 25.0));
+        }
+        trafficService.saveTrafficDataBatch(readings);
+    }
+    
+    @Test
+    void getTrafficDataPage_ShouldWalkEveryRowExactlyOnce() {
+        // When
+        List<TrafficData> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<TrafficData> page = trafficService.getTrafficDataPage(TrafficQuery.roadSegment(SEGMENT), cursor, 10);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        
+        // Then
+        assertEquals(3, pages);
+        assertEquals(25, seen.size());
+        Set<Long> ids = new HashSet<>();
+        seen.forEach(data -> ids.add(data.getId()));
+        assertEquals(25, ids.size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(!seen.get(i).getTimestamp().isBefore(seen.get(i - 1).getTimestamp()));
+        }
+    }
+    
+    @Test
+    void getTrafficDataPage_TimeRange_ShouldIncludeRangeBounds() {
+        // When
+        CursorPage<TrafficData> page = trafficService.getTrafficDataPage(
+                TrafficQuery.timeRange(BASE.plusMinutes(2), BASE.plusMinutes(3)), null, 100);
+        
+        // Then
+        assertEquals(6, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    void streamTrafficData_ShouldProduceSameRowsAsPaging() {
+        // When
+        List<TrafficData> streamed = new ArrayList<>();
+        trafficService.streamTrafficData(TrafficQuery.congestionPoints(SEGMENT, 0.5), streamed::add);
+        CursorPage<TrafficData> page = trafficService.getTrafficDataPage(
+                TrafficQuery.congestionPoints(SEGMENT, 0.5), null, 100);
+        
+        // Then
+        assertEquals(12, streamed.size());
+        assertEquals(page.getItems().stream().map(TrafficData::getId).toList(),
+                streamed.stream().map(TrafficData::getId).toList());
+    }
+    
+    @Test
+    void getTrafficDataPage_InvalidCursor_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> trafficService.getTrafficDataPage(TrafficQuery.all(), "not-a-cursor", 10));
+    }
+}
@@ -1,19 +1,29 @@
 package com.trafficoptimization.traffic_management.services;
 
+import com.trafficoptimization.traffic_management.aggregate.SegmentAggregateStore;
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.RecordIngestionResult;
 import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.recent.RecentReadingStore;
 import com.trafficoptimization.traffic_management.repository.TrafficDataRepository;
+import com.trafficoptimization.traffic_management.retention.RetentionWatermark;
+import com.trafficoptimization.traffic_management.segment.SegmentRegistry;
+import com.trafficoptimization.traffic_management.service.IngestionGate;
 import com.trafficoptimization.traffic_management.service.TrafficServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import jakarta.validation.Validation;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -22,7 +32,8 @@ class TrafficServiceImplTest {
     @Mock
     private TrafficDataRepository trafficDataRepository;
     
-    @InjectMocks
+    private SegmentAggregateStore aggregateStore;
+    
     private TrafficServiceImpl trafficService;
     
     private TrafficData trafficData1;
@@ -31,6 +42,14 @@ class TrafficServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        SegmentRegistry segmentRegistry = new SegmentRegistry();
+        aggregateStore = new SegmentAggregateStore(trafficDataRepository, segmentRegistry);
+        // Disabled, so every query goes to the repository
+        RecentReadingStore recentReadings = new RecentReadingStore(trafficDataRepository, segmentRegistry,
+                new SimpleMeterRegistry(), Duration.ofHours(6), 0);
+        trafficService = new TrafficServiceImpl(trafficDataRepository, aggregateStore, recentReadings,
+                new RetentionWatermark(trafficDataRepository), segmentRegistry, List.of(aggregateStore),
+                new IngestionGate(), Validation.buildDefaultValidatorFactory().getValidator(), new SimpleMeterRegistry(), 2);
         
         trafficData1 = new TrafficData(1L, LocalDateTime.now(), "A8-KM125-126", 85, 70.5, 0.65);
         trafficData2 = new TrafficData(2L, LocalDateTime.now(), "A8-KM125-126", 120, 45.2, 0.85);
@@ -53,6 +72,35 @@ class TrafficServiceImplTest {
         verify(trafficDataRepository, times(1)).save(any(TrafficData.class));
     }
     
+    @Test
+    void saveTrafficDataBatch_ShouldRejectInvalidRecordsAndBatchTheRest() {
+        // Given
+        TrafficData valid1 = new TrafficData(null, LocalDateTime.now(), "A8-KM125-126", 85, 70.5, null);
+        TrafficData invalid = new TrafficData(null, LocalDateTime.now(), null, 40, 85.3, 0.25);
+        TrafficData valid2 = new TrafficData(null, LocalDateTime.now(), "A8-KM125-126", 120, 45.2, 0.85);
+        TrafficData valid3 = new TrafficData(null, LocalDateTime.now(), "B27-KM45-46", 75, 60.8, null);
+        
+        when(trafficDataRepository.insertBatch(anyList())).thenAnswer(invocation -> {
+            List<TrafficData> chunk = invocation.getArgument(0);
+            chunk.forEach(data -> data.setId((long) data.getVehicleCount()));
+            return chunk;
+        });
+        
+        // When
+        BatchIngestionResult result = trafficService.saveTrafficDataBatch(Arrays.asList(valid1, invalid, valid2, valid3));
+        
+        // Then
+        assertEquals(4, result.getReceived());
+        assertEquals(3, result.getAccepted());
+        assertEquals(1, result.getRejected());
+        assertEquals(RecordIngestionResult.Status.REJECTED, result.getResults().get(1).getStatus());
+        assertEquals(120L, result.getResults().get(2).getId());
+        assertNotNull(valid1.getCongestionLevel());
+        assertNotNull(valid3.getCongestionLevel());
+        verify(trafficDataRepository, times(2)).insertBatch(anyList());
+        verify(trafficDataRepository, never()).save(any(TrafficData.class));
+    }
+    
     @Test
     void getAllTrafficData_ShouldReturnAllData() {
         // Given
@@ -86,8 +134,9 @@ class TrafficServiceImplTest {
     void calculateAverageCongestion_ShouldReturnCorrectAverage() {
         // Given
         String roadSegmentId = "A8-KM125-126";
-        List<TrafficData> dataList = Arrays.asList(trafficData1, trafficData2);
-        when(trafficDataRepository.findByRoadSegmentId(roadSegmentId)).thenReturn(dataList);
+        when(trafficDataRepository.save(any(TrafficData.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        trafficService.saveTrafficData(trafficData1);
+        trafficService.saveTrafficData(trafficData2);
         
         // Expected average: (0.65 + 0.85) / 2 = 0.75
         double expectedAverage = 0.75;
@@ -97,6 +146,11 @@ class TrafficServiceImplTest {
         
         // Then
         assertEquals(expectedAverage, result, 0.001);
-        verify(trafficDataRepository, times(1)).findByRoadSegmentId(roadSegmentId);
+        verify(trafficDataRepository, never()).findByRoadSegmentId(roadSegmentId);
+    }
+    
+    @Test
+    void calculateAverageCongestion_UnknownSegment_ShouldReturnZero() {
+        assertEquals(0.0, trafficService.calculateAverageCongestion("UNKNOWN"), 0.0);
     }
 }
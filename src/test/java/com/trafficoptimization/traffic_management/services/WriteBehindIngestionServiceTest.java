@@ -0,0 +1,140 @@
+package com.trafficoptimization.traffic_management.services;
+
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.RecordIngestionResult;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.service.TrafficService;
+import com.trafficoptimization.traffic_management.service.WriteBehindIngestionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+class WriteBehindIngestionServiceTest {
+    
+    @Mock
+    private TrafficService trafficService;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private WriteBehindIngestionService ingestionService;
+    private final List<TrafficData> written = new CopyOnWriteArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(trafficService.saveTrafficDataBatch(anyList())).thenAnswer(invocation -> {
+            List<TrafficData> batch = invocation.getArgument(0);
+            written.addAll(batch);
+            return accepted(batch.size());
+        });
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (ingestionService != null) {
+            ingestionService.shutdown();
+        }
+    }
+    
+    @Test
+    void enqueue_ShouldFlushQueuedReadingsInBatches() throws InterruptedException {
+        // Given
+        ingestionService = new WriteBehindIngestionService(trafficService, meterRegistry, 100, 1, 10, 20, 1000);
+        
+        // When
+        assertTrue(ingestionService.enqueue(readings(25)));
+        
+        // Then
+        long deadline = System.currentTimeMillis() + 5000;
+        while (written.size() < 25 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(25, written.size());
+        assertEquals(25.0, meterRegistry.get("traffic.ingest.flushed").counter().count());
+        assertTrue(meterRegistry.get("traffic.ingest.flush.latency").timer().count() >= 3);
+    }
+    
+    @Test
+    void enqueue_ShouldRefuseWholeBatchWhenQueueIsFull() throws InterruptedException {
+        // Given a writer that is blocked so nothing leaves the queue
+        CountDownLatch release = new CountDownLatch(1);
+        when(trafficService.saveTrafficDataBatch(anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return accepted(((List<?>) invocation.getArgument(0)).size());
+        });
+        ingestionService = new WriteBehindIngestionService(trafficService, meterRegistry, 10, 1, 1, 20, 1000);
+        assertTrue(ingestionService.enqueue(readings(1)));
+        Thread.sleep(50);
+        
+        // When & Then
+        assertTrue(ingestionService.enqueue(readings(10)));
+        assertFalse(ingestionService.enqueue(readings(1)));
+        assertEquals(1.0, meterRegistry.get("traffic.ingest.dropped").tag("reason", "queue_full").counter().count());
+        release.countDown();
+    }
+    
+    @Test
+    void enqueue_EmptyRecords_ShouldBeDroppedWithoutLosingCapacity() throws InterruptedException {
+        // Given
+        ingestionService = new WriteBehindIngestionService(trafficService, meterRegistry, 2, 1, 10, 20, 1000);
+        List<TrafficData> batch = new ArrayList<>(readings(1));
+        batch.add(null);
+        
+        // When
+        assertTrue(ingestionService.enqueue(batch));
+        
+        // Then only the reading is written, and the full capacity is available again afterwards
+        long deadline = System.currentTimeMillis() + 5000;
+        while (written.size() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, written.size());
+        assertEquals(1.0, meterRegistry.get("traffic.ingest.dropped").tag("reason", "write_rejected").counter().count());
+        assertTrue(ingestionService.enqueue(readings(2)));
+    }
+    
+    @Test
+    void shutdown_ShouldDrainRemainingReadings() throws InterruptedException {
+        // Given
+        ingestionService = new WriteBehindIngestionService(trafficService, meterRegistry, 1000, 2, 50, 10_000, 5000);
+        assertTrue(ingestionService.enqueue(readings(120)));
+        
+        // When
+        ingestionService.shutdown();
+        
+        // Then
+        assertEquals(120, written.size());
+        assertEquals(0, ingestionService.getQueueDepth());
+        assertFalse(ingestionService.enqueue(readings(1)));
+    }
+    
+    private static List<TrafficData> readings(int count) {
+        List<TrafficData> readings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            readings.add(new TrafficData(null, LocalDateTime.now(), "A8-KM125-126", 50 + i, 80.0, null));
+        }
+        return readings;
+    }
+    
+    private static BatchIngestionResult accepted(int size) {
+        BatchIngestionResult result = new BatchIngestionResult();
+        for (int i = 0; i < size; i++) {
+            result.add(RecordIngestionResult.accepted(i, (long) i));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,133 @@
+package com.trafficoptimization.traffic_management.wal;
+
+import com.trafficoptimization.traffic_management.config.WorkerThreads;
+import com.trafficoptimization.traffic_management.model.BatchIngestionResult;
+import com.trafficoptimization.traffic_management.model.RecordIngestionResult;
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import com.trafficoptimization.traffic_management.service.TrafficService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+class EventLogIngestionServiceTest {
+    
+    @Mock
+    private TrafficService trafficService;
+    
+    @TempDir
+    Path directory;
+    
+    private EventLogIngestionService ingestionService;
+    private final List<TrafficData> written = new CopyOnWriteArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        if (ingestionService != null) {
+            ingestionService.shutdown();
+        }
+    }
+    
+    @Test
+    void enqueue_ShouldAcknowledgeAndProjectLoggedReadings() throws Exception {
+        // Given
+        acceptAll();
+        ingestionService = start();
+        
+        // When
+        assertTrue(ingestionService.enqueue(TrafficEventLogTest.readings(0, 25)));
+        
+        // Then
+        awaitProjected(25);
+        assertEquals(TrafficEventLogTest.readings(0, 25), written);
+        assertEquals(0, ingestionService.getBacklog());
+    }
+    
+    @Test
+    void start_ShouldProjectWhatWasLoggedButNotProjectedBeforeRestart() throws Exception {
+        // Given the database is down while readings are acknowledged
+        when(trafficService.saveTrafficDataBatch(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"));
+        ingestionService = start();
+        assertTrue(ingestionService.enqueue(TrafficEventLogTest.readings(0, 25)));
+        ingestionService.shutdown();
+        assertEquals(0, ingestionService.getProjectedSequence());
+        
+        // When the service restarts with the database back
+        acceptAll();
+        ingestionService = start();
+        
+        // Then
+        awaitProjected(25);
+        assertEquals(TrafficEventLogTest.readings(0, 25), written);
+        
+        // And after another restart nothing is projected twice
+        ingestionService.shutdown();
+        ingestionService = start();
+        assertTrue(ingestionService.enqueue(TrafficEventLogTest.readings(25, 1)));
+        awaitProjected(26);
+        assertEquals(TrafficEventLogTest.readings(0, 26), written);
+    }
+    
+    @Test
+    void enqueue_WithUnloggableReading_ShouldDropOnlyThatReading() throws Exception {
+        // Given
+        acceptAll();
+        ingestionService = start();
+        List<TrafficData> batch = new ArrayList<>(TrafficEventLogTest.readings(0, 2));
+        batch.add(new TrafficData(null, null, "A8-KM125-126", 85, 70.5, 0.65));
+        
+        // When
+        assertTrue(ingestionService.enqueue(batch));
+        
+        // Then
+        awaitProjected(2);
+        assertEquals(TrafficEventLogTest.readings(0, 2), written);
+    }
+    
+    private EventLogIngestionService start() throws IOException {
+        TrafficEventLog eventLog = new TrafficEventLog(directory, 4096, FsyncPolicy.NEVER);
+        return new EventLogIngestionService(trafficService, new SimpleMeterRegistry(), WorkerThreads.platform(),
+                eventLog, 200, Duration.ofDays(1), 10, 20, 500);
+    }
+    
+    private void acceptAll() {
+        doAnswer(invocation -> {
+            List<TrafficData> batch = invocation.getArgument(0);
+            written.addAll(batch);
+            BatchIngestionResult result = new BatchIngestionResult();
+            for (int i = 0; i < batch.size(); i++) {
+                result.add(RecordIngestionResult.accepted(i, (long) i));
+            }
+            return result;
+        }).when(trafficService).saveTrafficDataBatch(anyList());
+    }
+    
+    private void awaitProjected(long sequence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (ingestionService.getProjectedSequence() < sequence && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(sequence, ingestionService.getProjectedSequence());
+    }
+}
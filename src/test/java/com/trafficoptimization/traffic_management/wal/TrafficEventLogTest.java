@@ -0,0 +1,175 @@
+package com.trafficoptimization.traffic_management.wal;
+
+import com.trafficoptimization.traffic_management.model.TrafficData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrafficEventLogTest {
+    
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 10, 8, 0, 0, 123_456_789);
+    
+    // Room for about 20 records per segment
+    private static final int SEGMENT_SIZE = 1400;
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void append_ShouldRollSegmentsAndBeReadInOrderAfterReopening() throws IOException {
+        // Given
+        List<TrafficData> readings = readings(0, 100);
+        try (TrafficEventLog eventLog = new TrafficEventLog(directory, SEGMENT_SIZE, FsyncPolicy.NEVER)) {
+            assertEquals(50, eventLog.append(readings.subList(0, 50)));
+            assertEquals(100, eventLog.append(readings.subList(50, 100)));
+        }
+        
+        // When
+        try (TrafficEventLog reopened = new TrafficEventLog(directory, SEGMENT_SIZE, FsyncPolicy.NEVER)) {
+            
+            // Then
+            assertTrue(segmentFiles().size() > 4);
+            assertEquals(100, reopened.getLastSequence());
+            assertEquals(readings, readAll(reopened.cursor(1)));
+            assertEquals(readings.subList(60, 100), readAll(reopened.cursor(61)));
+            assertEquals(101, reopened.append(readings(100, 1)));
+        }
+    }
+    
+    @Test
+    void open_ShouldDiscardTornTailAndAppendAfterLastWholeRecord() throws IOException {
+        // Given
+        try (TrafficEventLog eventLog = new TrafficEventLog(directory, SEGMENT_SIZE, FsyncPolicy.ALWAYS)) {
+            eventLog.append(readings(0, 3));
+        }
+        // Corrupt the body of the third record as if the process died while writing it
+        Path segment = segmentFiles().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long thirdRecordBody = 2 * (8 + 43 + readings(0, 1).get(0).getRoadSegmentId().length()) + 8 + 30;
+            file.seek(thirdRecordBody);
+            file.write(0x7F);
+        }
+        
+        // When
+        try (TrafficEventLog reopened = new TrafficEventLog(directory, SEGMENT_SIZE, FsyncPolicy.NEVER)) {
+            
+            // Then
+            assertEquals(2, reopened.getLastSequence());
+            assertEquals(3, reopened.append(readings(5, 1)));
+            assertEquals(List.of(readings(0, 2).get(0), readings(0, 2).get(1), readings(5, 1).get(0)),
+                    readAll(reopened.cursor(1)));
+        }
+    }
+    
+    @Test
+    void cursor_ShouldFollowConcurrentAppends() throws IOException {
+        try (TrafficEventLog eventLog = new TrafficEventLog(directory, SEGMENT_SIZE, FsyncPolicy.NEVER)) {
+            TrafficEventLog.Cursor cursor = eventLog.cursor(1);
+            List<TrafficData> read = new ArrayList<>();
+            assertEquals(0, cursor.read(10, read));
+            
+            eventLog.append(readings(0, 15));
+            assertEquals(10, cursor.read(10, read));
+            eventLog.append(readings(15, 30));
+            
+            assertEquals(35, cursor.read(100, read));
+            assertEquals(readings(0, 45), read);
+            assertEquals(46, cursor.getNextSequence());
+        }
+    }
+    
+    @Test
+    void replay_ShouldReturnReadingsInTimeRangeOnly() throws IOException {
+        try (TrafficEventLog eventLog = new TrafficEventLog(directory, SEGMENT_SIZE, FsyncPolicy.NEVER)) {
+            eventLog.append(readings(0, 100));
+            List<TrafficData> replayed = new ArrayList<>();
+            
+            eventLog.replay(BASE.plusMinutes(30), BASE.plusMinutes(39), replayed::add);
+            
+            assertEquals(readings(30, 10), replayed);
+        }
+    }
+    
+    @Test
+    void deleteSegments_ShouldKeepUnprojectedAndActiveSegments() throws IOException {
+        try (TrafficEventLog eventLog = new TrafficEventLog(directory, SEGMENT_SIZE, FsyncPolicy.NEVER)) {
+            eventLog.append(readings(0, 100));
+            int before = segmentFiles().size();
+            
+            int deleted = eventLog.deleteSegments(50, Instant.now().plusSeconds(60));
+            
+            assertTrue(deleted > 0);
+            assertEquals(before - deleted, segmentFiles().size());
+            assertTrue(eventLog.getFirstSequence() <= 51);
+            assertEquals(readings(50, 50), readAll(eventLog.cursor(51)));
+            // A cursor behind the retained segments starts at the oldest one
+            assertEquals(eventLog.getFirstSequence(), eventLog.cursor(1).getNextSequence());
+        }
+    }
+    
+    @Test
+    void deleteSegments_FutureTimestamps_ShouldNotPinLoggedSegments() throws IOException {
+        try (TrafficEventLog eventLog = new TrafficEventLog(directory, SEGMENT_SIZE, FsyncPolicy.NEVER)) {
+            // Given readings stamped a year ahead, logged and projected
+            List<TrafficData> future = new ArrayList<>();
+            for (TrafficData data : readings(0, 100)) {
+                future.add(new TrafficData(null, data.getTimestamp().plusYears(1), data.getRoadSegmentId(),
+                        data.getVehicleCount(), data.getAverageSpeed(), data.getCongestionLevel()));
+            }
+            eventLog.append(future);
+            
+            // When retention has passed since they were logged
+            assertEquals(0, eventLog.deleteSegments(100, Instant.now().minusSeconds(60)));
+            int deleted = eventLog.deleteSegments(100, Instant.now().plusSeconds(60));
+            
+            // Then every sealed segment goes
+            assertTrue(deleted > 0);
+            assertEquals(1, segmentFiles().size());
+        }
+    }
+    
+    @Test
+    void append_WithoutTimestamp_ShouldFailWithoutWriting() throws IOException {
+        try (TrafficEventLog eventLog = new TrafficEventLog(directory, SEGMENT_SIZE, FsyncPolicy.NEVER)) {
+            List<TrafficData> batch = new ArrayList<>(readings(0, 2));
+            batch.add(new TrafficData(null, null, "A8-KM125-126", 85, 70.5, 0.65));
+            
+            assertThrows(IllegalArgumentException.class, () -> eventLog.append(batch));
+            assertEquals(0, eventLog.getLastSequence());
+        }
+    }
+    
+    static List<TrafficData> readings(int from, int count) {
+        List<TrafficData> readings = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            readings.add(new TrafficData(null, BASE.plusMinutes(i), "A8-KM" + (i % 7), 80 + i,
+                    i % 3 == 0 ? null : 50.0 + i, i % 5 == 0 ? null : i / 200.0));
+        }
+        return readings;
+    }
+    
+    private static List<TrafficData> readAll(TrafficEventLog.Cursor cursor) {
+        List<TrafficData> read = new ArrayList<>();
+        while (cursor.read(7, read) > 0) {
+            // Small reads cross segment boundaries mid-batch
+        }
+        return read;
+    }
+    
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}